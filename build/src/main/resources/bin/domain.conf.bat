@@ -55,6 +55,10 @@ set "JAVA_OPTS=%JAVA_OPTS% -Djboss.modules.system.pkgs=org.jboss.byteman"
 rem # Use JBoss Modules lockless mode
 rem set "JAVA_OPTS=%JAVA_OPTS% -Djboss.modules.lockless=true"
 
+rem # Write configuration changes in the background, at most
+rem # the given number of milliseconds after they are committed
+rem set "JAVA_OPTS=%JAVA_OPTS% -Djboss.config.write-behind-delay=1000"
+
 rem The ProcessController process uses its own set of java options
 set "PROCESS_CONTROLLER_JAVA_OPTS=%JAVA_OPTS%"
 
@@ -64,4 +64,8 @@ rem set "JAVA_OPTS=%JAVA_OPTS% -agentlib:jdwp=transport=dt_shmem,address=jboss,s
 rem # Use JBoss Modules lockless mode
 rem set "JAVA_OPTS=%JAVA_OPTS% -Djboss.modules.lockless=true"
 
+rem # Write configuration changes in the background, at most
+rem # the given number of milliseconds after they are committed
+rem set "JAVA_OPTS=%JAVA_OPTS% -Djboss.config.write-behind-delay=1000"
+
 :JAVA_OPTS_SET
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.marshalling;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A growable buffer into which objects are marshalled.
+ * Each thread reuses its buffer, and a new buffer is initially sized according to the size of the last marshalled object of the same type,
+ * so that marshalling an object typically neither allocates, nor grows, nor copies a buffer.
+ */
+class MarshallingBuffer extends ByteArrayOutputStream {
+    // Larger buffers are not retained by the thread
+    static final int MAX_POOLED_SIZE = 64 * 1024;
+    private static final int MIN_SIZE = 256;
+
+    private static final ThreadLocal<MarshallingBuffer> BUFFER = new ThreadLocal<>();
+    private static final ThreadLocal<MessageDigest> DIGEST = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+    // Associated with the class itself, so as not to prevent its class loader from being collected
+    private static final ClassValue<AtomicInteger> PREDICTED_SIZES = new ClassValue<AtomicInteger>() {
+        @Override
+        protected AtomicInteger computeValue(Class<?> type) {
+            return new AtomicInteger(MIN_SIZE);
+        }
+    };
+
+    /**
+     * Obtains an empty buffer for marshalling an object of the specified type.
+     * The buffer must be {@link #release() released} once its content was consumed.
+     * @param type the type of the object to be marshalled
+     * @return an empty buffer
+     */
+    static MarshallingBuffer acquire(Class<?> type) {
+        AtomicInteger predictedSize = PREDICTED_SIZES.get(type);
+        int size = predictedSize.get();
+        MarshallingBuffer buffer = BUFFER.get();
+        if (buffer != null) {
+            // Marshalling may be reentrant, e.g. if the marshalled object contains marshalled values
+            BUFFER.set(null);
+            buffer.reset();
+            if (buffer.buf.length < size) {
+                buffer.buf = new byte[size];
+            }
+        } else {
+            buffer = new MarshallingBuffer(size);
+        }
+        buffer.predictedSize = predictedSize;
+        return buffer;
+    }
+
+    private AtomicInteger predictedSize;
+
+    private MarshallingBuffer(int size) {
+        super(size);
+    }
+
+    /**
+     * Returns the internal buffer, whose first {@link #size()} bytes are the marshalled content.
+     * @return a byte array
+     */
+    byte[] getBuffer() {
+        return this.buf;
+    }
+
+    /**
+     * Writes the specified value as 4 bytes, high byte first, as per {@link java.io.DataOutput#writeInt(int)}.
+     * @param value an integer
+     */
+    void writeInt(int value) {
+        this.write(value >>> 24);
+        this.write(value >>> 16);
+        this.write(value >>> 8);
+        this.write(value);
+    }
+
+    /**
+     * Computes the digest of the content of this buffer.
+     * @return a SHA-1 digest
+     */
+    byte[] digest() {
+        return digest(this.buf, this.count);
+    }
+
+    /**
+     * Records the size of the content of this buffer for the marshalled type, and returns this buffer to the current thread for reuse.
+     */
+    void release() {
+        this.predictedSize.set(Math.max(this.count, MIN_SIZE));
+        this.predictedSize = null;
+        if (this.buf.length <= MAX_POOLED_SIZE) {
+            BUFFER.set(this);
+        }
+    }
+
+    /**
+     * Computes the digest of the specified bytes.
+     * @param bytes a byte array
+     * @param length the number of bytes to digest
+     * @return a SHA-1 digest
+     */
+    static byte[] digest(byte[] bytes, int length) {
+        MessageDigest digest = DIGEST.get();
+        digest.update(bytes, 0, length);
+        return digest.digest();
+    }
+}
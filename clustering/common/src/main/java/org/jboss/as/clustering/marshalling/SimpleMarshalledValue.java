@@ -23,17 +23,15 @@
 package org.jboss.as.clustering.marshalling;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.security.MessageDigest;
 import java.util.Arrays;
 
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.Marshalling;
-import org.jboss.marshalling.SimpleDataInput;
-import org.jboss.marshalling.SimpleDataOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
@@ -48,6 +46,10 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
     private transient volatile MarshallingContext context;
     private transient volatile T object;
     private transient volatile byte[] bytes;
+    // Indicates whether a digest of the serialized form is kept, i.e. whether modifications are tracked
+    private transient volatile boolean tracked = false;
+    // Digest of the serialized form in which this value was last written or read, if tracked
+    private transient volatile byte[] digest;
 
     public SimpleMarshalledValue(T object, MarshallingContext context) {
         this.context = context;
@@ -66,18 +68,31 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
     byte[] getBytes() throws IOException {
         byte[] bytes = this.bytes;
         if (bytes != null) return bytes;
-        if (this.object == null) return null;
+        T object = this.object;
+        if (object == null) return null;
+        MarshallingBuffer buffer = this.marshal(object);
+        try {
+            return buffer.toByteArray();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private MarshallingBuffer marshal(T object) throws IOException {
+        MarshallingBuffer buffer = MarshallingBuffer.acquire(object.getClass());
         int version = this.context.getCurrentVersion();
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
         ClassLoader loader = setThreadContextClassLoader(this.context.getClassLoader());
-        try (SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output))) {
-            data.writeInt(version);
+        try {
+            buffer.writeInt(version);
             try (Marshaller marshaller = this.context.createMarshaller(version)) {
-                marshaller.start(data);
-                marshaller.writeObject(this.object);
+                marshaller.start(Marshalling.createByteOutput(buffer));
+                marshaller.writeObject(object);
                 marshaller.finish();
-                return output.toByteArray();
             }
+            return buffer;
+        } catch (IOException | RuntimeException | Error e) {
+            buffer.release();
+            throw e;
         } finally {
             setThreadContextClassLoader(loader);
         }
@@ -92,16 +107,19 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         if (this.object == null) {
             this.context = context;
             if (this.bytes != null) {
-                ByteArrayInputStream input = new ByteArrayInputStream(this.bytes);
+                byte[] bytes = this.bytes;
+                // Equivalent to DataInput.readInt()
+                int version = ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+                ByteArrayInputStream input = new ByteArrayInputStream(bytes, 4, bytes.length - 4);
                 ClassLoader loader = setThreadContextClassLoader(this.context.getClassLoader());
-                try (SimpleDataInput data = new SimpleDataInput(Marshalling.createByteInput(input))) {
-                    int version = data.readInt();
-                    try (Unmarshaller unmarshaller = context.createUnmarshaller(version)) {
-                        unmarshaller.start(data);
-                        this.object = (T) unmarshaller.readObject();
-                        unmarshaller.finish();
-                        this.bytes = null; // Free up memory
+                try (Unmarshaller unmarshaller = context.createUnmarshaller(version)) {
+                    unmarshaller.start(Marshalling.createByteInput(input));
+                    this.object = (T) unmarshaller.readObject();
+                    unmarshaller.finish();
+                    if (this.tracked) {
+                        this.digest = MarshallingBuffer.digest(bytes, bytes.length);
                     }
+                    this.bytes = null; // Free up memory
                 } finally {
                     setThreadContextClassLoader(loader);
                 }
@@ -110,6 +128,35 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         return this.object;
     }
 
+    /**
+     * Tracks modifications of the object of this value, i.e. keeps a digest of the serialized form in which this value is
+     * subsequently written or read.  Computing the digest adds to the cost of each serialization, so only values whose
+     * modifications are checked via {@link #isModified()} should be tracked.
+     */
+    public void trackModifications() {
+        this.tracked = true;
+    }
+
+    /**
+     * Indicates whether the serialized form of the object differs from the form in which this value was last written or read,
+     * i.e. whether a mutable object was modified since this value was last replicated.
+     * This requires the object to be serialized, but is typically still cheaper than replicating an unmodified object.
+     * @return false, if the object is known to be unmodified, true otherwise, or if modifications of this value are not tracked
+     * @throws IOException if the object could not be serialized
+     */
+    public boolean isModified() throws IOException {
+        // Not yet rehydrated, so the object cannot have been modified
+        if (this.object == null) return false;
+        byte[] digest = this.digest;
+        if (digest == null) return true;
+        MarshallingBuffer buffer = this.marshal(this.object);
+        try {
+            return !MessageDigest.isEqual(digest, buffer.digest());
+        } finally {
+            buffer.release();
+        }
+    }
+
     /**
      * {@inheritDoc}
      * N.B. Calls to hashCode will return 0 if this marshalled value was deserialized but its object not yet rehydrated.
@@ -147,12 +194,31 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
 
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
-        byte[] bytes = this.getBytes();
+        byte[] bytes = this.bytes;
         if (bytes != null) {
             out.writeInt(bytes.length);
             out.write(bytes);
-        } else {
+            if (this.tracked) {
+                this.digest = MarshallingBuffer.digest(bytes, bytes.length);
+            }
+            return;
+        }
+        T object = this.object;
+        if (object == null) {
             out.writeInt(0);
+            this.digest = null;
+            return;
+        }
+        // Write directly from the marshalling buffer, rather than from a copy of its content
+        MarshallingBuffer buffer = this.marshal(object);
+        try {
+            out.writeInt(buffer.size());
+            out.write(buffer.getBuffer(), 0, buffer.size());
+            if (this.tracked) {
+                this.digest = buffer.digest();
+            }
+        } finally {
+            buffer.release();
         }
     }
 
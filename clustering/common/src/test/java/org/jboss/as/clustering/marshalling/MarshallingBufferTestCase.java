@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.marshalling;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MarshallingBuffer}.
+ */
+public class MarshallingBufferTestCase {
+
+    @Test
+    public void reuse() {
+        MarshallingBuffer buffer = MarshallingBuffer.acquire(Object.class);
+        buffer.write(1);
+        buffer.release();
+
+        MarshallingBuffer reused = MarshallingBuffer.acquire(Object.class);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.size());
+
+        // A reentrant acquisition must not share the buffer in use
+        MarshallingBuffer nested = MarshallingBuffer.acquire(Object.class);
+        assertNotSame(reused, nested);
+        nested.release();
+        reused.release();
+    }
+
+    @Test
+    public void predictSize() {
+        MarshallingBuffer buffer = MarshallingBuffer.acquire(String.class);
+        buffer.write(new byte[MarshallingBuffer.MAX_POOLED_SIZE * 2], 0, MarshallingBuffer.MAX_POOLED_SIZE * 2);
+        // Too large to be retained
+        buffer.release();
+
+        MarshallingBuffer next = MarshallingBuffer.acquire(String.class);
+        assertNotSame(buffer, next);
+        assertTrue(next.getBuffer().length >= MarshallingBuffer.MAX_POOLED_SIZE * 2);
+        next.release();
+    }
+
+    @Test
+    public void writeInt() throws Exception {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(expected)) {
+            output.writeInt(-2);
+            output.writeInt(0x01020304);
+        }
+        MarshallingBuffer buffer = MarshallingBuffer.acquire(Integer.class);
+        try {
+            buffer.writeInt(-2);
+            buffer.writeInt(0x01020304);
+            assertArrayEquals(expected.toByteArray(), buffer.toByteArray());
+        } finally {
+            buffer.release();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.marshalling;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.SimpleDataOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost, and in particular the allocation rate (reported by the GC profiler as {@code gc.alloc.rate.norm}),
+ * of replicating a {@link SimpleMarshalledValue}. {@link #unpooled()} marshals the value the way it used to be marshalled,
+ * i.e. into a new growable stream whose content is then copied.
+ *
+ * <p>Not a test, run it using {@link #main(String[])} from the test class path.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SimpleMarshalledValueBenchmark {
+
+    /** The number of entries of the marshalled map. */
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    private MarshallingContext context;
+    private Map<String, String> object;
+    private ObjectOutput output;
+
+    @Setup
+    public void setUp() {
+        VersionedMarshallingConfiguration configuration = new VersionedMarshallingConfiguration() {
+            @Override
+            public int getCurrentMarshallingVersion() {
+                return 0;
+            }
+
+            @Override
+            public MarshallingConfiguration getMarshallingConfiguration(int version) {
+                return new MarshallingConfiguration();
+            }
+        };
+        this.context = new SimpleMarshallingContext(Marshalling.getMarshallerFactory("river", Marshalling.class.getClassLoader()), configuration, Thread.currentThread().getContextClassLoader());
+        this.object = new HashMap<>();
+        for (int i = 0; i < this.size; ++i) {
+            this.object.put("key" + i, "value" + i);
+        }
+        this.output = new DiscardingObjectOutput();
+    }
+
+    @Benchmark
+    public ObjectOutput pooled() throws IOException {
+        new SimpleMarshalledValue<>(this.object, this.context).writeExternal(this.output);
+        return this.output;
+    }
+
+    @Benchmark
+    public ObjectOutput unpooled() throws IOException {
+        int version = this.context.getCurrentVersion();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        byte[] bytes;
+        try (SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(stream))) {
+            data.writeInt(version);
+            try (Marshaller marshaller = this.context.createMarshaller(version)) {
+                marshaller.start(data);
+                marshaller.writeObject(this.object);
+                marshaller.finish();
+                bytes = stream.toByteArray();
+            }
+        }
+        this.output.writeInt(bytes.length);
+        this.output.write(bytes);
+        return this.output;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SimpleMarshalledValueBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+    }
+
+    /**
+     * Stands in for the output of the cache marshaller, without retaining what is written to it.
+     */
+    private static class DiscardingObjectOutput extends DataOutputStream implements ObjectOutput {
+        DiscardingObjectOutput() {
+            super(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                }
+            });
+        }
+
+        @Override
+        public void writeObject(Object object) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
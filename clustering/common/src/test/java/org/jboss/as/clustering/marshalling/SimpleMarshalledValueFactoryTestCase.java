@@ -28,6 +28,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import org.jboss.as.clustering.marshalling.MarshallingContext;
@@ -143,6 +145,44 @@ public class SimpleMarshalledValueFactoryTestCase {
         assertEquals(0, mv.hashCode());
     }
 
+    /**
+     * Test method for {@link SimpleMarshalledValue#isModified()}.
+     */
+    @Test
+    public void isModified() throws Exception {
+        List<String> list = new ArrayList<>();
+        list.add("a");
+        SimpleMarshalledValue<List<String>> mv = this.factory.createMarshalledValue(list);
+        mv.trackModifications();
+
+        // Not yet replicated
+        assertTrue(mv.isModified());
+
+        SimpleMarshalledValue<List<String>> copy = replicate(mv);
+        copy.trackModifications();
+        assertFalse(mv.isModified());
+
+        list.add("b");
+        assertTrue(mv.isModified());
+
+        assertFalse(copy.isModified());
+        List<String> copyList = copy.get(this.context);
+        assertFalse(copy.isModified());
+
+        copyList.remove("a");
+        assertTrue(copy.isModified());
+
+        copyList.add(0, "a");
+        assertFalse(copy.isModified());
+
+        // Without tracking, values are always considered modified
+        SimpleMarshalledValue<List<String>> untracked = this.factory.createMarshalledValue(list);
+        SimpleMarshalledValue<List<String>> untrackedCopy = replicate(untracked);
+        assertTrue(untracked.isModified());
+        untrackedCopy.get(this.context);
+        assertTrue(untrackedCopy.isModified());
+    }
+
     <T> void validateHashCode(T original, SimpleMarshalledValue<T> copy) {
         assertEquals(0, copy.hashCode());
     }
@@ -22,12 +22,20 @@
 package org.wildfly.clustering.ejb.infinispan;
 
 import java.security.AccessController;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.clustering.concurrent.Scheduler;
 import org.jboss.as.clustering.infinispan.invoker.Evictor;
@@ -40,6 +48,11 @@ import org.wildfly.security.manager.GetAccessControlContextAction;
 
 /**
  * Schedules a bean for eviction.
+ * Idle beans are tracked by a concurrent clock: beans are queued in the order in which they became idle,
+ * and a bean that is scheduled again while still idle gets a second chance before it is evicted.
+ * Once the number of idle beans exceeds the configured maximum, a fixed number of workers evict the least recently used beans,
+ * several beans per batch.  Threads scheduling beans never wait for the workers: if the workers cannot keep up,
+ * the eviction backlog grows until they catch up.  Idle workers terminate after {@link #KEEP_ALIVE} milliseconds.
  *
  * @author Paul Ferraro
  *
@@ -49,14 +62,36 @@ import org.wildfly.security.manager.GetAccessControlContextAction;
  */
 public class BeanEvictionScheduler<G, I, T> implements Scheduler<Bean<G, I, T>> {
 
-    private final Set<I> evictionQueue = new LinkedHashSet<>();
+    // Eviction is limited by contention within the cache, so there is little use for more workers
+    static final int WORKERS = 2;
+    // The maximum number of beans evicted per batch
+    static final int BATCH_SIZE = 16;
+    // The time after which an idle worker thread terminates
+    static final long KEEP_ALIVE = TimeUnit.MINUTES.toMillis(1);
+    // The number of cancelled beans that may remain queued before the queue is purged
+    private static final int MIN_PURGE_SIZE = 1024;
+
     final Batcher batcher;
     final Evictor<I> evictor;
     private final ExecutorService executor;
     private final BeanPassivationConfiguration config;
+    private final ConcurrentMap<I, Entry<I>> entries = new ConcurrentHashMap<>();
+    // May contain entries of beans that were cancelled since they were queued
+    private final Queue<Entry<I>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger idle = new AtomicInteger();
+    private final AtomicInteger workers = new AtomicInteger();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong evictionTime = new AtomicLong();
 
     public BeanEvictionScheduler(Batcher batcher, Evictor<I> evictor, BeanPassivationConfiguration config) {
-        this(batcher, evictor, config, Executors.newCachedThreadPool(createThreadFactory()));
+        this(batcher, evictor, config, createExecutor());
+    }
+
+    private static ExecutorService createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKERS, WORKERS, KEEP_ALIVE, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), createThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     private static ThreadFactory createThreadFactory() {
@@ -72,54 +107,176 @@ public class BeanEvictionScheduler<G, I, T> implements Scheduler<Bean<G, I, T>>
 
     @Override
     public void cancel(Bean<G, I, T> bean) {
-        synchronized (this.evictionQueue) {
-            this.evictionQueue.remove(bean.getId());
+        // The queued entry is discarded lazily
+        if (this.entries.remove(bean.getId()) != null) {
+            this.idle.decrementAndGet();
         }
     }
 
     @Override
     public void schedule(Bean<G, I, T> bean) {
-        synchronized (this.evictionQueue) {
-            this.evictionQueue.add(bean.getId());
-            // Trigger eviction of oldest bean if necessary
-            if (this.evictionQueue.size() > this.config.getMaxSize()) {
-                Iterator<I> beans = this.evictionQueue.iterator();
-                this.executor.submit(new EvictionTask(beans.next()));
-                beans.remove();
-            }
+        Entry<I> entry = new Entry<>(bean.getId());
+        Entry<I> existing = this.entries.putIfAbsent(entry.id, entry);
+        if (existing != null) {
+            existing.referenced = true;
+            return;
+        }
+        int idle = this.idle.incrementAndGet();
+        this.queue.offer(entry);
+        int queued = this.queued.incrementAndGet();
+        int backlog = idle - this.config.getMaxSize();
+        if ((backlog > 0) || (queued - idle > this.getMaxPurgeSize())) {
+            // Does nothing if all workers are busy, since they keep evicting until the backlog is cleared
+            this.submit();
         }
     }
 
     @Override
     public void close() {
-        synchronized (this.evictionQueue) {
-            this.evictionQueue.clear();
-        }
+        this.entries.clear();
+        this.queue.clear();
+        this.queued.set(0);
+        this.idle.set(0);
         this.executor.shutdown();
     }
 
-    private class EvictionTask implements Runnable {
-        private final I id;
+    /**
+     * Returns the number of beans evicted by this scheduler.
+     * @return a number of beans
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.get();
+    }
 
-        EvictionTask(I id) {
-            this.id = id;
+    /**
+     * Returns the total time spent evicting beans.
+     * @return a time in milliseconds
+     */
+    public long getEvictionTime() {
+        return TimeUnit.NANOSECONDS.toMillis(this.evictionTime.get());
+    }
+
+    /**
+     * Returns the number of idle beans in excess of the maximum size, i.e. the number of beans awaiting eviction.
+     * @return a number of beans
+     */
+    public int getEvictionBacklog() {
+        return Math.max(this.idle.get() - this.config.getMaxSize(), 0);
+    }
+
+    private int getMaxPurgeSize() {
+        return Math.max(this.config.getMaxSize(), MIN_PURGE_SIZE);
+    }
+
+    boolean isEvictionRequired() {
+        int idle = this.idle.get();
+        return (idle > this.config.getMaxSize()) || (this.queued.get() - idle > this.getMaxPurgeSize());
+    }
+
+    private void submit() {
+        int current = this.workers.get();
+        while (current < WORKERS) {
+            if (this.workers.compareAndSet(current, current + 1)) {
+                try {
+                    this.executor.submit(new EvictionTask());
+                } catch (RejectedExecutionException e) {
+                    // Scheduler was closed
+                    this.workers.decrementAndGet();
+                }
+                return;
+            }
+            current = this.workers.get();
         }
+    }
 
+    /**
+     * Removes the queued entries of cancelled beans.
+     */
+    void purge() {
+        for (int i = this.queued.get(); i > 0; --i) {
+            Entry<I> entry = this.queue.poll();
+            if (entry == null) return;
+            this.queued.decrementAndGet();
+            if (this.entries.get(entry.id) == entry) {
+                this.queue.offer(entry);
+                this.queued.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Evicts the least recently used beans in excess of the maximum size, up to {@link #BATCH_SIZE} beans, within a single batch.
+     * @return the number of evicted beans
+     */
+    int evict() {
+        List<I> ids = new ArrayList<>(BATCH_SIZE);
+        // Every queued entry is visited at most twice
+        int remaining = 2 * this.queued.get();
+        while ((ids.size() < BATCH_SIZE) && (this.idle.get() > this.config.getMaxSize()) && (remaining-- > 0)) {
+            Entry<I> entry = this.queue.poll();
+            if (entry == null) break;
+            this.queued.decrementAndGet();
+            if (this.entries.get(entry.id) != entry) continue;
+            if (entry.referenced) {
+                entry.referenced = false;
+                this.queue.offer(entry);
+                this.queued.incrementAndGet();
+            } else if (this.entries.remove(entry.id, entry)) {
+                this.idle.decrementAndGet();
+                ids.add(entry.id);
+            }
+        }
+        if (ids.isEmpty()) return 0;
+        long start = System.nanoTime();
+        Batch batch = this.batcher.startBatch();
+        try {
+            for (I id: ids) {
+                InfinispanEjbLogger.ROOT_LOGGER.tracef("Evicting stateful session bean %s", id);
+                try {
+                    this.evictor.evict(id);
+                } catch (RuntimeException e) {
+                    InfinispanEjbLogger.ROOT_LOGGER.failedToPassivateBean(e, id);
+                }
+            }
+        } finally {
+            batch.close();
+            this.evictionTime.addAndGet(System.nanoTime() - start);
+            this.evictionCount.addAndGet(ids.size());
+        }
+        return ids.size();
+    }
+
+    private class EvictionTask implements Runnable {
         @Override
         public void run() {
-            Batch batch = BeanEvictionScheduler.this.batcher.startBatch();
-            boolean success = false;
+            BeanEvictionScheduler<G, I, T> scheduler = BeanEvictionScheduler.this;
             try {
-                InfinispanEjbLogger.ROOT_LOGGER.tracef("Evicting stateful session bean %s", this.id);
-                BeanEvictionScheduler.this.evictor.evict(this.id);
-                success = true;
-            } finally {
-                if (success) {
-                    batch.close();
-                } else {
-                    batch.discard();
+                while (scheduler.evict() > 0) {
+                    // Keep evicting while necessary
+                }
+                if (scheduler.queued.get() - scheduler.idle.get() > scheduler.getMaxPurgeSize()) {
+                    scheduler.purge();
                 }
+            } finally {
+                scheduler.workers.decrementAndGet();
+            }
+            // Beans may have been scheduled after we stopped evicting, but before our worker count was decremented
+            if (scheduler.isEvictionRequired()) {
+                scheduler.submit();
             }
         }
     }
+
+    /**
+     * The clock entry of an idle bean.
+     */
+    private static class Entry<I> {
+        final I id;
+        // Indicates whether the bean was scheduled again since it was queued
+        volatile boolean referenced = false;
+
+        Entry(I id) {
+            this.id = id;
+        }
+    }
 }
@@ -83,6 +83,7 @@ public class InfinispanBeanManager<G, I, T> implements BeanManager<G, I, T>, Bat
     private final PassivationConfiguration<T> passivation;
     private final List<Scheduler<Bean<G, I, T>>> schedulers = new ArrayList<>(2);
     private final AtomicInteger passiveCount = new AtomicInteger();
+    private volatile BeanEvictionScheduler<G, I, T> evictionScheduler;
 
     public InfinispanBeanManager(String beanName, final Configuration<I, BeanKey<I>, BeanEntry<G>, BeanFactory<G, I, T>> beanConfiguration, final Configuration<G, G, BeanGroupEntry<I, T>, BeanGroupFactory<G, I, T>> groupConfiguration, KeyAffinityServiceFactory affinityFactory, Registry<String, ?> registry, NodeFactory<Address> nodeFactory, ExpirationConfiguration<T> expiration, PassivationConfiguration<T> passivation) {
         this.beanName = beanName;
@@ -135,7 +136,8 @@ public class InfinispanBeanManager<G, I, T> implements BeanManager<G, I, T>, Bat
             this.schedulers.add(new BeanExpirationScheduler<G, I, T>(this, new ExpiredBeanRemover<>(this.beanFactory), this.expiration));
         }
         if (this.passivation.isEvictionAllowed()) {
-            this.schedulers.add(new BeanEvictionScheduler<G, I, T>(this, this.beanFactory, this.passivation.getConfiguration()));
+            this.evictionScheduler = new BeanEvictionScheduler<G, I, T>(this, this.beanFactory, this.passivation.getConfiguration());
+            this.schedulers.add(this.evictionScheduler);
         }
         this.beanCache.addListener(this, this);
     }
@@ -147,6 +149,7 @@ public class InfinispanBeanManager<G, I, T> implements BeanManager<G, I, T>, Bat
             scheduler.close();
         }
         this.schedulers.clear();
+        this.evictionScheduler = null;
         for (KeyAffinityService<?> service: this.affinityServices) {
             service.stop();
         }
@@ -257,6 +260,24 @@ public class InfinispanBeanManager<G, I, T> implements BeanManager<G, I, T>, Bat
         return this.passiveCount.get();
     }
 
+    @Override
+    public long getEvictionCount() {
+        BeanEvictionScheduler<G, I, T> scheduler = this.evictionScheduler;
+        return (scheduler != null) ? scheduler.getEvictionCount() : 0;
+    }
+
+    @Override
+    public long getEvictionTime() {
+        BeanEvictionScheduler<G, I, T> scheduler = this.evictionScheduler;
+        return (scheduler != null) ? scheduler.getEvictionTime() : 0;
+    }
+
+    @Override
+    public int getEvictionBacklog() {
+        BeanEvictionScheduler<G, I, T> scheduler = this.evictionScheduler;
+        return (scheduler != null) ? scheduler.getEvictionBacklog() : 0;
+    }
+
     @CacheEntryPassivated
     public void passivated(CacheEntryPassivatedEvent<BeanKey<I>, BeanEntry<G>> event) {
         if (event.isPre() && event.isOriginLocal()) {
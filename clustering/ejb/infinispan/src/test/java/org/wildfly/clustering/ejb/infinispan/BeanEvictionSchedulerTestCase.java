@@ -21,8 +21,12 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -75,4 +79,71 @@ public class BeanEvictionSchedulerTestCase {
             verify(batch).close();
         }
     }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        Bean<Object, String, Object> cancelledBean = mock(Bean.class);
+        Bean<Object, String, Object> referencedBean = mock(Bean.class);
+        Bean<Object, String, Object> evictedBean = mock(Bean.class);
+        Bean<Object, String, Object> activeBean = mock(Bean.class);
+        Batcher batcher = mock(Batcher.class);
+        Batch batch = mock(Batch.class);
+        Evictor<String> evictor = mock(Evictor.class);
+        ExecutorService executor = mock(ExecutorService.class);
+        BeanPassivationConfiguration config = mock(BeanPassivationConfiguration.class);
+        ArgumentCaptor<Runnable> capturedTask = ArgumentCaptor.forClass(Runnable.class);
+
+        when(config.getMaxSize()).thenReturn(2);
+        when(cancelledBean.getId()).thenReturn("cancelled");
+        when(referencedBean.getId()).thenReturn("referenced");
+        when(evictedBean.getId()).thenReturn("evicted");
+        when(activeBean.getId()).thenReturn("active");
+        when(batcher.startBatch()).thenReturn(batch);
+
+        try (BeanEvictionScheduler<Object, String, Object> scheduler = new BeanEvictionScheduler<>(batcher, evictor, config, executor)) {
+            scheduler.schedule(cancelledBean);
+            scheduler.schedule(referencedBean);
+            scheduler.schedule(evictedBean);
+            scheduler.cancel(cancelledBean);
+            // Scheduled again while idle, so gets a second chance
+            scheduler.schedule(referencedBean);
+            scheduler.schedule(activeBean);
+
+            verify(executor, atLeastOnce()).submit(capturedTask.capture());
+            assertEquals(1, scheduler.getEvictionBacklog());
+
+            capturedTask.getValue().run();
+
+            verify(evictor).evict("evicted");
+            verify(evictor, never()).evict("cancelled");
+            verify(evictor, never()).evict("referenced");
+            verify(evictor, never()).evict("active");
+            verify(batch).close();
+            assertEquals(1L, scheduler.getEvictionCount());
+            assertEquals(0, scheduler.getEvictionBacklog());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void scheduleDoesNotWaitForEviction() {
+        Batcher batcher = mock(Batcher.class);
+        Evictor<String> evictor = mock(Evictor.class);
+        ExecutorService executor = mock(ExecutorService.class);
+        BeanPassivationConfiguration config = mock(BeanPassivationConfiguration.class);
+
+        when(config.getMaxSize()).thenReturn(1);
+
+        try (BeanEvictionScheduler<Object, String, Object> scheduler = new BeanEvictionScheduler<>(batcher, evictor, config, executor)) {
+            // The submitted eviction tasks never run
+            for (int i = 0; i < 1000; ++i) {
+                Bean<Object, String, Object> bean = mock(Bean.class);
+                when(bean.getId()).thenReturn(String.valueOf(i));
+                scheduler.schedule(bean);
+            }
+
+            verify(executor, times(BeanEvictionScheduler.WORKERS)).submit(any(Runnable.class));
+            verifyZeroInteractions(evictor);
+            assertEquals(999, scheduler.getEvictionBacklog());
+        }
+    }
 }
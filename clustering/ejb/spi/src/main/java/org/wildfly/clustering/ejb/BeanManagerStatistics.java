@@ -25,4 +25,23 @@ public interface BeanManagerStatistics {
     int getActiveCount();
 
     int getPassiveCount();
+
+    /**
+     * Returns the number of beans evicted, i.e. passivated, by this node, because the maximum number of idle beans was exceeded.
+     * @return a number of beans
+     */
+    long getEvictionCount();
+
+    /**
+     * Returns the total time this node spent evicting beans.
+     * Together with {@link #getEvictionCount()}, this yields the average latency of passivating a bean.
+     * @return a time in milliseconds
+     */
+    long getEvictionTime();
+
+    /**
+     * Returns the number of idle beans exceeding the maximum, i.e. the number of beans awaiting eviction.
+     * @return a number of beans
+     */
+    int getEvictionBacklog();
 }
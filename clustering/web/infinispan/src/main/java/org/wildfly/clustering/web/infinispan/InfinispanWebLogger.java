@@ -23,6 +23,8 @@ package org.wildfly.clustering.web.infinispan;
 
 import static org.jboss.logging.Logger.Level.WARN;
 
+import java.util.Collection;
+
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Logger;
 import org.jboss.logging.annotations.Cause;
@@ -50,4 +52,8 @@ public interface InfinispanWebLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 10321, value = "Failed to passivate attribute %2$s of session %1$s")
     void failedToPassivateSessionAttribute(@Cause Throwable exception, String sessionId, String attribute);
+
+    @LogMessage(level = WARN)
+    @Message(id = 10322, value = "Failed to expire sessions %s")
+    void failedToExpireSessions(@Cause Throwable exception, Collection<String> sessionIds);
 }
@@ -92,7 +92,8 @@ public class InfinispanSessionManagerFactory extends AbstractService<SessionMana
             case ATTRIBUTE: {
                 Cache<String, FineSessionCacheEntry<L>> sessionCache = this.cache.getValue();
                 Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>> attributeCache = this.cache.getValue();
-                SessionAttributeMarshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller = new MarshalledValueSessionAttributeMarshaller<>(factory, marshallingContext);
+                // Only mutable attributes that were modified are replicated
+                SessionAttributeMarshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller = new MarshalledValueSessionAttributeMarshaller<>(factory, marshallingContext, true);
                 return new FineSessionFactory<>(sessionCache, attributeCache, this.invoker, context, marshaller, localContextFactory);
             }
             case SESSION: {
@@ -25,6 +25,7 @@ import java.io.IOException;
 
 import org.jboss.as.clustering.marshalling.MarshalledValue;
 import org.jboss.as.clustering.marshalling.MarshalledValueFactory;
+import org.jboss.as.clustering.marshalling.SimpleMarshalledValue;
 
 /**
  * Session attribute marshaller that stores attribute values using marshalled values.
@@ -33,15 +34,26 @@ import org.jboss.as.clustering.marshalling.MarshalledValueFactory;
 public class MarshalledValueSessionAttributeMarshaller<V, C> implements SessionAttributeMarshaller<V, MarshalledValue<V, C>> {
     private final MarshalledValueFactory<C> factory;
     private final C context;
+    private final boolean trackModifications;
 
     public MarshalledValueSessionAttributeMarshaller(MarshalledValueFactory<C> factory, C context) {
+        this(factory, context, false);
+    }
+
+    /**
+     * @param trackModifications indicates whether {@link #isModified(MarshalledValue)} is used, in which case the marshalled values
+     *        keep a digest of their serialized form
+     */
+    public MarshalledValueSessionAttributeMarshaller(MarshalledValueFactory<C> factory, C context, boolean trackModifications) {
         this.factory = factory;
         this.context = context;
+        this.trackModifications = trackModifications;
     }
 
     @Override
     public V read(MarshalledValue<V, C> value) {
         if (value == null) return null;
+        this.track(value);
         try {
             return value.get(this.context);
         } catch (ClassNotFoundException | IOException e) {
@@ -52,6 +64,24 @@ public class MarshalledValueSessionAttributeMarshaller<V, C> implements SessionA
     @Override
     public MarshalledValue<V, C> write(V object) {
         if (object == null) return null;
-        return this.factory.createMarshalledValue(object);
+        MarshalledValue<V, C> value = this.factory.createMarshalledValue(object);
+        this.track(value);
+        return value;
+    }
+
+    @Override
+    public boolean isModified(MarshalledValue<V, C> value) {
+        if (!(value instanceof SimpleMarshalledValue)) return true;
+        try {
+            return ((SimpleMarshalledValue<?>) value).isModified();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private void track(MarshalledValue<V, C> value) {
+        if (this.trackModifications && (value instanceof SimpleMarshalledValue)) {
+            ((SimpleMarshalledValue<?>) value).trackModifications();
+        }
     }
 }
@@ -31,4 +31,11 @@ public interface SessionAttributeMarshaller<A, V> {
     A read(V value);
 
     V write(A attribute);
+
+    /**
+     * Indicates whether the attribute of the specified value, as returned by {@link #read(Object)}, was modified since the value was last replicated.
+     * @param value a marshalled attribute
+     * @return false, if the attribute is known to be unmodified, true otherwise
+     */
+    boolean isModified(V value);
 }
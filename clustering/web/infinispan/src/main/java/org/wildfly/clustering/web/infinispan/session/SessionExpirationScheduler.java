@@ -22,13 +22,18 @@
 package org.wildfly.clustering.web.infinispan.session;
 
 import java.security.AccessController;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Future;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.clustering.concurrent.Scheduler;
 import org.jboss.as.clustering.infinispan.invoker.Remover;
@@ -42,14 +47,36 @@ import org.wildfly.security.manager.GetAccessControlContextAction;
 /**
  * Session expiration scheduler that eagerly expires sessions as soon as they are eligible.
  * If/When Infinispan implements expiration notifications (ISPN-694), this will be obsolete.
+ * <p>
+ * Expiration deadlines are tracked by a hashed timing wheel, advanced by a single thread.
+ * Deadlines beyond a full revolution of the wheel stay in the slot of their deadline until the revolution in which they are due.
+ * Scheduling an already tracked session only updates its deadline, so the per-request cost is independent of the number of sessions.
+ * Sessions that expire within the same tick are removed within a single batch.
  * @author Paul Ferraro
  */
 public class SessionExpirationScheduler implements Scheduler<ImmutableSession> {
 
-    final Map<String, Future<?>> expirationFutures = new ConcurrentHashMap<>();
+    private static final long DEFAULT_TICK_DURATION = 100;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    static final long CANCELLED = Long.MAX_VALUE;
+
+    final ConcurrentMap<String, Expiration> expirations = new ConcurrentHashMap<>();
+    final Queue<Expiration> pending = new ConcurrentLinkedQueue<>();
     final Batcher batcher;
     final Remover<String> remover;
     private final ScheduledExecutorService executor;
+    private final long tickDuration;
+    private final int maxBatchSize;
+    private final Clock clock;
+    // Only accessed by the tick thread
+    private final Queue<Placement>[] wheel;
+    private final int mask;
+    private long lastTick;
+
+    private final AtomicLong expiredCount = new AtomicLong();
+    private volatile long expirationLag = 0;
 
     public SessionExpirationScheduler(Batcher batcher, Remover<String> remover) {
         this(batcher, remover, createScheduledExecutor(createThreadFactory()));
@@ -66,16 +93,46 @@ public class SessionExpirationScheduler implements Scheduler<ImmutableSession> {
     }
 
     public SessionExpirationScheduler(Batcher batcher, Remover<String> remover, ScheduledExecutorService executor) {
+        this(batcher, remover, executor, DEFAULT_TICK_DURATION, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a new session expiration scheduler.
+     * @param batcher creates the batches within which expired sessions are removed
+     * @param remover removes expired sessions
+     * @param executor executor on which the timing wheel is advanced
+     * @param tickDuration the resolution of the timing wheel
+     * @param unit the unit of the tick duration
+     * @param wheelSize the number of slots in the timing wheel, rounded up to a power of 2
+     * @param maxBatchSize the maximum number of sessions to expire within a single batch
+     */
+    public SessionExpirationScheduler(Batcher batcher, Remover<String> remover, ScheduledExecutorService executor, long tickDuration, TimeUnit unit, int wheelSize, int maxBatchSize) {
+        this(batcher, remover, executor, tickDuration, unit, wheelSize, maxBatchSize, new SystemClock());
+    }
+
+    @SuppressWarnings("unchecked")
+    SessionExpirationScheduler(Batcher batcher, Remover<String> remover, ScheduledExecutorService executor, long tickDuration, TimeUnit unit, int wheelSize, int maxBatchSize, Clock clock) {
         this.batcher = batcher;
         this.remover = remover;
         this.executor = executor;
+        this.clock = clock;
+        this.tickDuration = Math.max(unit.toMillis(tickDuration), 1);
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.wheel = new Queue[size];
+        for (int i = 0; i < size; ++i) {
+            this.wheel[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+        this.lastTick = this.tick(this.currentTime()) - 1;
+        this.executor.scheduleWithFixedDelay(new TickTask(), this.tickDuration, this.tickDuration, TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void cancel(ImmutableSession session) {
-        Future<?> future = this.expirationFutures.remove(session.getId());
-        if (future != null) {
-            future.cancel(false);
+        Expiration expiration = this.expirations.get(session.getId());
+        if (expiration != null) {
+            expiration.cancel();
         }
     }
 
@@ -85,7 +142,15 @@ public class SessionExpirationScheduler implements Scheduler<ImmutableSession> {
         if (timeout > 0) {
             String id = session.getId();
             InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s will expire in %d ms", id, timeout);
-            this.expirationFutures.put(id, this.executor.schedule(new ExpirationTask(id), timeout, TimeUnit.MILLISECONDS));
+            long deadline = this.currentTime() + timeout;
+            Expiration expiration = this.expirations.get(id);
+            while ((expiration == null) || !expiration.schedule(deadline)) {
+                Expiration newExpiration = new Expiration(id);
+                expiration = this.expirations.putIfAbsent(id, newExpiration);
+                if (expiration == null) {
+                    expiration = newExpiration;
+                }
+            }
         }
     }
 
@@ -94,29 +159,230 @@ public class SessionExpirationScheduler implements Scheduler<ImmutableSession> {
         this.executor.shutdown();
     }
 
-    private class ExpirationTask implements Runnable {
-        private final String id;
+    /**
+     * Returns the number of sessions currently tracked by this scheduler.
+     * @return a number of sessions
+     */
+    public int getScheduledCount() {
+        return this.expirations.size();
+    }
 
-        public ExpirationTask(String id) {
-            this.id = id;
+    /**
+     * Returns the number of sessions that were expired by this scheduler.
+     * @return a number of sessions
+     */
+    public long getExpiredCount() {
+        return this.expiredCount.get();
+    }
+
+    /**
+     * Returns the maximum delay, in milliseconds, between the expiration deadline of a session and its removal,
+     * as observed during the most recent tick that expired sessions.
+     * @return a delay in milliseconds
+     */
+    public long getExpirationLag() {
+        return this.expirationLag;
+    }
+
+    long currentTime() {
+        return this.clock.currentTime();
+    }
+
+    long tick(long time) {
+        return time / this.tickDuration;
+    }
+
+    /**
+     * Advances the timing wheel through all elapsed ticks.
+     */
+    void advance() {
+        long now = this.currentTime();
+        // Only process ticks whose time range has completely elapsed
+        long currentTick = this.tick(now) - 1;
+        List<Expiration> expired = new ArrayList<>();
+        while (this.lastTick < currentTick) {
+            long tick = ++this.lastTick;
+            Expiration expiration = this.pending.poll();
+            while (expiration != null) {
+                expiration.transfer(tick);
+                expiration = this.pending.poll();
+            }
+            Queue<Placement> slot = this.wheel[(int) (tick & this.mask)];
+            int size = slot.size();
+            for (int i = 0; i < size; ++i) {
+                Placement placement = slot.poll();
+                placement.expiration.advance(placement, tick, now, expired);
+            }
+        }
+        if (!expired.isEmpty()) {
+            long lag = 0;
+            List<String> ids = new ArrayList<>(Math.min(expired.size(), this.maxBatchSize));
+            for (Expiration expiration: expired) {
+                lag = Math.max(lag, now - expiration.deadline);
+                ids.add(expiration.id);
+                if (ids.size() == this.maxBatchSize) {
+                    this.expire(ids);
+                    ids.clear();
+                }
+            }
+            if (!ids.isEmpty()) {
+                this.expire(ids);
+            }
+            this.expirationLag = lag;
+        }
+    }
+
+    private void expire(List<String> ids) {
+        InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring sessions %s", ids);
+        Batch batch = this.batcher.startBatch();
+        boolean success = false;
+        try {
+            for (String id: ids) {
+                this.remover.remove(id);
+            }
+            success = true;
+        } catch (RuntimeException e) {
+            // Don't let a failure propagate to the executor, otherwise all subsequent ticks will be suppressed
+            InfinispanWebLogger.ROOT_LOGGER.failedToExpireSessions(e, ids);
+        } finally {
+            if (success) {
+                batch.close();
+                this.expiredCount.addAndGet(ids.size());
+            } else {
+                batch.discard();
+            }
+        }
+    }
+
+    /**
+     * Places the specified expiration into the slot of the wheel corresponding to its deadline.
+     * Deadlines that exceed a full revolution of the wheel are skipped by the revolutions preceding their tick.
+     */
+    void place(Expiration expiration, long minTick) {
+        Placement placement = new Placement(expiration, Math.max(minTick, this.tick(expiration.deadline)));
+        this.requeue(placement);
+        expiration.placement = placement;
+    }
+
+    void requeue(Placement placement) {
+        this.wheel[(int) (placement.tick & this.mask)].add(placement);
+    }
+
+    /**
+     * Source of the monotonic time, in milliseconds, against which expiration deadlines are tracked.
+     */
+    interface Clock {
+        long currentTime();
+    }
+
+    private static class SystemClock implements Clock {
+        private final long start = System.nanoTime();
+
+        SystemClock() {
+        }
+
+        @Override
+        public long currentTime() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.start);
+        }
+    }
+
+    private class TickTask implements Runnable {
+        TickTask() {
         }
 
         @Override
         public void run() {
-            SessionExpirationScheduler.this.expirationFutures.remove(this.id);
-            InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring session %s", this.id);
-            Batch batch = SessionExpirationScheduler.this.batcher.startBatch();
-            boolean success = false;
-            try {
-                SessionExpirationScheduler.this.remover.remove(this.id);
-                success = true;
-            } finally {
-                if (success) {
-                    batch.close();
-                } else {
-                    batch.discard();
-                }
+            SessionExpirationScheduler.this.advance();
+        }
+    }
+
+    /**
+     * The position of an expiration in the timing wheel.
+     * An expiration moved to an earlier slot leaves its previous placement behind, which is then stale.
+     */
+    static class Placement {
+        final Expiration expiration;
+        // Absolute tick of the slot
+        final long tick;
+
+        Placement(Expiration expiration, long tick) {
+            this.expiration = expiration;
+            this.tick = tick;
+        }
+    }
+
+    /**
+     * The expiration state of a single session.
+     * All state transitions are guarded by the monitor of this object, which is only contended by concurrent requests for the same session
+     * or by the tick thread.
+     */
+    class Expiration {
+        final String id;
+        long deadline = CANCELLED;
+        // Current placement of this expiration in the wheel, or null if not in the wheel
+        Placement placement = null;
+        boolean pending = false;
+        boolean removed = false;
+
+        Expiration(String id) {
+            this.id = id;
+        }
+
+        /**
+         * Updates the deadline of this expiration.
+         * @return false, if this expiration was already removed, true otherwise
+         */
+        synchronized boolean schedule(long deadline) {
+            if (this.removed) return false;
+            this.deadline = deadline;
+            // A new expiration or a shorter deadline needs to be (re)placed in the wheel by the tick thread
+            // Otherwise, the existing slot will re-evaluate the deadline when its tick arrives
+            if (!this.pending && ((this.placement == null) || (SessionExpirationScheduler.this.tick(deadline) < this.placement.tick))) {
+                this.pending = true;
+                SessionExpirationScheduler.this.pending.add(this);
             }
+            return true;
+        }
+
+        synchronized void cancel() {
+            if (!this.removed) {
+                this.deadline = CANCELLED;
+            }
+        }
+
+        synchronized void transfer(long tick) {
+            this.pending = false;
+            if (this.removed) return;
+            if (this.deadline == CANCELLED) {
+                this.remove();
+            } else if ((this.placement == null) || (SessionExpirationScheduler.this.tick(this.deadline) < this.placement.tick)) {
+                SessionExpirationScheduler.this.place(this, tick);
+            }
+        }
+
+        synchronized void advance(Placement placement, long tick, long now, List<Expiration> expired) {
+            // Ignore stale placements, i.e. of removed expirations or of those since moved to an earlier slot
+            if (this.removed || (this.placement != placement)) return;
+            if (placement.tick > tick) {
+                // Due in a later revolution of the wheel
+                SessionExpirationScheduler.this.requeue(placement);
+                return;
+            }
+            this.placement = null;
+            if (this.deadline == CANCELLED) {
+                this.remove();
+            } else if (this.deadline <= now) {
+                this.remove();
+                expired.add(this);
+            } else {
+                SessionExpirationScheduler.this.place(this, tick + 1);
+            }
+        }
+
+        private void remove() {
+            this.removed = true;
+            SessionExpirationScheduler.this.expirations.remove(this.id, this);
         }
     }
 }
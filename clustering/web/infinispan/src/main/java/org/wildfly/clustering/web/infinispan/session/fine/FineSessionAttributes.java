@@ -21,29 +21,40 @@
  */
 package org.wildfly.clustering.web.infinispan.session.fine;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.infinispan.Cache;
 import org.infinispan.context.Flag;
 import org.jboss.as.clustering.infinispan.invoker.CacheInvoker;
-import org.jboss.as.clustering.infinispan.invoker.Remover;
 import org.jboss.as.clustering.infinispan.invoker.CacheInvoker.Operation;
+import org.jboss.as.clustering.infinispan.invoker.Mutator;
+import org.wildfly.clustering.web.infinispan.InfinispanWebLogger;
 import org.wildfly.clustering.web.infinispan.session.CacheMutator;
 import org.wildfly.clustering.web.infinispan.session.SessionAttributeMarshaller;
 import org.wildfly.clustering.web.session.SessionAttributes;
 
 /**
  * Exposes session attributes for fine granularity sessions.
+ * An instance of this object is scoped to a single request.
+ * Any changes to the attributes are recorded locally and only applied to the cache by {@link #mutate()} at the end of the request.
+ * Mutable attributes that were read, but not set, are only replicated if their serialized form has changed.
  * @author Paul Ferraro
  */
-public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V> implements SessionAttributes {
+public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V> implements SessionAttributes, Mutator {
+    private static final Flag[] FLAGS = new Flag[] { Flag.IGNORE_RETURN_VALUES, Flag.SKIP_LOCKING };
+
+    private final String id;
     private final Set<String> attributes;
     private final Cache<SessionAttributeCacheKey, V> cache;
     private final CacheInvoker invoker;
     private final SessionAttributeMarshaller<Object, V> marshaller;
+    private final Map<String, Change<V>> changes = new ConcurrentHashMap<>();
 
     public FineSessionAttributes(String id, Set<String> attributes, Cache<SessionAttributeCacheKey, V> attributeCache, CacheInvoker invoker, SessionAttributeMarshaller<Object, V> marshaller) {
         super(id, attributes, attributeCache, invoker, marshaller);
+        this.id = id;
         this.attributes = attributes;
         this.cache = attributeCache;
         this.invoker = invoker;
@@ -52,7 +63,10 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
 
     @Override
     public Object removeAttribute(String name) {
-        return this.attributes.remove(name) ? this.marshaller.read(this.invoker.invoke(this.cache, new Remover.RemoveOperation<SessionAttributeCacheKey, V>(this.createKey(name)), Flag.SKIP_LOCKING)) : null;
+        if (!this.attributes.remove(name)) return null;
+        Object old = this.getPreviousAttribute(name);
+        this.changes.put(name, new Change<V>(null, null));
+        return old;
     }
 
     @Override
@@ -60,27 +74,86 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
         if (attribute == null) {
             return this.removeAttribute(name);
         }
-        final SessionAttributeCacheKey key = this.createKey(name);
-        final V value = this.marshaller.write(attribute);
-        Operation<SessionAttributeCacheKey, V, V> operation = new Operation<SessionAttributeCacheKey, V, V>() {
-            @Override
-            public V invoke(Cache<SessionAttributeCacheKey, V> cache) {
-                return cache.put(key, value);
-            }
-        };
-        return this.marshaller.read(this.invoker.invoke(this.cache, operation, this.attributes.add(name) ? new Flag[] { Flag.IGNORE_RETURN_VALUES, Flag.SKIP_LOCKING } : new Flag[] { Flag.SKIP_LOCKING }));
+        Object old = this.attributes.add(name) ? null : this.getPreviousAttribute(name);
+        this.changes.put(name, new Change<V>(attribute, null));
+        return old;
     }
 
     @Override
     public Object getAttribute(String name) {
-        SessionAttributeCacheKey key = this.createKey(name);
-        V value = this.getAttributeValue(key);
+        Change<V> change = this.changes.get(name);
+        if (change != null) return change.attribute;
+        V value = this.getAttributeValue(this.createKey(name));
         if (value == null) return null;
         Object attribute = this.marshaller.read(value);
-        // If the object is mutable, we need to indicate that the attribute should be replicated
-        if (CacheMutator.isMutable(attribute)) {
-            new CacheMutator<>(this.cache, this.invoker, key, value, Flag.SKIP_LOCKING).mutate();
-        }
+        this.changes.put(name, new Change<>(attribute, value));
         return attribute;
     }
+
+    /**
+     * Applies the changes made to the session attributes during this request to the cache.
+     */
+    @Override
+    public void mutate() {
+        if (this.changes.isEmpty()) return;
+        int replicated = 0;
+        int unmodified = 0;
+        for (Map.Entry<String, Change<V>> entry: this.changes.entrySet()) {
+            final SessionAttributeCacheKey key = this.createKey(entry.getKey());
+            Change<V> change = entry.getValue();
+            final Object attribute = change.attribute;
+            if (attribute == null) {
+                Operation<SessionAttributeCacheKey, V, V> operation = new Operation<SessionAttributeCacheKey, V, V>() {
+                    @Override
+                    public V invoke(Cache<SessionAttributeCacheKey, V> cache) {
+                        return cache.remove(key);
+                    }
+                };
+                this.invoker.invoke(this.cache, operation, FLAGS);
+                replicated += 1;
+            } else if (change.value == null) {
+                final V value = this.marshaller.write(attribute);
+                Operation<SessionAttributeCacheKey, V, V> operation = new Operation<SessionAttributeCacheKey, V, V>() {
+                    @Override
+                    public V invoke(Cache<SessionAttributeCacheKey, V> cache) {
+                        return cache.put(key, value);
+                    }
+                };
+                this.invoker.invoke(this.cache, operation, FLAGS);
+                replicated += 1;
+            } else if (CacheMutator.isMutable(attribute)) {
+                // The attribute may have been modified, but we only need to replicate it if its serialized form has changed
+                if (this.marshaller.isModified(change.value)) {
+                    this.invoker.invoke(this.cache, new MutateOperation<>(key, change.value), FLAGS);
+                    replicated += 1;
+                } else {
+                    unmodified += 1;
+                }
+            }
+        }
+        this.changes.clear();
+        InfinispanWebLogger.ROOT_LOGGER.tracef("Replicated %d attributes of session %s, skipped %d unmodified mutable attributes", replicated, this.id, unmodified);
+    }
+
+    private Object getPreviousAttribute(String name) {
+        Change<V> change = this.changes.get(name);
+        if (change != null) return change.attribute;
+        V value = this.getAttributeValue(this.createKey(name));
+        return (value != null) ? this.marshaller.read(value) : null;
+    }
+
+    /**
+     * A change to a session attribute made during the current request.
+     */
+    private static class Change<V> {
+        // The current value of the attribute, or null if the attribute was removed
+        final Object attribute;
+        // The cache value from which the attribute was read, or null if the attribute was set or removed
+        final V value;
+
+        Change(Object attribute, V value) {
+            this.attribute = attribute;
+            this.value = value;
+        }
+    }
 }
@@ -21,14 +21,16 @@
  */
 package org.wildfly.clustering.web.infinispan.session;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
-import org.jboss.as.clustering.concurrent.Scheduler;
 import org.jboss.as.clustering.infinispan.invoker.Remover;
 import org.junit.Test;
 import org.wildfly.clustering.web.Batch;
@@ -37,8 +39,38 @@ import org.wildfly.clustering.web.session.ImmutableSession;
 import org.wildfly.clustering.web.session.SessionMetaData;
 
 public class SessionExpirationSchedulerTestCase {
+    private static final long TICK_DURATION = 100;
+
+    /**
+     * Clock advanced by hand, so that the timing wheel only moves when a test advances it.
+     */
+    static class ManualClock implements SessionExpirationScheduler.Clock {
+        private volatile long time = 0;
+
+        @Override
+        public long currentTime() {
+            return this.time;
+        }
+
+        void advance(long duration) {
+            this.time += duration;
+        }
+    }
+
+    private final ManualClock clock = new ManualClock();
+
+    private SessionExpirationScheduler createScheduler(Batcher batcher, Remover<String> remover, int wheelSize) {
+        // The executor never runs the tick task, the tests advance the wheel themselves
+        return new SessionExpirationScheduler(batcher, remover, mock(ScheduledExecutorService.class), TICK_DURATION, TimeUnit.MILLISECONDS, wheelSize, 100, this.clock);
+    }
+
+    private void advance(SessionExpirationScheduler scheduler, long duration) {
+        this.clock.advance(duration);
+        scheduler.advance();
+    }
+
     @Test
-    public void test() throws InterruptedException {
+    public void test() {
         Batcher batcher = mock(Batcher.class);
         Batch batch = mock(Batch.class);
         Remover<String> remover = mock(Remover.class);
@@ -70,15 +102,17 @@ public class SessionExpirationSchedulerTestCase {
         when(expiringSession.getId()).thenReturn(expiringSessionId);
         when(canceledSession.getId()).thenReturn(canceledSessionId);
         
-        try (Scheduler<ImmutableSession> scheduler = new SessionExpirationScheduler(batcher, remover)) {
+        try (SessionExpirationScheduler scheduler = this.createScheduler(batcher, remover, 512)) {
             scheduler.schedule(immortalSession);
             scheduler.schedule(canceledSession);
             scheduler.schedule(expiringSession);
 
-            Thread.sleep(1000);
+            this.advance(scheduler, 1000);
 
             scheduler.cancel(canceledSession);
             scheduler.schedule(canceledSession);
+
+            this.advance(scheduler, 1000);
         }
 
         verify(remover, never()).remove(immortalSessionId);
@@ -87,4 +121,122 @@ public class SessionExpirationSchedulerTestCase {
         verify(batch).close();
     }
 
+    @Test
+    public void batch() {
+        Batcher batcher = mock(Batcher.class);
+        Batch batch = mock(Batch.class);
+        Remover<String> remover = mock(Remover.class);
+        ImmutableSession session1 = mock(ImmutableSession.class);
+        ImmutableSession session2 = mock(ImmutableSession.class);
+        SessionMetaData metaData = mock(SessionMetaData.class);
+        String sessionId1 = "session1";
+        String sessionId2 = "session2";
+
+        when(batcher.startBatch()).thenReturn(batch);
+
+        when(session1.getMetaData()).thenReturn(metaData);
+        when(session2.getMetaData()).thenReturn(metaData);
+        when(metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(1L);
+        when(session1.getId()).thenReturn(sessionId1);
+        when(session2.getId()).thenReturn(sessionId2);
+
+        try (SessionExpirationScheduler scheduler = this.createScheduler(batcher, remover, 512)) {
+            scheduler.schedule(session1);
+            scheduler.schedule(session2);
+            // Re-scheduling an existing session should not create a duplicate entry
+            scheduler.schedule(session1);
+
+            assertEquals(2, scheduler.getScheduledCount());
+
+            this.advance(scheduler, 1000);
+
+            assertEquals(0, scheduler.getScheduledCount());
+            assertEquals(2L, scheduler.getExpiredCount());
+        }
+
+        verify(remover, times(1)).remove(sessionId1);
+        verify(remover, times(1)).remove(sessionId2);
+        // Both sessions expire during the same advance of the timing wheel, and thus within the same batch
+        verify(batcher, times(1)).startBatch();
+        verify(batch).close();
+    }
+
+    /**
+     * Deadlines beyond a full revolution of the wheel should neither expire early nor be lost.
+     */
+    @Test
+    public void multipleRevolutions() {
+        Batcher batcher = mock(Batcher.class);
+        Batch batch = mock(Batch.class);
+        Remover<String> remover = mock(Remover.class);
+        ImmutableSession session = mock(ImmutableSession.class);
+        SessionMetaData metaData = mock(SessionMetaData.class);
+        String sessionId = "session";
+
+        when(batcher.startBatch()).thenReturn(batch);
+
+        when(session.getMetaData()).thenReturn(metaData);
+        when(metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(1000L);
+        when(session.getId()).thenReturn(sessionId);
+
+        // A revolution of the wheel lasts 4 ticks, i.e. 400 ms
+        try (SessionExpirationScheduler scheduler = this.createScheduler(batcher, remover, 4)) {
+            scheduler.schedule(session);
+
+            this.advance(scheduler, 500);
+
+            verify(remover, never()).remove(sessionId);
+
+            // Extends the deadline to 1500 ms
+            scheduler.schedule(session);
+
+            this.advance(scheduler, 700);
+
+            verify(remover, never()).remove(sessionId);
+            assertEquals(1, scheduler.getScheduledCount());
+
+            this.advance(scheduler, 500);
+
+            verify(remover).remove(sessionId);
+            assertEquals(0, scheduler.getScheduledCount());
+            assertEquals(1L, scheduler.getExpiredCount());
+        }
+    }
+
+    /**
+     * A shorter deadline should move the session to an earlier slot of the wheel, without expiring it twice.
+     */
+    @Test
+    public void shorterDeadline() {
+        Batcher batcher = mock(Batcher.class);
+        Batch batch = mock(Batch.class);
+        Remover<String> remover = mock(Remover.class);
+        ImmutableSession session = mock(ImmutableSession.class);
+        SessionMetaData metaData = mock(SessionMetaData.class);
+        String sessionId = "session";
+
+        when(batcher.startBatch()).thenReturn(batch);
+
+        when(session.getMetaData()).thenReturn(metaData);
+        when(metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(1000L, 200L);
+        when(session.getId()).thenReturn(sessionId);
+
+        try (SessionExpirationScheduler scheduler = this.createScheduler(batcher, remover, 4)) {
+            scheduler.schedule(session);
+
+            this.advance(scheduler, 100);
+
+            // Shortens the deadline to 300 ms
+            scheduler.schedule(session);
+
+            this.advance(scheduler, 300);
+
+            verify(remover).remove(sessionId);
+
+            this.advance(scheduler, 1000);
+
+            verify(remover, times(1)).remove(sessionId);
+            assertEquals(1L, scheduler.getExpiredCount());
+        }
+    }
 }
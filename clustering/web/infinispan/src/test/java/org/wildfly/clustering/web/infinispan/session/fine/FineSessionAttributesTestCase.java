@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.jboss.as.clustering.infinispan.invoker.CacheInvoker;
+import org.junit.Test;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributeMarshaller;
+
+public class FineSessionAttributesTestCase {
+    private final String id = "session";
+    private final Set<String> names = new HashSet<>();
+    private final Cache<SessionAttributeCacheKey, Object> cache = mock(Cache.class);
+    private final SessionAttributeMarshaller<Object, Object> marshaller = mock(SessionAttributeMarshaller.class);
+    private final CacheInvoker invoker = new CacheInvoker() {
+        @Override
+        public <K, V, R> R invoke(Cache<K, V> cache, Operation<K, V, R> operation, Flag... flags) {
+            return operation.invoke(cache);
+        }
+    };
+
+    private final FineSessionAttributes<Object> attributes = new FineSessionAttributes<>(this.id, this.names, this.cache, this.invoker, this.marshaller);
+
+    @Test
+    public void setAttribute() {
+        SessionAttributeCacheKey key = new SessionAttributeCacheKey(this.id, "a");
+        Object attribute = new Object();
+        Object value = new Object();
+
+        when(this.marshaller.write(attribute)).thenReturn(value);
+
+        assertNull(this.attributes.setAttribute("a", attribute));
+        assertSame(attribute, this.attributes.getAttribute("a"));
+
+        verify(this.cache, never()).put(any(SessionAttributeCacheKey.class), any());
+        verify(this.cache, never()).get(key);
+
+        this.attributes.mutate();
+
+        verify(this.cache).put(key, value);
+    }
+
+    @Test
+    public void replaceAttribute() {
+        SessionAttributeCacheKey key = new SessionAttributeCacheKey(this.id, "a");
+        Object oldAttribute = new Object();
+        Object oldValue = new Object();
+        Object attribute = new Object();
+        Object value = new Object();
+        this.names.add("a");
+
+        when(this.cache.get(key)).thenReturn(oldValue);
+        when(this.marshaller.read(oldValue)).thenReturn(oldAttribute);
+        when(this.marshaller.write(attribute)).thenReturn(value);
+
+        assertSame(oldAttribute, this.attributes.setAttribute("a", attribute));
+        // The previous value is already known
+        assertSame(attribute, this.attributes.setAttribute("a", oldAttribute));
+        assertSame(oldAttribute, this.attributes.removeAttribute("a"));
+        assertNull(this.attributes.getAttribute("a"));
+
+        verify(this.cache).get(key);
+
+        this.attributes.mutate();
+
+        verify(this.cache).remove(key);
+        verify(this.cache, never()).put(any(SessionAttributeCacheKey.class), any());
+    }
+
+    @Test
+    public void getMutableAttribute() {
+        SessionAttributeCacheKey key = new SessionAttributeCacheKey(this.id, "a");
+        List<String> attribute = new ArrayList<>();
+        Object value = new Object();
+        this.names.add("a");
+
+        when(this.cache.get(key)).thenReturn(value);
+        when(this.marshaller.read(value)).thenReturn(attribute);
+        when(this.marshaller.isModified(value)).thenReturn(false);
+
+        assertSame(attribute, this.attributes.getAttribute("a"));
+        assertSame(attribute, this.attributes.getAttribute("a"));
+
+        verify(this.cache).get(key);
+
+        this.attributes.mutate();
+
+        verify(this.cache, never()).replace(key, value);
+
+        when(this.marshaller.isModified(value)).thenReturn(true);
+
+        assertSame(attribute, this.attributes.getAttribute("a"));
+
+        this.attributes.mutate();
+
+        verify(this.cache).replace(key, value);
+    }
+
+    @Test
+    public void getImmutableAttribute() {
+        SessionAttributeCacheKey key = new SessionAttributeCacheKey(this.id, "a");
+        String attribute = "immutable";
+        Object value = new Object();
+        this.names.add("a");
+
+        when(this.cache.get(key)).thenReturn(value);
+        when(this.marshaller.read(value)).thenReturn(attribute);
+
+        assertSame(attribute, this.attributes.getAttribute("a"));
+
+        this.attributes.mutate();
+
+        verify(this.marshaller, never()).isModified(value);
+        verify(this.cache, never()).replace(key, value);
+    }
+}
@@ -25,6 +25,8 @@ package org.jboss.as.controller;
 import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
 import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 
+import java.io.Flushable;
+import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
@@ -329,6 +331,7 @@ public abstract class AbstractControllerService implements Service<ModelControll
                     stopAsynchronous(context);
                 } finally {
                     try {
+                        flushConfigurationPersister();
                         authorizer.shutdown();
                     } finally {
                         context.complete();
@@ -353,6 +356,19 @@ public abstract class AbstractControllerService implements Service<ModelControll
         }
     }
 
+    /**
+     * Writes configuration changes the persister may not have written yet, so none are lost on shutdown or reload.
+     */
+    private void flushConfigurationPersister() {
+        if (configurationPersister instanceof Flushable) {
+            try {
+                ((Flushable) configurationPersister).flush();
+            } catch (IOException e) {
+                ROOT_LOGGER.failedToFlushConfiguration(e);
+            }
+        }
+    }
+
     /**
      * Hook for subclasses to perform work during the asynchronous task started by
      * {@link #stop(org.jboss.msc.service.StopContext)}. This base method does nothing.
@@ -486,6 +486,15 @@ public interface ControllerLogger extends BasicLogger {
     @Message(id = 13409, value = "[%d] consecutive management operation audit logging failures have occurred in handler '%s'; disabling this handler for audit logging")
     void disablingLogHandlerDueToFailures(int failureCount, String name);
 
+    /**
+     * Logs an error message indicating that configuration changes which had not been written yet could not be written.
+     *
+     * @param cause the cause of the error.
+     */
+    @LogMessage(level = ERROR)
+    @Message(id = 13410, value = "Failed to write pending configuration changes")
+    void failedToFlushConfiguration(@Cause Throwable cause);
+
     // 13449 IS END OF 134xx SERIES USABLE FOR LOGGER MESSAGES
 
 }
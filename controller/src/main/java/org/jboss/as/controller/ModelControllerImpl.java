@@ -678,7 +678,7 @@ class ModelControllerImpl implements ModelController {
      * The root resource, maintains a read-only reference to the current model. All write operations have to performed
      * after acquiring the write lock on a clone of the underlying model.
      */
-    private final class RootResource implements Resource {
+    final class RootResource implements Resource {
 
         private final AtomicReference<Resource> modelReference = new AtomicReference<Resource>(Resource.Factory.create());
 
@@ -757,7 +757,7 @@ class ModelControllerImpl implements ModelController {
             getDelegate().writeModel(newModel);
         }
 
-        private Resource getDelegate() {
+        Resource getDelegate() {
             return this.modelReference.get();
         }
 
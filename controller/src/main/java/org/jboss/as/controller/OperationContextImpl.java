@@ -73,6 +73,7 @@ import org.jboss.as.controller.operations.global.ReadResourceHandler;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.CopyOnWriteModel;
 import org.jboss.as.controller.registry.DelegatingImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.DelegatingManagementResourceRegistration;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
@@ -140,6 +141,9 @@ final class OperationContextImpl extends AbstractOperationContext {
 
     private volatile Resource originalModel;
 
+    /** Tracks which resources of {@link #model} have been copied for update */
+    private final CopyOnWriteModel copyOnWriteModel = new CopyOnWriteModel();
+
     /** Tracks the relationship between domain resources and hosts and server groups */
     private volatile HostServerGroupTracker hostServerGroupTracker;
 
@@ -476,10 +480,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         rejectUserDomainServerUpdates();
         checkHostServerGroupTracker(address);
         authorize(false, READ_WRITE_CONFIG);
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        copyModelForUpdate();
         affectsModel.put(address, NULL);
         Resource model = this.model;
         final Iterator<PathElement> i = address.iterator();
@@ -498,12 +499,13 @@ final class OperationContextImpl extends AbstractOperationContext {
                     }
                     final Resource newModel = Resource.Factory.create();
                     model.registerChild(element, newModel);
+                    copyOnWriteModel.registerCreated(newModel, true);
                     model = newModel;
                 } else {
-                    model = requireChild(model, element, address);
+                    model = requireChildForUpdate(model, element, address);
                 }
             } else {
-                model = requireChild(model, element, address);
+                model = requireChildForUpdate(model, element, address);
             }
         }
         if(model == null) {
@@ -591,18 +593,16 @@ final class OperationContextImpl extends AbstractOperationContext {
         rejectUserDomainServerUpdates();
         checkHostServerGroupTracker(address);
         authorize(false, READ_WRITE_CONFIG);
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        copyModelForUpdate();
         affectsModel.put(address, NULL);
         Resource resource = this.model;
         for (PathElement element : address) {
             if (element.isMultiTarget()) {
                 throw MESSAGES.cannotWriteTo("*");
             }
-            resource = requireChild(resource, element, address);
+            resource = requireChildForUpdate(resource, element, address);
         }
+        copyOnWriteModel.requireDeepCopy(resource);
         return resource;
     }
 
@@ -615,6 +615,7 @@ final class OperationContextImpl extends AbstractOperationContext {
     public Resource createResource(PathAddress relativeAddress) {
         final Resource toAdd = Resource.Factory.create();
         addResource(relativeAddress, toAdd);
+        copyOnWriteModel.registerCreated(toAdd, true);
         return toAdd;
     }
 
@@ -635,10 +636,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         rejectUserDomainServerUpdates();
         checkHostServerGroupTracker(absoluteAddress);
         authorizeAdd();
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        copyModelForUpdate();
         affectsModel.put(absoluteAddress, NULL);
         Resource model = this.model;
         final Iterator<PathElement> i = absoluteAddress.iterator();
@@ -658,10 +656,11 @@ final class OperationContextImpl extends AbstractOperationContext {
                         throw MESSAGES.noChildType(key);
                     }
                     model.registerChild(element, toAdd);
+                    copyOnWriteModel.registerCreated(toAdd, false);
                     model = toAdd;
                 }
             } else {
-                model = model.getChild(element);
+                model = copyOnWriteModel.getChildForUpdate(model, element);
                 if (model == null) {
                     PathAddress ancestor = PathAddress.EMPTY_ADDRESS;
                     for (PathElement pe : absoluteAddress) {
@@ -689,10 +688,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         rejectUserDomainServerUpdates();
         checkHostServerGroupTracker(address);
         authorize(false, READ_WRITE_CONFIG);
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        copyModelForUpdate();
         affectsModel.put(address, NULL);
         Resource model = this.model;
         final Iterator<PathElement> i = address.iterator();
@@ -704,7 +700,7 @@ final class OperationContextImpl extends AbstractOperationContext {
             if (! i.hasNext()) {
                 model = model.removeChild(element);
             } else {
-                model = requireChild(model, element, address);
+                model = requireChildForUpdate(model, element, address);
             }
         }
         return model;
@@ -777,6 +773,27 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
     }
 
+    /**
+     * Takes the write lock on the first write and replaces the model with a copy. Only the resources along the
+     * addresses that are modified get copied, see {@link CopyOnWriteModel}.
+     */
+    private void copyModelForUpdate() {
+        if (!isModelAffected()) {
+            takeWriteLock();
+            Resource root = model;
+            if (root instanceof ModelControllerImpl.RootResource) {
+                // Copy the current version of the model rather than the reference to it
+                root = ((ModelControllerImpl.RootResource) root).getDelegate();
+            }
+            model = copyOnWriteModel.copyRoot(root);
+        }
+    }
+
+    private Resource requireChildForUpdate(final Resource resource, final PathElement childPath, final PathAddress fullAddress) {
+        final Resource child = copyOnWriteModel.getChildForUpdate(resource, childPath);
+        return child != null ? child : requireChild(resource, childPath, fullAddress);
+    }
+
     private static Resource requireChild(final Resource resource, final PathElement childPath, final PathAddress fullAddress) {
         if (resource.hasChild(childPath)) {
             return resource.requireChild(childPath);
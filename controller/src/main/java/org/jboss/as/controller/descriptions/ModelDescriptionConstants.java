@@ -68,6 +68,10 @@ public class ModelDescriptionConstants {
     public static final String BLOCKING = "blocking";
     public static final String BOOT_TIME = "boot-time";
     public static final String BYTES = "bytes";
+    public static final String CACHE_EVICTION_TIME = "cache-eviction-time";
+    public static final String CACHE_HITS = "cache-hits";
+    public static final String CACHE_MAX_SIZE = "cache-max-size";
+    public static final String CACHE_MISSES = "cache-misses";
     public static final String CALLER_TYPE = "caller-type";
     public static final String CANCELLED = "cancelled";
     public static final String CHILD_TYPE = "child-type";
@@ -86,6 +90,8 @@ public class ModelDescriptionConstants {
     public static final String CONFIGURED_REQUIRES_WRITE = "configured-requires-write";
     public static final String CONNECTION = "connection";
     public static final String CONNECTIONS = "connections";
+    public static final String CONNECTIONS_OPENED = "connections-opened";
+    public static final String CONNECTIONS_REUSED = "connections-reused";
     public static final String CONSOLE_ENABLED = "console-enabled";
     public static final String CONTENT = "content";
     public static final String CORE = "core";
@@ -170,6 +176,7 @@ public class ModelDescriptionConstants {
     public static final String HOST_STATE = "host-state";
     public static final String HTTP_UPGRADE_ENABLED = "http-upgrade-enabled";
     public static final String HTTP_INTERFACE = "http-interface";
+    public static final String IDLE_CONNECTIONS = "idle-connections";
     public static final String IGNORED = "ignored-by-unaffected-host-controller";
     public static final String IGNORED_RESOURCES = "ignored-resources";
     public static final String IGNORED_RESOURCE_TYPE = "ignored-resource-type";
@@ -330,6 +337,8 @@ public class ModelDescriptionConstants {
     public static final String SEARCH_CREDENTIAL = "search-credential";
     public static final String SEARCH_BY = "search-by";
     public static final String SEARCH_DN = "search-dn";
+    public static final String SEARCH_POOL_IDLE_TIMEOUT = "search-pool-idle-timeout";
+    public static final String SEARCH_POOL_MAX_SIZE = "search-pool-max-size";
     public static final String SECRET = "secret";
     public static final String SECURE_PORT = "secure-port";
     public static final String SECURE_SOCKET_BINDING = "secure-socket-binding";
@@ -49,6 +49,8 @@ public enum Attribute {
     BASE_DN("base-dn"),
     BASE_ROLE("base-role"),
     BOOT_TIME("boot-time"),
+    CACHE_EVICTION_TIME("cache-eviction-time"),
+    CACHE_MAX_SIZE("cache-max-size"),
     CODE("code"),
     COMPACT("compact"),
     CONNECTION("connection"),
@@ -135,6 +137,8 @@ public enum Attribute {
     SEARCH_CREDENTIAL("search-credential"),
     SEARCH_BY("search-by"),
     SEARCH_DN("search-dn"),
+    SEARCH_POOL_IDLE_TIMEOUT("search-pool-idle-timeout"),
+    SEARCH_POOL_MAX_SIZE("search-pool-max-size"),
     SECURE_PORT("secure-port"),
     SECURITY_REALM("security-realm"),
     SHA1("sha1"),
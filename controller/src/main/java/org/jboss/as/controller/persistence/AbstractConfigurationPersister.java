@@ -23,7 +23,9 @@
 package org.jboss.as.controller.persistence;
 
 import java.io.OutputStream;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.xml.stream.XMLOutputFactory;
@@ -47,6 +49,8 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
     private final XMLElementWriter<ModelMarshallingContext> rootDeparser;
     private final Map<String, XMLElementWriter<SubsystemMarshallingContext>> subsystemWriters = new HashMap<String, XMLElementWriter<SubsystemMarshallingContext>>();
     private final Map<String, XMLElementWriter<SubsystemMarshallingContext>> subsystemDeploymentWriters = new HashMap<String, XMLElementWriter<SubsystemMarshallingContext>>();
+    /** The subsystem XML fragments written by the last successful call to {@link #marshallAsXml(ModelNode, OutputStream)} */
+    private volatile Map<String, List<CachingSubsystemXmlWriter.Fragment>> subsystemFragments = Collections.emptyMap();
 
     /**
      * Construct a new instance.
@@ -89,6 +93,9 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
     @Override
     public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
         final XMLMapper mapper = XMLMapper.Factory.create();
+        // Unchanged subsystems are written from the fragments recorded when they were last marshalled
+        final Map<String, List<CachingSubsystemXmlWriter.Fragment>> previousFragments = subsystemFragments;
+        final Map<String, List<CachingSubsystemXmlWriter.Fragment>> currentFragments = new HashMap<String, List<CachingSubsystemXmlWriter.Fragment>>();
         try {
             XMLStreamWriter streamWriter = null;
             try {
@@ -102,9 +109,11 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
 
                     @Override
                     public XMLElementWriter<SubsystemMarshallingContext> getSubsystemWriter(String extensionName) {
+                        final XMLElementWriter<SubsystemMarshallingContext> writer;
                         synchronized (subsystemWriters) {
-                            return subsystemWriters.get(extensionName);
+                            writer = subsystemWriters.get(extensionName);
                         }
+                        return writer == null ? null : new CachingSubsystemXmlWriter(extensionName, writer, previousFragments, currentFragments);
                     }
 
                     @Override
@@ -116,6 +125,7 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
                 };
                 mapper.deparseDocument(rootDeparser, extensibleModel, streamWriter);
                 streamWriter.close();
+                subsystemFragments = currentFragments;
             } finally {
                 safeClose(streamWriter);
             }
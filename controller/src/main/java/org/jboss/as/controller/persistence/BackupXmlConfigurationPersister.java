@@ -22,6 +22,8 @@
 
 package org.jboss.as.controller.persistence;
 
+import java.io.Flushable;
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -32,16 +34,26 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * An XML configuration persister which backs up the old file before overwriting it.
+ * <p>
+ * If the {@value #WRITE_BEHIND_DELAY_PROPERTY} system property is set to a positive number of milliseconds, committed
+ * changes are written in the background after at most that delay, coalescing all changes committed in the meantime.
+ * Pending changes are written when the persister is {@link #flush() flushed}, e.g. when the controller is stopped.
+ * A failed background write fails the next {@link #store(ModelNode, Set) store}, or the flush if there is none.
+ * </p>
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
-public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
+public class BackupXmlConfigurationPersister extends XmlConfigurationPersister implements Flushable {
+
+    private static final String WRITE_BEHIND_DELAY_PROPERTY = "jboss.config.write-behind-delay";
 
     ConfigurationFile configurationFile;
     private final AtomicBoolean successfulBoot = new AtomicBoolean();
+    private final WriteBehindConfigurationWriter writeBehind;
     /**
      * Construct a new instance.
      *
@@ -53,6 +65,8 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
     public BackupXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser) {
         super(file.getBootFile(), rootElement, rootParser, rootDeparser);
         this.configurationFile = file;
+        final long writeBehindDelay = getWriteBehindDelay();
+        this.writeBehind = writeBehindDelay > 0 ? new WriteBehindConfigurationWriter(file, this, writeBehindDelay) : null;
     }
 
     public void registerAdditionalRootElement(final QName anotherRoot, final XMLElementReader<List<ModelNode>> parser){
@@ -77,11 +91,44 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
+        if (writeBehind != null) {
+            // Fail this operation if an earlier change could not be written
+            writeBehind.checkFailure();
+            // Marshalling is deferred until the model is written
+            return new PersistenceResource() {
+                public void commit() {
+                    writeBehind.schedule(model);
+                }
+
+                public void rollback() {
+                }
+            };
+        }
         return new ConfigurationFilePersistenceResource(model, configurationFile, this);
     }
 
+    /**
+     * Writes any changes that have been committed but not written yet, and stops the background writer until the
+     * next change is committed.
+     *
+     * @throws IOException if the changes could not be written, or an earlier background write failed
+     */
+    @Override
+    public void flush() throws IOException {
+        if (writeBehind != null) {
+            try {
+                writeBehind.shutdown();
+            } catch (ConfigurationPersistenceException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
         return configurationFile.snapshot();
     }
 
@@ -94,4 +141,13 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
     public void deleteSnapshot(final String name) {
         configurationFile.deleteSnapshot(name);
     }
+
+    private static long getWriteBehindDelay() {
+        final String val = WildFlySecurityManager.getPropertyPrivileged(WRITE_BEHIND_DELAY_PROPERTY, null);
+        try {
+            return val == null ? 0 : Long.parseLong(val);
+        } catch (NumberFormatException ignored) {
+            return 0;
+        }
+    }
 }
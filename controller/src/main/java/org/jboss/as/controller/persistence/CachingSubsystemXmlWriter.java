@@ -0,0 +1,206 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+
+/**
+ * {@link XMLElementWriter} for a subsystem that records the calls the actual subsystem writer makes on the stream
+ * writer. If the model of the subsystem is unchanged the next time the configuration is marshalled, the recorded
+ * calls are replayed instead of invoking the subsystem writer again.
+ */
+class CachingSubsystemXmlWriter implements XMLElementWriter<SubsystemMarshallingContext> {
+
+    private final String subsystemName;
+    private final XMLElementWriter<SubsystemMarshallingContext> delegate;
+    private final Map<String, List<Fragment>> previous;
+    private final Map<String, List<Fragment>> current;
+
+    /**
+     * Creates a new caching writer.
+     *
+     * @param subsystemName the name of the subsystem
+     * @param delegate the writer of the subsystem
+     * @param previous the fragments recorded when the configuration was marshalled the last time
+     * @param current the fragments recorded during the current marshalling
+     */
+    CachingSubsystemXmlWriter(final String subsystemName, final XMLElementWriter<SubsystemMarshallingContext> delegate,
+                              final Map<String, List<Fragment>> previous, final Map<String, List<Fragment>> current) {
+        this.subsystemName = subsystemName;
+        this.delegate = delegate;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    @Override
+    public void writeContent(final XMLExtendedStreamWriter streamWriter, final SubsystemMarshallingContext context) throws XMLStreamException {
+        final ModelNode model = context.getModelNode();
+        final Fragment fragment = find(model);
+        if (fragment != null) {
+            for (final Invocation invocation : fragment.invocations) {
+                invocation.replay(streamWriter);
+            }
+            add(fragment);
+            return;
+        }
+        final Recorder recorder = new Recorder(streamWriter);
+        final XMLExtendedStreamWriter recordingWriter = (XMLExtendedStreamWriter) Proxy.newProxyInstance(
+                XMLExtendedStreamWriter.class.getClassLoader(), new Class<?>[] {XMLExtendedStreamWriter.class}, recorder);
+        delegate.writeContent(recordingWriter, new SubsystemMarshallingContext(model, recordingWriter));
+        // the model passed in may be modified by its owner after marshalling
+        add(new Fragment(delegate, model.clone(), recorder.invocations));
+    }
+
+    /**
+     * Finds a fragment recorded for this subsystem with an equal model. Models are only compared with
+     * {@link ModelNode#equals(Object)}, which stops at the first difference, rather than hashed, since hashing always
+     * walks the whole model.
+     */
+    private Fragment find(final ModelNode model) {
+        final List<Fragment> fragments = previous.get(subsystemName);
+        if (fragments != null) {
+            for (final Fragment fragment : fragments) {
+                if (fragment.writer == delegate && fragment.model.equals(model)) {
+                    return fragment;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void add(final Fragment fragment) {
+        // a domain configuration contains a subsystem once per profile
+        List<Fragment> fragments = current.get(subsystemName);
+        if (fragments == null) {
+            fragments = new ArrayList<Fragment>(1);
+            current.put(subsystemName, fragments);
+        }
+        fragments.add(fragment);
+    }
+
+    /**
+     * The calls recorded for a subsystem, along with the writer and the model that produced them.
+     */
+    static final class Fragment {
+        private final XMLElementWriter<SubsystemMarshallingContext> writer;
+        private final ModelNode model;
+        private final List<Invocation> invocations;
+
+        Fragment(final XMLElementWriter<SubsystemMarshallingContext> writer, final ModelNode model, final List<Invocation> invocations) {
+            this.writer = writer;
+            this.model = model;
+            this.invocations = invocations;
+        }
+    }
+
+    /**
+     * A recorded call of a method that writes to, or changes the state of, the stream writer.
+     */
+    static final class Invocation {
+        private final Method method;
+        private final Object[] args;
+
+        Invocation(final Method method, final Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+
+        void replay(final XMLExtendedStreamWriter streamWriter) throws XMLStreamException {
+            invoke(method, streamWriter, args);
+        }
+    }
+
+    private static final class Recorder implements InvocationHandler {
+        private final XMLExtendedStreamWriter streamWriter;
+        private final List<Invocation> invocations = new ArrayList<Invocation>();
+
+        Recorder(final XMLExtendedStreamWriter streamWriter) {
+            this.streamWriter = streamWriter;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(this, args);
+            }
+            final Object result = CachingSubsystemXmlWriter.invoke(method, streamWriter, args);
+            final String name = method.getName();
+            if (method.getReturnType() == void.class && !name.equals("flush") && !name.equals("close")) {
+                invocations.add(new Invocation(method, copy(args)));
+            }
+            return result;
+        }
+
+        private static Object[] copy(final Object[] args) {
+            if (args == null) {
+                return null;
+            }
+            final Object[] copy = args.clone();
+            for (int i = 0; i < copy.length; i++) {
+                final Object arg = copy[i];
+                if (arg instanceof char[]) {
+                    copy[i] = ((char[]) arg).clone();
+                } else if (arg instanceof String[]) {
+                    copy[i] = ((String[]) arg).clone();
+                } else if (arg instanceof Iterable) {
+                    final List<Object> values = new ArrayList<Object>();
+                    for (final Object value : (Iterable<?>) arg) {
+                        values.add(value);
+                    }
+                    copy[i] = values;
+                }
+            }
+            return copy;
+        }
+    }
+
+    private static Object invoke(final Method method, final XMLExtendedStreamWriter streamWriter, final Object[] args) throws XMLStreamException {
+        try {
+            return method.invoke(streamWriter, args);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof XMLStreamException) {
+                throw (XMLStreamException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new XMLStreamException(cause);
+        }
+    }
+}
@@ -23,6 +23,7 @@
 package org.jboss.as.controller.persistence;
 
 import static org.jboss.as.controller.ControllerLogger.MGMT_OP_LOGGER;
+import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 
 import java.io.File;
 
@@ -49,13 +50,29 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
 
     @Override
     public void doCommit(ExposedByteArrayOutputStream marshalled) {
+        try {
+            writeConfigurationFile(configurationFile, marshalled);
+        } catch (ConfigurationPersistenceException e) {
+            MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
+        }
+    }
+
+    /**
+     * Writes the marshalled configuration to the main file of a {@link ConfigurationFile}, backing up the previous
+     * version first.
+     *
+     * @param configurationFile the configuration file
+     * @param marshalled the marshalled configuration
+     * @throws ConfigurationPersistenceException if the configuration could not be written
+     */
+    static void writeConfigurationFile(final ConfigurationFile configurationFile, final ExposedByteArrayOutputStream marshalled) throws ConfigurationPersistenceException {
+        final File fileName = configurationFile.getMainFile();
         final File tempFileName = FilePersistenceUtils.createTempFile(fileName);
         try {
             try {
                 FilePersistenceUtils.writeToTempFile(marshalled, tempFileName);
             } catch (Exception e) {
-                MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
-                return;
+                throw MESSAGES.failedToStoreConfiguration(e);
             }
             try {
                 configurationFile.backup();
@@ -63,8 +80,6 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
                 configurationFile.commitTempFile(tempFileName);
             }
             configurationFile.fileWritten();
-        } catch (ConfigurationPersistenceException e) {
-           MGMT_OP_LOGGER.errorf(e, e.toString());
         } finally {
             if (tempFileName.exists() && !tempFileName.delete()) {
                 MGMT_OP_LOGGER.cannotDeleteTempFile(tempFileName.getName());
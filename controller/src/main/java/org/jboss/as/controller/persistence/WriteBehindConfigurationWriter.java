@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.ControllerLogger.MGMT_OP_LOGGER;
+
+import java.security.AccessController;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.GetAccessControlContextAction;
+
+/**
+ * Writes committed configuration models to a {@link ConfigurationFile} in the background. The first commit after
+ * the file was written schedules a write after a fixed delay, all further commits until then only replace the model
+ * to write, so a burst of management operations is marshalled and written only once, and no change stays unwritten
+ * for longer than the delay. {@link #flush()} writes a pending model synchronously.
+ * <p>
+ * A background write that fails is logged and kept until it is reported by {@link #checkFailure()} or
+ * {@link #flush()}, so it is not lost when nobody is waiting for the write.
+ * </p>
+ */
+final class WriteBehindConfigurationWriter implements Runnable {
+
+    private final ConfigurationFile configurationFile;
+    private final AbstractConfigurationPersister persister;
+    private final long delay;
+    /** Serializes the writes, so an older model can never overwrite a newer one */
+    private final Object writeLock = new Object();
+    /** The latest committed model that has not been written yet, guarded by {@code this} */
+    private ModelNode pending;
+    /** Runs the scheduled writes; created on demand and discarded by {@link #shutdown()}, guarded by {@code this} */
+    private ScheduledThreadPoolExecutor executor;
+    /** The failure of a background write that has not been reported yet, guarded by {@code this} */
+    private ConfigurationPersistenceException failure;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param configurationFile the file to write to
+     * @param persister the persister used to marshal the model
+     * @param delay the maximum time in milliseconds a committed model may stay unwritten
+     */
+    WriteBehindConfigurationWriter(final ConfigurationFile configurationFile, final AbstractConfigurationPersister persister, final long delay) {
+        this.configurationFile = configurationFile;
+        this.persister = persister;
+        this.delay = delay;
+    }
+
+    /**
+     * Schedules a committed model to be written.
+     *
+     * @param model the model
+     */
+    synchronized void schedule(final ModelNode model) {
+        final boolean scheduled = pending != null;
+        pending = model;
+        if (!scheduled) {
+            if (executor == null) {
+                executor = createExecutor();
+            }
+            executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Throws the failure of a background write that has not been reported yet, if any. The failure is only
+     * reported once.
+     *
+     * @throws ConfigurationPersistenceException if a background write failed
+     */
+    void checkFailure() throws ConfigurationPersistenceException {
+        final ConfigurationPersistenceException failure;
+        synchronized (this) {
+            failure = this.failure;
+            this.failure = null;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the pending model, if any, before returning.
+     *
+     * @throws ConfigurationPersistenceException if the model could not be written, or a background write failed
+     *                                           and the failure has not been reported yet
+     */
+    void flush() throws ConfigurationPersistenceException {
+        write();
+        checkFailure();
+    }
+
+    /**
+     * Stops the background thread and writes the pending model, if any. A model scheduled afterwards starts a new
+     * background thread.
+     *
+     * @throws ConfigurationPersistenceException if the model could not be written, or a background write failed
+     *                                           and the failure has not been reported yet
+     */
+    void shutdown() throws ConfigurationPersistenceException {
+        final ScheduledThreadPoolExecutor executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+        }
+        if (executor != null) {
+            // a write that is already running finishes before flush() can take the write lock
+            executor.shutdown();
+        }
+        flush();
+    }
+
+    @Override
+    public void run() {
+        try {
+            write();
+        } catch (ConfigurationPersistenceException e) {
+            MGMT_OP_LOGGER.failedToStoreConfiguration(e, configurationFile.getMainFile().getName());
+            synchronized (this) {
+                failure = e;
+            }
+        }
+    }
+
+    private void write() throws ConfigurationPersistenceException {
+        synchronized (writeLock) {
+            final ModelNode model;
+            synchronized (this) {
+                model = pending;
+                pending = null;
+            }
+            if (model != null) {
+                final ExposedByteArrayOutputStream marshalled = FilePersistenceUtils.marshalXml(persister, model);
+                ConfigurationFilePersistenceResource.writeConfigurationFile(configurationFile, marshalled);
+            }
+        }
+    }
+
+    private ScheduledThreadPoolExecutor createExecutor() {
+        final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("Configuration Write-Behind"), Boolean.TRUE, null,
+                "%G - %t", null, null, AccessController.doPrivileged(GetAccessControlContextAction.getInstance()));
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, threadFactory);
+        // don't keep an idle thread around between bursts of changes
+        executor.setKeepAliveTime(delay + 1000, TimeUnit.MILLISECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        // the pending model is written by shutdown() itself
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+}
@@ -233,6 +233,18 @@ public abstract class AbstractModelResource implements Resource {
                 return children.remove(name);
             }
         }
+
+        /**
+         * Replaces an existing child without changing its position in the iteration order.
+         */
+        void replace(String name, Resource resource) {
+            synchronized (children) {
+                if (!children.containsKey(name)) {
+                    throw new IllegalStateException(name);
+                }
+                children.put(name, resource);
+            }
+        }
     }
 
     abstract static class DelegateResource implements ResourceEntry {
@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.registry;
 
+import org.jboss.as.controller.PathElement;
 import org.jboss.dmr.ModelNode;
 
 import java.util.ConcurrentModificationException;
@@ -76,4 +77,35 @@ class BasicResource extends AbstractModelResource implements Resource {
         return clone;
     }
 
+    /**
+     * Creates a copy of this resource that shares the children with this resource, i.e. only the model and the
+     * references to the children are copied.
+     *
+     * @return the copy
+     */
+    BasicResource shallowCopy() {
+        final BasicResource copy = new BasicResource();
+        copy.writeModel(model);
+        for(final String childType : getChildTypes()) {
+            final ResourceProvider provider = getProvider(childType);
+            for(final String name : provider.children()) {
+                final Resource child = provider.get(name);
+                if(child != null) {
+                    copy.registerChild(PathElement.pathElement(childType, name), child);
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Replaces an existing child, retaining the order of the children.
+     *
+     * @param address the address of the child
+     * @param resource the new child
+     */
+    void replaceChild(final PathElement address, final Resource resource) {
+        ((DefaultResourceProvider) getOrCreateProvider(address.getKey())).replace(address.getValue(), resource);
+    }
+
 }
@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.jboss.as.controller.PathElement;
+
+/**
+ * Tracks the copy of a {@link Resource} tree that is being modified by an operation. Instead of cloning the
+ * whole tree before the first write, only the resources along the modified addresses are copied (path copying),
+ * all other resources are shared with the original tree, which therefore must not be modified by the holder of
+ * the copy.
+ *
+ * <p>Resources returned by the {@code ...ForUpdate} methods may be modified. A resource returned by
+ * {@link #getChildForUpdate(Resource, PathElement)} only has its own model copied, whereas all descendants of a
+ * resource passed to {@link #requireDeepCopy(Resource)} may be modified as well. Resources which do not support
+ * structural sharing are {@link Resource#clone() cloned} instead.</p>
+ */
+public final class CopyOnWriteModel {
+
+    /** The resources owned by the copy, i.e. which are not shared with the original tree. */
+    private final Set<Resource> copies = Collections.newSetFromMap(new IdentityHashMap<Resource, Boolean>());
+    /** The owned resources of which all descendants are owned as well. */
+    private final Set<Resource> deepCopies = Collections.newSetFromMap(new IdentityHashMap<Resource, Boolean>());
+
+    /**
+     * Creates the modifiable copy of the root resource.
+     *
+     * @param root the root of the original tree
+     * @return the new root
+     */
+    public synchronized Resource copyRoot(final Resource root) {
+        return copy(root);
+    }
+
+    /**
+     * Gets a child of a resource obtained for update, copying it first if it is still shared with the original tree.
+     *
+     * @param parent the parent, which must have been obtained for update
+     * @param address the address of the child
+     * @return the modifiable child, or {@code null} if there is no such child
+     */
+    public synchronized Resource getChildForUpdate(final Resource parent, final PathElement address) {
+        final Resource child = parent.getChild(address);
+        if (child == null || copies.contains(child)) {
+            return child;
+        }
+        if (deepCopies.contains(parent) || !(parent instanceof BasicResource)) {
+            // anything below a deep copy is owned, e.g. children registered directly by a handler
+            copies.add(child);
+            deepCopies.add(child);
+            return child;
+        }
+        final Resource copy = copy(child);
+        replaceChild(parent, address, copy);
+        return copy;
+    }
+
+    /**
+     * Makes sure that all descendants of the given resource can be modified. Resources which are already owned
+     * are retained, so references that have been handed out before remain valid.
+     *
+     * @param resource a resource that has been obtained for update
+     */
+    public synchronized void requireDeepCopy(final Resource resource) {
+        if (!deepCopies.add(resource)) {
+            return;
+        }
+        copies.add(resource);
+        if (!(resource instanceof BasicResource)) {
+            // the children can't be replaced, they are owned along with the resource
+            return;
+        }
+        for (final String childType : resource.getChildTypes()) {
+            for (final String name : resource.getChildrenNames(childType)) {
+                final PathElement address = PathElement.pathElement(childType, name);
+                final Resource child = resource.getChild(address);
+                if (child == null) {
+                    continue;
+                }
+                if (copies.contains(child)) {
+                    requireDeepCopy(child);
+                } else {
+                    final Resource copy = child.clone();
+                    replaceChild(resource, address, copy);
+                    copies.add(copy);
+                    deepCopies.add(copy);
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers a resource that was created by the holder of the copy and is therefore not shared.
+     *
+     * @param resource the new resource
+     * @param deep {@code true} if its descendants aren't shared either
+     */
+    public synchronized void registerCreated(final Resource resource, final boolean deep) {
+        copies.add(resource);
+        if (deep) {
+            deepCopies.add(resource);
+        }
+    }
+
+    private Resource copy(final Resource resource) {
+        if (resource.getClass() == BasicResource.class) {
+            final Resource copy = ((BasicResource) resource).shallowCopy();
+            copies.add(copy);
+            return copy;
+        }
+        final Resource copy = resource.clone();
+        copies.add(copy);
+        deepCopies.add(copy);
+        return copy;
+    }
+
+    private static void replaceChild(final Resource parent, final PathElement address, final Resource child) {
+        ((BasicResource) parent).replaceChild(address, child);
+    }
+}
@@ -27,8 +27,10 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
@@ -663,6 +665,88 @@ public class PersistanceResourceTestCase {
         return builder.toString();
     }
 
+    @Test
+    public void testWriteBehindConfigurationFile() throws Exception {
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        TestConfigurationFilePersister persister = new TestConfigurationFilePersister(configurationFile);
+        WriteBehindConfigurationWriter writer = new WriteBehindConfigurationWriter(configurationFile, persister, TimeUnit.HOURS.toMillis(1));
+
+        configurationFile.successfulBoot();
+        checkFiles(null, "std", "std", "std", "std");
+
+        // Nothing is written until the delay expires or the writer is flushed
+        writer.schedule(new ModelNode("One"));
+        writer.schedule(new ModelNode("Two"));
+        writer.schedule(new ModelNode("Three"));
+        checkFiles(null, "std", "std", "std", "std");
+
+        // Only the latest model gets written
+        writer.flush();
+        checkFiles(null, "Three", "std", "std", "Three", "std");
+
+        writer.flush();
+        checkFiles(null, "Three", "std", "std", "Three", "std");
+
+        writer.schedule(new ModelNode("Four"));
+        writer.flush();
+        checkFiles(null, "Four", "std", "std", "Four", "std", "Three");
+    }
+
+    @Test
+    public void testWriteBehindFailure() throws Exception {
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        final ModelNode failing = new ModelNode("Fail");
+        TestConfigurationFilePersister persister = new TestConfigurationFilePersister(configurationFile) {
+            @Override
+            public void marshallAsXml(ModelNode model, OutputStream output) throws ConfigurationPersistenceException {
+                if (failing.equals(model)) {
+                    throw new ConfigurationPersistenceException("Fail");
+                }
+                super.marshallAsXml(model, output);
+            }
+        };
+        WriteBehindConfigurationWriter writer = new WriteBehindConfigurationWriter(configurationFile, persister, TimeUnit.HOURS.toMillis(1));
+
+        configurationFile.successfulBoot();
+
+        // A failed background write is kept until it is reported
+        writer.schedule(failing);
+        writer.run();
+        checkFiles(null, "std", "std", "std", "std");
+        try {
+            writer.checkFailure();
+            Assert.fail("Background write did not fail");
+        } catch (ConfigurationPersistenceException expected) {
+        }
+        // and it is only reported once
+        writer.checkFailure();
+
+        writer.schedule(failing);
+        writer.run();
+        writer.schedule(new ModelNode("One"));
+        try {
+            writer.shutdown();
+            Assert.fail("Background write did not fail");
+        } catch (ConfigurationPersistenceException expected) {
+        }
+        // the pending model was written nevertheless
+        checkFiles(null, "One", "std", "std", "One", "std");
+
+        // A failed synchronous write is thrown straight away
+        writer.schedule(failing);
+        try {
+            writer.flush();
+            Assert.fail("Write did not fail");
+        } catch (ConfigurationPersistenceException expected) {
+        }
+        writer.checkFailure();
+        checkFiles(null, "One", "std", "std", "One", "std");
+
+        writer.schedule(new ModelNode("Two"));
+        writer.shutdown();
+        checkFiles(null, "Two", "std", "std", "Two", "std", "One");
+    }
+
     private void checkFiles(String mainFileName, String main, String initial, String boot, String last, String...versions) throws Exception {
         File mainFile = this.standardFile;
         File bootFile = this.bootFile;
@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.jboss.as.controller.PathElement;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CopyOnWriteModel}.
+ */
+public class CopyOnWriteModelTestCase {
+
+    private static final PathElement SUBSYSTEM_A = PathElement.pathElement("subsystem", "a");
+    private static final PathElement SUBSYSTEM_B = PathElement.pathElement("subsystem", "b");
+    private static final PathElement SUBSYSTEM_C = PathElement.pathElement("subsystem", "c");
+    private static final PathElement CHILD = PathElement.pathElement("child", "x");
+
+    private Resource original;
+
+    @Before
+    public void setUp() {
+        original = Resource.Factory.create();
+        original.getModel().get("name").set("root");
+        for (PathElement subsystem : Arrays.asList(SUBSYSTEM_A, SUBSYSTEM_B, SUBSYSTEM_C)) {
+            final Resource resource = Resource.Factory.create();
+            resource.getModel().get("name").set(subsystem.getValue());
+            final Resource child = Resource.Factory.create();
+            child.getModel().get("name").set("x");
+            resource.registerChild(CHILD, child);
+            original.registerChild(subsystem, resource);
+        }
+    }
+
+    @Test
+    public void testCopiesOnlyModifiedPath() {
+        final CopyOnWriteModel model = new CopyOnWriteModel();
+        final Resource root = model.copyRoot(original);
+        final Resource b = model.getChildForUpdate(root, SUBSYSTEM_B);
+        b.getModel().get("name").set("modified");
+
+        assertNotSame(original.getChild(SUBSYSTEM_B), b);
+        assertSame(b, root.getChild(SUBSYSTEM_B));
+        assertSame(original.getChild(SUBSYSTEM_A), root.getChild(SUBSYSTEM_A));
+        assertSame(original.getChild(SUBSYSTEM_C), root.getChild(SUBSYSTEM_C));
+        assertSame(original.getChild(SUBSYSTEM_B).getChild(CHILD), b.getChild(CHILD));
+        assertEquals("b", original.getChild(SUBSYSTEM_B).getModel().get("name").asString());
+        // the order of the children must be retained
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<String>(root.getChildrenNames("subsystem")));
+    }
+
+    @Test
+    public void testCopiesOnlyOnce() {
+        final CopyOnWriteModel model = new CopyOnWriteModel();
+        final Resource root = model.copyRoot(original);
+        final Resource a = model.getChildForUpdate(root, SUBSYSTEM_A);
+        final Resource child = model.getChildForUpdate(a, CHILD);
+        assertSame(a, model.getChildForUpdate(root, SUBSYSTEM_A));
+        assertSame(child, model.getChildForUpdate(a, CHILD));
+        assertNull(model.getChildForUpdate(a, PathElement.pathElement("child", "y")));
+    }
+
+    @Test
+    public void testDeepCopy() {
+        final CopyOnWriteModel model = new CopyOnWriteModel();
+        final Resource root = model.copyRoot(original);
+        final Resource a = model.getChildForUpdate(root, SUBSYSTEM_A);
+        model.requireDeepCopy(a);
+        final Resource child = a.getChild(CHILD);
+        assertNotSame(original.getChild(SUBSYSTEM_A).getChild(CHILD), child);
+        child.getModel().get("name").set("modified");
+        assertEquals("x", original.getChild(SUBSYSTEM_A).getChild(CHILD).getModel().get("name").asString());
+
+        // references handed out before must remain valid
+        assertSame(a, model.getChildForUpdate(root, SUBSYSTEM_A));
+        assertSame(child, model.getChildForUpdate(a, CHILD));
+        model.requireDeepCopy(root);
+        assertSame(a, root.getChild(SUBSYSTEM_A));
+        assertSame(child, a.getChild(CHILD));
+        assertNotSame(original.getChild(SUBSYSTEM_B), root.getChild(SUBSYSTEM_B));
+    }
+
+    @Test
+    public void testRemoveAndAdd() {
+        final CopyOnWriteModel model = new CopyOnWriteModel();
+        final Resource root = model.copyRoot(original);
+        final Resource a = model.getChildForUpdate(root, SUBSYSTEM_A);
+        a.removeChild(CHILD);
+        final Resource created = Resource.Factory.create();
+        root.registerChild(PathElement.pathElement("subsystem", "d"), created);
+        model.registerCreated(created, true);
+
+        assertFalse(a.hasChild(CHILD));
+        assertSame(created, model.getChildForUpdate(root, PathElement.pathElement("subsystem", "d")));
+        assertFalse(original.hasChild(PathElement.pathElement("subsystem", "d")));
+        assertTrue(original.getChild(SUBSYSTEM_A).hasChild(CHILD));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.test;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.ModelOnlyWriteAttributeHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the latency of a {@code write-attribute} operation depending on the size of the management model.
+ * Only the resources along the address of the written attribute should be copied, so the latency should be
+ * largely independent of the number of resources. {@link #cloneModel()} measures the cost of cloning the whole
+ * model, which is what each write used to incur.
+ *
+ * <p>Not a test, run it using {@link #main(String[])} from the test class path.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class WriteAttributeBenchmark extends AbstractControllerTestBase {
+
+    private static final String PARENT = "parent";
+    private static final String CHILD = "child";
+    private static final int CHILDREN = 10;
+
+    private static final SimpleAttributeDefinition ATTRIBUTE = SimpleAttributeDefinitionBuilder.create(VALUE, ModelType.STRING, true).build();
+
+    /** The number of parent resources, each of which has {@value #CHILDREN} children. */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private Resource rootResource;
+    private ModelNode writeOperation;
+    private int counter;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        setupController();
+        writeOperation = createOperation(WRITE_ATTRIBUTE_OPERATION, PARENT, String.valueOf(size / 2), CHILD, "0");
+        writeOperation.get(NAME).set(VALUE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdownServiceContainer();
+    }
+
+    @Benchmark
+    public ModelNode writeAttribute() throws OperationFailedException {
+        writeOperation.get(VALUE).set(String.valueOf(counter++));
+        return executeForResult(writeOperation);
+    }
+
+    @Benchmark
+    public Resource cloneModel() {
+        return rootResource.clone();
+    }
+
+    @Override
+    protected void initModel(Resource rootResource, ManagementResourceRegistration registration) {
+        this.rootResource = rootResource;
+        GlobalOperationHandlers.registerGlobalOperations(registration, processType);
+        final DescriptionProvider descriptionProvider = new DescriptionProvider() {
+            @Override
+            public ModelNode getModelDescription(Locale locale) {
+                final ModelNode description = new ModelNode();
+                description.get(DESCRIPTION).set("A benchmark resource");
+                return description;
+            }
+        };
+        registration.registerOperationHandler("setup", new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                final ModelNode model = new ModelNode();
+                for (int i = 0; i < size; i++) {
+                    for (int j = 0; j < CHILDREN; j++) {
+                        model.get(PARENT, String.valueOf(i), CHILD, String.valueOf(j), VALUE).set("initial");
+                    }
+                }
+                createModel(context, model);
+                context.stepCompleted();
+            }
+        }, descriptionProvider, false, OperationEntry.EntryType.PRIVATE);
+        final ManagementResourceRegistration parent = registration.registerSubModel(PathElement.pathElement(PARENT), descriptionProvider);
+        final ManagementResourceRegistration child = parent.registerSubModel(PathElement.pathElement(CHILD), descriptionProvider);
+        child.registerReadWriteAttribute(ATTRIBUTE, null, new ModelOnlyWriteAttributeHandler(ATTRIBUTE));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(WriteAttributeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -69,6 +69,20 @@ public interface ContentRepository {
      */
     byte[] addContent(InputStream stream) throws IOException;
 
+    /**
+     * Add the given content, of which the hash is already known, to the repository. If content with the expected hash
+     * is already stored, the stream is not read at all, so callers can avoid transferring and hashing content the
+     * repository already has. Otherwise the content is only stored if its hash matches the expected hash.
+     *
+     * @param stream stream from which the content can be read. Cannot be <code>null</code>
+     * @param expectedHash the hash the content is expected to have, or <code>null</code> if it is not known
+     * @return the hash of the content that will be used as an internal identifier
+     *         for the content. Will not be <code>null</code>
+     * @throws IOException if there is a problem reading the stream, or if the hash of the content read does not
+     *         match the expected hash
+     */
+    byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException;
+
     /**
      * Adds a reference to the content hash.
      *
@@ -131,8 +145,8 @@ public interface ContentRepository {
         private static class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
 
             protected static final String CONTENT = "content";
+            private static final String SHA_1 = "SHA-1";
             private final File repoRoot;
-            protected final MessageDigest messageDigest;
             private final Map<String, Set<Object>> deploymentHashReferences = new HashMap<String, Set<Object>>();
 
             protected ContentRepositoryImpl(final File repoRoot) {
@@ -151,45 +165,43 @@ public interface ContentRepository {
                 }
                 this.repoRoot = repoRoot;
 
-                try {
-                    this.messageDigest = MessageDigest.getInstance("SHA-1");
-                } catch (NoSuchAlgorithmException e) {
-                    throw DeploymentRepositoryMessages.MESSAGES.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
-                }
+                // fail early if SHA-1 is not available
+                createMessageDigest();
             }
 
             @Override
             public byte[] addContent(InputStream stream) throws IOException {
-                byte[] sha1Bytes;
-                File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
-                FileOutputStream fos = new FileOutputStream(tmp);
-                synchronized (messageDigest) {
-                    messageDigest.reset();
-                    try {
-                        DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                        BufferedInputStream bis = new BufferedInputStream(stream);
-                        byte[] bytes = new byte[8192];
-                        int read;
-                        while ((read = bis.read(bytes)) > -1) {
-                            dos.write(bytes, 0, read);
-                        }
-                        fos.flush();
-                        fos.getFD().sync();
-                        fos.close();
-                        fos = null;
+                return addContent(stream, null);
+            }
+
+            @Override
+            public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+                if (expectedHash != null && hasContent(expectedHash)) {
+                    DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content %s is already present in repository, not reading it", HashUtil.bytesToHexString(expectedHash));
+                    return expectedHash;
+                }
+                // each upload uses its own digest, so concurrent uploads don't have to wait for each other
+                final MessageDigest messageDigest = createMessageDigest();
+                final File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
+                final byte[] sha1Bytes;
+                boolean ok = false;
+                try {
+                    // the content is hashed while it is copied
+                    copyStream(stream, tmp, messageDigest);
+                    sha1Bytes = messageDigest.digest();
+                    if (expectedHash != null && !MessageDigest.isEqual(expectedHash, sha1Bytes)) {
+                        throw DeploymentRepositoryMessages.MESSAGES.contentHashMismatch(HashUtil.bytesToHexString(sha1Bytes), HashUtil.bytesToHexString(expectedHash));
                     }
-                    finally {
-                        safeClose(fos);
+                    ok = true;
+                } finally {
+                    if (!ok) {
+                        deleteTempFile(tmp);
                     }
-                    sha1Bytes = messageDigest.digest();
                 }
                 final File realFile = getDeploymentContentFile(sha1Bytes, true);
                 if(hasContent(sha1Bytes)) {
                     // we've already got this content
-                    if (!tmp.delete()) {
-                        DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(tmp.getName());
-                        tmp.deleteOnExit();
-                    }
+                    deleteTempFile(tmp);
                     DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", realFile.getAbsolutePath());
                 } else {
                     moveTempToPermanent(tmp, realFile);
@@ -199,6 +211,41 @@ public interface ContentRepository {
                 return sha1Bytes;
             }
 
+            private static MessageDigest createMessageDigest() {
+                try {
+                    return MessageDigest.getInstance(SHA_1);
+                } catch (NoSuchAlgorithmException e) {
+                    throw DeploymentRepositoryMessages.MESSAGES.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+                }
+            }
+
+            private static void copyStream(final InputStream stream, final File tmp, final MessageDigest messageDigest) throws IOException {
+                FileOutputStream fos = new FileOutputStream(tmp);
+                try {
+                    DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
+                    BufferedInputStream bis = new BufferedInputStream(stream);
+                    byte[] bytes = new byte[8192];
+                    int read;
+                    while ((read = bis.read(bytes)) > -1) {
+                        dos.write(bytes, 0, read);
+                    }
+                    fos.flush();
+                    fos.getFD().sync();
+                    fos.close();
+                    fos = null;
+                }
+                finally {
+                    safeClose(fos);
+                }
+            }
+
+            private static void deleteTempFile(final File tmp) {
+                if (tmp.exists() && !tmp.delete()) {
+                    DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(tmp.getName());
+                    tmp.deleteOnExit();
+                }
+            }
+
             @Override
             public void addContentReference(byte[] hash, Object reference) {
                 String hashString = HashUtil.bytesToHexString(hash);
@@ -275,7 +322,8 @@ public interface ContentRepository {
                     // AS7-3574. Try to avoid writing the permanent file bit by bit in we crash in the middle.
                     // Copy tmpFile to another tmpfile in the same dir as the permanent file (and thus same filesystem)
                     // and see then if we can rename it.
-                    File localTmp = new File(permanentFile.getParent(), "tmp");
+                    // The same content may be added concurrently, so use a unique name
+                    File localTmp = File.createTempFile(CONTENT, "tmp", permanentFile.getParentFile());
                     try {
                         copyFile(tmpFile, localTmp);
                         if (!localTmp.renameTo(permanentFile)) {
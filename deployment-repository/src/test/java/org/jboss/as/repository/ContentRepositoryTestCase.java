@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of adding content of which the hash is known to a {@link ContentRepository}.
+ */
+public class ContentRepositoryTestCase {
+
+    private static final byte[] CONTENT = "content".getBytes();
+
+    private File root;
+    private ContentRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        root = File.createTempFile("content-repository", null);
+        root.delete();
+        root.mkdir();
+        repository = ContentRepository.Factory.create(root);
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Test
+    public void testKnownHashDoesNotReadStream() throws Exception {
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(CONTENT));
+        final InputStream unreadable = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("the stream should not be read");
+            }
+        };
+
+        assertArrayEquals(hash, repository.addContent(unreadable, hash));
+    }
+
+    @Test
+    public void testUnknownContentIsRead() throws Exception {
+        final byte[] hash = MessageDigest.getInstance("SHA-1").digest(CONTENT);
+
+        assertArrayEquals(hash, repository.addContent(new ByteArrayInputStream(CONTENT), hash));
+        assertTrue(repository.hasContent(hash));
+    }
+
+    @Test
+    public void testHashMismatch() throws Exception {
+        final byte[] hash = MessageDigest.getInstance("SHA-1").digest(CONTENT);
+        final byte[] other = "other content".getBytes();
+
+        try {
+            repository.addContent(new ByteArrayInputStream(other), hash);
+            fail("should have thrown an exception");
+        } catch (IOException expected) {
+            // the hash of the content read is not the expected one
+        }
+        assertFalse(repository.hasContent(hash));
+        assertFalse(repository.hasContent(MessageDigest.getInstance("SHA-1").digest(other)));
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
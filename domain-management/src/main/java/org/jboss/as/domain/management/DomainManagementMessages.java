@@ -27,6 +27,7 @@ import java.security.GeneralSecurityException;
 import java.util.Set;
 
 import javax.naming.NamingException;
+import javax.naming.OperationNotSupportedException;
 import javax.security.auth.callback.Callback;
 import javax.security.auth.callback.UnsupportedCallbackException;
 import javax.xml.stream.Location;
@@ -865,6 +866,24 @@ public interface DomainManagementMessages {
     @Message(id = 15298, value = "The password must be different from the username")
     PasswordValidationException passwordUsernameMatchError();
 
+    /**
+     * Creates an exception indicating a pooled LDAP connection was used after it was closed.
+     *
+     * @return a {@link NamingException} for the error.
+     */
+    @Message(id = 15299, value = "The LDAP connection has already been closed")
+    NamingException ldapConnectionClosed();
+
+    /**
+     * Creates an exception indicating the environment of a pooled LDAP connection can not be changed by a borrower.
+     *
+     * @param property the environment property.
+     *
+     * @return a {@link OperationNotSupportedException} for the error.
+     */
+    @Message(id = 15219, value = "The environment property '%s' of a pooled LDAP connection can not be changed")
+    OperationNotSupportedException pooledLdapConnectionEnvironmentChange(String property);
+
     /*
      * Logging IDs 15200 to 15299 are reserved for domain management, the file DomainManagementLogger also contains messages in
      * this range commencing 15200.
@@ -28,8 +28,11 @@ import static org.jboss.as.domain.management.connections.ldap.LdapConnectionReso
 import static org.jboss.as.domain.management.connections.ldap.LdapConnectionResourceDefinition.URL;
 import static org.jboss.as.domain.management.connections.ldap.LdapConnectionResourceDefinition.SEARCH_DN;
 import static org.jboss.as.domain.management.connections.ldap.LdapConnectionResourceDefinition.SEARCH_CREDENTIAL;
+import static org.jboss.as.domain.management.connections.ldap.LdapConnectionResourceDefinition.SEARCH_POOL_IDLE_TIMEOUT;
+import static org.jboss.as.domain.management.connections.ldap.LdapConnectionResourceDefinition.SEARCH_POOL_MAX_SIZE;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
@@ -100,8 +103,11 @@ public class LdapConnectionAddHandler extends AbstractAddStepHandler {
         String searchDn = searchDnNode.isDefined() ? searchDnNode.asString() : null;
         ModelNode searchCredentialNode = SEARCH_CREDENTIAL.resolveModelAttribute(context, model);
         String searchCredential = searchCredentialNode.isDefined() ? searchCredentialNode.asString() : null;
+        int searchPoolMaxSize = SEARCH_POOL_MAX_SIZE.resolveModelAttribute(context, model).asInt();
+        long searchPoolIdleTimeout = TimeUnit.SECONDS.toMillis(SEARCH_POOL_IDLE_TIMEOUT.resolveModelAttribute(context, model).asLong());
 
-        return connectionManagerService.setConfiguration(initialContextFactory, url, searchDn, searchCredential);
+        return connectionManagerService.setConfiguration(initialContextFactory, url, searchDn, searchCredential,
+                searchPoolMaxSize, searchPoolIdleTimeout);
     }
 
 }
@@ -52,28 +52,35 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
 
     private final InjectedValue<SSLIdentity> sslIdentity = new InjectedValue<SSLIdentity>();
 
+    private final SearchConnectionPool searchConnectionPool = new SearchConnectionPool();
     private volatile Config configuration;
     private volatile Hashtable<String, String> properties = new Hashtable<String, String>();
 
     public LdapConnectionManagerService() {
     }
 
-    Config setConfiguration(final String initialContextFactory, final String url, final String searchDn, final String searchCredential) {
+    Config setConfiguration(final String initialContextFactory, final String url, final String searchDn, final String searchCredential,
+            final int searchPoolMaxSize, final long searchPoolIdleTimeout) {
         Config configuration = new Config();
         configuration.initialContextFactory = initialContextFactory;
         configuration.url = url;
         configuration.searchDn = searchDn;
         configuration.searchCredential = searchCredential;
+        configuration.searchPoolMaxSize = searchPoolMaxSize;
+        configuration.searchPoolIdleTimeout = searchPoolIdleTimeout;
 
         try {
             return this.configuration;
         } finally {
-            this.configuration = configuration;
+            setConfiguration(configuration);
         }
     }
 
     void setConfiguration(final Config configuration) {
         this.configuration = configuration;
+        searchConnectionPool.configure(configuration.searchPoolMaxSize, configuration.searchPoolIdleTimeout);
+        // pooled connections were established using the previous configuration
+        searchConnectionPool.clear();
     }
 
     /*
@@ -84,6 +91,7 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
     }
 
     public synchronized void stop(StopContext context) {
+        searchConnectionPool.clear();
     }
 
     public synchronized LdapConnectionManagerService getValue() throws IllegalStateException, IllegalArgumentException {
@@ -103,6 +111,7 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
         properties.put(name, value);
 
         this.properties = properties;
+        searchConnectionPool.clear();
     }
 
     synchronized void removeProperty(final String name) {
@@ -110,10 +119,12 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
         properties.remove(name);
 
         this.properties = properties;
+        searchConnectionPool.clear();
     }
 
     void setPropertyImmediate(final String name, final String value) {
         properties.put(name, value);
+        searchConnectionPool.clear();
     }
 
     /*
@@ -121,7 +132,11 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
      */
 
     public Object getConnection() throws Exception {
-        return getConnection(getFullProperties(configuration), getSSLContext(false));
+        Object connection = searchConnectionPool.borrow();
+        if (connection == null) {
+            connection = getConnection(getFullProperties(configuration), getSSLContext(false), true);
+        }
+        return connection;
     }
 
     public Object getConnection(String principal, String credential) throws Exception {
@@ -130,10 +145,35 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
         connectionProperties.put(Context.SECURITY_CREDENTIALS, credential);
 
         // Use a trust only SSLContext as we do not want to authenticate using a pre-defined key in a KeyStore.
-        return getConnection(connectionProperties, getSSLContext(true));
+        return getConnection(connectionProperties, getSSLContext(true), false);
+    }
+
+    /*
+     * Statistics of the search connections.
+     */
+
+    /**
+     * Gets the number of search connections that were opened.
+     */
+    public long getConnectionsOpened() {
+        return searchConnectionPool.getOpened();
+    }
+
+    /**
+     * Gets the number of times an idle search connection was reused instead of opening a new one.
+     */
+    public long getConnectionsReused() {
+        return searchConnectionPool.getReused();
+    }
+
+    /**
+     * Gets the number of idle search connections in the pool.
+     */
+    public int getIdleConnections() {
+        return searchConnectionPool.getIdle();
     }
 
-    private Object getConnection(final Hashtable<String, String> properties, final SSLContext sslContext) throws Exception {
+    private Object getConnection(final Hashtable<String, String> properties, final SSLContext sslContext, final boolean pooled) throws Exception {
         ClassLoader old = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
         try {
             if (sslContext != null) {
@@ -152,7 +192,7 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
                 SECURITY_LOGGER.tracef("Connecting to LDAP with properties (%s)", logProperties.toString());
             }
 
-            return new InitialDirContext(properties);
+            return pooled ? searchConnectionPool.open(properties) : new InitialDirContext(properties);
         } finally {
             if (sslContext != null) {
                 ThreadLocalSSLSocketFactory.removeSSLSocketFactory();
@@ -214,6 +254,8 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
         private String url;
         private String searchDn;
         private String searchCredential;
+        private int searchPoolMaxSize;
+        private long searchPoolIdleTimeout;
     }
 
 }
@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.management.connections.ldap;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handler for reading the statistics of the search connections of an ldap management connection. Nothing is returned
+ * while the connection manager is not started.
+ */
+class LdapConnectionMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final LdapConnectionMetricsHandler INSTANCE = new LdapConnectionMetricsHandler();
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final String attributeName = operation.require(NAME).asString();
+
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(LdapConnectionManagerService.ServiceUtil.createServiceName(name));
+        if (controller != null && controller.getState() == ServiceController.State.UP) {
+            LdapConnectionManagerService service = LdapConnectionManagerService.class.cast(controller.getValue());
+            if (ModelDescriptionConstants.CONNECTIONS_OPENED.equals(attributeName)) {
+                context.getResult().set(service.getConnectionsOpened());
+            } else if (ModelDescriptionConstants.CONNECTIONS_REUSED.equals(attributeName)) {
+                context.getResult().set(service.getConnectionsReused());
+            } else if (ModelDescriptionConstants.IDLE_CONNECTIONS.equals(attributeName)) {
+                context.getResult().set(service.getIdleConnections());
+            }
+        }
+        context.stepCompleted();
+    }
+}
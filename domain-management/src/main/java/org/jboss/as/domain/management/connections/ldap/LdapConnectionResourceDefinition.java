@@ -29,8 +29,11 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.common.ControllerResolver;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -64,7 +67,24 @@ public class LdapConnectionResourceDefinition extends SimpleResourceDefinition {
     public static final SimpleAttributeDefinition INITIAL_CONTEXT_FACTORY = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.INITIAL_CONTEXT_FACTORY, ModelType.STRING, true)
             .setAllowExpression(true).setDefaultValue(new ModelNode(DEFAULT_INITIAL_CONTEXT)).setValidator(new StringLengthValidator(1, Integer.MAX_VALUE, true, true)).build();
 
-    public static final AttributeDefinition[] ATTRIBUTE_DEFINITIONS = {URL, SEARCH_DN, SEARCH_CREDENTIAL, SECURITY_REALM, INITIAL_CONTEXT_FACTORY};
+    public static final SimpleAttributeDefinition SEARCH_POOL_MAX_SIZE = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.SEARCH_POOL_MAX_SIZE, ModelType.INT, true)
+            .setAllowExpression(true).setDefaultValue(new ModelNode(10)).setValidator(new IntRangeValidator(0, true, true)).build();
+
+    public static final SimpleAttributeDefinition SEARCH_POOL_IDLE_TIMEOUT = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.SEARCH_POOL_IDLE_TIMEOUT, ModelType.LONG, true)
+            .setAllowExpression(true).setDefaultValue(new ModelNode(60L)).setMeasurementUnit(MeasurementUnit.SECONDS)
+            .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true)).build();
+
+    public static final AttributeDefinition[] ATTRIBUTE_DEFINITIONS = {URL, SEARCH_DN, SEARCH_CREDENTIAL, SECURITY_REALM, INITIAL_CONTEXT_FACTORY,
+            SEARCH_POOL_MAX_SIZE, SEARCH_POOL_IDLE_TIMEOUT};
+
+    static final SimpleAttributeDefinition CONNECTIONS_OPENED = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.CONNECTIONS_OPENED, ModelType.LONG, true)
+            .setStorageRuntime().build();
+
+    static final SimpleAttributeDefinition CONNECTIONS_REUSED = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.CONNECTIONS_REUSED, ModelType.LONG, true)
+            .setStorageRuntime().build();
+
+    static final SimpleAttributeDefinition IDLE_CONNECTIONS = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.IDLE_CONNECTIONS, ModelType.INT, true)
+            .setStorageRuntime().build();
 
     public static final LdapConnectionResourceDefinition INSTANCE = new LdapConnectionResourceDefinition();
 
@@ -85,6 +105,10 @@ public class LdapConnectionResourceDefinition extends SimpleResourceDefinition {
 
         LdapConnectionWriteAttributeHandler writeHandler = new LdapConnectionWriteAttributeHandler();
         writeHandler.registerAttributes(resourceRegistration);
+
+        resourceRegistration.registerMetric(CONNECTIONS_OPENED, LdapConnectionMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(CONNECTIONS_REUSED, LdapConnectionMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(IDLE_CONNECTIONS, LdapConnectionMetricsHandler.INSTANCE);
     }
 
 }
@@ -0,0 +1,249 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.management.connections.ldap;
+
+import static org.jboss.as.domain.management.DomainManagementLogger.SECURITY_LOGGER;
+import static org.jboss.as.domain.management.DomainManagementMessages.MESSAGES;
+
+import java.util.Deque;
+import java.util.Hashtable;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.naming.Context;
+import javax.naming.NamingException;
+import javax.naming.directory.InitialDirContext;
+
+/**
+ * Pool of the connections an {@link LdapConnectionManagerService} opens with the search credentials. A connection is
+ * returned to the pool when it is closed, so a search does not require a new connection, and possibly a TLS handshake,
+ * of its own.
+ *
+ * <p>The most recently used connection is reused first. A connection that was idle for more than
+ * {@value #VALIDATION_INTERVAL} ms is validated before it is reused, and a connection that was idle for longer than
+ * the idle timeout is closed when the pool is next used. Connections opened before the configuration of the
+ * connection manager changed are never reused.</p>
+ *
+ * <p>Each borrower gets a lease of its own on the pooled connection. Closing a lease returns the connection once, no
+ * matter how often the lease is closed, and the lease can not be used anymore, so a borrower can not return or use a
+ * connection which has since been borrowed by someone else. As the connection is shared by all its borrowers, a lease
+ * rejects changes to its environment.</p>
+ */
+final class SearchConnectionPool {
+
+    private static final long VALIDATION_INTERVAL = 1000;
+    /** Requests no attributes, so the validation only returns the empty root DSE entry */
+    private static final String[] NO_ATTRIBUTES = { "1.1" };
+
+    private final Deque<PooledDirContext> idle = new ConcurrentLinkedDeque<PooledDirContext>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger generation = new AtomicInteger();
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final long validationInterval;
+    private volatile int maxSize;
+    private volatile long idleTimeout;
+
+    SearchConnectionPool() {
+        this(VALIDATION_INTERVAL);
+    }
+
+    /**
+     * @param validationInterval the time in milliseconds a connection can be idle without being validated
+     */
+    SearchConnectionPool(final long validationInterval) {
+        this.validationInterval = validationInterval;
+    }
+
+    /**
+     * Sets the limits of the pool.
+     *
+     * @param maxSize the maximum number of idle connections, {@code 0} disables pooling
+     * @param idleTimeout the time in milliseconds after which an idle connection is closed
+     */
+    void configure(final int maxSize, final long idleTimeout) {
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Opens a new connection, which will be returned to this pool when it is closed.
+     *
+     * @param properties the environment of the connection
+     * @return the connection
+     * @throws NamingException if the connection can not be established
+     */
+    InitialDirContext open(final Hashtable<String, String> properties) throws NamingException {
+        PooledDirContext context = new PooledDirContext(properties, generation.get());
+        opened.incrementAndGet();
+        return new Lease(context);
+    }
+
+    /**
+     * Takes a valid idle connection from the pool.
+     *
+     * @return the connection, or {@code null} if there is none
+     * @throws NamingException if the connection can not be leased
+     */
+    InitialDirContext borrow() throws NamingException {
+        final long now = System.currentTimeMillis();
+        PooledDirContext context;
+        while ((context = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            final long idleTime = now - context.released;
+            if (context.generation != generation.get() || idleTime > idleTimeout
+                    || (idleTime > validationInterval && !context.isValid())) {
+                context.destroy();
+            } else {
+                reused.incrementAndGet();
+                return new Lease(context);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Closes all idle connections, and prevents the connections in use from being pooled again.
+     */
+    void clear() {
+        generation.incrementAndGet();
+        PooledDirContext context;
+        while ((context = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            context.destroy();
+        }
+    }
+
+    long getOpened() {
+        return opened.get();
+    }
+
+    long getReused() {
+        return reused.get();
+    }
+
+    int getIdle() {
+        return idleCount.get();
+    }
+
+    private void release(final PooledDirContext context) {
+        final long now = System.currentTimeMillis();
+        if (context.generation == generation.get() && idleCount.incrementAndGet() <= maxSize) {
+            context.released = now;
+            idle.offerFirst(context);
+        } else {
+            if (context.generation == generation.get()) {
+                idleCount.decrementAndGet();
+            }
+            context.destroy();
+        }
+        // the least recently used connections are at the end
+        PooledDirContext last;
+        while ((last = idle.pollLast()) != null) {
+            if (now - last.released > idleTimeout) {
+                idleCount.decrementAndGet();
+                last.destroy();
+            } else {
+                idle.offerLast(last);
+                break;
+            }
+        }
+    }
+
+    /**
+     * A pooled connection, which is only used through a {@link Lease}.
+     */
+    private static final class PooledDirContext extends InitialDirContext {
+        private final int generation;
+        private volatile long released;
+
+        PooledDirContext(final Hashtable<String, String> properties, final int generation) throws NamingException {
+            super(properties);
+            this.generation = generation;
+        }
+
+        Context getContext() throws NamingException {
+            return getDefaultInitCtx();
+        }
+
+        boolean isValid() {
+            try {
+                getAttributes("", NO_ATTRIBUTES);
+                return true;
+            } catch (NamingException e) {
+                SECURITY_LOGGER.tracef(e, "Discarding pooled LDAP connection");
+                return false;
+            }
+        }
+
+        void destroy() {
+            try {
+                close();
+            } catch (NamingException ignored) {
+            }
+        }
+    }
+
+    /**
+     * The use of a pooled connection by a single borrower, which returns the connection to the pool when it is closed.
+     */
+    private final class Lease extends InitialDirContext {
+        private final PooledDirContext connection;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Lease(final PooledDirContext connection) throws NamingException {
+            // all operations are delegated to the context of the connection, so this one is never initialized
+            super(true);
+            this.connection = connection;
+        }
+
+        @Override
+        protected Context getDefaultInitCtx() throws NamingException {
+            if (closed.get()) {
+                throw MESSAGES.ldapConnectionClosed();
+            }
+            return connection.getContext();
+        }
+
+        @Override
+        public Object addToEnvironment(final String propName, final Object propVal) throws NamingException {
+            // the environment belongs to the connection, a change would outlive the lease and affect later borrowers
+            throw MESSAGES.pooledLdapConnectionEnvironmentChange(propName);
+        }
+
+        @Override
+        public Object removeFromEnvironment(final String propName) throws NamingException {
+            throw MESSAGES.pooledLdapConnectionEnvironmentChange(propName);
+        }
+
+        @Override
+        public void close() throws NamingException {
+            // a lease may be closed more than once, its connection must only be returned once
+            if (closed.compareAndSet(false, true)) {
+                release(connection);
+            }
+        }
+    }
+}
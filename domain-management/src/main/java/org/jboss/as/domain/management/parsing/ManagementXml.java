@@ -565,6 +565,14 @@ public class ManagementXml {
                         LdapConnectionResourceDefinition.INITIAL_CONTEXT_FACTORY.parseAndSetParameter(value, add, reader);
                         break;
                     }
+                    case SEARCH_POOL_MAX_SIZE: {
+                        LdapConnectionResourceDefinition.SEARCH_POOL_MAX_SIZE.parseAndSetParameter(value, add, reader);
+                        break;
+                    }
+                    case SEARCH_POOL_IDLE_TIMEOUT: {
+                        LdapConnectionResourceDefinition.SEARCH_POOL_IDLE_TIMEOUT.parseAndSetParameter(value, add, reader);
+                        break;
+                    }
                     default: {
                         throw unexpectedAttribute(reader, i);
                     }
@@ -1430,6 +1438,20 @@ public class ManagementXml {
                         LdapAuthenticationResourceDefinition.ALLOW_EMPTY_PASSWORDS.parseAndSetParameter(value, ldapAuthentication, reader);
                         break;
                     }
+                    case CACHE_MAX_SIZE: {
+                        if (expectedNs == Namespace.DOMAIN_1_4) {
+                            throw unexpectedAttribute(reader, i);
+                        }
+                        LdapAuthenticationResourceDefinition.CACHE_MAX_SIZE.parseAndSetParameter(value, ldapAuthentication, reader);
+                        break;
+                    }
+                    case CACHE_EVICTION_TIME: {
+                        if (expectedNs == Namespace.DOMAIN_1_4) {
+                            throw unexpectedAttribute(reader, i);
+                        }
+                        LdapAuthenticationResourceDefinition.CACHE_EVICTION_TIME.parseAndSetParameter(value, ldapAuthentication, reader);
+                        break;
+                    }
                     default: {
                         throw unexpectedAttribute(reader, i);
                     }
@@ -1812,6 +1834,14 @@ public class ManagementXml {
                         LdapAuthorizationResourceDefinition.CONNECTION.parseAndSetParameter(value, ldapAuthorization, reader);
                         break;
                     }
+                    case CACHE_MAX_SIZE: {
+                        LdapAuthorizationResourceDefinition.CACHE_MAX_SIZE.parseAndSetParameter(value, ldapAuthorization, reader);
+                        break;
+                    }
+                    case CACHE_EVICTION_TIME: {
+                        LdapAuthorizationResourceDefinition.CACHE_EVICTION_TIME.parseAndSetParameter(value, ldapAuthorization, reader);
+                        break;
+                    }
                     default: {
                         throw unexpectedAttribute(reader, i);
                     }
@@ -3039,6 +3069,8 @@ public class ManagementXml {
             LdapAuthenticationResourceDefinition.RECURSIVE.marshallAsAttribute(userLdap, writer);
             LdapAuthenticationResourceDefinition.USER_DN.marshallAsAttribute(userLdap, writer);
             LdapAuthenticationResourceDefinition.ALLOW_EMPTY_PASSWORDS.marshallAsAttribute(userLdap, writer);
+            LdapAuthenticationResourceDefinition.CACHE_MAX_SIZE.marshallAsAttribute(userLdap, writer);
+            LdapAuthenticationResourceDefinition.CACHE_EVICTION_TIME.marshallAsAttribute(userLdap, writer);
 
             if (LdapAuthenticationResourceDefinition.USERNAME_FILTER.isMarshallable(userLdap)) {
                 writer.writeEmptyElement(Element.USERNAME_FILTER.getLocalName());
@@ -3111,6 +3143,8 @@ public class ManagementXml {
     private void writeLdapAuthorization(XMLExtendedStreamWriter writer, ModelNode ldapNode) throws XMLStreamException {
         writer.writeStartElement(Element.LDAP.getLocalName());
         LdapAuthorizationResourceDefinition.CONNECTION.marshallAsAttribute(ldapNode, writer);
+        LdapAuthorizationResourceDefinition.CACHE_MAX_SIZE.marshallAsAttribute(ldapNode, writer);
+        LdapAuthorizationResourceDefinition.CACHE_EVICTION_TIME.marshallAsAttribute(ldapNode, writer);
         if (ldapNode.hasDefined(USERNAME_TO_DN)) {
             ModelNode usenameToDn = ldapNode.require(USERNAME_TO_DN);
             if (usenameToDn.hasDefined(USERNAME_IS_DN) || usenameToDn.hasDefined(USERNAME_FILTER)
@@ -3207,6 +3241,8 @@ public class ManagementXml {
             LdapConnectionResourceDefinition.SEARCH_CREDENTIAL.marshallAsAttribute(connection, writer);
             LdapConnectionResourceDefinition.SECURITY_REALM.marshallAsAttribute(connection, writer);
             LdapConnectionResourceDefinition.INITIAL_CONTEXT_FACTORY.marshallAsAttribute(connection, writer);
+            LdapConnectionResourceDefinition.SEARCH_POOL_MAX_SIZE.marshallAsAttribute(connection, writer);
+            LdapConnectionResourceDefinition.SEARCH_POOL_IDLE_TIMEOUT.marshallAsAttribute(connection, writer);
             if (connection.hasDefined(PROPERTY)) {
                 List<Property> propertyList = connection.get(PROPERTY).asPropertyList();
                 if (propertyList.size() > 0) {
@@ -92,7 +92,8 @@ public class LdapAuthenticationResourceDefinition extends LdapResourceDefinition
             .build();
 
     public static final AttributeDefinition[] ATTRIBUTE_DEFINITIONS = {
-        CONNECTION, BASE_DN, RECURSIVE, USER_DN, ALLOW_EMPTY_PASSWORDS, USERNAME_FILTER, ADVANCED_FILTER
+        CONNECTION, BASE_DN, RECURSIVE, USER_DN, ALLOW_EMPTY_PASSWORDS, USERNAME_FILTER, ADVANCED_FILTER, CACHE_MAX_SIZE,
+        CACHE_EVICTION_TIME
     };
 
     public LdapAuthenticationResourceDefinition() {
@@ -106,6 +107,7 @@ public class LdapAuthenticationResourceDefinition extends LdapResourceDefinition
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         SecurityRealmChildWriteAttributeHandler handler = new LdapAuthenticationWriteHandler();
         handler.registerAttributes(resourceRegistration);
+        registerCacheMetrics(resourceRegistration);
     }
 
     protected static void validateAttributeCombination(ModelNode operation) throws OperationFailedException {
@@ -22,17 +22,29 @@
 
 package org.jboss.as.domain.management.security;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry.Flag;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
 
 /**
  * {@link ResourceDefinition} for a management security realm's LDAP-based Authentication / Authorization resource.
@@ -47,9 +59,72 @@ public abstract class LdapResourceDefinition extends SimpleResourceDefinition {
             .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
             .build();
 
+    public static final SimpleAttributeDefinition CACHE_MAX_SIZE = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.CACHE_MAX_SIZE, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(0))
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(0, true, true))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_EVICTION_TIME = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.CACHE_EVICTION_TIME, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(900))
+            .setAllowExpression(true)
+            .setMeasurementUnit(MeasurementUnit.SECONDS)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_HITS = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.CACHE_HITS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_MISSES = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.CACHE_MISSES, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
     public LdapResourceDefinition(PathElement pathElement, ResourceDescriptionResolver descriptionResolver,
             OperationStepHandler addHandler, OperationStepHandler removeHandler, Flag addRestartLevel, Flag removeRestartLevel) {
         super(pathElement, descriptionResolver, addHandler, removeHandler, addRestartLevel, removeRestartLevel);
     }
 
+    /**
+     * Registers the statistics of the search cache of the service installed for this resource.
+     */
+    protected void registerCacheMetrics(final ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerMetric(CACHE_HITS, CacheMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(CACHE_MISSES, CacheMetricsHandler.INSTANCE);
+    }
+
+    /**
+     * Handler for reading the statistics of the search cache of the LDAP authentication or authorization service of a
+     * security realm. Nothing is returned while the service is not started.
+     */
+    private static final class CacheMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        private static final CacheMetricsHandler INSTANCE = new CacheMetricsHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String realmName = ManagementUtil.getSecurityRealmName(operation);
+            final boolean hits = ModelDescriptionConstants.CACHE_HITS.equals(operation.require(NAME).asString());
+            final String type = PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR)).getLastElement().getKey();
+
+            final ServiceName serviceName = ModelDescriptionConstants.AUTHENTICATION.equals(type)
+                    ? UserLdapCallbackHandler.ServiceUtil.createServiceName(realmName)
+                    : LdapSubjectSupplementalService.ServiceUtil.createServiceName(realmName);
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceName);
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                Object service = controller.getValue();
+                if (service instanceof UserLdapCallbackHandler) {
+                    UserLdapCallbackHandler callbackHandler = (UserLdapCallbackHandler) service;
+                    context.getResult().set(hits ? callbackHandler.getCacheHits() : callbackHandler.getCacheMisses());
+                } else if (service instanceof LdapSubjectSupplementalService) {
+                    LdapSubjectSupplementalService supplemental = (LdapSubjectSupplementalService) service;
+                    context.getResult().set(hits ? supplemental.getCacheHits() : supplemental.getCacheMisses());
+                }
+            }
+            context.stepCompleted();
+        }
+    }
+
 }
@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.management.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of LDAP search results. Results expire a fixed time after they were searched, so changes in the
+ * directory become visible after at most that time. Once the cache is full, the least recently used result is
+ * evicted.
+ *
+ * @param <K> the search criteria
+ * @param <V> the search result
+ */
+final class LdapSearchCache<K, V> {
+
+    private final int maxSize;
+    private final long evictionTime;
+    private final Map<K, Entry<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize the maximum number of cached results, {@code 0} disables the cache
+     * @param evictionTime the time in milliseconds after which a result expires
+     */
+    LdapSearchCache(final int maxSize, final long evictionTime) {
+        this.maxSize = maxSize;
+        this.evictionTime = evictionTime;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, Entry<V>> eldest) {
+                return size() > LdapSearchCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets a cached result.
+     *
+     * @param key the search criteria
+     * @return the result, or {@code null} if it is not cached or has expired
+     */
+    V get(final K key) {
+        if (maxSize == 0) {
+            return null;
+        }
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && System.currentTimeMillis() > entry.expiration) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Caches a result.
+     *
+     * @param key the search criteria
+     * @param value the result
+     */
+    void put(final K key, final V value) {
+        if (maxSize == 0) {
+            return;
+        }
+        final Entry<V> entry = new Entry<V>(value, System.currentTimeMillis() + evictionTime);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiration;
+
+        Entry(final V value, final long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+    }
+}
@@ -69,13 +69,22 @@ public class LdapSubjectSupplementalService implements Service<SubjectSupplement
     private final boolean forceUserDnSearch;
     private final boolean iterative;
     private final GroupName groupName;
+    private final LdapSearchCache<String, LdapEntry> userCache;
+    private final LdapSearchCache<LdapEntry, LdapEntry[]> groupCache;
 
-    public LdapSubjectSupplementalService(final String realmName, final boolean shareConnection, final boolean forceUserDnSearch, final boolean iterative, final GroupName groupName) {
+    /**
+     * @param cacheMaxSize the maximum number of cached user and group search results, {@code 0} disables the cache
+     * @param cacheEvictionTime the time in milliseconds after which a cached search result expires
+     */
+    public LdapSubjectSupplementalService(final String realmName, final boolean shareConnection, final boolean forceUserDnSearch, final boolean iterative, final GroupName groupName,
+                                          final int cacheMaxSize, final long cacheEvictionTime) {
         this.realmName = realmName;
         this.shareConnection = shareConnection;
         this.forceUserDnSearch = forceUserDnSearch;
         this.iterative = iterative;
         this.groupName = groupName;
+        this.userCache = new LdapSearchCache<String, LdapEntry>(cacheMaxSize, cacheEvictionTime);
+        this.groupCache = new LdapSearchCache<LdapEntry, LdapEntry[]>(cacheMaxSize, cacheEvictionTime);
     }
 
     /*
@@ -110,6 +119,18 @@ public class LdapSubjectSupplementalService implements Service<SubjectSupplement
         return groupSearcherInjector;
     }
 
+    /*
+     *  Statistics of the user and group search caches
+     */
+
+    public long getCacheHits() {
+        return userCache.getHits() + groupCache.getHits();
+    }
+
+    public long getCacheMisses() {
+        return userCache.getMisses() + groupCache.getMisses();
+    }
+
     /*
      * SubjectSupplementalService Method
      */
@@ -141,8 +162,6 @@ public class LdapSubjectSupplementalService implements Service<SubjectSupplement
             Set<Principal> principals = subject.getPrincipals();
 
             try {
-                dirContext = getSearchContext();
-
                 // In general we expect exactly one RealmUser, however we could cope with multiple
                 // identities so load the groups for them all.
                 for (RealmUser current : users) {
@@ -155,6 +174,10 @@ public class LdapSubjectSupplementalService implements Service<SubjectSupplement
                 }
                 throw new IOException(e);
             } finally {
+                if (dirContext == null && shareConnection) {
+                    // all searches were answered by the cache, the connection of the authentication is not needed
+                    dirContext = (DirContext) sharedState.remove(DirContext.class.getName());
+                }
                 safeClose(dirContext);
                 dirContext = null;
             }
@@ -166,7 +189,11 @@ public class LdapSubjectSupplementalService implements Service<SubjectSupplement
                 entry = (LdapEntry) sharedState.get(LdapEntry.class.getName());
             }
             if (entry == null || user.getName().equals(entry.getSimpleName())==false) {
-                entry = userSearcher.userSearch(dirContext, user.getName());
+                entry = userCache.get(user.getName());
+                if (entry == null) {
+                    entry = userSearcher.userSearch(getSearchContext(), user.getName());
+                    userCache.put(user.getName(), entry);
+                }
             }
 
             return loadGroups(entry);
@@ -196,18 +223,33 @@ public class LdapSubjectSupplementalService implements Service<SubjectSupplement
                 return new LdapEntry[0];
             }
 
-            return groupSearcher.groupSearch(dirContext, entry);
+            LdapEntry[] groups = groupCache.get(entry);
+            if (groups == null) {
+                groups = groupSearcher.groupSearch(getSearchContext(), entry);
+                groupCache.put(entry, groups);
+            }
+            return groups;
         }
 
-        private DirContext getSearchContext() throws Exception {
-            DirContext searchContext;
-            if (shareConnection && sharedState.containsKey(DirContext.class.getName())) {
-                searchContext = (DirContext) sharedState.remove(DirContext.class.getName());
-            } else {
-                ConnectionManager connectionManager = LdapSubjectSupplementalService.this.connectionManager.getValue();
-                searchContext = (DirContext) connectionManager.getConnection();
+        /**
+         * Gets the connection to search with, which is only obtained once a search is not answered by the cache.
+         */
+        private DirContext getSearchContext() throws IOException {
+            if (dirContext == null) {
+                if (shareConnection && sharedState.containsKey(DirContext.class.getName())) {
+                    dirContext = (DirContext) sharedState.remove(DirContext.class.getName());
+                } else {
+                    ConnectionManager connectionManager = LdapSubjectSupplementalService.this.connectionManager.getValue();
+                    try {
+                        dirContext = (DirContext) connectionManager.getConnection();
+                    } catch (IOException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IOException(e);
+                    }
+                }
             }
-            return searchContext;
+            return dirContext;
         }
 
     }
@@ -51,6 +51,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -269,7 +270,10 @@ public class SecurityRealmAddHandler implements OperationStepHandler {
         final boolean recursive = LdapAuthenticationResourceDefinition.RECURSIVE.resolveModelAttribute(context, ldap).asBoolean();
         final boolean allowEmptyPasswords = LdapAuthenticationResourceDefinition.ALLOW_EMPTY_PASSWORDS.resolveModelAttribute(context, ldap).asBoolean();
         final String userDn = LdapAuthenticationResourceDefinition.USER_DN.resolveModelAttribute(context, ldap).asString();
-        UserLdapCallbackHandler ldapCallbackHandler = new UserLdapCallbackHandler(baseDn, usernameAttribute, advancedFilter, recursive, userDn, allowEmptyPasswords, shareConnection);
+        final int cacheMaxSize = LdapAuthenticationResourceDefinition.CACHE_MAX_SIZE.resolveModelAttribute(context, ldap).asInt();
+        final long cacheEvictionTime = TimeUnit.SECONDS.toMillis(LdapAuthenticationResourceDefinition.CACHE_EVICTION_TIME.resolveModelAttribute(context, ldap).asInt());
+        UserLdapCallbackHandler ldapCallbackHandler = new UserLdapCallbackHandler(baseDn, usernameAttribute, advancedFilter, recursive, userDn,
+                allowEmptyPasswords, shareConnection, cacheMaxSize, cacheEvictionTime);
 
         ServiceBuilder<?> ldapBuilder = serviceTarget.addService(ldapServiceName, ldapCallbackHandler);
         String connectionManager = LdapAuthenticationResourceDefinition.CONNECTION.resolveModelAttribute(context, ldap).asString();
@@ -476,7 +480,10 @@ public class SecurityRealmAddHandler implements OperationStepHandler {
 
         String connectionName = LdapAuthorizationResourceDefinition.CONNECTION.resolveModelAttribute(context, ldap).asString();
 
-        LdapSubjectSupplementalService service = new LdapSubjectSupplementalService(realmName, shareConnection, forceUserDnSearch, iterative, groupName);
+        final int cacheMaxSize = LdapAuthorizationResourceDefinition.CACHE_MAX_SIZE.resolveModelAttribute(context, ldap).asInt();
+        final long cacheEvictionTime = TimeUnit.SECONDS.toMillis(LdapAuthorizationResourceDefinition.CACHE_EVICTION_TIME.resolveModelAttribute(context, ldap).asInt());
+        LdapSubjectSupplementalService service = new LdapSubjectSupplementalService(realmName, shareConnection, forceUserDnSearch, iterative, groupName,
+                cacheMaxSize, cacheEvictionTime);
         ServiceBuilder<SubjectSupplementalService> ldapBuilder = serviceTarget.addService(ldapName, service)
                 .setInitialMode(ON_DEMAND);
         LdapConnectionManagerService.ServiceUtil.addDependency(ldapBuilder, service.getConnectionManagerInjector(), connectionName, false);
@@ -0,0 +1,228 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.management.connections.ldap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+
+import javax.naming.Context;
+import javax.naming.NamingException;
+import javax.naming.OperationNotSupportedException;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+import javax.naming.spi.InitialContextFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link SearchConnectionPool}, using connections to a fake directory.
+ */
+public class SearchConnectionPoolTestCase {
+
+    /** The connections opened by {@link FakeContextFactory} */
+    static final List<FakeConnection> connections = new ArrayList<FakeConnection>();
+
+    private final Hashtable<String, String> properties = new Hashtable<String, String>();
+    private SearchConnectionPool pool;
+
+    @Before
+    public void setUp() {
+        connections.clear();
+        properties.put(Context.INITIAL_CONTEXT_FACTORY, FakeContextFactory.class.getName());
+        pool = new SearchConnectionPool();
+        pool.configure(10, 60000);
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        pool.open(properties).close();
+        assertEquals(1, pool.getIdle());
+
+        final InitialDirContext context = pool.borrow();
+        assertNotNull(context);
+        assertEquals(0, pool.getIdle());
+        context.getAttributes("");
+        context.close();
+
+        assertEquals(1, connections.size());
+        assertEquals(1, connections.get(0).searches);
+        assertEquals(1, pool.getOpened());
+        assertEquals(1, pool.getReused());
+    }
+
+    @Test
+    public void testCloseTwice() throws Exception {
+        final InitialDirContext first = pool.open(properties);
+        first.close();
+        first.close();
+        assertEquals(1, pool.getIdle());
+
+        final InitialDirContext second = pool.borrow();
+        assertNotNull(second);
+        // closing the first lease again must not return the connection now used by the second one
+        first.close();
+        assertEquals(0, pool.getIdle());
+        assertNull(pool.borrow());
+        try {
+            first.getAttributes("");
+            fail("a closed lease should not be usable");
+        } catch (NamingException expected) {
+        }
+
+        second.getAttributes("");
+        assertEquals(1, connections.get(0).searches);
+        second.close();
+        assertEquals(1, pool.getIdle());
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        pool.configure(1, 60000);
+        final InitialDirContext first = pool.open(properties);
+        final InitialDirContext second = pool.open(properties);
+        first.close();
+        second.close();
+
+        assertEquals(1, pool.getIdle());
+        assertFalse(connections.get(0).closed);
+        assertTrue(connections.get(1).closed);
+    }
+
+    @Test
+    public void testValidation() throws Exception {
+        // validates every connection before it is reused
+        pool = new SearchConnectionPool(-1);
+        pool.configure(10, 60000);
+        pool.open(properties).close();
+        pool.open(properties).close();
+        assertEquals(2, pool.getIdle());
+
+        // the most recently used connection is reused first
+        connections.get(1).valid = false;
+        final InitialDirContext context = pool.borrow();
+        assertNotNull(context);
+        assertTrue(connections.get(1).closed);
+        assertFalse(connections.get(0).closed);
+        context.close();
+
+        connections.get(0).valid = false;
+        assertNull(pool.borrow());
+        assertTrue(connections.get(0).closed);
+        assertEquals(0, pool.getIdle());
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception {
+        // a released connection is immediately too old to be kept
+        pool.configure(10, -1);
+        pool.open(properties).close();
+
+        assertEquals(0, pool.getIdle());
+        assertTrue(connections.get(0).closed);
+        assertNull(pool.borrow());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        final InitialDirContext used = pool.open(properties);
+        pool.open(properties).close();
+        assertEquals(1, pool.getIdle());
+
+        pool.clear();
+        assertEquals(0, pool.getIdle());
+        assertTrue(connections.get(1).closed);
+
+        // a connection opened before the configuration changed is not pooled again
+        used.close();
+        assertEquals(0, pool.getIdle());
+        assertTrue(connections.get(0).closed);
+        assertNull(pool.borrow());
+    }
+
+    @Test
+    public void testEnvironmentIsNotChanged() throws Exception {
+        final InitialDirContext context = pool.open(properties);
+        try {
+            context.addToEnvironment(Context.REFERRAL, "follow");
+            fail("the environment of a pooled connection should not be changed");
+        } catch (OperationNotSupportedException expected) {
+        }
+        try {
+            context.removeFromEnvironment(Context.INITIAL_CONTEXT_FACTORY);
+            fail("the environment of a pooled connection should not be changed");
+        } catch (OperationNotSupportedException expected) {
+        }
+        context.close();
+        assertEquals(1, pool.getIdle());
+    }
+
+    /**
+     * The state of a connection to the fake directory.
+     */
+    static final class FakeConnection implements InvocationHandler {
+        volatile boolean valid = true;
+        volatile boolean closed;
+        int searches;
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String name = method.getName();
+            if ("close".equals(name)) {
+                closed = true;
+                return null;
+            } else if ("getAttributes".equals(name)) {
+                if (closed || !valid) {
+                    throw new NamingException("Connection lost");
+                }
+                searches++;
+                return new BasicAttributes();
+            } else if ("getEnvironment".equals(name)) {
+                return new Hashtable<String, Object>();
+            }
+            throw new UnsupportedOperationException(name);
+        }
+    }
+
+    public static final class FakeContextFactory implements InitialContextFactory {
+
+        @Override
+        public Context getInitialContext(final Hashtable<?, ?> environment) throws NamingException {
+            final FakeConnection connection = new FakeConnection();
+            connections.add(connection);
+            return (Context) Proxy.newProxyInstance(FakeContextFactory.class.getClassLoader(), new Class<?>[] { DirContext.class }, connection);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.management.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Tests of the expiration and eviction of {@link LdapSearchCache} entries.
+ */
+public class LdapSearchCacheTestCase {
+
+    @Test
+    public void testHit() {
+        final LdapSearchCache<String, String> cache = new LdapSearchCache<String, String>(10, 60000);
+        assertNull(cache.get("a"));
+        cache.put("a", "A");
+
+        assertEquals("A", cache.get("a"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testExpiration() {
+        // results expire as soon as they are cached
+        final LdapSearchCache<String, String> cache = new LdapSearchCache<String, String>(10, -1);
+        cache.put("a", "A");
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        final LdapSearchCache<String, String> cache = new LdapSearchCache<String, String>(2, 60000);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        // a is now used more recently than b
+        assertEquals("A", cache.get("a"));
+        cache.put("c", "C");
+
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+    }
+
+    @Test
+    public void testDisabled() {
+        final LdapSearchCache<String, String> cache = new LdapSearchCache<String, String>(0, 60000);
+        cache.put("a", "A");
+
+        assertNull(cache.get("a"));
+    }
+}
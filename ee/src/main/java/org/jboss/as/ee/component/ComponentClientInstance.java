@@ -39,6 +39,9 @@ public class ComponentClientInstance implements Serializable {
     }
 
     void prepareInterceptorContext(InterceptorContext interceptorContext){
+        if (contextInformation.isEmpty()) {
+            return;
+        }
         for(Map.Entry<Object, Object> entry : contextInformation.entrySet()) {
             interceptorContext.putPrivateData(entry.getKey(), entry.getValue());
         }
@@ -24,7 +24,7 @@ package org.jboss.as.ee.component;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.Map;
 
 import org.jboss.invocation.Interceptor;
@@ -37,18 +37,45 @@ import org.jboss.invocation.InterceptorContext;
  */
 public final class ProxyInvocationHandler implements InvocationHandler {
 
-    private final Map<Method, Interceptor> interceptors;
+    private final ViewMethodIndex methodIndex;
+    private final Interceptor[] interceptors;
     private final ComponentView componentView;
     private final ComponentClientInstance instance;
 
     /**
      * Construct a new instance.
+     * <p>
+     * The methods are looked up by identity, not by {@link Method#equals(Object) equality}: {@link #invoke} only finds
+     * the interceptor of a method if it is passed the very {@link Method} instance that is the key in the map. A proxy
+     * created by a {@link org.jboss.invocation.proxy.ProxyFactory} passes its
+     * {@link org.jboss.invocation.proxy.ProxyFactory#getCachedMethods() cached methods}, so the map must be keyed by
+     * those. An equal method obtained otherwise, for example from {@link Class#getMethod(String, Class[])}, which
+     * returns a new copy on each call, results in a {@link NoSuchMethodError}.
      *
-     * @param interceptors the interceptors map to use
+     * @param interceptors the interceptors map to use, keyed by the method instances the proxy passes to {@link #invoke}
      * @param instance The view instane data
      * @param componentView The component view
      */
     public ProxyInvocationHandler(final Map<Method, Interceptor> interceptors, ComponentClientInstance instance, ComponentView componentView) {
+        this.methodIndex = new ViewMethodIndex(new ArrayList<Method>(interceptors.keySet()));
+        this.interceptors = new Interceptor[methodIndex.size()];
+        for (int i = 0; i < this.interceptors.length; i++) {
+            this.interceptors[i] = interceptors.get(methodIndex.getMethod(i));
+        }
+        this.instance = instance;
+        this.componentView = componentView;
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param methodIndex the index of the view methods
+     * @param interceptors the interceptors of the view methods, by method index
+     * @param instance The view instane data
+     * @param componentView The component view
+     */
+    ProxyInvocationHandler(final ViewMethodIndex methodIndex, final Interceptor[] interceptors, ComponentClientInstance instance, ComponentView componentView) {
+        this.methodIndex = methodIndex;
         this.interceptors = interceptors;
         this.instance = instance;
         this.componentView = componentView;
@@ -56,7 +83,8 @@ public final class ProxyInvocationHandler implements InvocationHandler {
 
     /** {@inheritDoc} */
     public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
-        final Interceptor interceptor = interceptors.get(method);
+        final int index = methodIndex.indexOf(method);
+        final Interceptor interceptor = index < 0 ? null : interceptors[index];
         if (interceptor == null) {
             throw new NoSuchMethodError(method.toString());
         }
@@ -68,8 +96,8 @@ public final class ProxyInvocationHandler implements InvocationHandler {
         instance.prepareInterceptorContext(context);
         context.setParameters(args);
         context.setMethod(method);
-        // setup the public context data
-        context.setContextData(new HashMap<String, Object>());
+        // setup the public context data, which most invocations never use
+        context.setContextData(new LazyContextData());
         return interceptor.processInvocation(context);
     }
 }
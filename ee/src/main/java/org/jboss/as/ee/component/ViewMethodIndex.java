@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.component;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Assigns each method of a view a fixed index, so the interceptors of the view can be kept in arrays. The methods are
+ * looked up by identity, as a proxy always passes the {@link Method} instances of its
+ * {@link org.jboss.invocation.proxy.ProxyFactory#getCachedMethods() proxy factory}.
+ */
+final class ViewMethodIndex {
+
+    private final Method[] methods;
+    /** Open addressing hash table of method index + 1, {@code 0} marks a free slot */
+    private final int[] table;
+    private final int mask;
+
+    ViewMethodIndex(final List<Method> methods) {
+        this.methods = methods.toArray(new Method[methods.size()]);
+        int capacity = 2;
+        while (capacity < this.methods.length * 2) {
+            capacity <<= 1;
+        }
+        table = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < this.methods.length; i++) {
+            int slot = System.identityHashCode(this.methods[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    /**
+     * Get the index of a method.
+     *
+     * @param method the method
+     * @return the index, or {@code -1} if the method does not belong to the view
+     */
+    int indexOf(final Method method) {
+        int slot = System.identityHashCode(method) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (methods[entry - 1] == method) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the method with the given index.
+     *
+     * @param index the index
+     * @return the method
+     */
+    Method getMethod(final int index) {
+        return methods[index];
+    }
+
+    /**
+     * Get the number of methods of the view.
+     *
+     * @return the number of methods
+     */
+    int size() {
+        return methods.length;
+    }
+}
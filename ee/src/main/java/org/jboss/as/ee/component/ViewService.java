@@ -54,8 +54,10 @@ import static org.jboss.as.ee.EeMessages.MESSAGES;
 public final class ViewService implements Service<ComponentView> {
 
     private final InjectedValue<Component> componentInjector = new InjectedValue<Component>();
-    private final Map<Method, InterceptorFactory> viewInterceptorFactories;
-    private final Map<Method, InterceptorFactory> clientInterceptorFactories;
+    private final ViewMethodIndex methodIndex;
+    private final Set<Method> viewMethods;
+    private final InterceptorFactory[] viewInterceptorFactories;
+    private final InterceptorFactory[] clientInterceptorFactories;
     private final InterceptorFactory clientPostConstruct;
     private final InterceptorFactory clientPreDestroy;
     private final ProxyFactory<?> proxyFactory;
@@ -67,7 +69,7 @@ public final class ViewService implements Service<ComponentView> {
 
     private volatile Interceptor clientPostConstructInterceptor;
     private volatile Interceptor clientPreDestroyInterceptor;
-    private volatile Map<Method, Interceptor> clientInterceptors;
+    private volatile Interceptor[] clientInterceptors;
 
 
     public ViewService(final ViewConfiguration viewConfiguration) {
@@ -78,16 +80,22 @@ public final class ViewService implements Service<ComponentView> {
         final int methodCount = methods.size();
         clientPostConstruct = Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientPostConstructInterceptors());
         clientPreDestroy = Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientPreDestroyInterceptors());
-        final IdentityHashMap<Method, InterceptorFactory> viewInterceptorFactories = new IdentityHashMap<Method, InterceptorFactory>(methodCount);
-        final IdentityHashMap<Method, InterceptorFactory> clientInterceptorFactories = new IdentityHashMap<Method, InterceptorFactory>(methodCount);
-        for (final Method method : methods) {
+        // the interceptors of a method are looked up by the index of the method, rather than in a map on every invocation
+        methodIndex = new ViewMethodIndex(methods);
+        final Set<Method> viewMethods = Collections.newSetFromMap(new IdentityHashMap<Method, Boolean>(methodCount));
+        final InterceptorFactory[] viewInterceptorFactories = new InterceptorFactory[methodCount];
+        final InterceptorFactory[] clientInterceptorFactories = new InterceptorFactory[methodCount];
+        for (int i = 0; i < methodCount; i++) {
+            final Method method = methodIndex.getMethod(i);
+            viewMethods.add(method);
             if (method.getName().equals("finalize") && method.getParameterTypes().length == 0) {
-                viewInterceptorFactories.put(method, Interceptors.getTerminalInterceptorFactory());
+                viewInterceptorFactories[i] = Interceptors.getTerminalInterceptorFactory();
             } else {
-                viewInterceptorFactories.put(method, Interceptors.getChainedInterceptorFactory(viewConfiguration.getViewInterceptors(method)));
-                clientInterceptorFactories.put(method, Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientInterceptors(method)));
+                viewInterceptorFactories[i] = Interceptors.getChainedInterceptorFactory(viewConfiguration.getViewInterceptors(method));
+                clientInterceptorFactories[i] = Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientInterceptors(method));
             }
         }
+        this.viewMethods = Collections.unmodifiableSet(viewMethods);
         this.viewInterceptorFactories = viewInterceptorFactories;
         this.clientInterceptorFactories = clientInterceptorFactories;
         this.asyncMethods = viewConfiguration.getAsyncMethods();
@@ -117,11 +125,14 @@ public final class ViewService implements Service<ComponentView> {
         clientPostConstructInterceptor = clientPostConstruct.create(factoryContext);
         clientPreDestroyInterceptor = clientPreDestroy.create(factoryContext);
 
-        final Map<Method, InterceptorFactory> clientInterceptorFactories = ViewService.this.clientInterceptorFactories;
-        clientInterceptors = new IdentityHashMap<Method, Interceptor>(clientInterceptorFactories.size());
-        for (Method method : clientInterceptorFactories.keySet()) {
-            clientInterceptors.put(method, clientInterceptorFactories.get(method).create(factoryContext));
+        final InterceptorFactory[] clientInterceptorFactories = ViewService.this.clientInterceptorFactories;
+        final Interceptor[] clientInterceptors = new Interceptor[clientInterceptorFactories.length];
+        for (int i = 0; i < clientInterceptorFactories.length; i++) {
+            if (clientInterceptorFactories[i] != null) {
+                clientInterceptors[i] = clientInterceptorFactories[i].create(factoryContext);
+            }
         }
+        this.clientInterceptors = clientInterceptors;
 
 
     }
@@ -141,7 +152,7 @@ public final class ViewService implements Service<ComponentView> {
     class View implements ComponentView {
 
         private final Component component;
-        private final Map<Method, Interceptor> viewInterceptors;
+        private final Interceptor[] viewInterceptors;
         private final Map<MethodDescription, Method> methods;
         private final Map<Class<?>, Object> privateData;
 
@@ -149,21 +160,22 @@ public final class ViewService implements Service<ComponentView> {
             this.privateData = privateData;
             component = componentInjector.getValue();
             //we need to build the view interceptor chain
-            this.viewInterceptors = new IdentityHashMap<Method, Interceptor>();
+            this.viewInterceptors = new Interceptor[methodIndex.size()];
             this.methods = new HashMap<MethodDescription, Method>();
         }
 
         void initializeInterceptors() {
             final SimpleInterceptorFactoryContext factoryContext = new SimpleInterceptorFactoryContext();
-            final Map<Method, InterceptorFactory> viewInterceptorFactories = ViewService.this.viewInterceptorFactories;
-            final Map<Method, Interceptor> viewEntryPoints = viewInterceptors;
+            final InterceptorFactory[] viewInterceptorFactories = ViewService.this.viewInterceptorFactories;
+            final Interceptor[] viewEntryPoints = viewInterceptors;
             factoryContext.getContextData().put(Component.class, component);
             //we don't have this code in the constructor so we avoid passing around
             //a half constructed instance
             factoryContext.getContextData().put(ComponentView.class, this);
 
-            for (Method method : viewInterceptorFactories.keySet()) {
-                viewEntryPoints.put(method, viewInterceptorFactories.get(method).create(factoryContext));
+            for (int i = 0; i < viewInterceptorFactories.length; i++) {
+                final Method method = methodIndex.getMethod(i);
+                viewEntryPoints[i] = viewInterceptorFactories[i].create(factoryContext);
                 methods.put(new MethodDescription(method.getName(), DescriptorUtils.methodDescriptor(method)), method);
             }
 
@@ -181,8 +193,11 @@ public final class ViewService implements Service<ComponentView> {
         @Override
         public Object invoke(InterceptorContext interceptorContext) throws Exception {
             final Method method = interceptorContext.getMethod();
-            final Interceptor interceptor = viewInterceptors.get(method);
-            return interceptor.processInvocation(interceptorContext);
+            final int index = methodIndex.indexOf(method);
+            if (index < 0) {
+                throw new NoSuchMethodError(method.toString());
+            }
+            return viewInterceptors[index].processInvocation(interceptorContext);
         }
 
         public Component getComponent() {
@@ -201,7 +216,7 @@ public final class ViewService implements Service<ComponentView> {
 
         @Override
         public Set<Method> getViewMethods() {
-            return viewInterceptors.keySet();
+            return viewMethods;
         }
 
         @Override
@@ -268,7 +283,7 @@ public final class ViewService implements Service<ComponentView> {
             final Component component = componentView.getComponent();
             final ComponentClientInstance instance = new ComponentClientInstance();
             try {
-                proxy = proxyFactory.newInstance(new ProxyInvocationHandler(clientInterceptors, instance, componentView));
+                proxy = proxyFactory.newInstance(new ProxyInvocationHandler(methodIndex, clientInterceptors, instance, componentView));
             } catch (InstantiationException e) {
                 InstantiationError error = new InstantiationError(e.getMessage());
                 Throwable cause = e.getCause();
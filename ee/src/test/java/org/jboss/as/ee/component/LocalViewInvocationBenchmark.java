@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.jboss.invocation.Interceptors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the per-call overhead of invoking a local view through its {@link ProxyInvocationHandler}: resolving the
+ * interceptor chain of the method, setting up the {@link InterceptorContext} and passing it through the chain. The
+ * chain lengths approximate a managed bean view and a stateless session bean view, whose chain also stores an entry
+ * in the context data, as the security interceptors do.
+ *
+ * <p>Not a test, run it using {@link #main(String[])} from the test class path.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LocalViewInvocationBenchmark {
+
+    /** The kind of view. */
+    @Param({"managed-bean", "stateless-session-bean"})
+    public String view;
+
+    private ProxyInvocationHandler handler;
+    private Object proxy;
+    private Method method;
+    private Object[] args;
+
+    @Setup
+    public void setUp() throws Exception {
+        // a view of a typical business interface
+        final List<Method> methods = new ArrayList<Method>(Arrays.asList(Object.class.getMethods()));
+        methods.addAll(Arrays.asList(Comparable.class.getMethods()));
+        methods.addAll(Arrays.asList(CharSequence.class.getMethods()));
+        method = CharSequence.class.getMethod("charAt", int.class);
+        final ViewMethodIndex methodIndex = new ViewMethodIndex(methods);
+        final boolean sessionBean = view.equals("stateless-session-bean");
+        final Interceptor[] interceptors = new Interceptor[methodIndex.size()];
+        for (int i = 0; i < interceptors.length; i++) {
+            interceptors[i] = createChain(sessionBean ? 8 : 3, sessionBean);
+        }
+        handler = new ProxyInvocationHandler(methodIndex, interceptors, new ComponentClientInstance(), new StubComponentView());
+        proxy = new Object();
+        args = new Object[] {1};
+    }
+
+    @Benchmark
+    public Object invoke() throws Throwable {
+        return handler.invoke(proxy, method, args);
+    }
+
+    private static Interceptor createChain(final int length, final boolean storeContextData) {
+        final List<Interceptor> chain = new ArrayList<Interceptor>();
+        final int passThrough = storeContextData ? length - 2 : length - 1;
+        for (int i = 0; i < passThrough; i++) {
+            chain.add(new Interceptor() {
+                @Override
+                public Object processInvocation(final InterceptorContext context) throws Exception {
+                    return context.proceed();
+                }
+            });
+        }
+        if (storeContextData) {
+            chain.add(new Interceptor() {
+                @Override
+                public Object processInvocation(final InterceptorContext context) throws Exception {
+                    context.getContextData().put("principal", context);
+                    return context.proceed();
+                }
+            });
+        }
+        // the component instance
+        chain.add(new Interceptor() {
+            @Override
+            public Object processInvocation(final InterceptorContext context) {
+                return context.getParameters()[0];
+            }
+        });
+        return Interceptors.getChainedInterceptor(chain);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LocalViewInvocationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
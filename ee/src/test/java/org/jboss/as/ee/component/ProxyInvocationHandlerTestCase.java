@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ProxyInvocationHandler} and the {@link ViewMethodIndex} it uses.
+ */
+public class ProxyInvocationHandlerTestCase {
+
+    @Test
+    public void testMethodIndex() {
+        final List<Method> methods = new ArrayList<Method>(Arrays.asList(Object.class.getDeclaredMethods()));
+        methods.addAll(Arrays.asList(Map.class.getMethods()));
+        final ViewMethodIndex index = new ViewMethodIndex(methods);
+        assertEquals(methods.size(), index.size());
+        for (int i = 0; i < methods.size(); i++) {
+            assertEquals(i, index.indexOf(methods.get(i)));
+            assertSame(methods.get(i), index.getMethod(i));
+        }
+        assertEquals(-1, index.indexOf(List.class.getMethods()[0]));
+        assertEquals(-1, new ViewMethodIndex(new ArrayList<Method>()).indexOf(methods.get(0)));
+    }
+
+    @Test
+    public void testInvoke() throws Throwable {
+        final Method hashCode = Object.class.getMethod("hashCode");
+        final Method toString = Object.class.getMethod("toString");
+        final Map<Method, Interceptor> interceptors = new HashMap<Method, Interceptor>();
+        interceptors.put(hashCode, new Interceptor() {
+            @Override
+            public Object processInvocation(final InterceptorContext context) {
+                assertSame(context.getPrivateData(Object.class), context.getParameters()[0]);
+                assertTrue(context.getContextData().isEmpty());
+                context.getContextData().put("key", "value");
+                return context.getContextData().get("key");
+            }
+        });
+        final ComponentClientInstance instance = new ComponentClientInstance();
+        instance.setViewInstanceData(String.class, "data");
+        instance.constructionComplete();
+        interceptors.put(toString, new Interceptor() {
+            @Override
+            public Object processInvocation(final InterceptorContext context) {
+                assertNull(context.getContextData().get("key"));
+                assertFalse(context.getContextData().containsKey("key"));
+                return context.getPrivateData(String.class);
+            }
+        });
+        final ProxyInvocationHandler handler = new ProxyInvocationHandler(interceptors, instance, new StubComponentView());
+        final Object proxy = new Object();
+        assertEquals("value", handler.invoke(proxy, hashCode, new Object[] {proxy}));
+        assertEquals("data", handler.invoke(proxy, toString, null));
+        try {
+            handler.invoke(proxy, Object.class.getMethod("equals", Object.class), new Object[] {proxy});
+            fail("NoSuchMethodError expected");
+        } catch (NoSuchMethodError expected) {
+        }
+        // methods are looked up by identity, an equal copy of a method is not found
+        final Method hashCodeCopy = Object.class.getMethod("hashCode");
+        assertEquals(hashCode, hashCodeCopy);
+        try {
+            handler.invoke(proxy, hashCodeCopy, new Object[] {proxy});
+            fail("NoSuchMethodError expected");
+        } catch (NoSuchMethodError expected) {
+        }
+    }
+}
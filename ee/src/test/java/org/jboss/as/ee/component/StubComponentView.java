@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.invocation.InterceptorContext;
+
+/**
+ * A {@link ComponentView} without a component, for invoking a {@link ProxyInvocationHandler} directly.
+ */
+class StubComponentView implements ComponentView {
+
+    @Override
+    public ManagedReference createInstance() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ManagedReference createInstance(final Map<Object, Object> contextData) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object invoke(final InterceptorContext interceptorContext) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Component getComponent() {
+        return null;
+    }
+
+    @Override
+    public Class<?> getProxyClass() {
+        return null;
+    }
+
+    @Override
+    public Class<?> getViewClass() {
+        return null;
+    }
+
+    @Override
+    public Set<Method> getViewMethods() {
+        return null;
+    }
+
+    @Override
+    public Method getMethod(final String name, final String descriptor) {
+        return null;
+    }
+
+    @Override
+    public <T> T getPrivateData(final Class<T> clazz) {
+        return null;
+    }
+
+    @Override
+    public boolean isAsynchronous(final Method method) {
+        return false;
+    }
+}
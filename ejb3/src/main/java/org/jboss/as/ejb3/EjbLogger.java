@@ -585,6 +585,18 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 14265, value = "Error during transaction recovery")
     void errorDuringTransactionRecovery(@Cause Throwable cause);
 
+    @LogMessage(level = WARN)
+    @Message(id = 14266, value = "Timer journal segment %s contains an incomplete or corrupt record at offset %d, truncating")
+    void truncatingTimerJournalSegment(File segment, long offset);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 14267, value = "Could not compact timer journal %s")
+    void failToCompactTimerJournal(File directory, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14269, value = "Could not delete timer journal segment %s")
+    void cannotDeleteTimerJournalSegment(File segment);
+
 
 
     // Don't add message ids greater that 14299!!! If you need more first check what EjbMessages is
@@ -26,6 +26,7 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.rmi.RemoteException;
+import java.sql.SQLException;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
@@ -2502,6 +2503,30 @@ public interface EjbMessages {
     @Message(id = 14588, value = "CMP Entity Beans are not supported")
     DeploymentUnitProcessingException cmpEntityBeansAreNotSupported();
 
+    @Message(id = 14589, value = "Could not write to timer journal %s")
+    RuntimeException failToWriteTimerJournal(File directory, @Cause Throwable cause);
+
+    @Message(id = 14590, value = "Server busy: too many remote invocations of bean %s are in progress")
+    EJBException remoteInvocationRejected(String beanName);
+
+    @Message(id = 14591, value = "Timer journal %s could not be recovered, no records can be appended")
+    IOException timerJournalNotRecovered(File directory);
+
+    @Message(id = 14592, value = "Record %2$d of timer journal %1$s could not be written")
+    IOException failToWriteTimerJournalRecord(File directory, long sequence);
+
+    @Message(id = 14593, value = "Timer journal %s is closed")
+    IllegalStateException timerJournalClosed(File directory);
+
+    @Message(id = 14594, value = "Could not create timer journal directory %s")
+    IOException cannotCreateTimerJournalDirectory(File directory);
+
+    @Message(id = 14595, value = "Cannot add the claim columns to the table for timer persistence")
+    StartException cannotAddTimerClaimColumns(@Cause SQLException cause);
+
+    @Message(id = 14596, value = "No EJB was defined for identifier %d on this channel")
+    IOException unknownEjbIdentifier(int identifier);
+
     // STOP!!! Don't add message ids greater that 14599!!! If you need more first check what EjbLogger is
     // using and take more (lower) numbers from the available range for this module. If the range for the module is
     // all used, go to https://community.jboss.org/docs/DOC-16810 and allocate another block for this subsystem
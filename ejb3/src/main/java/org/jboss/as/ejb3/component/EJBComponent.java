@@ -52,6 +52,7 @@ import org.jboss.as.ejb3.component.interceptors.ShutDownInterceptorFactory;
 import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
 import org.jboss.as.ejb3.context.CurrentInvocationContext;
 import org.jboss.as.ejb3.remote.EJBRemoteTransactionsRepository;
+import org.jboss.as.ejb3.remote.RemoteInvocationQueue;
 import org.jboss.as.ejb3.security.EJBSecurityMetaData;
 import org.jboss.as.ejb3.tx.ApplicationExceptionDetails;
 import org.jboss.as.naming.ManagedReference;
@@ -103,6 +104,7 @@ public abstract class EJBComponent extends BasicComponent {
     private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
     private final UserTransaction userTransaction;
     private final ServerSecurityManager serverSecurityManager;
+    private volatile RemoteInvocationQueue remoteInvocationQueue;
 
     /**
      * Construct a new instance.
@@ -506,6 +508,35 @@ public abstract class EJBComponent extends BasicComponent {
         return invocationMetrics;
     }
 
+    /**
+     * Returns the queue bounding the concurrent remote invocations of this component.
+     *
+     * @return the queue, or {@code null} if remote invocations of this component are not bounded
+     */
+    public RemoteInvocationQueue getRemoteInvocationQueue() {
+        return remoteInvocationQueue;
+    }
+
+    /**
+     * Returns the queue bounding the concurrent remote invocations of this component, creating it if necessary.
+     *
+     * @param maxConcurrentInvocations the maximum number of concurrent invocations, if the queue is created
+     * @param maxQueuedInvocations the maximum number of queued invocations, if the queue is created
+     * @return the queue
+     */
+    public RemoteInvocationQueue getRemoteInvocationQueue(final int maxConcurrentInvocations, final int maxQueuedInvocations) {
+        RemoteInvocationQueue queue = remoteInvocationQueue;
+        if (queue == null) {
+            synchronized (this) {
+                queue = remoteInvocationQueue;
+                if (queue == null) {
+                    remoteInvocationQueue = queue = new RemoteInvocationQueue(maxConcurrentInvocations, maxQueuedInvocations);
+                }
+            }
+        }
+        return queue;
+    }
+
     protected ShutDownInterceptorFactory getShutDownInterceptorFactory() {
         return shutDownInterceptorFactory;
     }
@@ -22,17 +22,21 @@
 package org.jboss.as.ejb3.component.invocationmetrics;
 
 import java.lang.reflect.Method;
-import java.util.AbstractMap;
-import java.util.AbstractSet;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.ejb3.util.LatencyHistogram;
 
 /**
+ * The invocation metrics of a bean. Execution and wait times are recorded into {@link LatencyHistogram}s, for the
+ * bean as a whole and per method signature, so recording an invocation neither allocates nor contends on a single
+ * shared value.
+ *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
@@ -60,109 +64,165 @@ public class InvocationMetrics {
         }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
+    /**
+     * The execution and wait times of the invocations of a bean, or of one of its method signatures.
+     */
+    public static class Histograms {
+        private final LatencyHistogram executionTimes;
+        private final LatencyHistogram waitTimes;
+
+        private Histograms() {
+            executionTimes = new LatencyHistogram();
+            waitTimes = new LatencyHistogram();
+        }
+
+        private Histograms(final int stripes) {
+            executionTimes = new LatencyHistogram(stripes);
+            waitTimes = new LatencyHistogram(stripes);
+        }
+
+        void record(final long waitTime, final long executionTime) {
+            waitTimes.record(waitTime, TimeUnit.NANOSECONDS);
+            executionTimes.record(executionTime, TimeUnit.NANOSECONDS);
+        }
+
+        public LatencyHistogram getExecutionTimes() {
+            return executionTimes;
+        }
+
+        public long getInvocations() {
+            return executionTimes.getCount();
+        }
+
+        public LatencyHistogram getWaitTimes() {
+            return waitTimes;
+        }
+    }
+
+    // a bean can have many method signatures, so their histograms, which take 768 bytes per stripe, use few stripes
+    private static final int SIGNATURE_STRIPES = 4;
+
+    private final Histograms histograms = new Histograms();
     private final AtomicLong concurrent = new AtomicLong(0);
     private final AtomicLong peakConcurrent = new AtomicLong(0);
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
-
+    // methods of different views with the same signature share their histograms
+    private final ConcurrentMap<Method, Histograms> methods = new ConcurrentHashMap<Method, Histograms>();
+    private final ConcurrentMap<String, Histograms> signatures = new ConcurrentHashMap<String, Histograms>();
+
+    /**
+     * Records a finished invocation.
+     *
+     * @param method the invoked method
+     * @param invocationWaitTime the time the invocation waited for an instance, in nanoseconds
+     * @param invocationExecutionTime the time the invocation took to execute, in nanoseconds
+     */
     void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
         concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
+        histograms.record(invocationWaitTime, invocationExecutionTime);
+        histograms(method).record(invocationWaitTime, invocationExecutionTime);
+    }
+
+    private Histograms histograms(final Method method) {
+        Histograms methodHistograms = methods.get(method);
+        if (methodHistograms == null) {
+            final String signature = signature(method);
+            methodHistograms = signatures.get(signature);
+            if (methodHistograms == null) {
+                methodHistograms = new Histograms(SIGNATURE_STRIPES);
+                final Histograms prevHistograms = signatures.putIfAbsent(signature, methodHistograms);
+                if (prevHistograms != null)
+                    methodHistograms = prevHistograms;
+            }
+            methods.putIfAbsent(method, methodHistograms);
         }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
+        return methodHistograms;
+    }
+
+    private static String signature(final Method method) {
+        final StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        final Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0)
+                signature.append(',');
+            appendTypeName(signature, types[i]);
         }
+        return signature.append(')').toString();
     }
 
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
+    private static void appendTypeName(final StringBuilder signature, final Class<?> type) {
+        if (type.isArray()) {
+            appendTypeName(signature, type.getComponentType());
+            signature.append("[]");
+        } else {
+            signature.append(type.getName());
         }
-        return ref;
     }
 
     public long getConcurrent() {
         return concurrent.get();
     }
 
+    /**
+     * @return the total execution time of all invocations, in milliseconds
+     */
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return histograms.getExecutionTimes().getTotal(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the execution times of all invocations
+     */
+    public LatencyHistogram getExecutionTimes() {
+        return histograms.getExecutionTimes();
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return histograms.getInvocations();
     }
 
+    /**
+     * Returns the metrics per method name, summing up the metrics of overloaded methods.
+     *
+     * @return a snapshot of the metrics, keyed by method name
+     */
     public Map<String, Values> getMethods() {
-        return new AbstractMap<String, Values>() {
-            @Override
-            public Set<Entry<String, Values>> entrySet() {
-                return new AbstractSet<Entry<String, Values>>() {
-                    @Override
-                    public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
-                        return new Iterator<Entry<String, Values>>() {
-                            @Override
-                            public boolean hasNext() {
-                                return delegate.hasNext();
-                            }
-
-                            @Override
-                            public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
-                                return new Entry<String, Values>() {
-                                    @Override
-                                    public String getKey() {
-                                        return next.getKey();
-                                    }
-
-                                    @Override
-                                    public Values getValue() {
-                                        return next.getValue().get();
-                                    }
-
-                                    @Override
-                                    public Values setValue(final Values value) {
-                                        throw new UnsupportedOperationException("NYI");
-                                    }
-                                };
-                            }
-
-                            @Override
-                            public void remove() {
-                                throw new UnsupportedOperationException("NYI");
-                            }
-                        };
-                    }
-
-                    @Override
-                    public int size() {
-                        return methods.size();
-                    }
-                };
-            }
-        };
+        final Map<String, Values> result = new HashMap<String, Values>();
+        for (final Map.Entry<String, Histograms> entry : signatures.entrySet()) {
+            final String signature = entry.getKey();
+            final String name = signature.substring(0, signature.indexOf('('));
+            final Histograms methodHistograms = entry.getValue();
+            final Values values = new Values(methodHistograms.getInvocations(), methodHistograms.getWaitTimes().getTotal(TimeUnit.MILLISECONDS), methodHistograms.getExecutionTimes().getTotal(TimeUnit.MILLISECONDS));
+            final Values prevValues = result.put(name, values);
+            if (prevValues != null)
+                result.put(name, new Values(prevValues.invocations + values.invocations, prevValues.waitTime + values.waitTime, prevValues.executionTime + values.executionTime));
+        }
+        return result;
+    }
+
+    /**
+     * @return the histograms per method signature, e.g. {@code "foo(int,java.lang.String[])"}
+     */
+    public Map<String, Histograms> getMethodSignatures() {
+        return Collections.unmodifiableMap(signatures);
     }
 
     public long getPeakConcurrent() {
         return peakConcurrent.get();
     }
 
+    /**
+     * @return the total time all invocations waited for an instance, in milliseconds
+     */
     public long getWaitTime() {
-        return values.get().waitTime;
+        return histograms.getWaitTimes().getTotal(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the times all invocations waited for an instance
+     */
+    public LatencyHistogram getWaitTimes() {
+        return histograms.getWaitTimes();
     }
 
     void startInvocation() {
@@ -21,6 +21,7 @@
  */
 package org.jboss.as.ejb3.component.invocationmetrics;
 
+import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.interceptors.AbstractEJBInterceptor;
 import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.invocation.InterceptorContext;
@@ -39,7 +40,8 @@ public class WaitTimeInterceptor extends AbstractEJBInterceptor {
 
     @Override
     public Object processInvocation(final InterceptorContext context) throws Exception {
-        context.putPrivateData(START_WAIT_TIME, System.currentTimeMillis());
+        if (getComponent(context, EJBComponent.class).isStatisticsEnabled())
+            context.putPrivateData(START_WAIT_TIME, System.nanoTime());
         return context.proceed();
     }
 }
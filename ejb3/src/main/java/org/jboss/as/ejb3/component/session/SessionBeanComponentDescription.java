@@ -372,9 +372,11 @@ public abstract class SessionBeanComponentDescription extends EJBComponentDescri
             @Override
             public void configure(DeploymentPhaseContext context, ComponentConfiguration componentConfiguration, ViewDescription description, ViewConfiguration configuration) throws DeploymentUnitProcessingException {
                 EJBComponentDescription ejbComponentDescription = (EJBComponentDescription) componentConfiguration.getComponentDescription();
-                // Add CMT interceptor factory
+                // Add CMT interceptor factory, which resolves the transaction attributes of each method up front
                 if (TransactionManagementType.CONTAINER.equals(ejbComponentDescription.getTransactionManagementType())) {
-                    configuration.addViewInterceptor(CMTTxInterceptor.FACTORY, InterceptorOrder.View.CMT_TRANSACTION_INTERCEPTOR);
+                    for (Method method : configuration.getProxyFactory().getCachedMethods()) {
+                        configuration.addViewInterceptor(method, new CMTTxInterceptor.ViewMethodFactory(method), InterceptorOrder.View.CMT_TRANSACTION_INTERCEPTOR);
+                    }
                 }
             }
         });
@@ -248,7 +248,10 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
                 if (singletonComponentDescription.getConcurrencyManagementType() == ConcurrencyManagementType.BEAN) {
                     return;
                 }
-                configuration.addComponentInterceptor(ContainerManagedConcurrencyInterceptorFactory.INSTANCE, InterceptorOrder.Component.SINGLETON_CONTAINER_MANAGED_CONCURRENCY_INTERCEPTOR, false);
+                // the lock type and access timeout are resolved once per method, when the instance is created
+                for (Method method : configuration.getDefinedComponentMethods()) {
+                    configuration.addComponentInterceptor(method, new ContainerManagedConcurrencyInterceptorFactory(method), InterceptorOrder.Component.SINGLETON_CONTAINER_MANAGED_CONCURRENCY_INTERCEPTOR);
+                }
             }
         });
     }
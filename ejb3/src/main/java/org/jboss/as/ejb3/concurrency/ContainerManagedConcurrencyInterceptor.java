@@ -24,10 +24,8 @@ package org.jboss.as.ejb3.concurrency;
 
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
-import org.jboss.logging.Logger;
 
 import javax.ejb.LockType;
-import javax.interceptor.InvocationContext;
 import java.lang.reflect.Method;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -35,51 +33,43 @@ import java.util.concurrent.locks.ReadWriteLock;
 import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
 import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
 /**
+ * Acquires the container managed lock of a component instance for the invocations of a single component method. The
+ * lock type and access timeout of the method are fixed for the life time of the component, so they are resolved
+ * when the interceptor is created.
+ *
  * @author Jaikiran Pai
  */
 public class ContainerManagedConcurrencyInterceptor implements Interceptor {
 
     /**
-     * Logger
+     * The read or write lock of the component instance's {@link org.jboss.as.ejb3.concurrency.EJBReadWriteLock}
      */
-    private static final Logger logger = Logger.getLogger(ContainerManagedConcurrencyInterceptor.class);
+    private final Lock lock;
 
-    /**
-     * A spec compliant {@link org.jboss.as.ejb3.concurrency.EJBReadWriteLock}
-     */
-    private final ReadWriteLock readWriteLock = new EJBReadWriteLock();
+    private final long time;
 
-    private final LockableComponent lockableComponent;
+    private final TimeUnit unit;
 
-    public ContainerManagedConcurrencyInterceptor(LockableComponent component) {
+    /**
+     * Creates the interceptor of a component method.
+     *
+     * @param component     the component
+     * @param readWriteLock the lock of the component instance, shared by the interceptors of all its methods
+     * @param method        the component method
+     */
+    public ContainerManagedConcurrencyInterceptor(final LockableComponent component, final ReadWriteLock readWriteLock, final Method method) {
         if (component == null) {
             throw MESSAGES.componentIsNull(LockableComponent.class.getName());
         }
-        this.lockableComponent = component;
-    }
-
-    protected LockableComponent getLockableComponent() {
-        return this.lockableComponent;
-    }
-
-    @Override
-    public Object processInvocation(final InterceptorContext context) throws Exception {
-        final InvocationContext invocationContext = context.getInvocationContext();
-        LockableComponent lockableComponent = this.getLockableComponent();
-        // get the invoked method
-        Method invokedMethod = invocationContext.getMethod();
-        if (invokedMethod == null) {
-            throw MESSAGES.invocationNotApplicableForMethodInvocation(invocationContext);
-        }
         // get the Lock applicable for this method
-        Lock lock = getLock(lockableComponent, invokedMethod);
+        this.lock = getLock(component, readWriteLock, method);
         // the default access timeout (will be used in the absence of any explicit access timeout value for the invoked method)
-        AccessTimeoutDetails defaultAccessTimeout = lockableComponent.getDefaultAccessTimeout();
+        AccessTimeoutDetails defaultAccessTimeout = component.getDefaultAccessTimeout();
         // set to the default values
         long time = defaultAccessTimeout.getValue();
         TimeUnit unit = defaultAccessTimeout.getTimeUnit();
 
-        AccessTimeoutDetails accessTimeoutOnMethod = lockableComponent.getAccessTimeout(invokedMethod);
+        AccessTimeoutDetails accessTimeoutOnMethod = component.getAccessTimeout(method);
         if (accessTimeoutOnMethod != null) {
             if (accessTimeoutOnMethod.getValue() < 0) {
                 // for any negative value of timeout, we just default to max timeout val and max timeout unit.
@@ -94,20 +84,26 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
                 unit = accessTimeoutOnMethod.getTimeUnit();
             }
         }
+        this.time = time;
+        this.unit = unit;
+    }
+
+    @Override
+    public Object processInvocation(final InterceptorContext context) throws Exception {
         // try getting the lock
         boolean success = lock.tryLock(time, unit);
         if (!success) {
-            throw MESSAGES.concurrentAccessTimeoutException(invocationContext,time + unit.name());
+            throw MESSAGES.concurrentAccessTimeoutException(context.getInvocationContext(), time + unit.name());
         }
         try {
             // lock obtained. now proceed!
-            return invocationContext.proceed();
+            return context.proceed();
         } finally {
             lock.unlock();
         }
     }
 
-    private Lock getLock(LockableComponent lockableComponent, Method method) {
+    private static Lock getLock(LockableComponent lockableComponent, ReadWriteLock readWriteLock, Method method) {
         LockType lockType = lockableComponent.getLockType(method);
         switch (lockType) {
             case READ:
@@ -117,5 +113,4 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
         }
         throw MESSAGES.failToObtainLockIllegalType(lockType,method,lockableComponent);
     }
-
 }
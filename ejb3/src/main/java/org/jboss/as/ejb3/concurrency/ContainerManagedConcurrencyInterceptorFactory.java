@@ -22,28 +22,41 @@
 
 package org.jboss.as.ejb3.concurrency;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
 import org.jboss.as.ee.component.Component;
-import org.jboss.as.ee.component.ComponentInstanceInterceptorFactory;
 import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.InterceptorFactoryContext;
 
 /**
- * An {@link org.jboss.invocation.InterceptorFactory} which returns a new instance of {@link ContainerManagedConcurrencyInterceptor} on each
- * invocation to {@link #create(org.jboss.invocation.InterceptorFactoryContext)}. This {@link org.jboss.invocation.InterceptorFactory} can be used
- * for handling container managed concurrency invocations on a {@link LockableComponent}
+ * An {@link org.jboss.invocation.InterceptorFactory} which returns a new instance of {@link ContainerManagedConcurrencyInterceptor}
+ * for a component method on each invocation to {@link #create(org.jboss.invocation.InterceptorFactoryContext)}. The interceptors
+ * of all methods of a component instance share its {@link EJBReadWriteLock}. This {@link org.jboss.invocation.InterceptorFactory}
+ * can be used for handling container managed concurrency invocations on a {@link LockableComponent}
  * <p/>
  * User: Jaikiran Pai
  */
-public class ContainerManagedConcurrencyInterceptorFactory extends ComponentInstanceInterceptorFactory {
+public class ContainerManagedConcurrencyInterceptorFactory implements InterceptorFactory {
 
-    public static final ContainerManagedConcurrencyInterceptorFactory INSTANCE = new ContainerManagedConcurrencyInterceptorFactory();
+    private static final Object LOCK_KEY = new Object();
 
-    private ContainerManagedConcurrencyInterceptorFactory() {
+    private final Method method;
 
+    public ContainerManagedConcurrencyInterceptorFactory(final Method method) {
+        this.method = method;
     }
 
     @Override
-    protected Interceptor create(final Component component, final InterceptorFactoryContext context) {
-        return new ContainerManagedConcurrencyInterceptor((LockableComponent) component);
+    public Interceptor create(final InterceptorFactoryContext context) {
+        final Map<Object, Object> contextData = context.getContextData();
+        ReadWriteLock readWriteLock = (ReadWriteLock) contextData.get(LOCK_KEY);
+        if (readWriteLock == null) {
+            // a spec compliant lock for the component instance
+            contextData.put(LOCK_KEY, readWriteLock = new EJBReadWriteLock());
+        }
+        return new ContainerManagedConcurrencyInterceptor((LockableComponent) contextData.get(Component.class), readWriteLock, method);
     }
 }
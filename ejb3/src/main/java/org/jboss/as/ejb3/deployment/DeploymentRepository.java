@@ -50,17 +50,27 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
      */
     private volatile Map<DeploymentModuleIdentifier, DeploymentHolder> modules;
 
+    /**
+     * Immutable views of all deployed modules, and of all started modules, that are rebuilt whenever a module is added, started or removed.
+     * These sit on the invocation path, so reading them must not allocate.
+     */
+    private volatile Snapshot allModules = Snapshot.EMPTY;
+    private volatile Snapshot startedModules = Snapshot.EMPTY;
+
     private final List<DeploymentRepositoryListener> listeners = new ArrayList<DeploymentRepositoryListener>();
 
 
     @Override
     public void start(StartContext context) throws StartException {
         modules = Collections.emptyMap();
+        this.updateSnapshots();
     }
 
     @Override
     public void stop(StopContext context) {
         modules = null;
+        allModules = Snapshot.EMPTY;
+        startedModules = Snapshot.EMPTY;
     }
 
     @Override
@@ -72,6 +82,7 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
         final Map<DeploymentModuleIdentifier, DeploymentHolder> modules = new HashMap<DeploymentModuleIdentifier, DeploymentHolder>(this.modules);
         modules.put(identifier, new DeploymentHolder(deployment));
         this.modules = Collections.unmodifiableMap(modules);
+        this.updateSnapshots();
         for(final DeploymentRepositoryListener listener : listeners) {
             try {
                 listener.deploymentAvailable(identifier, deployment);
@@ -84,6 +95,7 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
     public synchronized void startDeployment(DeploymentModuleIdentifier identifier) {
         DeploymentHolder deployment = modules.get(identifier);
         deployment.started = true;
+        this.updateSnapshots();
         for(final DeploymentRepositoryListener listener : listeners) {
             try {
                 listener.deploymentStarted(identifier, deployment.deployment);
@@ -107,6 +119,7 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
         final Map<DeploymentModuleIdentifier, DeploymentHolder> modules = new HashMap<DeploymentModuleIdentifier, DeploymentHolder>(this.modules);
         modules.remove(identifier);
         this.modules = Collections.unmodifiableMap(modules);
+        this.updateSnapshots();
         for(final DeploymentRepositoryListener listener : listeners) {
             try {
                 listener.deploymentRemoved(identifier);
@@ -118,28 +131,55 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
 
     /**
      * Returns all the deployments. These deployments may not be in a started state, i.e. not all components might be ready to receive invocations.
-     * @return All the deployments
+     * @return An unmodifiable view of all the deployments
      */
     public Map<DeploymentModuleIdentifier, ModuleDeployment> getModules() {
-        Map<DeploymentModuleIdentifier, ModuleDeployment> modules = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>();
-        for(Map.Entry<DeploymentModuleIdentifier, DeploymentHolder> entry : this.modules.entrySet()) {
-            modules.put(entry.getKey(), entry.getValue().deployment);
-        }
-        return modules;
+        return this.allModules.modules;
     }
 
     /**
      * Returns all the deployments that are in a started state, i.e. all components are ready to recieve invocations.
-     * @return All the started deployments
+     * @return An unmodifiable view of all the started deployments
      */
     public Map<DeploymentModuleIdentifier, ModuleDeployment> getStartedModules() {
-        Map<DeploymentModuleIdentifier, ModuleDeployment> modules = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>();
+        return this.startedModules.modules;
+    }
+
+    /**
+     * Returns the deployment with the specified identity, which may not be in a started state.
+     * @return the deployment, or null if no such deployment exists
+     */
+    public ModuleDeployment getModule(final String appName, final String moduleName, final String distinctName) {
+        return this.allModules.getModule(appName, moduleName, distinctName);
+    }
+
+    /**
+     * Returns the EJB with the specified identity, whose deployment may not be in a started state.
+     * @return the EJB, or null if no such EJB exists
+     */
+    public EjbDeploymentInformation getEjb(final String appName, final String moduleName, final String distinctName, final String beanName) {
+        return this.allModules.getEjb(appName, moduleName, distinctName, beanName);
+    }
+
+    /**
+     * Returns the EJB with the specified identity, if its deployment is in a started state.
+     * @return the EJB, or null if no such EJB exists or if its deployment was not yet started
+     */
+    public EjbDeploymentInformation getStartedEjb(final String appName, final String moduleName, final String distinctName, final String beanName) {
+        return this.startedModules.getEjb(appName, moduleName, distinctName, beanName);
+    }
+
+    private void updateSnapshots() {
+        final Map<DeploymentModuleIdentifier, ModuleDeployment> all = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>();
+        final Map<DeploymentModuleIdentifier, ModuleDeployment> started = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>();
         for(Map.Entry<DeploymentModuleIdentifier, DeploymentHolder> entry : this.modules.entrySet()) {
+            all.put(entry.getKey(), entry.getValue().deployment);
             if(entry.getValue().started) {
-                modules.put(entry.getKey(), entry.getValue().deployment);
+                started.put(entry.getKey(), entry.getValue().deployment);
             }
         }
-        return modules;
+        this.allModules = new Snapshot(all);
+        this.startedModules = new Snapshot(started);
     }
 
     private class DeploymentHolder {
@@ -151,4 +191,47 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
         }
     }
 
+    /**
+     * An immutable set of deployments, indexed by application, module and distinct name, so that lookups do not need to
+     * construct a {@link DeploymentModuleIdentifier}.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Collections.<DeploymentModuleIdentifier, ModuleDeployment>emptyMap());
+
+        final Map<DeploymentModuleIdentifier, ModuleDeployment> modules;
+        private final Map<String, Map<String, Map<String, ModuleDeployment>>> index;
+
+        Snapshot(final Map<DeploymentModuleIdentifier, ModuleDeployment> modules) {
+            this.modules = Collections.unmodifiableMap(modules);
+            this.index = new HashMap<String, Map<String, Map<String, ModuleDeployment>>>();
+            for (Map.Entry<DeploymentModuleIdentifier, ModuleDeployment> entry : modules.entrySet()) {
+                final DeploymentModuleIdentifier identifier = entry.getKey();
+                Map<String, Map<String, ModuleDeployment>> app = this.index.get(identifier.getApplicationName());
+                if (app == null) {
+                    app = new HashMap<String, Map<String, ModuleDeployment>>();
+                    this.index.put(identifier.getApplicationName(), app);
+                }
+                Map<String, ModuleDeployment> module = app.get(identifier.getModuleName());
+                if (module == null) {
+                    module = new HashMap<String, ModuleDeployment>();
+                    app.put(identifier.getModuleName(), module);
+                }
+                module.put(identifier.getDistinctName(), entry.getValue());
+            }
+        }
+
+        ModuleDeployment getModule(final String appName, final String moduleName, final String distinctName) {
+            final Map<String, Map<String, ModuleDeployment>> app = this.index.get(appName);
+            if (app == null) {
+                return null;
+            }
+            final Map<String, ModuleDeployment> module = app.get(moduleName);
+            return (module != null) ? module.get(distinctName) : null;
+        }
+
+        EjbDeploymentInformation getEjb(final String appName, final String moduleName, final String distinctName, final String beanName) {
+            final ModuleDeployment module = this.getModule(appName, moduleName, distinctName);
+            return (module != null) ? module.getEjbs().get(beanName) : null;
+        }
+    }
 }
@@ -23,7 +23,6 @@
 package org.jboss.as.ejb3.iiop;
 
 import org.jboss.as.ejb3.EjbLogger;
-import org.jboss.as.ejb3.deployment.DeploymentModuleIdentifier;
 import org.jboss.as.ejb3.deployment.DeploymentRepository;
 import org.jboss.as.ejb3.deployment.EjbDeploymentInformation;
 import org.jboss.as.ejb3.deployment.ModuleDeployment;
@@ -107,7 +106,7 @@ public class RemoteObjectSubstitutionService implements RemoteObjectSubstitution
     }
 
     private EjbIIOPService serviceForLocator(final EJBLocator locator, DeploymentRepository deploymentRepository) {
-        final ModuleDeployment module = deploymentRepository.getModules().get(new DeploymentModuleIdentifier(locator.getAppName(), locator.getModuleName(), locator.getDistinctName()));
+        final ModuleDeployment module = deploymentRepository.getModule(locator.getAppName(), locator.getModuleName(), locator.getDistinctName());
         if (module == null) {
             EjbLogger.ROOT_LOGGER.couldNotFindEjbForLocatorIIOP(locator);
             return null;
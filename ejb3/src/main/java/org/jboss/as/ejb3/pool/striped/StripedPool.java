@@ -0,0 +1,339 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.striped;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.MeasuredPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.util.LatencyHistogram;
+
+/**
+ * A pool with a maximum size, optimized for many concurrent callers.
+ * <p/>
+ * Unlike {@link org.jboss.as.ejb3.pool.strictmax.StrictMaxPool}, neither the idle instances nor the permits limiting the
+ * number of instances in use are guarded by a single monitor or counter. Both are split into stripes, and each thread
+ * takes and returns instances and permits using the stripe chosen by its hash, and only falls back to the other stripes
+ * when its own stripe has none left. Permits may therefore move between stripes, but their total stays the maximum size.
+ * Only a caller that finds no permit in any stripe blocks, and releasing callers only signal when someone is blocked.
+ *
+ * @param <T> the pooled type
+ */
+public class StripedPool<T> extends AbstractPool<T> implements MeasuredPool<T> {
+
+    private static final int HASH_INCREMENT = 0x61c88647;
+    private static final int DEFAULT_STRIPES = Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1)) << 1;
+    // The counters of a stripe are padded to a cache line, so stripes don't share one
+    private static final int COUNTERS_SIZE = 16;
+    private static final int PERMITS = 0;
+    private static final int IDLE = 1;
+
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private final int maxSize;
+    /**
+     * The time to wait for a permit.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    private final int stripes;
+    /**
+     * The number of slots of each stripe.
+     */
+    private final int stripeSize;
+    /**
+     * The idle instances of each stripe, contiguously, where a null element indicates an empty slot.
+     */
+    private final AtomicReferenceArray<T> slots;
+    /**
+     * The number of permits and idle instances of each stripe.
+     */
+    private final AtomicIntegerArray counters;
+    /**
+     * The number of callers blocked waiting for a permit.
+     */
+    private final AtomicInteger waiters = new AtomicInteger(0);
+    private final Lock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final LatencyHistogram acquireWaitTimes = new LatencyHistogram();
+
+    public StripedPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        this.stripes = Integer.highestOneBit(Math.max(Math.min(DEFAULT_STRIPES, maxSize), 1));
+        this.stripeSize = (maxSize + stripes - 1) / stripes;
+        this.slots = new AtomicReferenceArray<T>(stripes * stripeSize);
+        this.counters = new AtomicIntegerArray(stripes * COUNTERS_SIZE);
+        for (int stripe = 0; stripe < stripes; ++stripe) {
+            counters.set(stripe * COUNTERS_SIZE + PERMITS, (maxSize / stripes) + ((stripe < maxSize % stripes) ? 1 : 0));
+        }
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        releasePermit(stripe());
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        return sum(PERMITS);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        throw MESSAGES.methodNotImplemented();
+    }
+
+    @Override
+    public LatencyHistogram getAcquireWaitTimes() {
+        return acquireWaitTimes;
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        final int stripe = stripe();
+        // Fast path: take a permit without blocking
+        if (tryAcquirePermit(stripe)) {
+            acquireWaitTimes.record(0, TimeUnit.MICROSECONDS);
+        } else {
+            long start = System.nanoTime();
+            try {
+                boolean acquired = acquirePermit(stripe);
+                if (!acquired)
+                    throw MESSAGES.failedToAcquirePermit(timeout, timeUnit);
+            } catch (InterruptedException e) {
+                throw MESSAGES.acquireSemaphoreInterrupted();
+            } finally {
+                acquireWaitTimes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        T bean = poll(stripe);
+        if (bean != null) {
+            return bean;
+        }
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                releasePermit(stripe);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", sum(IDLE), maxSize, this);
+        }
+
+        final int stripe = stripe();
+        if (!offer(stripe, obj))
+            destroy(obj);
+        releasePermit(stripe);
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        releasePermit(stripe());
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (int i = 0; i < slots.length(); ++i) {
+            T bean = slots.getAndSet(i, null);
+            if (bean != null) {
+                counters.decrementAndGet((i / stripeSize) * COUNTERS_SIZE + IDLE);
+                destroy(bean);
+            }
+        }
+    }
+
+    /**
+     * Takes a permit, from the given stripe if it has any left, otherwise from another stripe.
+     */
+    private boolean tryAcquirePermit(final int stripe) {
+        for (int i = 0; i < stripes; ++i) {
+            final int index = ((stripe + i) & (stripes - 1)) * COUNTERS_SIZE + PERMITS;
+            int permits = counters.get(index);
+            while (permits > 0) {
+                if (counters.compareAndSet(index, permits, permits - 1)) {
+                    return true;
+                }
+                permits = counters.get(index);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits until a permit is released, at most for the timeout of this pool.
+     */
+    private boolean acquirePermit(final int stripe) throws InterruptedException {
+        long remaining = timeUnit.toNanos(timeout);
+        // Releasing callers check for waiters after returning their permit, so a waiter re-checks the permits after
+        // registering itself, and under the lock the releasing callers signal with
+        waiters.incrementAndGet();
+        try {
+            lock.lockInterruptibly();
+            try {
+                while (!tryAcquirePermit(stripe)) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    try {
+                        remaining = released.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        // Pass on a signal this caller may have consumed
+                        released.signal();
+                        throw e;
+                    }
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    private void releasePermit(final int stripe) {
+        counters.incrementAndGet(stripe * COUNTERS_SIZE + PERMITS);
+        if (waiters.get() > 0) {
+            lock.lock();
+            try {
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Takes an idle instance, from the given stripe if it has any, otherwise from another stripe.
+     *
+     * @return an idle instance, or null if there is none
+     */
+    private T poll(final int stripe) {
+        for (int i = 0; i < stripes; ++i) {
+            final int current = (stripe + i) & (stripes - 1);
+            if (counters.get(current * COUNTERS_SIZE + IDLE) > 0) {
+                final int first = current * stripeSize;
+                for (int index = first; index < first + stripeSize; ++index) {
+                    T bean = slots.get(index);
+                    if ((bean != null) && slots.compareAndSet(index, bean, null)) {
+                        counters.decrementAndGet(current * COUNTERS_SIZE + IDLE);
+                        return bean;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores an idle instance, into the given stripe if it has an empty slot, otherwise into another stripe.
+     *
+     * @return false if there was no empty slot
+     */
+    private boolean offer(final int stripe, final T bean) {
+        for (int i = 0; i < stripes; ++i) {
+            final int current = (stripe + i) & (stripes - 1);
+            if (counters.get(current * COUNTERS_SIZE + IDLE) < stripeSize) {
+                final int first = current * stripeSize;
+                for (int index = first; index < first + stripeSize; ++index) {
+                    if ((slots.get(index) == null) && slots.compareAndSet(index, null, bean)) {
+                        counters.incrementAndGet(current * COUNTERS_SIZE + IDLE);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private int sum(final int counter) {
+        int sum = 0;
+        for (int i = counter; i < counters.length(); i += COUNTERS_SIZE) {
+            sum += counters.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the stripe of the current thread.
+     */
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        return (((int) (id ^ (id >>> 32))) * HASH_INCREMENT) & (stripes - 1);
+    }
+}
@@ -25,7 +25,9 @@ import org.jboss.as.ejb3.EjbLogger;
 import org.jboss.as.ejb3.EjbMessages;
 import org.jboss.as.ejb3.deployment.DeploymentRepository;
 import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelStatistics;
 import org.jboss.as.ejb3.remote.protocol.versionone.VersionOneProtocolChannelReceiver;
+import org.jboss.as.ejb3.remote.protocol.versionthree.VersionThreeProtocolChannelReceiver;
 import org.jboss.as.ejb3.remote.protocol.versiontwo.VersionTwoProtocolChannelReceiver;
 import org.jboss.as.network.ClientMapping;
 import org.jboss.as.remoting.RemotingConnectorBindingInfoService;
@@ -62,7 +64,10 @@ import java.net.InetSocketAddress;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
@@ -83,10 +88,13 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
     private final InjectedValue<TransactionManager> txManager = new InjectedValue<TransactionManager>();
     private final InjectedValue<TransactionSynchronizationRegistry> txSyncRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
     private final InjectedValue<RemotingConnectorBindingInfoService.RemotingConnectorInfo> remotingConnectorInfoInjectedValue = new InjectedValue<>();
+    private final ChannelStatistics statistics = new ChannelStatistics();
+    private final Map<Channel, ChannelStatistics> channelStatistics = new ConcurrentHashMap<>();
     private volatile Registration registration;
     private final byte serverProtocolVersion;
     private final String[] supportedMarshallingStrategies;
     private final OptionMap channelCreationOptions;
+    private final RemoteInvocationDispatcher invocationDispatcher;
 
     public EJBRemoteConnectorService(final byte serverProtocolVersion, final String[] supportedMarshallingStrategies) {
         this(serverProtocolVersion, supportedMarshallingStrategies, OptionMap.EMPTY);
@@ -94,9 +102,15 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
 
     public EJBRemoteConnectorService(final byte serverProtocolVersion, final String[] supportedMarshallingStrategies,
                                      final OptionMap channelCreationOptions) {
+        this(serverProtocolVersion, supportedMarshallingStrategies, channelCreationOptions, RemoteInvocationDispatcher.UNBOUNDED);
+    }
+
+    public EJBRemoteConnectorService(final byte serverProtocolVersion, final String[] supportedMarshallingStrategies,
+                                     final OptionMap channelCreationOptions, final RemoteInvocationDispatcher invocationDispatcher) {
         this.serverProtocolVersion = serverProtocolVersion;
         this.supportedMarshallingStrategies = supportedMarshallingStrategies;
         this.channelCreationOptions = channelCreationOptions;
+        this.invocationDispatcher = invocationDispatcher;
     }
 
     @Override
@@ -146,6 +160,35 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
         return this.txSyncRegistry;
     }
 
+    /**
+     * Returns the invocation and byte count statistics of all channels of this service.
+     *
+     * @return the statistics
+     */
+    public ChannelStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the invocation and byte count statistics of each open channel of this service.
+     *
+     * @return the statistics by channel
+     */
+    public Map<Channel, ChannelStatistics> getChannelStatistics() {
+        return Collections.unmodifiableMap(channelStatistics);
+    }
+
+    /**
+     * Returns the average time, in milliseconds, from receiving a method invocation until its response was written.
+     *
+     * @param statistics the statistics of a channel, or all channels
+     * @return the average time, or {@code 0} if there were no invocations
+     */
+    public static long averageInvocationTime(final ChannelStatistics statistics) {
+        final long invocations = statistics.getInvocations();
+        return invocations == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(statistics.getInvocationTime() / invocations);
+    }
+
     public List<EjbListenerAddress> getListeningAddresses() {
         final RemotingConnectorBindingInfoService.RemotingConnectorInfo info = remotingConnectorInfoInjectedValue.getValue();
         return Collections.singletonList(new EjbListenerAddress(info.getSocketBinding().getSocketAddress(), info.getProtocol()));
@@ -185,14 +228,19 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
 
         @Override
         public void channelOpened(Channel channel) {
-            final ChannelAssociation channelAssociation = new ChannelAssociation(channel);
+            final ChannelStatistics channelStatistics = new ChannelStatistics(statistics);
+            final ChannelAssociation channelAssociation = new ChannelAssociation(channel, channelStatistics);
+            EJBRemoteConnectorService.this.channelStatistics.put(channel, channelStatistics);
 
             EjbLogger.ROOT_LOGGER.tracef("Welcome %s to the " + EJB_CHANNEL_NAME + " channel", channel);
             channel.addCloseHandler(new CloseHandler<Channel>() {
                 @Override
                 public void handleClose(Channel closed, IOException exception) {
-                    // do nothing
-                    EjbLogger.ROOT_LOGGER.tracef("channel %s closed", closed);
+                    EJBRemoteConnectorService.this.channelStatistics.remove(closed);
+                    channelStatistics.channelClosed();
+                    EjbLogger.ROOT_LOGGER.debugf("channel %s closed after %d invocations taking %d ms on average, %d bytes received, %d bytes sent",
+                            closed, channelStatistics.getInvocations(), averageInvocationTime(channelStatistics),
+                            channelStatistics.getBytesReceived(), channelStatistics.getBytesSent());
                 }
             });
             // send the server version and supported marshalling types to the client
@@ -265,17 +313,25 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
                     case 0x01:
                         final VersionOneProtocolChannelReceiver versionOneProtocolHandler = new VersionOneProtocolChannelReceiver(this.channelAssociation, deploymentRepository,
                                 EJBRemoteConnectorService.this.ejbRemoteTransactionsRepositoryInjectedValue.getValue(), clientMappingRegistryCollector,
-                                marshallerFactory, executorService.getValue(), asyncInvocationCancelStatus);
+                                marshallerFactory, executorService.getValue(), asyncInvocationCancelStatus, invocationDispatcher);
                         // trigger the receiving
                         versionOneProtocolHandler.startReceiving();
                         break;
                     case 0x02:
                         final VersionTwoProtocolChannelReceiver versionTwoProtocolHandler = new VersionTwoProtocolChannelReceiver(this.channelAssociation, deploymentRepository,
                                 EJBRemoteConnectorService.this.ejbRemoteTransactionsRepositoryInjectedValue.getValue(), clientMappingRegistryCollector,
-                                marshallerFactory, executorService.getValue(), asyncInvocationCancelStatus);
+                                marshallerFactory, executorService.getValue(), asyncInvocationCancelStatus, invocationDispatcher);
                         // trigger the receiving
                         versionTwoProtocolHandler.startReceiving();
                         break;
+                    case 0x03:
+                        // EJBs are interned once per channel, older clients keep naming them in every invocation
+                        final VersionThreeProtocolChannelReceiver versionThreeProtocolHandler = new VersionThreeProtocolChannelReceiver(this.channelAssociation, deploymentRepository,
+                                EJBRemoteConnectorService.this.ejbRemoteTransactionsRepositoryInjectedValue.getValue(), clientMappingRegistryCollector,
+                                marshallerFactory, executorService.getValue(), asyncInvocationCancelStatus, invocationDispatcher);
+                        // trigger the receiving
+                        versionThreeProtocolHandler.startReceiving();
+                        break;
 
                     default:
                         throw EjbMessages.MESSAGES.ejbRemoteServiceCannotHandleClientVersion(version);
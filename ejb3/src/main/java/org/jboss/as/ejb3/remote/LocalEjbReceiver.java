@@ -337,7 +337,7 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
     }
 
     private EjbDeploymentInformation findBean(final String appName, final String moduleName, final String distinctName, final String beanName) {
-        final ModuleDeployment module = deploymentRepository.getValue().getModules().get(new DeploymentModuleIdentifier(appName, moduleName, distinctName));
+        final ModuleDeployment module = deploymentRepository.getValue().getModule(appName, moduleName, distinctName);
         if (module == null) {
             throw MESSAGES.unknownDeployment(appName, moduleName, distinctName);
         }
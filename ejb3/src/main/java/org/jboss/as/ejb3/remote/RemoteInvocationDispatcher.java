@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import java.util.concurrent.Executor;
+
+import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
+
+/**
+ * Hands the remote invocations of beans to an executor. If a maximum number of concurrent invocations per bean is
+ * configured, the invocations of each bean pass through its {@link RemoteInvocationQueue}, otherwise they are handed to
+ * the executor directly.
+ */
+public final class RemoteInvocationDispatcher {
+
+    /**
+     * A dispatcher that does not limit the number of concurrent invocations.
+     */
+    public static final RemoteInvocationDispatcher UNBOUNDED = new RemoteInvocationDispatcher(0, 0);
+
+    private final int maxConcurrentInvocations;
+    private final int maxQueuedInvocations;
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param maxConcurrentInvocations the maximum number of concurrent invocations of a bean, {@code 0} for no limit
+     * @param maxQueuedInvocations the maximum number of queued invocations of a bean
+     */
+    public RemoteInvocationDispatcher(final int maxConcurrentInvocations, final int maxQueuedInvocations) {
+        this.maxConcurrentInvocations = maxConcurrentInvocations;
+        this.maxQueuedInvocations = maxQueuedInvocations;
+    }
+
+    /**
+     * Dispatches an invocation of a bean.
+     *
+     * @param executor the executor running the invocation
+     * @param component the invoked bean
+     * @param channelAssociation the channel the invocation arrived on
+     * @param invocation the invocation
+     * @param rejection tells the client that the invocation was rejected, if it was queued and the executor then
+     *                  refused to run it
+     * @return {@code true} if the invocation was dispatched, {@code false} if it was rejected because the bean is busy
+     */
+    public boolean dispatch(final Executor executor, final EJBComponent component, final ChannelAssociation channelAssociation, final Runnable invocation,
+                            final Runnable rejection) {
+        if (maxConcurrentInvocations <= 0) {
+            executor.execute(invocation);
+            return true;
+        }
+        final RemoteInvocationQueue queue = component.getRemoteInvocationQueue(maxConcurrentInvocations, maxQueuedInvocations);
+        // the invocations left in the queue are purged once the channel is closed
+        channelAssociation.addInvocationQueue(queue);
+        return queue.submit(executor, channelAssociation, invocation, rejection);
+    }
+
+    public int getMaxConcurrentInvocations() {
+        return maxConcurrentInvocations;
+    }
+
+    public int getMaxQueuedInvocations() {
+        return maxQueuedInvocations;
+    }
+}
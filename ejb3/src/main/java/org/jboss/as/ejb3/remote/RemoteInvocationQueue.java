@@ -0,0 +1,207 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.ejb3.util.LatencyHistogram;
+
+/**
+ * Bounds the number of remote invocations of a bean that run concurrently. Invocations beyond the limit are queued, up
+ * to a maximum, and handed to the executor as running invocations complete. Queued invocations are taken from the
+ * channels they arrived on in turn, so a client flooding a bean with invocations does not delay the invocations of
+ * other clients. Invocations that can neither run nor be queued are rejected. A queued invocation that the executor
+ * refuses to run once its turn comes is rejected as well, and its slot goes to the next queued invocation. The
+ * invocations still queued for a channel when it closes are {@link #purge(Object) purged}.
+ */
+public final class RemoteInvocationQueue {
+
+    private final int maxConcurrentInvocations;
+    private final int maxQueuedInvocations;
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final AtomicLong rejectedInvocations = new AtomicLong();
+    /** The queued invocations of each channel, guarded by {@code this} */
+    private final Map<Object, Queue<Task>> queues = new HashMap<Object, Queue<Task>>();
+    /** The channels with queued invocations, in the order they are served, guarded by {@code this} */
+    private final Queue<Object> channels = new ArrayDeque<Object>();
+    /** The number of invocations handed to the executor, guarded by {@code this} */
+    private int runningInvocations;
+    /** The number of queued invocations, only written while holding {@code this} */
+    private volatile int queuedInvocations;
+
+    /**
+     * Creates a new queue.
+     *
+     * @param maxConcurrentInvocations the maximum number of invocations that run concurrently
+     * @param maxQueuedInvocations the maximum number of invocations that wait for a running invocation to complete
+     */
+    public RemoteInvocationQueue(final int maxConcurrentInvocations, final int maxQueuedInvocations) {
+        this.maxConcurrentInvocations = maxConcurrentInvocations;
+        this.maxQueuedInvocations = maxQueuedInvocations;
+    }
+
+    /**
+     * Runs an invocation using the given executor, or queues it if the maximum number of invocations is running.
+     *
+     * @param executor the executor running the invocation
+     * @param channel identifies the channel the invocation arrived on
+     * @param invocation the invocation
+     * @param rejection tells the client that the invocation was rejected, if it was queued and the executor then
+     *                  refused to run it
+     * @return {@code true} if the invocation was handed to the executor or queued, {@code false} if it was rejected
+     * @throws RejectedExecutionException if the invocation was not queued and the executor refused to run it
+     */
+    public boolean submit(final Executor executor, final Object channel, final Runnable invocation, final Runnable rejection) {
+        final Task task = new Task(executor, invocation, rejection);
+        synchronized (this) {
+            if (runningInvocations >= maxConcurrentInvocations) {
+                if (queuedInvocations >= maxQueuedInvocations) {
+                    rejectedInvocations.incrementAndGet();
+                    return false;
+                }
+                Queue<Task> queue = queues.get(channel);
+                if (queue == null) {
+                    queue = new ArrayDeque<Task>();
+                    queues.put(channel, queue);
+                    channels.add(channel);
+                }
+                queue.add(task);
+                queuedInvocations++;
+                return true;
+            }
+            runningInvocations++;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            completed();
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Removes the queued invocations of a channel, which are counted as rejected. The clients are not told of the
+     * rejection, as the channel they would be told on is gone.
+     *
+     * @param channel identifies the closed channel
+     * @return the number of removed invocations
+     */
+    public int purge(final Object channel) {
+        synchronized (this) {
+            final Queue<Task> queue = queues.remove(channel);
+            if (queue == null) {
+                return 0;
+            }
+            channels.remove(channel);
+            final int purged = queue.size();
+            queuedInvocations -= purged;
+            rejectedInvocations.addAndGet(purged);
+            return purged;
+        }
+    }
+
+    /**
+     * Gets the number of invocations waiting for a running invocation to complete.
+     */
+    public int getQueuedInvocations() {
+        return queuedInvocations;
+    }
+
+    /**
+     * Gets the number of invocations that were rejected because the queue was full, the executor refused to run them or
+     * their channel was closed while they were queued.
+     */
+    public long getRejectedInvocations() {
+        return rejectedInvocations.get();
+    }
+
+    /**
+     * Gets the distribution of the time invocations waited before they were run, including the time spent in the queue
+     * of the executor.
+     */
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    private void completed() {
+        for (;;) {
+            final Task next;
+            synchronized (this) {
+                final Object channel = channels.poll();
+                if (channel == null) {
+                    runningInvocations--;
+                    return;
+                }
+                final Queue<Task> queue = queues.get(channel);
+                next = queue.poll();
+                if (queue.isEmpty()) {
+                    queues.remove(channel);
+                } else {
+                    // the channel goes to the back of the line
+                    channels.add(channel);
+                }
+                queuedInvocations--;
+            }
+            // the completed invocation hands its slot over to the next one
+            try {
+                next.executor.execute(next);
+                return;
+            } catch (RejectedExecutionException e) {
+                // the failure belongs to the client of the queued invocation, not to the completed one
+                rejectedInvocations.incrementAndGet();
+                next.rejection.run();
+            }
+        }
+    }
+
+    private final class Task implements Runnable {
+        private final Executor executor;
+        private final Runnable invocation;
+        private final Runnable rejection;
+        private final long submitted = System.nanoTime();
+
+        Task(final Executor executor, final Runnable invocation, final Runnable rejection) {
+            this.executor = executor;
+            this.invocation = invocation;
+            this.rejection = rejection;
+        }
+
+        @Override
+        public void run() {
+            waitTimes.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+            try {
+                invocation.run();
+            } finally {
+                completed();
+            }
+        }
+    }
+}
@@ -36,6 +36,7 @@ import java.util.Map;
 
 import org.jboss.as.ejb3.EjbMessages;
 import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
+import org.jboss.as.ejb3.remote.protocol.versionone.MarshallerPool;
 import org.jboss.as.ejb3.remote.protocol.versionone.ProtocolV1ClassTable;
 import org.jboss.as.ejb3.remote.protocol.versionone.ProtocolV1ObjectTable;
 import org.jboss.ejb.client.remoting.PackedInteger;
@@ -108,12 +109,12 @@ public abstract class AbstractMessageHandler implements MessageHandler {
             // write the invocation id
             outputStream.writeShort(invocationId);
             // write out the exception
-            final Marshaller marshaller = this.prepareForMarshalling(marshallerFactory, outputStream);
+            final Marshaller marshaller = this.prepareForMarshalling(channelAssociation, marshallerFactory, outputStream);
             marshaller.writeObject(t);
             // write the attachments
             this.writeAttachments(marshaller, attachments);
             // finish marshalling
-            marshaller.finish();
+            this.finishMarshalling(channelAssociation, marshaller);
         } finally {
             channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
             outputStream.close();
@@ -190,6 +191,44 @@ public abstract class AbstractMessageHandler implements MessageHandler {
      */
     protected org.jboss.marshalling.Marshaller prepareForMarshalling(final org.jboss.marshalling.MarshallerFactory marshallerFactory, final DataOutput dataOutput) throws IOException {
         final org.jboss.marshalling.Marshaller marshaller = this.getMarshaller(marshallerFactory);
+        this.startMarshalling(marshaller, dataOutput);
+        return marshaller;
+    }
+
+    /**
+     * Returns a {@link org.jboss.marshalling.Marshaller} of the channel's {@link MarshallerPool marshaller pool},
+     * or creates one if the pool is empty, which is ready to be used for marshalling. The marshaller is returned to
+     * the pool by {@link #finishMarshalling(ChannelAssociation, Marshaller)}.
+     *
+     * @param channelAssociation The channel association
+     * @param marshallerFactory  The marshaller factory of the channel
+     * @param dataOutput         The {@link java.io.DataOutput} to which the data will be marshalled
+     * @return
+     * @throws IOException
+     */
+    protected Marshaller prepareForMarshalling(final ChannelAssociation channelAssociation, final MarshallerFactory marshallerFactory, final DataOutput dataOutput) throws IOException {
+        Marshaller marshaller = channelAssociation.getMarshallerPool().pollMarshaller();
+        if (marshaller == null) {
+            marshaller = this.getMarshaller(marshallerFactory);
+        }
+        this.startMarshalling(marshaller, dataOutput);
+        return marshaller;
+    }
+
+    /**
+     * Finishes marshalling with a marshaller obtained from {@link #prepareForMarshalling(ChannelAssociation, MarshallerFactory, DataOutput)}
+     * and returns it to the channel's pool.
+     *
+     * @param channelAssociation The channel association
+     * @param marshaller         The marshaller
+     * @throws IOException
+     */
+    protected void finishMarshalling(final ChannelAssociation channelAssociation, final Marshaller marshaller) throws IOException {
+        marshaller.finish();
+        channelAssociation.getMarshallerPool().releaseMarshaller(marshaller);
+    }
+
+    private void startMarshalling(final Marshaller marshaller, final DataOutput dataOutput) throws IOException {
         final OutputStream outputStream = new OutputStream() {
             @Override
             public void write(int b) throws IOException {
@@ -210,8 +249,6 @@ public abstract class AbstractMessageHandler implements MessageHandler {
         final ByteOutput byteOutput = Marshalling.createByteOutput(outputStream);
         // start the marshaller
         marshaller.start(byteOutput);
-
-        return marshaller;
     }
 
     /**
@@ -241,7 +278,20 @@ public abstract class AbstractMessageHandler implements MessageHandler {
      * @throws IOException
      */
     protected Unmarshaller prepareForUnMarshalling(final MarshallerFactory marshallerFactory, final ClassResolver classResolver, final DataInputStream dataInput) throws IOException {
-        final Unmarshaller unmarshaller = this.getUnMarshaller(marshallerFactory, classResolver);
+        final Unmarshaller unmarshaller = this.createUnmarshaller(marshallerFactory, classResolver);
+        this.startUnmarshalling(unmarshaller, dataInput);
+        return unmarshaller;
+    }
+
+    /**
+     * Starts an {@link Unmarshaller}, created by {@link #createUnmarshaller(MarshallerFactory, ClassResolver)}, to
+     * unmarshal from the passed {@link java.io.DataInput dataInput}.
+     *
+     * @param unmarshaller The unmarshaller
+     * @param dataInput    The data input from which to unmarshall
+     * @throws IOException
+     */
+    protected void startUnmarshalling(final Unmarshaller unmarshaller, final DataInputStream dataInput) throws IOException {
         final InputStream is = new InputStream() {
             @Override
             public int read() throws IOException {
@@ -267,8 +317,6 @@ public abstract class AbstractMessageHandler implements MessageHandler {
         final ByteInput byteInput = Marshalling.createByteInput(is);
         // start the unmarshaller
         unmarshaller.start(byteInput);
-
-        return unmarshaller;
     }
 
     /**
@@ -278,7 +326,7 @@ public abstract class AbstractMessageHandler implements MessageHandler {
      * @return
      * @throws IOException
      */
-    private Unmarshaller getUnMarshaller(final MarshallerFactory marshallerFactory, final ClassResolver classResolver) throws IOException {
+    protected Unmarshaller createUnmarshaller(final MarshallerFactory marshallerFactory, final ClassResolver classResolver) throws IOException {
         final MarshallingConfiguration marshallingConfiguration = new MarshallingConfiguration();
         marshallingConfiguration.setVersion(2);
         marshallingConfiguration.setClassTable(ProtocolV1ClassTable.INSTANCE);
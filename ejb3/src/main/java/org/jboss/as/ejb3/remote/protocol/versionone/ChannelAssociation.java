@@ -22,11 +22,15 @@
 
 package org.jboss.as.ejb3.remote.protocol.versionone;
 
+import org.jboss.as.ejb3.remote.RemoteInvocationQueue;
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.MessageOutputStream;
 import org.jboss.remoting3.RemotingOptions;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 
 /**
@@ -42,8 +46,20 @@ public class ChannelAssociation {
     // to make sure that only a limited number of simultaneous writes are allowed
     private final Semaphore channelWriteSemaphore;
 
+    private final ChannelStatistics statistics;
+
+    private final MarshallerPool marshallerPool;
+
+    // the queues the invocations arriving on this channel were submitted to
+    private final Set<RemoteInvocationQueue> invocationQueues = Collections.newSetFromMap(new ConcurrentHashMap<RemoteInvocationQueue, Boolean>());
+
     public ChannelAssociation(final Channel channel) {
+        this(channel, new ChannelStatistics());
+    }
+
+    public ChannelAssociation(final Channel channel, final ChannelStatistics statistics) {
         this.channel = channel;
+        this.statistics = statistics;
 
         // write semaphore
         Integer maxOutboundWrites = this.channel.getOption(RemotingOptions.MAX_OUTBOUND_MESSAGES);
@@ -51,6 +67,8 @@ public class ChannelAssociation {
             maxOutboundWrites = DEFAULT_MAX_OUTBOUND_MESSAGES;
         }
         this.channelWriteSemaphore = new Semaphore(maxOutboundWrites, true);
+        // responses are marshalled while holding a write permit, so no more marshallers are needed at a time
+        this.marshallerPool = new MarshallerPool(maxOutboundWrites);
     }
 
     /**
@@ -65,7 +83,7 @@ public class ChannelAssociation {
     public MessageOutputStream acquireChannelMessageOutputStream() throws Exception {
         this.channelWriteSemaphore.acquire();
         try {
-            return this.channel.writeMessage();
+            return new CountingMessageOutputStream(this.channel.writeMessage(), this.statistics);
         } catch (Exception e) {
             // release
             this.channelWriteSemaphore.release();
@@ -92,4 +110,89 @@ public class ChannelAssociation {
         return this.channel;
     }
 
+    /**
+     * Returns the invocation and byte count statistics of this channel.
+     *
+     * @return the statistics
+     */
+    public ChannelStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Returns the pool of marshallers and unmarshallers of this channel.
+     *
+     * @return the pool
+     */
+    public MarshallerPool getMarshallerPool() {
+        return this.marshallerPool;
+    }
+
+    /**
+     * Records that invocations arriving on this channel are submitted to the given queue.
+     *
+     * @param queue the queue
+     */
+    public void addInvocationQueue(final RemoteInvocationQueue queue) {
+        this.invocationQueues.add(queue);
+    }
+
+    /**
+     * Removes the invocations of this channel from the queues they were submitted to. Called once the channel is closed.
+     */
+    public void purgeInvocationQueues() {
+        for (final RemoteInvocationQueue queue : this.invocationQueues) {
+            queue.purge(this);
+        }
+        this.invocationQueues.clear();
+    }
+
+    /**
+     * Counts the bytes of a message written to the channel.
+     */
+    private static final class CountingMessageOutputStream extends MessageOutputStream {
+
+        private final MessageOutputStream delegate;
+        private final ChannelStatistics statistics;
+        private long count;
+
+        CountingMessageOutputStream(final MessageOutputStream delegate, final ChannelStatistics statistics) {
+            this.delegate = delegate;
+            this.statistics = statistics;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                statistics.bytesSent(count);
+                count = 0;
+            }
+        }
+
+        @Override
+        public MessageOutputStream cancel() {
+            delegate.cancel();
+            return this;
+        }
+    }
+
 }
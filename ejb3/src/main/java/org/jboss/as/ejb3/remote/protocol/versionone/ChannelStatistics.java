@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the method invocations and the bytes transferred on EJB remoting channels. Each {@link ChannelAssociation}
+ * has its own statistics, which also update the statistics of all channels of the remote service they were created
+ * with.
+ */
+public final class ChannelStatistics {
+
+    private final ChannelStatistics total;
+    private final AtomicInteger openChannels = new AtomicInteger();
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong invocationTime = new AtomicLong();
+    private final AtomicLong maxInvocationTime = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    /**
+     * Creates the statistics of all channels.
+     */
+    public ChannelStatistics() {
+        this(null);
+    }
+
+    /**
+     * Creates the statistics of a single channel.
+     *
+     * @param total the statistics of all channels, or {@code null}
+     */
+    public ChannelStatistics(final ChannelStatistics total) {
+        this.total = total;
+        if (total != null) {
+            total.openChannels.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records that the channel was closed.
+     */
+    public void channelClosed() {
+        if (total != null) {
+            total.openChannels.decrementAndGet();
+        }
+    }
+
+    void invocationCompleted(final long nanos) {
+        invocations.incrementAndGet();
+        invocationTime.addAndGet(nanos);
+        long max = maxInvocationTime.get();
+        while (nanos > max && !maxInvocationTime.compareAndSet(max, nanos)) {
+            max = maxInvocationTime.get();
+        }
+        if (total != null) {
+            total.invocationCompleted(nanos);
+        }
+    }
+
+    void bytesReceived(final long bytes) {
+        bytesReceived.addAndGet(bytes);
+        if (total != null) {
+            total.bytesReceived(bytes);
+        }
+    }
+
+    void bytesSent(final long bytes) {
+        bytesSent.addAndGet(bytes);
+        if (total != null) {
+            total.bytesSent(bytes);
+        }
+    }
+
+    /**
+     * Gets the number of open channels, for the statistics of all channels.
+     */
+    public int getOpenChannels() {
+        return openChannels.get();
+    }
+
+    /**
+     * Gets the number of completed method invocations.
+     */
+    public long getInvocations() {
+        return invocations.get();
+    }
+
+    /**
+     * Gets the total time, in nanoseconds, from receiving a method invocation until its response was written.
+     */
+    public long getInvocationTime() {
+        return invocationTime.get();
+    }
+
+    /**
+     * Gets the longest time, in nanoseconds, from receiving a method invocation until its response was written.
+     */
+    public long getMaxInvocationTime() {
+        return maxInvocationTime.get();
+    }
+
+    /**
+     * Gets the number of bytes received, including the message headers.
+     */
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    /**
+     * Gets the number of bytes sent, including the message headers.
+     */
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+}
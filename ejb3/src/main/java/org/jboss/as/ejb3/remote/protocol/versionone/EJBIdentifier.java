@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+/**
+ * The application, module, distinct and bean name of an EJB, which a client of protocol version 3 interns as a compact
+ * identifier once per channel instead of sending the four names with every invocation.
+ */
+public final class EJBIdentifier {
+
+    private final String appName;
+    private final String moduleName;
+    private final String distinctName;
+    private final String beanName;
+
+    public EJBIdentifier(final String appName, final String moduleName, final String distinctName, final String beanName) {
+        this.appName = appName;
+        this.moduleName = moduleName;
+        this.distinctName = distinctName;
+        this.beanName = beanName;
+    }
+
+    public String getAppName() {
+        return this.appName;
+    }
+
+    public String getModuleName() {
+        return this.moduleName;
+    }
+
+    public String getDistinctName() {
+        return this.distinctName;
+    }
+
+    public String getBeanName() {
+        return this.beanName;
+    }
+
+    @Override
+    public String toString() {
+        return "EJBIdentifier{appName='" + appName + "', moduleName='" + moduleName + "', distinctName='" + distinctName
+                + "', beanName='" + beanName + "'}";
+    }
+}
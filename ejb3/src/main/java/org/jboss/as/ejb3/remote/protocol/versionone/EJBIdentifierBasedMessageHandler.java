@@ -22,12 +22,8 @@
 
 package org.jboss.as.ejb3.remote.protocol.versionone;
 
-import java.util.Map;
-
-import org.jboss.as.ejb3.deployment.DeploymentModuleIdentifier;
 import org.jboss.as.ejb3.deployment.DeploymentRepository;
 import org.jboss.as.ejb3.deployment.EjbDeploymentInformation;
-import org.jboss.as.ejb3.deployment.ModuleDeployment;
 import org.jboss.as.ejb3.remote.protocol.AbstractMessageHandler;
 
 /**
@@ -42,16 +38,7 @@ abstract class EJBIdentifierBasedMessageHandler extends AbstractMessageHandler {
     }
 
     protected EjbDeploymentInformation findEJB(final String appName, final String moduleName, final String distinctName, final String beanName) {
-        final DeploymentModuleIdentifier ejbModule = new DeploymentModuleIdentifier(appName, moduleName, distinctName);
-        final Map<DeploymentModuleIdentifier, ModuleDeployment> modules = this.deploymentRepository.getStartedModules();
-        if (modules == null || modules.isEmpty()) {
-            return null;
-        }
-        final ModuleDeployment moduleDeployment = modules.get(ejbModule);
-        if (moduleDeployment == null) {
-            return null;
-        }
-        return moduleDeployment.getEjbs().get(beanName);
+        return this.deploymentRepository.getStartedEjb(appName, moduleName, distinctName, beanName);
     }
 
 
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.marshalling.AbstractClassResolver;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * The marshallers and unmarshallers of a channel, which are reused for subsequent messages rather than created for
+ * each of them. All instances in the pool were created by the marshaller factory of the channel's marshalling
+ * strategy. An instance is only returned to the pool after it completed a message successfully, and its caches are
+ * cleared, as each message is marshalled as a separate stream. The pool keeps at most a given number of idle
+ * instances of each kind, further ones are left to the garbage collector.
+ */
+public final class MarshallerPool {
+
+    private final int maxSize;
+    private final Queue<Marshaller> marshallers = new ConcurrentLinkedQueue<Marshaller>();
+    private final AtomicInteger marshallerCount = new AtomicInteger();
+    private final Queue<PooledUnmarshaller> unmarshallers = new ConcurrentLinkedQueue<PooledUnmarshaller>();
+    private final AtomicInteger unmarshallerCount = new AtomicInteger();
+
+    /**
+     * Creates a new pool.
+     *
+     * @param maxSize the maximum number of idle marshallers, and of idle unmarshallers, to keep
+     */
+    public MarshallerPool(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Takes a marshaller from the pool.
+     *
+     * @return the marshaller, or {@code null} if the pool is empty
+     */
+    public Marshaller pollMarshaller() {
+        final Marshaller marshaller = marshallers.poll();
+        if (marshaller != null) {
+            marshallerCount.decrementAndGet();
+        }
+        return marshaller;
+    }
+
+    /**
+     * Returns a marshaller, which {@link Marshaller#finish() finished} its message, to the pool.
+     *
+     * @param marshaller the marshaller
+     * @throws IOException if the caches of the marshaller could not be cleared, in which case it is not returned
+     */
+    public void releaseMarshaller(final Marshaller marshaller) throws IOException {
+        marshaller.clearClassCache();
+        if (reserve(marshallerCount)) {
+            marshallers.offer(marshaller);
+        }
+    }
+
+    PooledUnmarshaller pollUnmarshaller() {
+        final PooledUnmarshaller unmarshaller = unmarshallers.poll();
+        if (unmarshaller != null) {
+            unmarshallerCount.decrementAndGet();
+        }
+        return unmarshaller;
+    }
+
+    void releaseUnmarshaller(final PooledUnmarshaller unmarshaller) throws IOException {
+        // don't keep the class loader of the last deployment invoked reachable
+        unmarshaller.getClassResolver().switchClassLoader(null);
+        unmarshaller.getUnmarshaller().clearClassCache();
+        if (reserve(unmarshallerCount)) {
+            unmarshallers.offer(unmarshaller);
+        }
+    }
+
+    private boolean reserve(final AtomicInteger count) {
+        int current;
+        do {
+            current = count.get();
+            if (current >= maxSize) {
+                return false;
+            }
+        } while (!count.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * An unmarshaller together with the class resolver it was created with.
+     */
+    static final class PooledUnmarshaller {
+        private final Unmarshaller unmarshaller;
+        private final ClassLoaderSwitchingClassResolver classResolver;
+
+        PooledUnmarshaller(final Unmarshaller unmarshaller, final ClassLoaderSwitchingClassResolver classResolver) {
+            this.unmarshaller = unmarshaller;
+            this.classResolver = classResolver;
+        }
+
+        Unmarshaller getUnmarshaller() {
+            return unmarshaller;
+        }
+
+        ClassLoaderSwitchingClassResolver getClassResolver() {
+            return classResolver;
+        }
+    }
+
+    /**
+     * A mutable {@link org.jboss.marshalling.ClassResolver}
+     */
+    static final class ClassLoaderSwitchingClassResolver extends AbstractClassResolver {
+
+        private volatile ClassLoader currentClassLoader;
+
+        ClassLoaderSwitchingClassResolver(final ClassLoader classLoader) {
+            this.currentClassLoader = classLoader;
+        }
+
+        /**
+         * Sets the passed <code>newCL</code> as the classloader which will be returned on
+         * subsequent calls to {@link #getClassLoader()}
+         *
+         * @param newCL
+         */
+        void switchClassLoader(final ClassLoader newCL) {
+            this.currentClassLoader = newCL;
+        }
+
+        @Override
+        protected ClassLoader getClassLoader() {
+            return this.currentClassLoader;
+        }
+    }
+}
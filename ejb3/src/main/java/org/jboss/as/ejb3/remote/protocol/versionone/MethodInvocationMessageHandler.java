@@ -31,6 +31,7 @@ import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
@@ -48,14 +49,16 @@ import org.jboss.as.ejb3.component.stateless.StatelessSessionComponent;
 import org.jboss.as.ejb3.deployment.DeploymentRepository;
 import org.jboss.as.ejb3.deployment.EjbDeploymentInformation;
 import org.jboss.as.ejb3.remote.RemoteAsyncInvocationCancelStatusService;
+import org.jboss.as.ejb3.remote.RemoteInvocationDispatcher;
+import org.jboss.as.ejb3.remote.protocol.versionone.MarshallerPool.ClassLoaderSwitchingClassResolver;
 import org.jboss.ejb.client.Affinity;
 import org.jboss.ejb.client.EJBClientInvocationContext;
 import org.jboss.ejb.client.EJBLocator;
 import org.jboss.ejb.client.EntityEJBLocator;
 import org.jboss.ejb.client.SessionID;
 import org.jboss.ejb.client.StatefulEJBLocator;
+import org.jboss.ejb.client.remoting.PackedInteger;
 import org.jboss.invocation.InterceptorContext;
-import org.jboss.marshalling.AbstractClassResolver;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.MarshallerFactory;
 import org.jboss.marshalling.Unmarshaller;
@@ -77,18 +80,24 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
     private final ExecutorService executorService;
     private final MarshallerFactory marshallerFactory;
     private final RemoteAsyncInvocationCancelStatusService remoteAsyncInvocationCancelStatus;
+    private final RemoteInvocationDispatcher invocationDispatcher;
+    // the EJBs interned on the channel, or null if each invocation names its EJB
+    private final ConcurrentMap<Integer, EJBIdentifier> ejbIdentifiers;
 
     MethodInvocationMessageHandler(final DeploymentRepository deploymentRepository, final org.jboss.marshalling.MarshallerFactory marshallerFactory, final ExecutorService executorService,
-                                   final RemoteAsyncInvocationCancelStatusService asyncInvocationCancelStatus) {
+                                   final RemoteAsyncInvocationCancelStatusService asyncInvocationCancelStatus, final RemoteInvocationDispatcher invocationDispatcher,
+                                   final ConcurrentMap<Integer, EJBIdentifier> ejbIdentifiers) {
         super(deploymentRepository);
         this.marshallerFactory = marshallerFactory;
         this.executorService = executorService;
         this.remoteAsyncInvocationCancelStatus = asyncInvocationCancelStatus;
+        this.invocationDispatcher = invocationDispatcher;
+        this.ejbIdentifiers = ejbIdentifiers;
     }
 
     @Override
     public void processMessage(final ChannelAssociation channelAssociation, final InputStream inputStream) throws IOException {
-
+        final long start = System.nanoTime();
         final DataInputStream input = new DataInputStream(inputStream);
         // read the invocation id
         final short invocationId = input.readShort();
@@ -103,24 +112,49 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
         } else {
             methodParamTypes = signature.split(String.valueOf(METHOD_PARAM_TYPE_SEPARATOR));
         }
+        // an interned EJB is identified by a packed integer, otherwise its names are the first objects of the stream
+        EJBIdentifier ejbIdentifier = null;
+        if (this.ejbIdentifiers != null) {
+            final int identifier = PackedInteger.readPackedInteger(input);
+            ejbIdentifier = this.ejbIdentifiers.get(identifier);
+            if (ejbIdentifier == null) {
+                throw EjbMessages.MESSAGES.unknownEjbIdentifier(identifier);
+            }
+        }
 
         // read the Locator
         // we use a mutable ClassResolver, so that we can switch to a different (and correct deployment CL)
         // midway through the unmarshalling of the stream
-        final ClassLoaderSwitchingClassResolver classResolver = new ClassLoaderSwitchingClassResolver(Thread.currentThread().getContextClassLoader());
-        final Unmarshaller unmarshaller = this.prepareForUnMarshalling(this.marshallerFactory, classResolver, input);
+        final MarshallerPool marshallerPool = channelAssociation.getMarshallerPool();
+        MarshallerPool.PooledUnmarshaller pooledUnmarshaller = marshallerPool.pollUnmarshaller();
+        if (pooledUnmarshaller == null) {
+            final ClassLoaderSwitchingClassResolver resolver = new ClassLoaderSwitchingClassResolver(Thread.currentThread().getContextClassLoader());
+            pooledUnmarshaller = new MarshallerPool.PooledUnmarshaller(this.createUnmarshaller(this.marshallerFactory, resolver), resolver);
+        } else {
+            pooledUnmarshaller.getClassResolver().switchClassLoader(Thread.currentThread().getContextClassLoader());
+        }
+        final ClassLoaderSwitchingClassResolver classResolver = pooledUnmarshaller.getClassResolver();
+        final Unmarshaller unmarshaller = pooledUnmarshaller.getUnmarshaller();
+        this.startUnmarshalling(unmarshaller, input);
         // read the EJB info
         final String appName;
         final String moduleName;
         final String distinctName;
         final String beanName;
-        try {
-            appName = (String) unmarshaller.readObject();
-            moduleName = (String) unmarshaller.readObject();
-            distinctName = (String) unmarshaller.readObject();
-            beanName = (String) unmarshaller.readObject();
-        } catch (Throwable e) {
-            throw EjbMessages.MESSAGES.failedToReadEjbInfo(e);
+        if (ejbIdentifier != null) {
+            appName = ejbIdentifier.getAppName();
+            moduleName = ejbIdentifier.getModuleName();
+            distinctName = ejbIdentifier.getDistinctName();
+            beanName = ejbIdentifier.getBeanName();
+        } else {
+            try {
+                appName = (String) unmarshaller.readObject();
+                moduleName = (String) unmarshaller.readObject();
+                distinctName = (String) unmarshaller.readObject();
+                beanName = (String) unmarshaller.readObject();
+            } catch (Throwable e) {
+                throw EjbMessages.MESSAGES.failedToReadEjbInfo(e);
+            }
         }
         final EjbDeploymentInformation ejbDeploymentInformation = this.findEJB(appName, moduleName, distinctName, beanName);
         if (ejbDeploymentInformation == null) {
@@ -129,6 +163,7 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
         }
         final ClassLoader tccl = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
         Runnable runnable = null;
+        Runnable rejection = null;
         try {
             //set the correct TCCL for unmarshalling
             WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(ejbDeploymentInformation.getDeploymentClassLoader());
@@ -177,8 +212,9 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
                 MethodInvocationMessageHandler.this.writeException(channelAssociation, MethodInvocationMessageHandler.this.marshallerFactory, invocationId, e, null);
                 return;
             }
-            // done with unmarshalling
+            // done with unmarshalling, the unmarshaller can be reused for the next invocation on this channel
             unmarshaller.finish();
+            marshallerPool.releaseUnmarshaller(pooledUnmarshaller);
 
             runnable = new Runnable() {
 
@@ -256,11 +292,38 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
                     }
                 }
             };
+            rejection = new Runnable() {
+
+                @Override
+                public void run() {
+                    // let the client know right away, instead of having it wait for the bean to catch up
+                    EjbLogger.EJB3_INVOCATION_LOGGER.debugf("Rejecting invocation of method %s on bean %s, too many invocations are in progress", methodName, beanName);
+                    try {
+                        MethodInvocationMessageHandler.this.writeException(channelAssociation, MethodInvocationMessageHandler.this.marshallerFactory, invocationId, EjbMessages.MESSAGES.remoteInvocationRejected(beanName), null);
+                    } catch (IOException ioe) {
+                        EjbLogger.ROOT_LOGGER.couldNotWriteMethodInvocation(ioe, invokedMethod, beanName, appName, moduleName, distinctName);
+                        IoUtils.safeClose(channelAssociation.getChannel());
+                    }
+                }
+            };
         } finally {
             WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(tccl);
         }
         // invoke the method and write out the response on a separate thread
-        executorService.submit(runnable);
+        final Runnable invocation = runnable;
+        final boolean dispatched = this.invocationDispatcher.dispatch(this.executorService, ejbDeploymentInformation.getEjbComponent(), channelAssociation, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    invocation.run();
+                } finally {
+                    channelAssociation.getStatistics().invocationCompleted(System.nanoTime() - start);
+                }
+            }
+        }, rejection);
+        if (!dispatched) {
+            rejection.run();
+        }
     }
 
     private Affinity getWeakAffinity(final StatefulSessionComponent statefulSessionComponent, final StatefulEJBLocator<?> statefulEJBLocator) {
@@ -368,12 +431,12 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
             // write the invocation id
             outputStream.writeShort(invocationId);
             // write out the result
-            final Marshaller marshaller = this.prepareForMarshalling(this.marshallerFactory, outputStream);
+            final Marshaller marshaller = this.prepareForMarshalling(channelAssociation, this.marshallerFactory, outputStream);
             marshaller.writeObject(result);
             // write the attachments
             this.writeAttachments(marshaller, attachments);
             // finish marshalling
-            marshaller.finish();
+            this.finishMarshalling(channelAssociation, marshaller);
         } finally {
             channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
             outputStream.close();
@@ -400,31 +463,4 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
             outputStream.close();
         }
     }
-
-    /**
-     * A mutable {@link org.jboss.marshalling.ClassResolver}
-     */
-    private class ClassLoaderSwitchingClassResolver extends AbstractClassResolver {
-
-        private ClassLoader currentClassLoader;
-
-        ClassLoaderSwitchingClassResolver(final ClassLoader classLoader) {
-            this.currentClassLoader = classLoader;
-        }
-
-        /**
-         * Sets the passed <code>newCL</code> as the classloader which will be returned on
-         * subsequent calls to {@link #getClassLoader()}
-         *
-         * @param newCL
-         */
-        void switchClassLoader(final ClassLoader newCL) {
-            this.currentClassLoader = newCL;
-        }
-
-        @Override
-        protected ClassLoader getClassLoader() {
-            return this.currentClassLoader;
-        }
-    }
 }
@@ -23,6 +23,7 @@
 package org.jboss.as.ejb3.remote.protocol.versionone;
 
 import java.io.DataOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
@@ -31,6 +32,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.ejb3.EjbLogger;
@@ -42,6 +44,7 @@ import org.jboss.as.ejb3.deployment.ModuleDeployment;
 import org.jboss.as.ejb3.remote.EJBRemoteTransactionsRepository;
 import org.jboss.as.ejb3.remote.RegistryCollector;
 import org.jboss.as.ejb3.remote.RemoteAsyncInvocationCancelStatusService;
+import org.jboss.as.ejb3.remote.RemoteInvocationDispatcher;
 import org.jboss.as.ejb3.remote.protocol.MessageHandler;
 import org.jboss.as.network.ClientMapping;
 import org.jboss.marshalling.MarshallerFactory;
@@ -76,10 +79,19 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
     protected final RegistryCollector<String, List<ClientMapping>> clientMappingRegistryCollector;
     protected final Set<ClusterTopologyUpdateListener> clusterTopologyUpdateListeners = Collections.synchronizedSet(new HashSet<ClusterTopologyUpdateListener>());
     protected final RemoteAsyncInvocationCancelStatusService remoteAsyncInvocationCancelStatus;
+    protected final RemoteInvocationDispatcher invocationDispatcher;
 
     public VersionOneProtocolChannelReceiver(final ChannelAssociation channelAssociation, final DeploymentRepository deploymentRepository,
                                              final EJBRemoteTransactionsRepository transactionsRepository, final RegistryCollector<String, List<ClientMapping>> clientMappingRegistryCollector,
                                              final MarshallerFactory marshallerFactory, final ExecutorService executorService, final RemoteAsyncInvocationCancelStatusService asyncInvocationCancelStatusService) {
+        this(channelAssociation, deploymentRepository, transactionsRepository, clientMappingRegistryCollector, marshallerFactory, executorService, asyncInvocationCancelStatusService,
+                RemoteInvocationDispatcher.UNBOUNDED);
+    }
+
+    public VersionOneProtocolChannelReceiver(final ChannelAssociation channelAssociation, final DeploymentRepository deploymentRepository,
+                                             final EJBRemoteTransactionsRepository transactionsRepository, final RegistryCollector<String, List<ClientMapping>> clientMappingRegistryCollector,
+                                             final MarshallerFactory marshallerFactory, final ExecutorService executorService, final RemoteAsyncInvocationCancelStatusService asyncInvocationCancelStatusService,
+                                             final RemoteInvocationDispatcher invocationDispatcher) {
         this.marshallerFactory = marshallerFactory;
         this.channelAssociation = channelAssociation;
         this.executorService = executorService;
@@ -87,6 +99,7 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
         this.transactionsRepository = transactionsRepository;
         this.clientMappingRegistryCollector = clientMappingRegistryCollector;
         this.remoteAsyncInvocationCancelStatus = asyncInvocationCancelStatusService;
+        this.invocationDispatcher = invocationDispatcher;
     }
 
     public void startReceiving() {
@@ -143,8 +156,9 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
 
     @Override
     public void handleMessage(Channel channel, MessageInputStream messageInputStream) {
+        final CountingInputStream countingInputStream = new CountingInputStream(messageInputStream);
         try {
-            this.processMessage(channel, messageInputStream);
+            this.processMessage(channel, countingInputStream);
             // enroll for next message (whenever it's available)
             channel.receiveMessage(this);
 
@@ -155,6 +169,7 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
             IoUtils.safeClose(channel);
         } finally {
             IoUtils.safeClose(messageInputStream);
+            this.channelAssociation.getStatistics().bytesReceived(countingInputStream.count);
         }
     }
 
@@ -167,7 +182,8 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
     protected MessageHandler getMessageHandler(final byte header) {
         switch (header) {
             case HEADER_INVOCATION_REQUEST:
-                return new MethodInvocationMessageHandler(this.deploymentRepository, this.marshallerFactory, this.executorService, this.remoteAsyncInvocationCancelStatus);
+                return new MethodInvocationMessageHandler(this.deploymentRepository, this.marshallerFactory, this.executorService, this.remoteAsyncInvocationCancelStatus, this.invocationDispatcher,
+                        this.getEJBIdentifiers());
             case HEADER_INVOCATION_CANCELLATION_REQUEST:
                 return new InvocationCancellationMessageHandler(this.remoteAsyncInvocationCancelStatus);
             case HEADER_SESSION_OPEN_REQUEST:
@@ -187,6 +203,16 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
         }
     }
 
+    /**
+     * Returns the EJBs interned on this channel, by identifier. Invocations on a channel that does not intern EJBs send
+     * the application, module, distinct and bean name instead.
+     *
+     * @return the interned EJBs, or {@code null} if the protocol version of the channel does not intern EJBs
+     */
+    protected ConcurrentMap<Integer, EJBIdentifier> getEJBIdentifiers() {
+        return null;
+    }
+
     protected void processMessage(final Channel channel, final InputStream inputStream) throws IOException {
         // read the first byte to see what type of a message it is
         final int header = inputStream.read();
@@ -370,6 +396,45 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
         }
         this.deploymentRepository.removeListener(this);
         this.clientMappingRegistryCollector.removeListener(this);
+        // the queued invocations of this channel can no longer be answered
+        this.channelAssociation.purgeInvocationQueues();
+    }
+
+    /**
+     * Counts the bytes of a message read from the channel.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
     }
 
     class ChannelCloseHandler implements CloseHandler<Channel> {
@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionthree;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.ejb3.EjbLogger;
+import org.jboss.as.ejb3.EjbMessages;
+import org.jboss.as.ejb3.remote.protocol.MessageHandler;
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
+import org.jboss.as.ejb3.remote.protocol.versionone.EJBIdentifier;
+import org.jboss.ejb.client.remoting.PackedInteger;
+
+/**
+ * Interns an EJB on a channel. The message carries the identifier chosen by the client followed by the application,
+ * module, distinct and bean name of the EJB. Subsequent invocations of the EJB on the channel carry only the identifier.
+ */
+class EJBIdentifierDefinitionHandler implements MessageHandler {
+
+    private final ConcurrentMap<Integer, EJBIdentifier> ejbIdentifiers;
+
+    EJBIdentifierDefinitionHandler(final ConcurrentMap<Integer, EJBIdentifier> ejbIdentifiers) {
+        this.ejbIdentifiers = ejbIdentifiers;
+    }
+
+    @Override
+    public void processMessage(final ChannelAssociation channelAssociation, final InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            throw EjbMessages.MESSAGES.messageInputStreamCannotBeNull();
+        }
+        final DataInputStream input = new DataInputStream(inputStream);
+        final int identifier = PackedInteger.readPackedInteger(input);
+        final String appName = input.readUTF();
+        final String moduleName = input.readUTF();
+        final String distinctName = input.readUTF();
+        final String beanName = input.readUTF();
+        final EJBIdentifier ejbIdentifier = new EJBIdentifier(appName, moduleName, distinctName, beanName);
+        // a client may reuse an identifier, the invocations that follow refer to the new definition
+        this.ejbIdentifiers.put(identifier, ejbIdentifier);
+        EjbLogger.EJB3_INVOCATION_LOGGER.tracef("Defined identifier %d for %s on channel %s", identifier, ejbIdentifier, channelAssociation.getChannel());
+    }
+}
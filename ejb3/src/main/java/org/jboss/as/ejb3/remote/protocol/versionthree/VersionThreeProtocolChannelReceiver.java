@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionthree;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+
+import org.jboss.as.ejb3.deployment.DeploymentRepository;
+import org.jboss.as.ejb3.remote.EJBRemoteTransactionsRepository;
+import org.jboss.as.ejb3.remote.RegistryCollector;
+import org.jboss.as.ejb3.remote.RemoteAsyncInvocationCancelStatusService;
+import org.jboss.as.ejb3.remote.RemoteInvocationDispatcher;
+import org.jboss.as.ejb3.remote.protocol.MessageHandler;
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
+import org.jboss.as.ejb3.remote.protocol.versionone.EJBIdentifier;
+import org.jboss.as.ejb3.remote.protocol.versiontwo.VersionTwoProtocolChannelReceiver;
+import org.jboss.as.network.ClientMapping;
+import org.jboss.marshalling.MarshallerFactory;
+
+/**
+ * Handles channels of protocol version 3. The client interns each EJB it invokes once per channel, and its method
+ * invocations carry the identifier of the EJB instead of its application, module, distinct and bean name.
+ */
+public class VersionThreeProtocolChannelReceiver extends VersionTwoProtocolChannelReceiver {
+
+    private static final byte HEADER_EJB_IDENTIFIER_DEFINITION = 0x1C;
+
+    private final ConcurrentMap<Integer, EJBIdentifier> ejbIdentifiers = new ConcurrentHashMap<Integer, EJBIdentifier>();
+
+    public VersionThreeProtocolChannelReceiver(final ChannelAssociation channelAssociation, final DeploymentRepository deploymentRepository,
+                                               final EJBRemoteTransactionsRepository transactionsRepository, final RegistryCollector<String, List<ClientMapping>> clientMappingRegistryCollector,
+                                               final MarshallerFactory marshallerFactory, final ExecutorService executorService, final RemoteAsyncInvocationCancelStatusService asyncInvocationCancelStatusService,
+                                               final RemoteInvocationDispatcher invocationDispatcher) {
+        super(channelAssociation, deploymentRepository, transactionsRepository, clientMappingRegistryCollector, marshallerFactory, executorService, asyncInvocationCancelStatusService,
+                invocationDispatcher);
+    }
+
+    @Override
+    protected MessageHandler getMessageHandler(byte header) {
+        switch (header) {
+            case HEADER_EJB_IDENTIFIER_DEFINITION:
+                return new EJBIdentifierDefinitionHandler(this.ejbIdentifiers);
+            default:
+                return super.getMessageHandler(header);
+        }
+    }
+
+    @Override
+    protected ConcurrentMap<Integer, EJBIdentifier> getEJBIdentifiers() {
+        return this.ejbIdentifiers;
+    }
+}
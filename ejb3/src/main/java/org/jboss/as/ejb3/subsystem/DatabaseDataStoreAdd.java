@@ -24,6 +24,8 @@ package org.jboss.as.ejb3.subsystem;
 
 import java.util.List;
 
+import javax.transaction.TransactionSynchronizationRegistry;
+
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
@@ -35,6 +37,7 @@ import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersiste
 import org.jboss.as.naming.ManagedReferenceFactory;
 import org.jboss.as.naming.deployment.ContextNames;
 import org.jboss.as.server.Services;
+import org.jboss.as.txn.service.TransactionSynchronizationRegistryService;
 import org.jboss.dmr.ModelNode;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.ServiceBuilder;
@@ -80,11 +83,13 @@ public class DatabaseDataStoreAdd extends AbstractAddStepHandler {
             database = null;
         }
         final String partition = DatabaseDataStoreResourceDefinition.PARTITION.resolveModelAttribute(context, model).asString();
+        final boolean claimTimers = DatabaseDataStoreResourceDefinition.CLAIM_TIMERS.resolveModelAttribute(context, model).asBoolean();
+        final long claimTimeout = DatabaseDataStoreResourceDefinition.CLAIM_TIMEOUT.resolveModelAttribute(context, model).asLong();
 
 
         final String name = PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue();
 
-        final DatabaseTimerPersistence databaseTimerPersistence = new DatabaseTimerPersistence(name, database, partition);
+        final DatabaseTimerPersistence databaseTimerPersistence = new DatabaseTimerPersistence(name, database, partition, claimTimers, claimTimeout);
         final ServiceName serviceName = TimerPersistence.SERVICE_NAME.append(name);
         final ServiceBuilder<DatabaseTimerPersistence> builder = context.getServiceTarget().addService(serviceName, databaseTimerPersistence);
 
@@ -95,6 +100,7 @@ public class DatabaseDataStoreAdd extends AbstractAddStepHandler {
         return builder
                 .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, databaseTimerPersistence.getModuleLoader())
                 .addDependency(ContextNames.bindInfoFor(jndiName).getBinderServiceName(), ManagedReferenceFactory.class, databaseTimerPersistence.getDataSourceInjectedValue())
+                .addDependency(TransactionSynchronizationRegistryService.SERVICE_NAME, TransactionSynchronizationRegistry.class, databaseTimerPersistence.getTransactionSynchronizationRegistry())
                 .install();
     }
 
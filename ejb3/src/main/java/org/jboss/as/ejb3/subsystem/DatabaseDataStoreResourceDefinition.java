@@ -25,6 +25,7 @@ package org.jboss.as.ejb3.subsystem;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
@@ -32,6 +33,8 @@ import org.jboss.as.controller.ServiceRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
@@ -70,6 +73,22 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
                     .setValidator(new StringLengthValidator(0))
                     .build();
 
+    public static final SimpleAttributeDefinition CLAIM_TIMERS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.CLAIM_TIMERS, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
+
+    public static final SimpleAttributeDefinition CLAIM_TIMEOUT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.CLAIM_TIMEOUT, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setDefaultValue(new ModelNode(TimeUnit.MINUTES.toMillis(5)))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     static {
@@ -77,6 +96,8 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
         map.put(DATASOURCE_JNDI_NAME.getName(), DATASOURCE_JNDI_NAME);
         map.put(DATABASE.getName(), DATABASE);
         map.put(PARTITION.getName(), PARTITION);
+        map.put(CLAIM_TIMERS.getName(), CLAIM_TIMERS);
+        map.put(CLAIM_TIMEOUT.getName(), CLAIM_TIMEOUT);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.ejb3.remote.EJBRemoteConnectorService;
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelStatistics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.remoting3.Channel;
+
+/**
+ * Lists the open channels of the EJB3 remote service with their invocation and byte count statistics.
+ */
+class EJB3RemoteListChannelsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final EJB3RemoteListChannelsHandler INSTANCE = new EJB3RemoteListChannelsHandler();
+
+    private EJB3RemoteListChannelsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final ModelNode result = context.getResult();
+        result.setEmptyList();
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(EJBRemoteConnectorService.SERVICE_NAME);
+        if (controller != null && controller.getState() == ServiceController.State.UP) {
+            final Map<Channel, ChannelStatistics> channels = ((EJBRemoteConnectorService) controller.getValue()).getChannelStatistics();
+            for (final Map.Entry<Channel, ChannelStatistics> entry : channels.entrySet()) {
+                final ChannelStatistics statistics = entry.getValue();
+                final ModelNode channel = result.add();
+                channel.get(ModelDescriptionConstants.NAME).set(entry.getKey().toString());
+                channel.get(EJB3RemoteResourceDefinition.INVOCATIONS.getName()).set(statistics.getInvocations());
+                channel.get(EJB3RemoteResourceDefinition.AVERAGE_INVOCATION_TIME.getName()).set(EJBRemoteConnectorService.averageInvocationTime(statistics));
+                channel.get(EJB3RemoteResourceDefinition.MAX_INVOCATION_TIME.getName()).set(TimeUnit.NANOSECONDS.toMillis(statistics.getMaxInvocationTime()));
+                channel.get(EJB3RemoteResourceDefinition.BYTES_RECEIVED.getName()).set(statistics.getBytesReceived());
+                channel.get(EJB3RemoteResourceDefinition.BYTES_SENT.getName()).set(statistics.getBytesSent());
+            }
+        }
+        context.stepCompleted();
+    }
+}
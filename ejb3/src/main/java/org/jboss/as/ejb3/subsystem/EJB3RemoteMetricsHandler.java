@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.ejb3.remote.EJBRemoteConnectorService;
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelStatistics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the invocation and byte count statistics of the channels of the EJB3 remote service.
+ */
+class EJB3RemoteMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final EJB3RemoteMetricsHandler INSTANCE = new EJB3RemoteMetricsHandler();
+
+    private EJB3RemoteMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(EJBRemoteConnectorService.SERVICE_NAME);
+        if (controller != null && controller.getState() == ServiceController.State.UP) {
+            final ChannelStatistics statistics = ((EJBRemoteConnectorService) controller.getValue()).getStatistics();
+            final String name = operation.require(ModelDescriptionConstants.NAME).asString();
+            final ModelNode result = context.getResult();
+            if (EJB3RemoteResourceDefinition.OPEN_CHANNELS.getName().equals(name)) {
+                result.set(statistics.getOpenChannels());
+            } else if (EJB3RemoteResourceDefinition.INVOCATIONS.getName().equals(name)) {
+                result.set(statistics.getInvocations());
+            } else if (EJB3RemoteResourceDefinition.AVERAGE_INVOCATION_TIME.getName().equals(name)) {
+                result.set(EJBRemoteConnectorService.averageInvocationTime(statistics));
+            } else if (EJB3RemoteResourceDefinition.MAX_INVOCATION_TIME.getName().equals(name)) {
+                result.set(TimeUnit.NANOSECONDS.toMillis(statistics.getMaxInvocationTime()));
+            } else if (EJB3RemoteResourceDefinition.BYTES_RECEIVED.getName().equals(name)) {
+                result.set(statistics.getBytesReceived());
+            } else if (EJB3RemoteResourceDefinition.BYTES_SENT.getName().equals(name)) {
+                result.set(statistics.getBytesSent());
+            }
+        }
+        context.stepCompleted();
+    }
+}
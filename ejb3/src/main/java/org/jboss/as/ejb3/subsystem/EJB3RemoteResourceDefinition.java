@@ -27,13 +27,20 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationDefinition;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
 /**
@@ -57,6 +64,35 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
+    static final SimpleAttributeDefinition MAX_CONCURRENT_INVOCATIONS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.MAX_CONCURRENT_INVOCATIONS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    static final SimpleAttributeDefinition MAX_QUEUED_INVOCATIONS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.MAX_QUEUED_INVOCATIONS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setDefaultValue(new ModelNode(100))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    static final SimpleAttributeDefinition OPEN_CHANNELS = createMetric("open-channels", ModelType.INT, null);
+    static final SimpleAttributeDefinition INVOCATIONS = createMetric("invocations", ModelType.LONG, null);
+    static final SimpleAttributeDefinition AVERAGE_INVOCATION_TIME = createMetric("average-invocation-time", ModelType.LONG, MeasurementUnit.MILLISECONDS);
+    static final SimpleAttributeDefinition MAX_INVOCATION_TIME = createMetric("max-invocation-time", ModelType.LONG, MeasurementUnit.MILLISECONDS);
+    static final SimpleAttributeDefinition BYTES_RECEIVED = createMetric("bytes-received", ModelType.LONG, MeasurementUnit.BYTES);
+    static final SimpleAttributeDefinition BYTES_SENT = createMetric("bytes-sent", ModelType.LONG, MeasurementUnit.BYTES);
+
+    static final OperationDefinition LIST_CHANNELS = new SimpleOperationDefinitionBuilder("list-channels",
+            EJB3Extension.getResourceDescriptionResolver(EJB3SubsystemModel.REMOTE))
+            .setReadOnly()
+            .setRuntimeOnly()
+            .setReplyType(ModelType.LIST)
+            .setReplyValueType(ModelType.OBJECT)
+            .build();
 
     private static final Map<String, AttributeDefinition> ATTRIBUTES;
 
@@ -64,6 +100,8 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(CONNECTOR_REF.getName(), CONNECTOR_REF);
         map.put(THREAD_POOL_NAME.getName(), THREAD_POOL_NAME);
+        map.put(MAX_CONCURRENT_INVOCATIONS.getName(), MAX_CONCURRENT_INVOCATIONS);
+        map.put(MAX_QUEUED_INVOCATIONS.getName(), MAX_QUEUED_INVOCATIONS);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -81,6 +119,23 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
             // TODO: Make this read-write attribute
             resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
         }
+        for (AttributeDefinition metric : new AttributeDefinition[] {OPEN_CHANNELS, INVOCATIONS, AVERAGE_INVOCATION_TIME, MAX_INVOCATION_TIME, BYTES_RECEIVED, BYTES_SENT}) {
+            resourceRegistration.registerMetric(metric, EJB3RemoteMetricsHandler.INSTANCE);
+        }
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(LIST_CHANNELS, EJB3RemoteListChannelsHandler.INSTANCE);
+    }
+
+    private static SimpleAttributeDefinition createMetric(final String name, final ModelType type, final MeasurementUnit unit) {
+        return new SimpleAttributeDefinitionBuilder(name, type)
+                .setAllowNull(false)
+                .setMeasurementUnit(unit)
+                .setStorageRuntime()
+                .build();
     }
 
     @Override
@@ -91,6 +146,19 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
     }
 
     static void registerTransformers_1_1_0(ResourceTransformationDescriptionBuilder builder) {
-        ChannelCreationOptionResource.registerTransformers_1_1_0(builder.addChildResource(EJB3SubsystemModel.REMOTE_SERVICE_PATH));
+        final ResourceTransformationDescriptionBuilder remoteBuilder = builder.addChildResource(EJB3SubsystemModel.REMOTE_SERVICE_PATH);
+        rejectInvocationLimits(remoteBuilder);
+        ChannelCreationOptionResource.registerTransformers_1_1_0(remoteBuilder);
+    }
+
+    static void registerTransformers_1_2_0(ResourceTransformationDescriptionBuilder builder) {
+        rejectInvocationLimits(builder.addChildResource(EJB3SubsystemModel.REMOTE_SERVICE_PATH));
+    }
+
+    private static void rejectInvocationLimits(ResourceTransformationDescriptionBuilder builder) {
+        builder.getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, MAX_CONCURRENT_INVOCATIONS, MAX_QUEUED_INVOCATIONS)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, MAX_CONCURRENT_INVOCATIONS, MAX_QUEUED_INVOCATIONS)
+                .end();
     }
 }
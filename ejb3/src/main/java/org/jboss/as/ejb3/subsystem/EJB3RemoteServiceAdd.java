@@ -47,6 +47,7 @@ import org.jboss.as.ejb3.remote.RegistryCollector;
 import org.jboss.as.ejb3.remote.RegistryCollectorService;
 import org.jboss.as.ejb3.remote.RegistryInstallerService;
 import org.jboss.as.ejb3.remote.RemoteAsyncInvocationCancelStatusService;
+import org.jboss.as.ejb3.remote.RemoteInvocationDispatcher;
 import org.jboss.as.remoting.RemotingConnectorBindingInfoService;
 import org.jboss.as.remoting.RemotingServices;
 import org.jboss.as.txn.service.TransactionManagerService;
@@ -129,7 +130,8 @@ public class EJB3RemoteServiceAdd extends AbstractBoottimeAddStepHandler {
         final OptionMap channelCreationOptions = this.getChannelCreationOptions(context);
         // Install the EJB remoting connector service which will listen for client connections on the remoting channel
         // TODO: Externalize (expose via management API if needed) the version and the marshalling strategy
-        final EJBRemoteConnectorService ejbRemoteConnectorService = new EJBRemoteConnectorService((byte) 0x02, new String[]{"river"}, channelCreationOptions);
+        final RemoteInvocationDispatcher invocationDispatcher = this.getInvocationDispatcher(context, model);
+        final EJBRemoteConnectorService ejbRemoteConnectorService = new EJBRemoteConnectorService((byte) 0x03, new String[]{"river"}, channelCreationOptions, invocationDispatcher);
         final ServiceBuilder<EJBRemoteConnectorService> ejbRemoteConnectorServiceBuilder = target.addService(EJBRemoteConnectorService.SERVICE_NAME, ejbRemoteConnectorService);
         // add dependency on the Remoting subsystem endpoint
         ejbRemoteConnectorServiceBuilder.addDependency(RemotingServices.SUBSYSTEM_ENDPOINT, Endpoint.class, ejbRemoteConnectorService.getEndpointInjector());
@@ -156,6 +158,17 @@ public class EJB3RemoteServiceAdd extends AbstractBoottimeAddStepHandler {
     protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
         EJB3RemoteResourceDefinition.CONNECTOR_REF.validateAndSet(operation, model);
         EJB3RemoteResourceDefinition.THREAD_POOL_NAME.validateAndSet(operation, model);
+        EJB3RemoteResourceDefinition.MAX_CONCURRENT_INVOCATIONS.validateAndSet(operation, model);
+        EJB3RemoteResourceDefinition.MAX_QUEUED_INVOCATIONS.validateAndSet(operation, model);
+    }
+
+    private RemoteInvocationDispatcher getInvocationDispatcher(final OperationContext context, final ModelNode model) throws OperationFailedException {
+        final ModelNode maxConcurrentInvocations = EJB3RemoteResourceDefinition.MAX_CONCURRENT_INVOCATIONS.resolveModelAttribute(context, model);
+        if (!maxConcurrentInvocations.isDefined()) {
+            return RemoteInvocationDispatcher.UNBOUNDED;
+        }
+        final int maxQueuedInvocations = EJB3RemoteResourceDefinition.MAX_QUEUED_INVOCATIONS.resolveModelAttribute(context, model).asInt();
+        return new RemoteInvocationDispatcher(maxConcurrentInvocations.asInt(), maxQueuedInvocations);
     }
 
     private OptionMap getChannelCreationOptions(final OperationContext context) throws OperationFailedException {
@@ -140,7 +140,7 @@ public class EJB3Subsystem13Parser extends EJB3Subsystem12Parser {
                     EJB3RemoteResourceDefinition.THREAD_POOL_NAME.parseAndSetParameter(value, operation, reader);
                     break;
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    this.parseRemoteAttribute(reader, i, attribute, value, operation);
             }
         }
         if (!required.isEmpty()) {
@@ -168,6 +168,14 @@ public class EJB3Subsystem13Parser extends EJB3Subsystem12Parser {
 
     }
 
+    /**
+     * Parses an attribute of the {@code <remote>} element, other than {@code connector-ref} and {@code thread-pool-name}.
+     */
+    protected void parseRemoteAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute,
+                                        final String value, final ModelNode operation) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
     private void parseChannelCreationOptions(final XMLExtendedStreamReader reader, final PathAddress address, final List<ModelNode> operations) throws XMLStreamException {
         while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
             switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
@@ -73,6 +73,44 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         }
     }
 
+    @Override
+    protected void parseBeanInstancePools(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+        // no attributes expected
+        requireNoAttributes(reader);
+
+        while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+            switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
+                case STRICT_MAX_POOL: {
+                    this.parseStrictMaxPool(reader, operations);
+                    break;
+                }
+                case STRIPED_POOL: {
+                    // create /subsystem=ejb3/striped-bean-instance-pool=name:add(...)
+                    this.parseBeanInstancePool(reader, operations, STRIPED_BEAN_INSTANCE_POOL);
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void parseRemoteAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute,
+                                        final String value, final ModelNode operation) throws XMLStreamException {
+        switch (attribute) {
+            case MAX_CONCURRENT_INVOCATIONS:
+                EJB3RemoteResourceDefinition.MAX_CONCURRENT_INVOCATIONS.parseAndSetParameter(value, operation, reader);
+                break;
+            case MAX_QUEUED_INVOCATIONS:
+                EJB3RemoteResourceDefinition.MAX_QUEUED_INVOCATIONS.parseAndSetParameter(value, operation, reader);
+                break;
+            default:
+                super.parseRemoteAttribute(reader, index, attribute, value, operation);
+        }
+    }
+
     private void parseDisableDefaultEjbPermissions(XMLExtendedStreamReader reader, ModelNode ejb3SubsystemAddOperation) throws XMLStreamException {
         final int count = reader.getAttributeCount();
         final EnumSet<EJB3SubsystemXMLAttribute> missingRequiredAttributes = EnumSet.of(EJB3SubsystemXMLAttribute.VALUE);
@@ -164,6 +202,10 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
                     TimerServiceResourceDefinition.DEFAULT_DATA_STORE.parseAndSetParameter(value,timerServiceAdd,reader);
                     break;
                 }
+                case SCHEDULER_THREADS: {
+                    TimerServiceResourceDefinition.SCHEDULER_THREADS.parseAndSetParameter(value,timerServiceAdd,reader);
+                    break;
+                }
                 default:
                     throw unexpectedAttribute(reader, i);
             }
@@ -193,6 +235,10 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
                     parseDatabaseDataStore(reader, operations);
                     break;
                 }
+                case JOURNAL_DATA_STORE: {
+                    parseJournalDataStore(reader, operations);
+                    break;
+                }
                 default: {
                     throw unexpectedElement(reader);
                 }
@@ -280,6 +326,12 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
                 case PARTITION:
                     DatabaseDataStoreResourceDefinition.PARTITION.parseAndSetParameter(value, databaseDataStore, reader);
                     break;
+                case CLAIM_TIMERS:
+                    DatabaseDataStoreResourceDefinition.CLAIM_TIMERS.parseAndSetParameter(value, databaseDataStore, reader);
+                    break;
+                case CLAIM_TIMEOUT:
+                    DatabaseDataStoreResourceDefinition.CLAIM_TIMEOUT.parseAndSetParameter(value, databaseDataStore, reader);
+                    break;
                 default:
                     throw unexpectedAttribute(reader, i);
             }
@@ -297,6 +349,53 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         requireNoContent(reader);
     }
 
+    private void parseJournalDataStore(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+        String name = null;
+
+        final ModelNode journalDataStore = new ModelNode();
+        final EnumSet<EJB3SubsystemXMLAttribute> required = EnumSet.of(EJB3SubsystemXMLAttribute.NAME, EJB3SubsystemXMLAttribute.PATH);
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final EJB3SubsystemXMLAttribute attribute = EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i));
+            required.remove(attribute);
+            switch (attribute) {
+                case NAME:
+                    if (name != null) {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                    name = reader.getAttributeValue(i);
+                    break;
+                case PATH:
+                    JournalDataStoreResourceDefinition.PATH.parseAndSetParameter(value, journalDataStore, reader);
+                    break;
+                case RELATIVE_TO:
+                    JournalDataStoreResourceDefinition.RELATIVE_TO.parseAndSetParameter(value, journalDataStore, reader);
+                    break;
+                case MAX_SEGMENT_SIZE:
+                    JournalDataStoreResourceDefinition.MAX_SEGMENT_SIZE.parseAndSetParameter(value, journalDataStore, reader);
+                    break;
+                case COMPACTION_THRESHOLD:
+                    JournalDataStoreResourceDefinition.COMPACTION_THRESHOLD.parseAndSetParameter(value, journalDataStore, reader);
+                    break;
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        if (!required.isEmpty()) {
+            throw missingRequired(reader, required);
+        }
+        final ModelNode address = new ModelNode();
+        address.add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
+        address.add(SERVICE, TIMER_SERVICE);
+        address.add(JOURNAL_DATA_STORE, name);
+        journalDataStore.get(OP).set(ADD);
+        journalDataStore.get(ADDRESS).set(address);
+        operations.add(journalDataStore);
+        requireNoContent(reader);
+    }
+
     @Override
     protected void parsePassivationStores(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
         // no attributes expected
@@ -58,9 +58,13 @@ public interface EJB3SubsystemModel {
     String ENABLE_STATISTICS = "enable-statistics";
 
     String FILE_DATA_STORE = "file-data-store";
+    String JOURNAL_DATA_STORE = "journal-data-store";
+    String MAX_SEGMENT_SIZE = "max-segment-size";
+    String COMPACTION_THRESHOLD = "compaction-threshold";
 
     String MAX_POOL_SIZE = "max-pool-size";
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPED_BEAN_INSTANCE_POOL = "striped-bean-instance-pool";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
@@ -107,6 +111,11 @@ public interface EJB3SubsystemModel {
     String DATABASE = "database";
     String DATABASE_DATA_STORE = "database-data-store";
     String PARTITION  = "partition";
+    String CLAIM_TIMERS = "claim-timers";
+    String CLAIM_TIMEOUT = "claim-timeout";
+    String MAX_CONCURRENT_INVOCATIONS = "max-concurrent-invocations";
+    String MAX_QUEUED_INVOCATIONS = "max-queued-invocations";
+    String SCHEDULER_THREADS = "scheduler-threads";
 
     PathElement REMOTE_SERVICE_PATH = PathElement.pathElement(SERVICE, REMOTE);
     PathElement ASYNC_SERVICE_PATH = PathElement.pathElement(SERVICE, ASYNC);
@@ -116,6 +125,7 @@ public interface EJB3SubsystemModel {
     PathElement IIOP_PATH = PathElement.pathElement(SERVICE, IIOP);
     PathElement FILE_DATA_STORE_PATH = PathElement.pathElement(FILE_DATA_STORE);
     PathElement DATABASE_DATA_STORE_PATH = PathElement.pathElement(DATABASE_DATA_STORE);
+    PathElement JOURNAL_DATA_STORE_PATH = PathElement.pathElement(JOURNAL_DATA_STORE);
 
     ServiceName BASE_THREAD_POOL_SERVICE_NAME = ThreadsServices.EXECUTOR.append("ejb3");
 }
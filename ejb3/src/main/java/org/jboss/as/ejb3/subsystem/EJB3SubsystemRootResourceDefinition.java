@@ -228,6 +228,9 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         // subsystem=ejb3/strict-max-bean-instance-pool=*
         subsystemRegistration.registerSubModel(StrictMaxPoolResourceDefinition.INSTANCE);
 
+        // subsystem=ejb3/striped-bean-instance-pool=*
+        subsystemRegistration.registerSubModel(StripedPoolResourceDefinition.INSTANCE);
+
         subsystemRegistration.registerSubModel(CacheFactoryResourceDefinition.INSTANCE);
         subsystemRegistration.registerSubModel(PassivationStoreResourceDefinition.INSTANCE);
         subsystemRegistration.registerSubModel(FilePassivationStoreResourceDefinition.INSTANCE);
@@ -283,6 +286,7 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         EJB3RemoteResourceDefinition.registerTransformers_1_1_0(builder);
         UnboundedQueueThreadPoolResourceDefinition.registerTransformers1_0(builder, EJB3SubsystemModel.THREAD_POOL);
         StrictMaxPoolResourceDefinition.registerTransformers_1_1_0(builder);
+        StripedPoolResourceDefinition.registerTransformers(builder);
         PassivationStoreResourceDefinition.registerTransformers_1_1_0(builder);
         FilePassivationStoreResourceDefinition.registerTransformers_1_1_0(builder);
         ClusterPassivationStoreResourceDefinition.registerTransformers_1_1_0(builder);
@@ -307,6 +311,8 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         // We can always discard this attribute, because it's meaningless without the security-manager subsystem, and
         // a legacy slave can't have that subsystem in its profile.
         builder.getAttributeBuilder().setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.DISABLE_DEFAULT_EJB_PERMISSIONS);
+        EJB3RemoteResourceDefinition.registerTransformers_1_2_0(builder);
+        StripedPoolResourceDefinition.registerTransformers(builder);
         PassivationStoreResourceDefinition.registerTransformers_1_2_0(builder);
         TimerServiceResourceDefinition.registerTransformers_1_2_0(builder);
         TransformationDescription.Tools.register(builder.build(), subsystemRegistration, subsystem12);
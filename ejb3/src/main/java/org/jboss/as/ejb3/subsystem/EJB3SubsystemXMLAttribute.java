@@ -36,8 +36,11 @@ public enum EJB3SubsystemXMLAttribute {
 
     CACHE_CONTAINER("cache-container"),
     CACHE_REF("cache-ref"),
+    CLAIM_TIMEOUT("claim-timeout"),
+    CLAIM_TIMERS("claim-timers"),
     @Deprecated CLIENT_MAPPINGS_CACHE("client-mappings-cache"),
     CLUSTERED_CACHE_REF("clustered-cache-ref"),
+    COMPACTION_THRESHOLD("compaction-threshold"),
     CONNECTOR_REF("connector-ref"),
     CORE_THREADS("core-threads"),
 
@@ -58,7 +61,10 @@ public enum EJB3SubsystemXMLAttribute {
 
     KEEPALIVE_TIME("keepalive-time"),
 
+    MAX_CONCURRENT_INVOCATIONS("max-concurrent-invocations"),
     MAX_POOL_SIZE("max-pool-size"),
+    MAX_QUEUED_INVOCATIONS("max-queued-invocations"),
+    MAX_SEGMENT_SIZE("max-segment-size"),
     MAX_SIZE("max-size"),
     MAX_THREADS("max-threads"),
 
@@ -75,6 +81,8 @@ public enum EJB3SubsystemXMLAttribute {
     RELATIVE_TO("relative-to"),
     RESOURCE_ADAPTER_NAME("resource-adapter-name"),
 
+    SCHEDULER_THREADS("scheduler-threads"),
+
     @Deprecated SESSIONS_PATH("sessions-path"),
     @Deprecated SUBDIRECTORY_COUNT("subdirectory-count"),
 
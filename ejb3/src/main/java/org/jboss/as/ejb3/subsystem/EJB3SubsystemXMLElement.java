@@ -53,6 +53,8 @@ public enum EJB3SubsystemXMLElement {
     IIOP("iiop"),
     IN_VM_REMOTE_INTERFACE_INVOCATION("in-vm-remote-interface-invocation"),
 
+    JOURNAL_DATA_STORE("journal-data-store"),
+
     MDB("mdb"),
 
     POOLS("pools"),
@@ -81,6 +83,7 @@ public enum EJB3SubsystemXMLElement {
     STATELESS("stateless"),
     STATISTICS("statistics"),
     STRICT_MAX_POOL("strict-max-pool"),
+    STRIPED_POOL("striped-pool"),
 
     THREAD_POOL("thread-pool"),
     THREAD_POOLS("thread-pools"),
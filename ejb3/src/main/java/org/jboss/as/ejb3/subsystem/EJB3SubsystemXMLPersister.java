@@ -125,7 +125,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
             writer.writeEndElement();
         }
         // write the pools element
-        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL)) {
+        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL) || model.hasDefined(EJB3SubsystemModel.STRIPED_BEAN_INSTANCE_POOL)) {
             // <pools>
             writer.writeStartElement(EJB3SubsystemXMLElement.POOLS.getLocalName());
             // <bean-instance-pools>
@@ -262,6 +262,8 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
     protected void writeRemote(final XMLExtendedStreamWriter writer, final ModelNode model) throws XMLStreamException {
         writer.writeAttribute(EJB3SubsystemXMLAttribute.CONNECTOR_REF.getLocalName(), model.require(EJB3SubsystemModel.CONNECTOR_REF).asString());
         writer.writeAttribute(EJB3SubsystemXMLAttribute.THREAD_POOL_NAME.getLocalName(), model.require(EJB3SubsystemModel.THREAD_POOL_NAME).asString());
+        EJB3RemoteResourceDefinition.MAX_CONCURRENT_INVOCATIONS.marshallAsAttribute(model, writer);
+        EJB3RemoteResourceDefinition.MAX_QUEUED_INVOCATIONS.marshallAsAttribute(model, writer);
 
         // write out any channel creation options
         if (model.hasDefined(CHANNEL_CREATION_OPTIONS)) {
@@ -380,6 +382,17 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 writer.writeEndElement();
             }
         }
+        if (beanInstancePoolModelNode.hasDefined(EJB3SubsystemModel.STRIPED_BEAN_INSTANCE_POOL)) {
+            final List<Property> stripedPools = beanInstancePoolModelNode.get(EJB3SubsystemModel.STRIPED_BEAN_INSTANCE_POOL).asPropertyList();
+            for (Property property : stripedPools) {
+                // <striped-pool>
+                writer.writeStartElement(EJB3SubsystemXMLElement.STRIPED_POOL.getLocalName());
+                // contents of striped-pool, which shares the attributes of strict-max-pool
+                this.writeStrictMaxPoolConfig(writer, property);
+                // </striped-pool>
+                writer.writeEndElement();
+            }
+        }
     }
 
     private void writeStrictMaxPoolConfig(final XMLExtendedStreamWriter writer, final Property strictMaxPoolModel) throws XMLStreamException {
@@ -470,10 +483,12 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
 
         TimerServiceResourceDefinition.THREAD_POOL_NAME.marshallAsAttribute(timerServiceModel, writer);
         TimerServiceResourceDefinition.DEFAULT_DATA_STORE.marshallAsAttribute(timerServiceModel, writer);
+        TimerServiceResourceDefinition.SCHEDULER_THREADS.marshallAsAttribute(timerServiceModel, writer);
 
         writer.writeStartElement(EJB3SubsystemXMLElement.DATA_STORES.getLocalName());
         writeFileDataStores(writer, timerServiceModel);
         writeDatabaseDataStores(writer, timerServiceModel);
+        writeJournalDataStores(writer, timerServiceModel);
         writer.writeEndElement();
 
     }
@@ -488,6 +503,24 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 DatabaseDataStoreResourceDefinition.DATASOURCE_JNDI_NAME.marshallAsAttribute(store, writer);
                 DatabaseDataStoreResourceDefinition.DATABASE.marshallAsAttribute(store, writer);
                 DatabaseDataStoreResourceDefinition.PARTITION.marshallAsAttribute(store, writer);
+                DatabaseDataStoreResourceDefinition.CLAIM_TIMERS.marshallAsAttribute(store, writer);
+                DatabaseDataStoreResourceDefinition.CLAIM_TIMEOUT.marshallAsAttribute(store, writer);
+                writer.writeEndElement();
+            }
+        }
+    }
+
+    private void writeJournalDataStores(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
+        if (timerServiceModel.hasDefined(EJB3SubsystemModel.JOURNAL_DATA_STORE)) {
+            List<Property> stores = timerServiceModel.get(EJB3SubsystemModel.JOURNAL_DATA_STORE).asPropertyList();
+            for (Property property : stores) {
+                writer.writeStartElement(EJB3SubsystemXMLElement.JOURNAL_DATA_STORE.getLocalName());
+                ModelNode store = property.getValue();
+                writer.writeAttribute(EJB3SubsystemXMLAttribute.NAME.getLocalName(), property.getName());
+                JournalDataStoreResourceDefinition.PATH.marshallAsAttribute(store, writer);
+                JournalDataStoreResourceDefinition.RELATIVE_TO.marshallAsAttribute(store, writer);
+                JournalDataStoreResourceDefinition.MAX_SEGMENT_SIZE.marshallAsAttribute(store, writer);
+                JournalDataStoreResourceDefinition.COMPACTION_THRESHOLD.marshallAsAttribute(store, writer);
                 writer.writeEndElement();
             }
         }
@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
+import org.jboss.as.controller.ServiceRemoveStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.controller.services.path.ResolvePathHandler;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * {@link org.jboss.as.controller.ResourceDefinition} for the journal based file data store
+ */
+public class JournalDataStoreResourceDefinition extends SimpleResourceDefinition {
+
+    public static final SimpleAttributeDefinition PATH = FileDataStoreResourceDefinition.PATH;
+
+    public static final SimpleAttributeDefinition RELATIVE_TO = FileDataStoreResourceDefinition.RELATIVE_TO;
+
+    public static final SimpleAttributeDefinition MAX_SEGMENT_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.MAX_SEGMENT_SIZE, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(16L * 1024 * 1024))
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setValidator(new LongRangeValidator(4096, Integer.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    public static final SimpleAttributeDefinition COMPACTION_THRESHOLD =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.COMPACTION_THRESHOLD, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(4))
+                    .setValidator(new IntRangeValidator(2, Integer.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    private final PathManager pathManager;
+
+    public static final Map<String, AttributeDefinition> ATTRIBUTES;
+
+    static {
+        Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
+        map.put(PATH.getName(), PATH);
+        map.put(RELATIVE_TO.getName(), RELATIVE_TO);
+        map.put(MAX_SEGMENT_SIZE.getName(), MAX_SEGMENT_SIZE);
+        map.put(COMPACTION_THRESHOLD.getName(), COMPACTION_THRESHOLD);
+
+        ATTRIBUTES = Collections.unmodifiableMap(map);
+    }
+
+    public JournalDataStoreResourceDefinition(final PathManager pathManager) {
+        super(EJB3SubsystemModel.JOURNAL_DATA_STORE_PATH,
+                EJB3Extension.getResourceDescriptionResolver(EJB3SubsystemModel.JOURNAL_DATA_STORE),
+                JournalDataStoreAdd.INSTANCE, new ServiceRemoveStepHandler(TimerPersistence.SERVICE_NAME, JournalDataStoreAdd.INSTANCE),
+                OperationEntry.Flag.RESTART_ALL_SERVICES, OperationEntry.Flag.RESTART_ALL_SERVICES);
+        this.pathManager = pathManager;
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        for (AttributeDefinition attr : ATTRIBUTES.values()) {
+            resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
+        }
+    }
+
+    @Override
+    public void registerOperations(final ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        if (pathManager != null) {
+            final ResolvePathHandler resolvePathHandler = ResolvePathHandler.Builder.of(pathManager)
+                    .setPathAttribute(PATH)
+                    .setRelativeToAttribute(RELATIVE_TO)
+                    .build();
+            resourceRegistration.registerOperationHandler(resolvePathHandler.getOperationDefinition(), resolvePathHandler);
+        }
+    }
+}
@@ -50,6 +50,9 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
 
     public static final StrictMaxPoolAdd INSTANCE = new StrictMaxPoolAdd();
 
+    protected StrictMaxPoolAdd() {
+    }
+
     /**
      * Populate the <code>strictMaxPoolModel</code> from the <code>operation</code>
      *
@@ -81,7 +84,7 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         final long timeout = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.resolveModelAttribute(context, strictMaxPoolModel).asLong();
         final String unit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.resolveModelAttribute(context, strictMaxPoolModel).asString();
         // create the pool config
-        final PoolConfig strictMaxPoolConfig = new StrictMaxPoolConfig(poolName, maxPoolSize, timeout, TimeUnit.valueOf(unit));
+        final PoolConfig strictMaxPoolConfig = this.createPoolConfig(poolName, maxPoolSize, timeout, TimeUnit.valueOf(unit));
         // create and install the service
         final PoolConfigService poolConfigService = new PoolConfigService(strictMaxPoolConfig);
         final ServiceName serviceName = PoolConfigService.EJB_POOL_CONFIG_BASE_SERVICE_NAME.append(poolName);
@@ -92,4 +95,10 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         return svcBuilder.install();
     }
 
+    /**
+     * Creates the configuration of the pool installed by this handler.
+     */
+    protected PoolConfig createPoolConfig(String poolName, int maxPoolSize, long timeout, TimeUnit unit) {
+        return new StrictMaxPoolConfig(poolName, maxPoolSize, timeout, unit);
+    }
 }
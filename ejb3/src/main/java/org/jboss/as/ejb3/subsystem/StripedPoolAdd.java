@@ -0,0 +1,46 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.component.pool.PoolConfig;
+import org.jboss.as.ejb3.component.pool.PoolConfigService;
+import org.jboss.as.ejb3.component.pool.StripedPoolConfig;
+
+/**
+ * Adds a striped-pool to the EJB3 subsystem's bean-instance-pools. The {#performRuntime runtime action}
+ * will create and install a {@link PoolConfigService}
+ */
+public class StripedPoolAdd extends StrictMaxPoolAdd {
+
+    public static final StripedPoolAdd INSTANCE = new StripedPoolAdd();
+
+    private StripedPoolAdd() {
+    }
+
+    @Override
+    protected PoolConfig createPoolConfig(String poolName, int maxPoolSize, long timeout, TimeUnit unit) {
+        return new StripedPoolConfig(poolName, maxPoolSize, timeout, unit);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ServiceRemoveStepHandler;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.ejb3.component.pool.PoolConfigService;
+
+/**
+ * {@link org.jboss.as.controller.ResourceDefinition} for the striped-bean-instance-pool resource.
+ * This resource shares the attributes of the strict-max-bean-instance-pool resource.
+ */
+public class StripedPoolResourceDefinition extends SimpleResourceDefinition {
+
+    public static final StripedPoolResourceDefinition INSTANCE = new StripedPoolResourceDefinition();
+
+    private StripedPoolResourceDefinition() {
+        super(PathElement.pathElement(EJB3SubsystemModel.STRIPED_BEAN_INSTANCE_POOL),
+                EJB3Extension.getResourceDescriptionResolver(EJB3SubsystemModel.STRIPED_BEAN_INSTANCE_POOL),
+                StripedPoolAdd.INSTANCE, new ServiceRemoveStepHandler(PoolConfigService.EJB_POOL_CONFIG_BASE_SERVICE_NAME, StripedPoolAdd.INSTANCE),
+                OperationEntry.Flag.RESTART_NONE, OperationEntry.Flag.RESTART_RESOURCE_SERVICES);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        for (AttributeDefinition attr : StrictMaxPoolResourceDefinition.ATTRIBUTES.values()) {
+            resourceRegistration.registerReadWriteAttribute(attr, null, StrictMaxPoolWriteHandler.INSTANCE);
+        }
+    }
+
+    static void registerTransformers(ResourceTransformationDescriptionBuilder parent) {
+        parent.rejectChildResource(INSTANCE.getPathElement());
+    }
+}
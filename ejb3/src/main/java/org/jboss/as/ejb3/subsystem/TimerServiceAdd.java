@@ -23,7 +23,6 @@
 package org.jboss.as.ejb3.subsystem;
 
 import java.util.List;
-import java.util.Timer;
 
 import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
@@ -34,6 +33,7 @@ import org.jboss.as.ejb3.deployment.processors.AroundTimeoutAnnotationParsingPro
 import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
+import org.jboss.as.ejb3.timerservice.TimerScheduler;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
@@ -81,6 +81,8 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
         final String defaultDataStore = TimerServiceResourceDefinition.DEFAULT_DATA_STORE.resolveModelAttribute(context, model).asString();
         final String threadPoolName = TimerServiceResourceDefinition.THREAD_POOL_NAME.resolveModelAttribute(context, model).asString();
         final ServiceName threadPoolServiceName = EJB3SubsystemModel.BASE_THREAD_POOL_SERVICE_NAME.append(threadPoolName);
+        final ModelNode schedulerThreadsModel = TimerServiceResourceDefinition.SCHEDULER_THREADS.resolveModelAttribute(context, model);
+        final int schedulerThreads = schedulerThreadsModel.isDefined() ? schedulerThreadsModel.asInt() : defaultSchedulerThreads();
 
         context.addStep(new AbstractDeploymentChainStep() {
             protected void execute(DeploymentProcessorTarget processorTarget) {
@@ -93,29 +95,41 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
             }
         }, OperationContext.Stage.RUNTIME);
 
-        newControllers.add(context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, new TimerValueService())
+        newControllers.add(context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, new TimerSchedulerService(schedulerThreads))
                 .install());
 
     }
 
-    private static final class TimerValueService implements Service<Timer> {
+    /**
+     * One scheduler thread per four processors is enough to hand the timeouts over to the thread pool.
+     */
+    private static int defaultSchedulerThreads() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+    }
 
-        private Timer timer;
+    private static final class TimerSchedulerService implements Service<TimerScheduler> {
+
+        private final int threads;
+        private TimerScheduler scheduler;
+
+        TimerSchedulerService(final int threads) {
+            this.threads = threads;
+        }
 
         @Override
         public synchronized void start(final StartContext context) throws StartException {
-            timer = new Timer();
+            scheduler = new TimerScheduler(threads);
         }
 
         @Override
         public synchronized void stop(final StopContext context) {
-            timer.cancel();
-            timer = null;
+            scheduler.shutdown();
+            scheduler = null;
         }
 
         @Override
-        public synchronized Timer getValue() throws IllegalStateException, IllegalArgumentException {
-            return timer;
+        public synchronized TimerScheduler getValue() throws IllegalStateException, IllegalArgumentException {
+            return scheduler;
         }
     }
 }
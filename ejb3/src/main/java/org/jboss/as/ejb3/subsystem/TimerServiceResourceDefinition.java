@@ -41,6 +41,7 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -49,6 +50,7 @@ import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.controller.transform.CombinedTransformer;
 import org.jboss.as.controller.transform.OperationRejectionPolicy;
 import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.controller.transform.OperationTransformer;
 import org.jboss.as.controller.transform.PathAddressTransformer;
 import org.jboss.as.controller.transform.ResourceTransformationContext;
 import org.jboss.as.controller.transform.TransformationContext;
@@ -79,6 +81,13 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                     //.setDefaultValue(new ModelNode("default-file-store")) //for backward compatibility!
                     .build();
 
+    static final SimpleAttributeDefinition SCHEDULER_THREADS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.SCHEDULER_THREADS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     private final PathManager pathManager;
@@ -87,6 +96,7 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(THREAD_POOL_NAME.getName(), THREAD_POOL_NAME);
         map.put(DEFAULT_DATA_STORE.getName(), DEFAULT_DATA_STORE);
+        map.put(SCHEDULER_THREADS.getName(), SCHEDULER_THREADS);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -112,6 +122,8 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerSubModel(new FileDataStoreResourceDefinition(pathManager));
 
         resourceRegistration.registerSubModel(DatabaseDataStoreResourceDefinition.INSTANCE);
+
+        resourceRegistration.registerSubModel(new JournalDataStoreResourceDefinition(pathManager));
     }
 
     static void registerTransformers_1_1_0(ResourceTransformationDescriptionBuilder parent) {
@@ -129,10 +141,18 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         DataStoreTransformer dataStoreTransformer = new DataStoreTransformer(rejectPathExpressions);
         timerService.getAttributeBuilder()
                 .setDiscard(DiscardAttributeChecker.ALWAYS, EJB3SubsystemModel.DEFAULT_DATA_STORE)//this is ok, as default-data-store only has any sense with new model, but it is always set!
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, SCHEDULER_THREADS)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, SCHEDULER_THREADS)
+                .end();
+        // The legacy timer service is added by the add operation of its file data store, so this one is discarded
+        // unless it sets attributes the legacy model does not have
+        timerService.addOperationTransformationOverride(ModelDescriptionConstants.ADD)
+                .inheritResourceAttributeDefinitions()
+                .setCustomOperationTransformer(OperationTransformer.DISCARD)
                 .end();
-        timerService.discardOperations(ModelDescriptionConstants.ADD);
         timerService.setCustomResourceTransformer(dataStoreTransformer);
         timerService.rejectChildResource(EJB3SubsystemModel.DATABASE_DATA_STORE_PATH);
+        timerService.rejectChildResource(EJB3SubsystemModel.JOURNAL_DATA_STORE_PATH);
         ResourceTransformationDescriptionBuilder fileDataStore = timerService.addChildRedirection(EJB3SubsystemModel.FILE_DATA_STORE_PATH, new PathAddressTransformer() {
             @Override
             public PathAddress transform(PathElement current, Builder builder) {
@@ -199,6 +219,8 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                 fileStore = new ModelNode();
             } else if ((untransformedModel.hasDefined(EJB3SubsystemModel.DATABASE_DATA_STORE)
                             && untransformedModel.get(EJB3SubsystemModel.DATABASE_DATA_STORE).keys().size() > 0)
+                        || (untransformedModel.hasDefined(EJB3SubsystemModel.JOURNAL_DATA_STORE)
+                            && untransformedModel.get(EJB3SubsystemModel.JOURNAL_DATA_STORE).keys().size() > 0)
                         || untransformedModel.get(EJB3SubsystemModel.FILE_DATA_STORE).keys().size() > 1) {
                 rejectIncompatibleDataStores(context, address);
             }
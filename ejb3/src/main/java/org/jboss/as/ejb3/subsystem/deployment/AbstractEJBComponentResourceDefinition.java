@@ -23,6 +23,7 @@
 package org.jboss.as.ejb3.subsystem.deployment;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ListAttributeDefinition;
@@ -34,13 +35,16 @@ import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
+import org.jboss.as.ejb3.remote.RemoteInvocationQueue;
 import org.jboss.as.ejb3.subsystem.EJB3Extension;
+import org.jboss.as.ejb3.util.LatencyHistogram;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -85,6 +89,45 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    // Invocation latency metrics
+
+    private static final AttributeDefinition EXECUTION_TIME_P50 = new SimpleAttributeDefinitionBuilder("execution-time-p50", ModelType.LONG)
+            .setAllowNull(false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    private static final AttributeDefinition EXECUTION_TIME_P99 = new SimpleAttributeDefinitionBuilder("execution-time-p99", ModelType.LONG)
+            .setAllowNull(false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    private static final AttributeDefinition EXECUTION_TIME_MAX = new SimpleAttributeDefinitionBuilder("execution-time-max", ModelType.LONG)
+            .setAllowNull(false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    private static final AttributeDefinition WAIT_TIME_P50 = new SimpleAttributeDefinitionBuilder("wait-time-p50", ModelType.LONG)
+            .setAllowNull(false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    private static final AttributeDefinition WAIT_TIME_P99 = new SimpleAttributeDefinitionBuilder("wait-time-p99", ModelType.LONG)
+            .setAllowNull(false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    private static final AttributeDefinition WAIT_TIME_MAX = new SimpleAttributeDefinitionBuilder("wait-time-max", ModelType.LONG)
+            .setAllowNull(false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition METHOD_SIGNATURES = ObjectTypeAttributeDefinition.Builder.of("method-signatures", INVOCATIONS,
+            EXECUTION_TIME_P50, EXECUTION_TIME_P99, EXECUTION_TIME_MAX, WAIT_TIME_P50, WAIT_TIME_P99, WAIT_TIME_MAX)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     public static final SimpleAttributeDefinition RUN_AS_ROLE = new SimpleAttributeDefinitionBuilder("run-as-role", ModelType.STRING, true)
             .setValidator(new StringLengthValidator(1, true))
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
@@ -126,6 +169,41 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     public static final SimpleAttributeDefinition POOL_MAX_SIZE = new SimpleAttributeDefinitionBuilder("pool-max-size", ModelType.INT, false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_ACQUIRE_WAIT_TIME_P50 = new SimpleAttributeDefinitionBuilder("pool-acquire-wait-time-p50", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_ACQUIRE_WAIT_TIME_P99 = new SimpleAttributeDefinitionBuilder("pool-acquire-wait-time-p99", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_ACQUIRE_WAIT_TIME_MAX = new SimpleAttributeDefinitionBuilder("pool-acquire-wait-time-max", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+
+    // Remote invocation queue metrics
+
+    private static final AttributeDefinition REMOTE_QUEUED_INVOCATIONS = new SimpleAttributeDefinitionBuilder("remote-queued-invocations", ModelType.INT)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    private static final AttributeDefinition REMOTE_REJECTED_INVOCATIONS = new SimpleAttributeDefinitionBuilder("remote-rejected-invocations", ModelType.LONG)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    private static final AttributeDefinition REMOTE_WAIT_TIME_P50 = new SimpleAttributeDefinitionBuilder("remote-wait-time-p50", ModelType.LONG)
+            .setAllowNull(false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    private static final AttributeDefinition REMOTE_WAIT_TIME_P99 = new SimpleAttributeDefinitionBuilder("remote-wait-time-p99", ModelType.LONG)
+            .setAllowNull(false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    private static final AttributeDefinition REMOTE_WAIT_TIME_MAX = new SimpleAttributeDefinitionBuilder("remote-wait-time-max", ModelType.LONG)
+            .setAllowNull(false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
 
     private final EJBComponentType componentType;
 
@@ -153,6 +231,9 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             resourceRegistration.registerReadOnlyAttribute(POOL_REMOVE_COUNT, handler);
             resourceRegistration.registerReadOnlyAttribute(POOL_CURRENT_SIZE, handler);
             resourceRegistration.registerReadWriteAttribute(POOL_MAX_SIZE, handler, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_ACQUIRE_WAIT_TIME_P50, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_ACQUIRE_WAIT_TIME_P99, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_ACQUIRE_WAIT_TIME_MAX, handler);
         }
 
         if (componentType.equals(EJBComponentType.STATEFUL)) {
@@ -200,6 +281,104 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 context.getResult().set(component.getInvocationMetrics().getWaitTime());
             }
         });
+        resourceRegistration.registerMetric(EXECUTION_TIME_P50, new InvocationMetricsHandler() {
+            @Override
+            protected LatencyHistogram getHistogram(final InvocationMetrics metrics) {
+                return metrics.getExecutionTimes();
+            }
+
+            @Override
+            protected long getMetric(final LatencyHistogram histogram) {
+                return histogram.getPercentile(50, TimeUnit.MICROSECONDS);
+            }
+        });
+        resourceRegistration.registerMetric(EXECUTION_TIME_P99, new InvocationMetricsHandler() {
+            @Override
+            protected LatencyHistogram getHistogram(final InvocationMetrics metrics) {
+                return metrics.getExecutionTimes();
+            }
+
+            @Override
+            protected long getMetric(final LatencyHistogram histogram) {
+                return histogram.getPercentile(99, TimeUnit.MICROSECONDS);
+            }
+        });
+        resourceRegistration.registerMetric(EXECUTION_TIME_MAX, new InvocationMetricsHandler() {
+            @Override
+            protected LatencyHistogram getHistogram(final InvocationMetrics metrics) {
+                return metrics.getExecutionTimes();
+            }
+
+            @Override
+            protected long getMetric(final LatencyHistogram histogram) {
+                return histogram.getMax(TimeUnit.MICROSECONDS);
+            }
+        });
+        resourceRegistration.registerMetric(WAIT_TIME_P50, new InvocationMetricsHandler() {
+            @Override
+            protected LatencyHistogram getHistogram(final InvocationMetrics metrics) {
+                return metrics.getWaitTimes();
+            }
+
+            @Override
+            protected long getMetric(final LatencyHistogram histogram) {
+                return histogram.getPercentile(50, TimeUnit.MICROSECONDS);
+            }
+        });
+        resourceRegistration.registerMetric(WAIT_TIME_P99, new InvocationMetricsHandler() {
+            @Override
+            protected LatencyHistogram getHistogram(final InvocationMetrics metrics) {
+                return metrics.getWaitTimes();
+            }
+
+            @Override
+            protected long getMetric(final LatencyHistogram histogram) {
+                return histogram.getPercentile(99, TimeUnit.MICROSECONDS);
+            }
+        });
+        resourceRegistration.registerMetric(WAIT_TIME_MAX, new InvocationMetricsHandler() {
+            @Override
+            protected LatencyHistogram getHistogram(final InvocationMetrics metrics) {
+                return metrics.getWaitTimes();
+            }
+
+            @Override
+            protected long getMetric(final LatencyHistogram histogram) {
+                return histogram.getMax(TimeUnit.MICROSECONDS);
+            }
+        });
+        if (!componentType.equals(EJBComponentType.MESSAGE_DRIVEN)) {
+            resourceRegistration.registerMetric(REMOTE_QUEUED_INVOCATIONS, new RemoteInvocationQueueMetricsHandler() {
+                @Override
+                protected long getMetric(final RemoteInvocationQueue queue) {
+                    return queue.getQueuedInvocations();
+                }
+            });
+            resourceRegistration.registerMetric(REMOTE_REJECTED_INVOCATIONS, new RemoteInvocationQueueMetricsHandler() {
+                @Override
+                protected long getMetric(final RemoteInvocationQueue queue) {
+                    return queue.getRejectedInvocations();
+                }
+            });
+            resourceRegistration.registerMetric(REMOTE_WAIT_TIME_P50, new RemoteInvocationQueueMetricsHandler() {
+                @Override
+                protected long getMetric(final RemoteInvocationQueue queue) {
+                    return queue.getWaitTimes().getPercentile(50, TimeUnit.MICROSECONDS);
+                }
+            });
+            resourceRegistration.registerMetric(REMOTE_WAIT_TIME_P99, new RemoteInvocationQueueMetricsHandler() {
+                @Override
+                protected long getMetric(final RemoteInvocationQueue queue) {
+                    return queue.getWaitTimes().getPercentile(99, TimeUnit.MICROSECONDS);
+                }
+            });
+            resourceRegistration.registerMetric(REMOTE_WAIT_TIME_MAX, new RemoteInvocationQueueMetricsHandler() {
+                @Override
+                protected long getMetric(final RemoteInvocationQueue queue) {
+                    return queue.getWaitTimes().getMax(TimeUnit.MICROSECONDS);
+                }
+            });
+        }
         resourceRegistration.registerMetric(METHODS, new AbstractRuntimeMetricsHandler() {
             @Override
             protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
@@ -214,6 +393,54 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 }
             }
         });
+        resourceRegistration.registerMetric(METHOD_SIGNATURES, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                context.getResult().setEmptyObject();
+                for (final Map.Entry<String, InvocationMetrics.Histograms> entry : component.getInvocationMetrics().getMethodSignatures().entrySet()) {
+                    final InvocationMetrics.Histograms histograms = entry.getValue();
+                    final LatencyHistogram executionTimes = histograms.getExecutionTimes();
+                    final LatencyHistogram waitTimes = histograms.getWaitTimes();
+                    final ModelNode result = new ModelNode();
+                    result.get("invocations").set(histograms.getInvocations());
+                    result.get("execution-time-p50").set(executionTimes.getPercentile(50, TimeUnit.MICROSECONDS));
+                    result.get("execution-time-p99").set(executionTimes.getPercentile(99, TimeUnit.MICROSECONDS));
+                    result.get("execution-time-max").set(executionTimes.getMax(TimeUnit.MICROSECONDS));
+                    result.get("wait-time-p50").set(waitTimes.getPercentile(50, TimeUnit.MICROSECONDS));
+                    result.get("wait-time-p99").set(waitTimes.getPercentile(99, TimeUnit.MICROSECONDS));
+                    result.get("wait-time-max").set(waitTimes.getMax(TimeUnit.MICROSECONDS));
+                    context.getResult().get(entry.getKey()).set(result);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads a latency metric of the invocations of a component.
+     */
+    private abstract static class InvocationMetricsHandler extends AbstractRuntimeMetricsHandler {
+        @Override
+        protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+            context.getResult().set(getMetric(getHistogram(component.getInvocationMetrics())));
+        }
+
+        protected abstract LatencyHistogram getHistogram(InvocationMetrics metrics);
+
+        protected abstract long getMetric(LatencyHistogram histogram);
+    }
+
+    /**
+     * Reads a metric of the remote invocation queue of a component, which is {@code 0} if its remote invocations are not
+     * bounded.
+     */
+    private abstract static class RemoteInvocationQueueMetricsHandler extends AbstractRuntimeMetricsHandler {
+        @Override
+        protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+            final RemoteInvocationQueue queue = component.getRemoteInvocationQueue();
+            context.getResult().set(queue == null ? 0L : getMetric(queue));
+        }
+
+        protected abstract long getMetric(RemoteInvocationQueue queue);
     }
 
     /* (non-Javadoc)
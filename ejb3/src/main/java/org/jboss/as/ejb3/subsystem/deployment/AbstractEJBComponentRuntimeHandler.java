@@ -28,6 +28,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.OperationContext;
@@ -36,8 +37,10 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.pool.MeasuredPool;
 import org.jboss.as.ejb3.pool.Pool;
 import org.jboss.as.ejb3.security.EJBSecurityMetaData;
+import org.jboss.as.ejb3.util.LatencyHistogram;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
@@ -47,6 +50,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VAL
 import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.COMPONENT_CLASS_NAME;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.DECLARED_ROLES;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_ACQUIRE_WAIT_TIME_MAX;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_ACQUIRE_WAIT_TIME_P50;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_ACQUIRE_WAIT_TIME_P99;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_AVAILABLE_COUNT;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_CREATE_COUNT;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_CURRENT_SIZE;
@@ -167,12 +173,33 @@ public abstract class AbstractEJBComponentRuntimeHandler<T extends EJBComponent>
             if (pool != null) {
                 result.set(pool.getMaxSize());
             }
+        } else if (hasPool && (POOL_ACQUIRE_WAIT_TIME_P50.getName().equals(attributeName)
+                || POOL_ACQUIRE_WAIT_TIME_P99.getName().equals(attributeName)
+                || POOL_ACQUIRE_WAIT_TIME_MAX.getName().equals(attributeName))) {
+            final Pool<?> pool = componentType.getPool(component);
+            final ModelNode result = context.getResult();
+            if (pool instanceof MeasuredPool) {
+                result.set(getAcquireWaitTime(((MeasuredPool<?>) pool).getAcquireWaitTimes(), attributeName));
+            }
         } else {
             // Bug; we were registered for an attribute but there is no code for handling it
             throw MESSAGES.unknownAttribute(attributeName);
         }
     }
 
+    /**
+     * Reads the pool acquire wait time attribute with the given name, in microseconds.
+     */
+    private static long getAcquireWaitTime(LatencyHistogram acquireWaitTimes, String attributeName) {
+        if (POOL_ACQUIRE_WAIT_TIME_P50.getName().equals(attributeName)) {
+            return acquireWaitTimes.getPercentile(50, TimeUnit.MICROSECONDS);
+        } else if (POOL_ACQUIRE_WAIT_TIME_P99.getName().equals(attributeName)) {
+            return acquireWaitTimes.getPercentile(99, TimeUnit.MICROSECONDS);
+        } else {
+            return acquireWaitTimes.getMax(TimeUnit.MICROSECONDS);
+        }
+    }
+
     protected void executeWriteAttribute(String attributeName, OperationContext context, ModelNode operation, T component,
                                          PathAddress address) throws OperationFailedException {
         if (componentType.hasPool() && POOL_MAX_SIZE.getName().equals(attributeName)) {
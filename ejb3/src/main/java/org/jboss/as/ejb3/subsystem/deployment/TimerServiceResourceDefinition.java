@@ -22,20 +22,42 @@
 
 package org.jboss.as.ejb3.subsystem.deployment;
 
+import java.util.concurrent.TimeUnit;
+
+import javax.ejb.TimerService;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.subsystem.EJB3Extension;
 import org.jboss.as.ejb3.subsystem.EJB3SubsystemModel;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@link ResourceDefinition} for the timer-service resource for runtime ejb deployment.
- * As of now this is dummy path impl, since mgmt ops are supported by top level service=timer-service
+ * Management ops are supported by top level service=timer-service, this resource only exposes the timeout metrics
+ * of the timed object.
  * @author baranowb
  */
 public class TimerServiceResourceDefinition<T extends EJBComponent> extends SimpleResourceDefinition {
 
+    private static final AttributeDefinition TIMEOUT_LAG_P50 = createLagMetric("timeout-lag-p50");
+    private static final AttributeDefinition TIMEOUT_LAG_P99 = createLagMetric("timeout-lag-p99");
+    private static final AttributeDefinition TIMEOUT_LAG_MAX = createLagMetric("timeout-lag-max");
+    private static final AttributeDefinition IN_FLIGHT_TIMEOUTS = new SimpleAttributeDefinitionBuilder("in-flight-timeouts", ModelType.LONG)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     private final AbstractEJBComponentRuntimeHandler<T> parentHandler;
     TimerServiceResourceDefinition(AbstractEJBComponentRuntimeHandler<T> parentHandler) {
         super(EJB3SubsystemModel.TIMER_SERVICE_PATH,
@@ -43,9 +65,60 @@ public class TimerServiceResourceDefinition<T extends EJBComponent> extends Simp
         this.parentHandler = parentHandler;
     }
 
+    private static AttributeDefinition createLagMetric(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setAllowNull(false)
+                .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                .build();
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(TIMEOUT_LAG_P50, new TimerServiceMetricsHandler() {
+            @Override
+            protected long getMetric(final TimerServiceImpl timerService) {
+                return timerService.getTimeoutLag().getPercentile(50, TimeUnit.MILLISECONDS);
+            }
+        });
+        resourceRegistration.registerMetric(TIMEOUT_LAG_P99, new TimerServiceMetricsHandler() {
+            @Override
+            protected long getMetric(final TimerServiceImpl timerService) {
+                return timerService.getTimeoutLag().getPercentile(99, TimeUnit.MILLISECONDS);
+            }
+        });
+        resourceRegistration.registerMetric(TIMEOUT_LAG_MAX, new TimerServiceMetricsHandler() {
+            @Override
+            protected long getMetric(final TimerServiceImpl timerService) {
+                return timerService.getTimeoutLag().getMax(TimeUnit.MILLISECONDS);
+            }
+        });
+        resourceRegistration.registerMetric(IN_FLIGHT_TIMEOUTS, new TimerServiceMetricsHandler() {
+            @Override
+            protected long getMetric(final TimerServiceImpl timerService) {
+                return timerService.getInFlightTimeouts();
+            }
+        });
+    }
+
     @Override
     public void registerChildren(ManagementResourceRegistration resourceRegistration) {
         super.registerChildren(resourceRegistration);
         resourceRegistration.registerSubModel(new TimerResourceDefinition<T>(this.parentHandler));
     }
+
+    /**
+     * Reads a metric of the timer service of a component, which is {@code 0} if the component has no functional timer
+     * service.
+     */
+    private abstract static class TimerServiceMetricsHandler extends AbstractRuntimeMetricsHandler {
+        @Override
+        protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+            final TimerService timerService = component.getTimerService();
+            context.getResult().set(timerService instanceof TimerServiceImpl ? getMetric((TimerServiceImpl) timerService) : 0L);
+        }
+
+        protected abstract long getMetric(TimerServiceImpl timerService);
+    }
 }
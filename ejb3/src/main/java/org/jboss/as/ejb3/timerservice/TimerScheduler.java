@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import java.security.AccessController;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.GetAccessControlContextAction;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Schedules the timeouts of the timers of all deployments. The timers are spread over a number of shards by their id,
+ * each of which has its own delay queue and thread, so creating, cancelling and firing timers does not contend on a
+ * single queue. The scheduler threads only hand the timeouts over to the timer service thread pool, so a shard is
+ * never blocked by a timeout method.
+ */
+public final class TimerScheduler {
+
+    private final ScheduledThreadPoolExecutor[] shards;
+
+    /**
+     * Creates a new scheduler, and starts its threads.
+     *
+     * @param shards the number of shards
+     */
+    public TimerScheduler(final int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards");
+        }
+        this.shards = new ScheduledThreadPoolExecutor[shards];
+        final ThreadFactory factory = new JBossThreadFactory(new ThreadGroup("EJB timer scheduler"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.doPrivileged(GetAccessControlContextAction.getInstance()));
+        final ThreadFactory threadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                // threads are started lazily by the first timer of a shard, so they must not inherit the class loader of its deployment
+                final ClassLoader loader = WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(TimerScheduler.class);
+                try {
+                    return factory.newThread(r);
+                } finally {
+                    WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(loader);
+                }
+            }
+        };
+        for (int i = 0; i < shards; i++) {
+            final ScheduledThreadPoolExecutor shard = new ScheduledThreadPoolExecutor(1, threadFactory);
+            // cancelled timers must not stay in the queue until they would have expired
+            shard.setRemoveOnCancelPolicy(true);
+            shard.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            this.shards[i] = shard;
+        }
+    }
+
+    /**
+     * Schedules a single timeout.
+     *
+     * @param timerId the id of the timer
+     * @param task the task to run
+     * @param delay the delay in milliseconds
+     * @return the future of the task
+     */
+    public ScheduledFuture<?> schedule(final String timerId, final Runnable task, final long delay) {
+        return shard(timerId).schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules a timeout that repeats at a fixed rate, with the same semantics as
+     * {@link java.util.Timer#scheduleAtFixedRate(java.util.TimerTask, long, long)}.
+     *
+     * @param timerId the id of the timer
+     * @param task the task to run
+     * @param delay the delay of the first timeout in milliseconds
+     * @param interval the interval between timeouts in milliseconds
+     * @return the future of the task
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(final String timerId, final Runnable task, final long delay, final long interval) {
+        return shard(timerId).scheduleAtFixedRate(task, delay, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the number of shards.
+     */
+    public int getShards() {
+        return shards.length;
+    }
+
+    /**
+     * Cancels all scheduled timeouts and stops the threads.
+     */
+    public void shutdown() {
+        for (ScheduledThreadPoolExecutor shard : shards) {
+            shard.shutdownNow();
+        }
+    }
+
+    private ScheduledThreadPoolExecutor shard(final String timerId) {
+        if (shards.length == 1) {
+            return shards[0];
+        }
+        int h = timerId.hashCode();
+        // timer ids are UUIDs, but spread the hash anyway in case of custom ids
+        h ^= (h >>> 16);
+        return shards[(h & Integer.MAX_VALUE) % shards.length];
+    }
+}
@@ -35,7 +35,13 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ejb.EJBException;
 import javax.ejb.ScheduleExpression;
@@ -64,6 +70,7 @@ import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.spi.ScheduleTimer;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
 import org.jboss.as.ejb3.timerservice.task.TimerTask;
+import org.jboss.as.ejb3.util.LatencyHistogram;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.logging.Logger;
 import org.jboss.msc.service.Service;
@@ -105,7 +112,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
     private final InjectedValue<ExecutorService> executorServiceInjectedValue = new InjectedValue<ExecutorService>();
 
-    private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TimerScheduler> timerSchedulerInjectedValue = new InjectedValue<TimerScheduler>();
 
     private final InjectedValue<TimedObjectInvoker> timedObjectInvoker = new InjectedValue<TimedObjectInvoker>();
 
@@ -122,12 +129,23 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     /**
      * All timers which were created by this {@link TimerService}
      */
-    private final Map<String, TimerImpl> timers = Collections.synchronizedMap(new HashMap<String, TimerImpl>());
+    private final Map<String, TimerImpl> timers = new ConcurrentHashMap<String, TimerImpl>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Holds the {@link Task} of each of the timers that have been scheduled. Scheduling and cancelling a timer only
+     * atomically replaces or removes its entry, so timers do not contend on a common lock.
      */
-    private final Map<String, java.util.TimerTask> scheduledTimerFutures = new HashMap<String, java.util.TimerTask>();
+    private final ConcurrentMap<String, Task<?>> scheduledTimerFutures = new ConcurrentHashMap<String, Task<?>>();
+
+    /**
+     * The delays between the expiration of timers and the start of their timeout in the thread pool
+     */
+    private final LatencyHistogram timeoutLag = new LatencyHistogram();
+
+    /**
+     * The number of timeouts which were handed to the thread pool, and have not completed yet
+     */
+    private final AtomicInteger inFlightTimeouts = new AtomicInteger();
 
     /**
      * Key that is used to store timers that are waiting on transaction completion in the transaction local
@@ -388,12 +406,10 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         Object pk = currentPrimaryKey();
         final Set<Timer> activeTimers = new HashSet<Timer>();
         // get all active timers for this timerservice
-        synchronized (this.timers) {
-            for (final TimerImpl timer : this.timers.values()) {
-                if (timer.isActive()) {
-                    if (timer.getPrimaryKey() == null || timer.getPrimaryKey().equals(pk)) {
-                        activeTimers.add(timer);
-                    }
+        for (final TimerImpl timer : this.timers.values()) {
+            if (timer.isActive()) {
+                if (timer.getPrimaryKey() == null || timer.getPrimaryKey().equals(pk)) {
+                    activeTimers.add(timer);
                 }
             }
         }
@@ -611,6 +627,20 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
+    /**
+     * Returns whether this node should deliver the next timeout of the passed <code>timer</code>.
+     * Always true for non-persistent timers.
+     *
+     * @param timer
+     */
+    public boolean shouldRun(final TimerImpl timer) {
+        if (!timer.isTimerPersistent()) {
+            return true;
+        }
+        final TimerPersistence persistence = timerPersistence.getOptionalValue();
+        return persistence == null || persistence.shouldRun(timer);
+    }
+
     public void cancelTimer(final TimerImpl timer) {
         timer.lock();
         boolean release = true;
@@ -840,42 +870,47 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      * Creates and schedules a {@link org.jboss.as.ejb3.timerservice.task.TimerTask} for the next timeout of the passed <code>timer</code>
      */
     protected void scheduleTimeout(TimerImpl timer, boolean newTimer) {
-        synchronized (scheduledTimerFutures) {
-            if (!newTimer && !scheduledTimerFutures.containsKey(timer.getId())) {
-                //this timer has been cancelled by another thread. We just return
-                return;
-            }
+        final String timerId = timer.getId();
+        if (!newTimer && !scheduledTimerFutures.containsKey(timerId)) {
+            //this timer has been cancelled by another thread. We just return
+            return;
+        }
 
-            Date nextExpiration = timer.getNextExpiration();
-            if (nextExpiration == null) {
-                ROOT_LOGGER.nextExpirationIsNull(timer);
+        Date nextExpiration = timer.getNextExpiration();
+        if (nextExpiration == null) {
+            ROOT_LOGGER.nextExpirationIsNull(timer);
+            return;
+        }
+        // create the timer task
+        final TimerTask<?> timerTask = timer.getTimerTask();
+        // find out how long is it away from now
+        long delay = nextExpiration.getTime() - System.currentTimeMillis();
+        // if in past, then trigger immediately
+        if (delay < 0) {
+            delay = 0;
+        }
+        long intervalDuration = timer.getInterval();
+        final Task<?> task = new Task(timerTask, nextExpiration.getTime(), intervalDuration);
+        // maintain it in timerservice for future use (like cancellation)
+        if (newTimer) {
+            this.scheduledTimerFutures.put(timerId, task);
+        } else {
+            final Task<?> previous = this.scheduledTimerFutures.get(timerId);
+            if (previous == null || !this.scheduledTimerFutures.replace(timerId, previous, task)) {
+                //this timer has been cancelled by another thread in the meantime
                 return;
             }
-            // create the timer task
-            final TimerTask<?> timerTask = timer.getTimerTask();
-            // find out how long is it away from now
-            long delay = nextExpiration.getTime() - System.currentTimeMillis();
-            // if in past, then trigger immediately
-            if (delay < 0) {
-                delay = 0;
-            }
-            long intervalDuration = timer.getInterval();
-            final Task task = new Task(timerTask);
-            if (intervalDuration > 0) {
-                ROOT_LOGGER.debug("Scheduling timer " + timer + " at fixed rate, starting at " + delay
-                        + " milliseconds from now with repeated interval=" + intervalDuration);
-                // schedule the task
-                this.timerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
-            } else {
-                ROOT_LOGGER.debug("Scheduling a single action timer " + timer + " starting at " + delay + " milliseconds from now");
-                // schedule the task
-                this.timerInjectedValue.getValue().schedule(task, delay);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
-
-            }
+        }
+        final TimerScheduler scheduler = this.timerSchedulerInjectedValue.getValue();
+        if (intervalDuration > 0) {
+            ROOT_LOGGER.debug("Scheduling timer " + timer + " at fixed rate, starting at " + delay
+                    + " milliseconds from now with repeated interval=" + intervalDuration);
+            // schedule the task
+            task.scheduled(scheduler.scheduleAtFixedRate(timerId, task, delay, intervalDuration));
+        } else {
+            ROOT_LOGGER.debug("Scheduling a single action timer " + timer + " starting at " + delay + " milliseconds from now");
+            // schedule the task
+            task.scheduled(scheduler.schedule(timerId, task, delay));
         }
     }
 
@@ -885,19 +920,15 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      * @param timer
      */
     protected void cancelTimeout(final TimerImpl timer) {
-        synchronized (this.scheduledTimerFutures) {
-            java.util.TimerTask timerTask = this.scheduledTimerFutures.remove(timer.getId());
-            if (timerTask != null) {
-                timerTask.cancel();
-            }
+        final Task<?> task = this.scheduledTimerFutures.remove(timer.getId());
+        if (task != null) {
+            task.cancel();
         }
     }
 
     public void invokeTimeout(final TimerImpl timer) {
-        synchronized (this.scheduledTimerFutures) {
-            if (this.scheduledTimerFutures.containsKey(timer.getId())) {
-                timer.getTimerTask().run();
-            }
+        if (this.scheduledTimerFutures.containsKey(timer.getId())) {
+            timer.getTimerTask().run();
         }
     }
 
@@ -905,6 +936,22 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         return this.scheduledTimerFutures.containsKey(tid);
     }
 
+    /**
+     * Returns the delays between the expiration of the timers of this timer service and the start of their timeout
+     * in the thread pool.
+     */
+    public LatencyHistogram getTimeoutLag() {
+        return timeoutLag;
+    }
+
+    /**
+     * Returns the number of timeouts of this timer service which were handed to the thread pool, and have not
+     * completed yet.
+     */
+    public int getInFlightTimeouts() {
+        return inFlightTimeouts.get();
+    }
+
     /**
      * Returns an unmodifiable view of timers in the current transaction that are waiting for the transaction
      * to finish
@@ -1065,8 +1112,8 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         return executorServiceInjectedValue;
     }
 
-    public InjectedValue<java.util.Timer> getTimerInjectedValue() {
-        return timerInjectedValue;
+    public InjectedValue<TimerScheduler> getTimerSchedulerInjectedValue() {
+        return timerSchedulerInjectedValue;
     }
 
     public InjectedValue<TimerPersistence> getTimerPersistence() {
@@ -1171,26 +1218,67 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class Task<T extends TimerImpl> extends java.util.TimerTask {
+    /**
+     * The scheduled timeouts of a timer, which hands the timer task to the thread pool each time the timer expires.
+     */
+    private class Task<T extends TimerImpl> implements Runnable {
 
         private final TimerTask<T> delegate;
+        private final long interval;
+        /**
+         * The time the next timeout is due, only accessed by the scheduler thread
+         */
+        private long due;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean cancelled;
 
-        public Task(final TimerTask<T> delegate) {
+        public Task(final TimerTask<T> delegate, final long due, final long interval) {
             this.delegate = delegate;
+            this.due = due;
+            this.interval = interval;
         }
 
         @Override
         public void run() {
+            final long due = this.due;
+            this.due = due + interval;
             final ExecutorService executor = executorServiceInjectedValue.getOptionalValue();
             if (executor != null) {
-                executor.submit(delegate);
+                inFlightTimeouts.incrementAndGet();
+                try {
+                    executor.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                timeoutLag.record(Math.max(0L, System.currentTimeMillis() - due), TimeUnit.MILLISECONDS);
+                                delegate.run();
+                            } finally {
+                                inFlightTimeouts.decrementAndGet();
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    inFlightTimeouts.decrementAndGet();
+                    throw e;
+                }
             }
         }
 
-        @Override
-        public boolean cancel() {
+        void scheduled(final ScheduledFuture<?> future) {
+            this.future = future;
+            // the timer may have been cancelled concurrently, before the future was known
+            if (cancelled) {
+                future.cancel(false);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
             delegate.cancel();
-            return super.cancel();
+            final ScheduledFuture<?> future = this.future;
+            if (future != null) {
+                future.cancel(false);
+            }
         }
     }
 
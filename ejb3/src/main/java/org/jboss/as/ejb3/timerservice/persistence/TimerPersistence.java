@@ -64,4 +64,13 @@ public interface TimerPersistence {
      */
     List<TimerImpl> loadActiveTimers(String timedObjectId, final TimerServiceImpl timerService);
 
+    /**
+     * Called before a timeout of a timer is delivered. Stores that are shared between several nodes can use this to
+     * make sure that each timeout is only delivered by a single node.
+     *
+     * @param timer The timer whose next timeout is due
+     * @return <code>true</code> if this node should deliver the timeout, <code>false</code> if another node does
+     */
+    boolean shouldRun(TimerImpl timer);
+
 }
@@ -36,13 +36,22 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import javax.sql.DataSource;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 
 import org.jboss.as.ejb3.EjbLogger;
+import org.jboss.as.ejb3.EjbMessages;
+import org.jboss.as.ejb3.component.stateful.CurrentSynchronizationCallback;
 import org.jboss.as.ejb3.timerservice.CalendarTimer;
 import org.jboss.as.ejb3.timerservice.TimerImpl;
 import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
@@ -51,6 +60,7 @@ import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.as.server.ServerEnvironment;
 import org.jboss.marshalling.InputStreamByteInput;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.MarshallerFactory;
@@ -66,19 +76,42 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.util.Base64;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
+ * Database based persistent timer store.
+ * <p/>
+ * Changes made to timers within an active transaction are collected per transaction, and are written in JDBC batches
+ * on a single connection before the transaction completes, such that each timer is written at most once per
+ * transaction. Timers are loaded in pages ordered by id, to bound the size of each result set.
+ * <p/>
+ * If <code>claimTimers</code> is enabled, several nodes may share the same partition. Each node then claims a timeout
+ * in the database before delivering it, and only the node whose claim succeeds delivers that timeout. A claim records
+ * the claiming node and the time of the claim, and expires after <code>claimTimeout</code> milliseconds, so that other
+ * nodes take over the timer if the claiming node fails while delivering a timeout. The claim timeout therefore needs
+ * to exceed the time it takes to run the longest timeout method.
+ *
  * @author Stuart Douglas
  */
 public class DatabaseTimerPersistence implements TimerPersistence, Service<DatabaseTimerPersistence> {
 
+    /**
+     * The maximum number of timers that are loaded by a single query
+     */
+    static final int LOAD_PAGE_SIZE = 500;
+
     private final InjectedValue<ManagedReferenceFactory> dataSourceInjectedValue = new InjectedValue<ManagedReferenceFactory>();
     private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
+    private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
     private final String name;
     private final String database;
     private final String partition;
+    private final boolean claimTimers;
+    private final long claimTimeout;
+    private final String batchKey;
     private volatile ManagedReference managedReference;
     private volatile DataSource dataSource;
+    private volatile String nodeName;
     private volatile Properties sql;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
@@ -86,14 +119,24 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private static final String CREATE_TABLE = "create-table";
     private static final String CREATE_TIMER = "create-timer";
     private static final String UPDATE_TIMER = "update-timer";
-    private static final String LOAD_ALL_TIMERS = "load-all-timers";
+    private static final String LOAD_TIMERS_PAGE = "load-timers-page";
+    private static final String CLAIM_TIMER = "claim-timer";
+    private static final String CHECK_CLAIM_COLUMNS = "check-claim-columns";
+    private static final String ADD_CLAIM_COLUMNS = "add-claim-columns";
     private static final String LOAD_TIMER = "load-timer";
     private static final String DELETE_TIMER = "delete-timer";
 
     public DatabaseTimerPersistence(final String name, final String database, String partition) {
+        this(name, database, partition, false, 0);
+    }
+
+    public DatabaseTimerPersistence(final String name, final String database, String partition, boolean claimTimers, long claimTimeout) {
         this.name = name;
         this.database = database;
         this.partition = partition;
+        this.claimTimers = claimTimers;
+        this.claimTimeout = claimTimeout;
+        this.batchKey = "org.jboss.as.ejb3.timerBatch." + name;
     }
 
     @Override
@@ -104,7 +147,18 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         configuration.setClassResolver(ModularClassResolver.getInstance(moduleLoader.getValue()));
 
         managedReference = dataSourceInjectedValue.getValue().getReference();
-        dataSource = (DataSource) managedReference.getInstance();
+        start((DataSource) managedReference.getInstance(), WildFlySecurityManager.getPropertyPrivileged(ServerEnvironment.NODE_NAME, null));
+    }
+
+    /**
+     * Starts using the given data source, creating the timer table if it does not exist yet.
+     *
+     * @param dataSource the data source holding the timer table
+     * @param nodeName the name of this node, recorded with its claims
+     */
+    void start(final DataSource dataSource, final String nodeName) throws StartException {
+        this.dataSource = dataSource;
+        this.nodeName = nodeName;
         final InputStream stream = DatabaseTimerPersistence.class.getClassLoader().getResourceAsStream("timer-sql.properties");
         sql = new Properties();
         try {
@@ -115,6 +169,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             safeClose(stream);
         }
         runCreateTable();
+        if (claimTimers) {
+            runAddClaimColumns();
+        }
     }
 
     @Override
@@ -166,6 +223,45 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Adds the columns holding the claims to a timer table created before timers could be claimed.
+     *
+     * @throws StartException if the columns do not exist and cannot be added
+     */
+    void runAddClaimColumns() throws StartException {
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = dataSource.getConnection();
+            try {
+                //test for the existence of the columns by selecting them
+                preparedStatement = connection.prepareStatement(sql(CHECK_CLAIM_COLUMNS));
+                preparedStatement.setString(1, "NON-EXISTENT");
+                resultSet = preparedStatement.executeQuery();
+                return;
+            } catch (SQLException e) {
+                //the query failed, assume it is because the columns do not exist
+            }
+            for (final String sql : sql(ADD_CLAIM_COLUMNS).split(";")) {
+                try {
+                    statement = connection.createStatement();
+                    statement.executeUpdate(sql);
+                } finally {
+                    safeClose(statement);
+                }
+            }
+        } catch (SQLException e) {
+            throw EjbMessages.MESSAGES.cannotAddTimerClaimColumns(e);
+        } finally {
+            safeClose(resultSet);
+            safeClose(preparedStatement);
+            safeClose(statement);
+            safeClose(connection);
+        }
+    }
+
     private String sql(final String key) {
         if (database != null) {
             String result = sql.getProperty(key + "." + database);
@@ -178,60 +274,118 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
 
     @Override
     public void addTimer(final TimerImpl timerEntity) {
-        String createTimer = sql(CREATE_TIMER);
-        Connection connection = null;
-        PreparedStatement statement = null;
-        ResultSet resultSet = null;
-        try {
-            connection = dataSource.getConnection();
-            statement = connection.prepareStatement(createTimer);
-            statementParameters(timerEntity, statement);
-            statement.execute();
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        } finally {
-            safeClose(resultSet);
-            safeClose(statement);
-            safeClose(connection);
+        if (!enlist(timerEntity, Operation.CREATE)) {
+            execute(Collections.singletonList(new Change(timerEntity, Operation.CREATE)));
         }
     }
 
 
     @Override
     public void persistTimer(final TimerImpl timerEntity) {
+        final Operation operation = (timerEntity.getState() == TimerState.CANCELED ||
+                timerEntity.getState() == TimerState.EXPIRED) ? Operation.DELETE : Operation.UPDATE;
+        if (!enlist(timerEntity, operation)) {
+            execute(Collections.singletonList(new Change(timerEntity, operation)));
+        }
+    }
+
+    /**
+     * Adds the change to the batch of the current transaction, if there is an active transaction that
+     * still accepts synchronizations.
+     *
+     * @return <code>true</code> if the change was enlisted, <code>false</code> if it needs to be written immediately
+     */
+    private boolean enlist(final TimerImpl timer, final Operation operation) {
+        final TransactionSynchronizationRegistry registry = transactionSynchronizationRegistry.getOptionalValue();
+        if (registry == null || registry.getTransactionStatus() != Status.STATUS_ACTIVE || isBeforeCompletion()) {
+            return false;
+        }
+        TransactionBatch batch = (TransactionBatch) registry.getResource(batchKey);
+        if (batch == null) {
+            batch = new TransactionBatch();
+            registry.registerInterposedSynchronization(batch);
+            registry.putResource(batchKey, batch);
+        }
+        batch.add(timer, operation);
+        return true;
+    }
+
+    private boolean isBeforeCompletion() {
+        final CurrentSynchronizationCallback.CallbackType type = CurrentSynchronizationCallback.get();
+        return type == CurrentSynchronizationCallback.CallbackType.BEFORE_COMPLETION;
+    }
+
+    /**
+     * Writes the given changes on a single connection, as one JDBC batch per kind of change.
+     */
+    private void execute(final Collection<Change> changes) {
         Connection connection = null;
-        PreparedStatement statement = null;
-        ResultSet resultSet = null;
+        PreparedStatement create = null;
+        PreparedStatement update = null;
+        PreparedStatement delete = null;
+        int creates = 0;
+        int updates = 0;
+        int deletes = 0;
         try {
             connection = dataSource.getConnection();
-            if (timerEntity.getState() == TimerState.CANCELED ||
-                    timerEntity.getState() == TimerState.EXPIRED) {
-                String deleteTimer = sql(DELETE_TIMER);
-                statement = connection.prepareStatement(deleteTimer);
-                statement.setString(1, timerEntity.getTimedObjectId());
-                statement.setString(2, timerEntity.getId());
-                statement.setString(3, partition);
-                statement.execute();
-            } else {
-                String updateTimer = sql(UPDATE_TIMER);
-                statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                statement.setString(4, timerEntity.getTimedObjectId());
-                statement.setString(5, timerEntity.getId());
-                statement.setString(6, partition);
-                statement.execute();
+            for (Change change : changes) {
+                final TimerImpl timerEntity = change.timer;
+                switch (change.operation) {
+                    case CREATE: {
+                        if (create == null) {
+                            create = connection.prepareStatement(sql(CREATE_TIMER));
+                        }
+                        statementParameters(timerEntity, create);
+                        create.addBatch();
+                        creates++;
+                        break;
+                    }
+                    case UPDATE: {
+                        if (update == null) {
+                            update = connection.prepareStatement(sql(UPDATE_TIMER));
+                        }
+                        update.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
+                        update.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
+                        update.setString(3, timerEntity.getState().name());
+                        update.setString(4, timerEntity.getTimedObjectId());
+                        update.setString(5, timerEntity.getId());
+                        update.setString(6, partition);
+                        update.addBatch();
+                        updates++;
+                        break;
+                    }
+                    case DELETE: {
+                        if (delete == null) {
+                            delete = connection.prepareStatement(sql(DELETE_TIMER));
+                        }
+                        delete.setString(1, timerEntity.getTimedObjectId());
+                        delete.setString(2, timerEntity.getId());
+                        delete.setString(3, partition);
+                        delete.addBatch();
+                        deletes++;
+                        break;
+                    }
+                }
             }
+            executeBatch(delete, deletes);
+            executeBatch(create, creates);
+            executeBatch(update, updates);
         } catch (SQLException e) {
             throw new RuntimeException(e);
         } finally {
-            safeClose(resultSet);
-            safeClose(statement);
+            safeClose(create);
+            safeClose(update);
+            safeClose(delete);
             safeClose(connection);
         }
     }
 
+    private static void executeBatch(final PreparedStatement statement, final int count) throws SQLException {
+        if (count > 0) {
+            statement.executeBatch();
+        }
+    }
+
     @Override
     public void timerUndeployed(final String timedObjectId) {
 
@@ -239,27 +393,40 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
 
     @Override
     public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
-        String loadTimer = sql(LOAD_ALL_TIMERS);
+        String loadTimers = sql(LOAD_TIMERS_PAGE);
         Connection connection = null;
         PreparedStatement statement = null;
         ResultSet resultSet = null;
         try {
             connection = dataSource.getConnection();
-            statement = connection.prepareStatement(loadTimer);
-            statement.setString(1, timedObjectId);
-            statement.setString(2, partition);
-            resultSet = statement.executeQuery();
+            statement = connection.prepareStatement(loadTimers);
+            statement.setMaxRows(LOAD_PAGE_SIZE);
+            statement.setFetchSize(LOAD_PAGE_SIZE);
             final List<TimerImpl> timers = new ArrayList<TimerImpl>();
-            while (resultSet.next()) {
-                try {
-                    final TimerImpl timerImpl = timerFromResult(resultSet, timerService);
-                    if (timerImpl != null) {
-                        timers.add(timerImpl);
+            String lastId = "";
+            int rows;
+            do {
+                //fetch the next page of timers, ordered by id
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                statement.setString(3, lastId);
+                resultSet = statement.executeQuery();
+                rows = 0;
+                while (resultSet.next()) {
+                    rows++;
+                    lastId = resultSet.getString(1);
+                    try {
+                        final TimerImpl timerImpl = timerFromResult(resultSet, timerService);
+                        if (timerImpl != null) {
+                            timers.add(timerImpl);
+                        }
+                    } catch (Exception e) {
+                        EjbLogger.ROOT_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
                     }
-                } catch (Exception e) {
-                    EjbLogger.ROOT_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
                 }
-            }
+                safeClose(resultSet);
+                resultSet = null;
+            } while (rows == LOAD_PAGE_SIZE);
             return timers;
         } catch (SQLException e) {
             throw new RuntimeException(e);
@@ -270,6 +437,41 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    @Override
+    public boolean shouldRun(final TimerImpl timer) {
+        if (!claimTimers) {
+            return true;
+        }
+        final Date nextExpiration = timer.getNextExpiration();
+        if (nextExpiration == null) {
+            return false;
+        }
+        final long now = System.currentTimeMillis();
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            //only one node can move the timer into the timeout state for the current expiration,
+            //unless the claim of that node has expired
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(sql(CLAIM_TIMER));
+            statement.setString(1, TimerState.IN_TIMEOUT.name());
+            statement.setString(2, nodeName);
+            statement.setTimestamp(3, new Timestamp(now));
+            statement.setString(4, timer.getTimedObjectId());
+            statement.setString(5, timer.getId());
+            statement.setString(6, partition);
+            statement.setTimestamp(7, timestamp(nextExpiration));
+            statement.setString(8, TimerState.IN_TIMEOUT.name());
+            statement.setTimestamp(9, new Timestamp(now - claimTimeout));
+            return statement.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            safeClose(statement);
+            safeClose(connection);
+        }
+    }
+
     @Override
     public DatabaseTimerPersistence getValue() throws IllegalStateException, IllegalArgumentException {
         return this;
@@ -439,6 +641,61 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         return moduleLoader;
     }
 
+    public InjectedValue<TransactionSynchronizationRegistry> getTransactionSynchronizationRegistry() {
+        return transactionSynchronizationRegistry;
+    }
+
+    private enum Operation {
+        CREATE,
+        UPDATE,
+        DELETE,
+    }
+
+    private static final class Change {
+        final TimerImpl timer;
+        final Operation operation;
+
+        Change(final TimerImpl timer, final Operation operation) {
+            this.timer = timer;
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * The timer changes made within a transaction, keyed by timer id. Only the last change to each timer is kept, and
+     * the changes are written before the transaction completes.
+     */
+    private final class TransactionBatch implements Synchronization {
+
+        private final Map<String, Change> changes = new LinkedHashMap<String, Change>();
+
+        void add(final TimerImpl timer, final Operation operation) {
+            final Change existing = changes.get(timer.getId());
+            if (existing != null && existing.operation == Operation.CREATE) {
+                if (operation == Operation.DELETE) {
+                    //the timer was never written
+                    changes.remove(timer.getId());
+                } else {
+                    //insert the latest state
+                    changes.put(timer.getId(), new Change(timer, Operation.CREATE));
+                }
+                return;
+            }
+            changes.put(timer.getId(), new Change(timer, operation));
+        }
+
+        @Override
+        public void beforeCompletion() {
+            if (!changes.isEmpty()) {
+                execute(changes.values());
+            }
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+        }
+    }
+
     private static void safeClose(final Closeable resource) {
         try {
             if (resource != null) {
@@ -209,6 +209,11 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     }
 
+    @Override
+    public boolean shouldRun(final TimerImpl timer) {
+        return true;
+    }
+
     private boolean isBeforeCompletion() {
         final CurrentSynchronizationCallback.CallbackType type = CurrentSynchronizationCallback.get();
         if (type != null) {
@@ -295,39 +300,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
                     final TimerEntity entity = unmarshaller.readObject(TimerEntity.class);
 
-                    //we load the legacy timer entity class, and turn it into a timer state
-
-                    TimerImpl.Builder builder;
-                    if (entity instanceof CalendarTimerEntity) {
-                        CalendarTimerEntity c = (CalendarTimerEntity) entity;
-                        builder = CalendarTimer.builder()
-                                .setScheduleExprSecond(c.getSecond())
-                                .setScheduleExprMinute(c.getMinute())
-                                .setScheduleExprHour(c.getHour())
-                                .setScheduleExprDayOfWeek(c.getDayOfWeek())
-                                .setScheduleExprDayOfMonth(c.getDayOfMonth())
-                                .setScheduleExprMonth(c.getMonth())
-                                .setScheduleExprYear(c.getYear())
-                                .setScheduleExprStartDate(c.getStartDate())
-                                .setScheduleExprEndDate(c.getEndDate())
-                                .setScheduleExprTimezone(c.getTimezone())
-                                .setAutoTimer(c.isAutoTimer())
-                                .setTimeoutMethod(CalendarTimer.getTimeoutMethod(c.getTimeoutMethod(), timerService.getTimedObjectInvoker().getValue()));
-                    } else {
-                        builder = TimerImpl.builder();
-                    }
-                    builder.setId(entity.getId())
-                            .setTimedObjectId(entity.getTimedObjectId())
-                            .setInitialDate(entity.getInitialDate())
-                            .setRepeatInterval(entity.getInterval())
-                            .setNextDate(entity.getNextDate())
-                            .setPreviousRun(entity.getPreviousRun())
-                            .setInfo(entity.getInfo())
-                            .setPrimaryKey(entity.getPrimaryKey())
-                            .setTimerState(entity.getTimerState())
-                            .setPersistent(true);
-
-                    timers.put(entity.getId(), builder.build(timerService));
+                    timers.put(entity.getId(), createTimer(entity, timerService));
                     unmarshaller.finish();
                 } catch (Exception e) {
                     ROOT_LOGGER.failToRestoreTimersFromFile(timerFile, e);
@@ -348,6 +321,54 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return timers;
     }
 
+    /**
+     * Turns a persisted timer entity back into a timer of the given timer service.
+     */
+    static TimerImpl createTimer(final TimerEntity entity, final TimerServiceImpl timerService) {
+        //we load the legacy timer entity class, and turn it into a timer state
+        TimerImpl.Builder builder;
+        if (entity instanceof CalendarTimerEntity) {
+            CalendarTimerEntity c = (CalendarTimerEntity) entity;
+            builder = CalendarTimer.builder()
+                    .setScheduleExprSecond(c.getSecond())
+                    .setScheduleExprMinute(c.getMinute())
+                    .setScheduleExprHour(c.getHour())
+                    .setScheduleExprDayOfWeek(c.getDayOfWeek())
+                    .setScheduleExprDayOfMonth(c.getDayOfMonth())
+                    .setScheduleExprMonth(c.getMonth())
+                    .setScheduleExprYear(c.getYear())
+                    .setScheduleExprStartDate(c.getStartDate())
+                    .setScheduleExprEndDate(c.getEndDate())
+                    .setScheduleExprTimezone(c.getTimezone())
+                    .setAutoTimer(c.isAutoTimer())
+                    .setTimeoutMethod(CalendarTimer.getTimeoutMethod(c.getTimeoutMethod(), timerService.getTimedObjectInvoker().getValue()));
+        } else {
+            builder = TimerImpl.builder();
+        }
+        builder.setId(entity.getId())
+                .setTimedObjectId(entity.getTimedObjectId())
+                .setInitialDate(entity.getInitialDate())
+                .setRepeatInterval(entity.getInterval())
+                .setNextDate(entity.getNextDate())
+                .setPreviousRun(entity.getPreviousRun())
+                .setInfo(entity.getInfo())
+                .setPrimaryKey(entity.getPrimaryKey())
+                .setTimerState(entity.getTimerState())
+                .setPersistent(true);
+
+        return builder.build(timerService);
+    }
+
+    /**
+     * Creates the persistent representation of the given timer.
+     */
+    static TimerEntity createEntity(final TimerImpl timer) {
+        if (timer instanceof CalendarTimer) {
+            return new CalendarTimerEntity((CalendarTimer) timer);
+        }
+        return new TimerEntity(timer);
+    }
+
     private File fileName(String timedObjectId, String timerId) {
         return new File(getDirectory(timedObjectId) + File.separator + timerId.replace(File.separator, "-"));
     }
@@ -386,12 +407,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             return;
         }
 
-        final TimerEntity entity;
-        if (timer instanceof CalendarTimer) {
-            entity = new CalendarTimerEntity((CalendarTimer) timer);
-        } else {
-            entity = new TimerEntity(timer);
-        }
+        final TimerEntity entity = createEntity(timer);
 
         FileOutputStream fileOutputStream = null;
         try {
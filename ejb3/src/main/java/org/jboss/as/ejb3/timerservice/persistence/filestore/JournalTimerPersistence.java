@@ -0,0 +1,424 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.ejb3.component.stateful.CurrentSynchronizationCallback;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerEntity;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.marshalling.InputStreamByteInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.ModularClassResolver;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.jboss.modules.ModuleLoader;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Persistent timer store that appends timer state changes to a {@link TimerJournal} per timed object.
+ * <p/>
+ * Unlike {@link FileTimerPersistence}, which rewrites and syncs one file per timer change and rereads every timer file
+ * whenever the timers of a timed object are requested, the timers of a timed object are read once, when they are
+ * first requested, and are kept in memory afterwards. Changes are appended to the journal while holding the lock of the
+ * timed object, but are forced to disk after releasing it, so that the changes of concurrent threads are committed
+ * together.
+ */
+public class JournalTimerPersistence implements TimerPersistence, Service<JournalTimerPersistence> {
+
+    private final boolean createIfNotExists;
+    private MarshallerFactory factory;
+    private MarshallingConfiguration configuration;
+    private final InjectedValue<TransactionManager> transactionManager = new InjectedValue<TransactionManager>();
+    private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
+    private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
+    private final InjectedValue<PathManager> pathManager = new InjectedValue<PathManager>();
+    private final String path;
+    private final String pathRelativeTo;
+    private final long maxSegmentSize;
+    private final int compactionThreshold;
+    private File baseDir;
+    private PathManager.Callback.Handle callbackHandle;
+
+    private final ConcurrentMap<String, TimedObject> timedObjects = new ConcurrentHashMap<String, TimedObject>();
+
+    public JournalTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo, final long maxSegmentSize, final int compactionThreshold) {
+        this.createIfNotExists = createIfNotExists;
+        this.path = path;
+        this.pathRelativeTo = pathRelativeTo;
+        this.maxSegmentSize = maxSegmentSize;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @Override
+    public synchronized void start(final StartContext context) {
+
+        final RiverMarshallerFactory factory = new RiverMarshallerFactory();
+        final MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(ModularClassResolver.getInstance(moduleLoader.getValue()));
+
+        this.configuration = configuration;
+        this.factory = factory;
+        if (pathRelativeTo != null) {
+            callbackHandle = pathManager.getValue().registerCallback(pathRelativeTo, PathManager.ReloadServerCallback.create(), PathManager.Event.UPDATED, PathManager.Event.REMOVED);
+        }
+        baseDir = new File(pathManager.getValue().resolveRelativePathEntry(path, pathRelativeTo));
+        if (!baseDir.exists()) {
+            if (createIfNotExists) {
+                if (!baseDir.mkdirs()) {
+                    throw MESSAGES.failToCreateTimerFileStoreDir(baseDir);
+                }
+            } else {
+                throw MESSAGES.timerFileStoreDirNotExist(baseDir);
+            }
+        }
+        if (!baseDir.isDirectory()) {
+            throw MESSAGES.invalidTimerFileStoreDir(baseDir);
+        }
+    }
+
+    @Override
+    public synchronized void stop(final StopContext context) {
+        for (TimedObject timedObject : timedObjects.values()) {
+            timedObject.close();
+        }
+        timedObjects.clear();
+        if (callbackHandle != null) {
+            callbackHandle.remove();
+        }
+        factory = null;
+        configuration = null;
+    }
+
+    @Override
+    public JournalTimerPersistence getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    @Override
+    public void addTimer(final TimerImpl timer) {
+        persistTimer(timer, true);
+    }
+
+    @Override
+    public void persistTimer(final TimerImpl timer) {
+        persistTimer(timer, false);
+    }
+
+    private void persistTimer(final TimerImpl timer, final boolean newTimer) {
+        final TimedObject timedObject = getTimedObject(timer.getTimedObjectId());
+        final long sequence;
+        try {
+            final int status = transactionManager.getValue().getStatus();
+            if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
+                    status == Status.STATUS_ROLLING_BACK) {
+                //no need to persist anyway
+                return;
+            }
+
+            timedObject.lock.lock();
+            try {
+                if (status == Status.STATUS_NO_TRANSACTION ||
+                        status == Status.STATUS_UNKNOWN || isBeforeCompletion()
+                        || status == Status.STATUS_COMMITTED) {
+                    sequence = timedObject.append(timer, newTimer);
+                } else {
+                    final String key = timerTransactionKey(timer);
+                    Object existing = transactionSynchronizationRegistry.getValue().getResource(key);
+                    //check is there is already a persist sync for this timer
+                    if (existing == null) {
+                        transactionSynchronizationRegistry.getValue().registerInterposedSynchronization(new PersistTransactionSynchronization(timedObject, key, newTimer));
+                    }
+                    //update the most recent version of the timer to be persisted
+                    transactionSynchronizationRegistry.getValue().putResource(key, timer);
+                    return;
+                }
+            } finally {
+                timedObject.lock.unlock();
+            }
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+        // force outside of the lock, so that concurrent changes are committed together
+        timedObject.sync(sequence);
+    }
+
+    private String timerTransactionKey(final TimerImpl timer) {
+        return "org.jboss.as.ejb3.timerTransactionKey." + timer.getId();
+    }
+
+    @Override
+    public void timerUndeployed(final String timedObjectId) {
+        final TimedObject timedObject = timedObjects.remove(timedObjectId);
+        if (timedObject != null) {
+            timedObject.lock.lock();
+            try {
+                timedObject.close();
+            } finally {
+                timedObject.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean shouldRun(final TimerImpl timer) {
+        return true;
+    }
+
+    private boolean isBeforeCompletion() {
+        final CurrentSynchronizationCallback.CallbackType type = CurrentSynchronizationCallback.get();
+        if (type != null) {
+            return type == CurrentSynchronizationCallback.CallbackType.BEFORE_COMPLETION;
+        }
+        return false;
+    }
+
+    @Override
+    public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        final TimedObject timedObject = getTimedObject(timedObjectId);
+        timedObject.lock.lock();
+        try {
+            final Map<String, TimerEntity> timers = timedObject.getTimers();
+            final List<TimerImpl> result = new ArrayList<TimerImpl>(timers.size());
+            for (TimerEntity entity : timers.values()) {
+                try {
+                    result.add(mostRecentEntityVersion(FileTimerPersistence.createTimer(entity, timerService)));
+                } catch (Exception e) {
+                    ROOT_LOGGER.timerReinstatementFailed(timedObjectId, entity.getId(), e);
+                }
+            }
+            return result;
+        } finally {
+            timedObject.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns either the loaded entity or the most recent version of the entity that has
+     * been persisted in this transaction.
+     */
+    private TimerImpl mostRecentEntityVersion(final TimerImpl timerImpl) {
+        try {
+            final int status = transactionManager.getValue().getStatus();
+            if (status == Status.STATUS_UNKNOWN ||
+                    status == Status.STATUS_NO_TRANSACTION) {
+                return timerImpl;
+            }
+            final String key = timerTransactionKey(timerImpl);
+            TimerImpl existing = (TimerImpl) transactionSynchronizationRegistry.getValue().getResource(key);
+            return existing != null ? existing : timerImpl;
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private TimedObject getTimedObject(final String timedObjectId) {
+        TimedObject timedObject = timedObjects.get(timedObjectId);
+        if (timedObject == null) {
+            final File directory = new File(baseDir, timedObjectId.replace(File.separator, "-"));
+            final TimedObject added = new TimedObject(timedObjectId, new TimerJournal(directory, maxSegmentSize, compactionThreshold));
+            timedObject = timedObjects.putIfAbsent(timedObjectId, added);
+            if (timedObject == null) {
+                timedObject = added;
+            }
+        }
+        return timedObject;
+    }
+
+    private byte[] marshal(final TimerEntity entity) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(256);
+        final Marshaller marshaller = factory.createMarshaller(configuration);
+        marshaller.start(new OutputStreamByteOutput(output));
+        marshaller.writeObject(entity);
+        marshaller.finish();
+        return output.toByteArray();
+    }
+
+    private TimerEntity unmarshal(final byte[] payload) throws IOException, ClassNotFoundException {
+        final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+        unmarshaller.start(new InputStreamByteInput(new ByteArrayInputStream(payload)));
+        final TimerEntity entity = unmarshaller.readObject(TimerEntity.class);
+        unmarshaller.finish();
+        return entity;
+    }
+
+    /**
+     * The journal and in-memory timers of a timed object.
+     */
+    private final class TimedObject {
+        final Lock lock = new ReentrantLock();
+        private final String timedObjectId;
+        private final TimerJournal journal;
+        // guarded by lock, loaded on first access
+        private Map<String, TimerEntity> timers;
+
+        TimedObject(final String timedObjectId, final TimerJournal journal) {
+            this.timedObjectId = timedObjectId;
+            this.journal = journal;
+        }
+
+        /**
+         * Gets the timers of this timed object, replaying the journal if necessary. Should be called under lock.
+         */
+        Map<String, TimerEntity> getTimers() {
+            if (timers == null) {
+                timers = new HashMap<String, TimerEntity>();
+                try {
+                    for (Map.Entry<String, byte[]> entry : journal.recover().entrySet()) {
+                        try {
+                            timers.put(entry.getKey(), unmarshal(entry.getValue()));
+                        } catch (Exception e) {
+                            ROOT_LOGGER.failToRestoreTimersFromFile(journal.getDirectory(), e);
+                        }
+                    }
+                } catch (IOException e) {
+                    ROOT_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
+                }
+            }
+            return timers;
+        }
+
+        /**
+         * Applies the state of the given timer to the in-memory timers, and queues the corresponding journal record.
+         * Should be called under lock.
+         *
+         * @return the sequence number of the queued record, or 0 if nothing needed to be written
+         */
+        long append(final TimerImpl timer, final boolean newTimer) {
+            final Map<String, TimerEntity> map = getTimers();
+            try {
+                if (timer.getState() == TimerState.CANCELED ||
+                        timer.getState() == TimerState.EXPIRED) {
+                    return (map.remove(timer.getId()) != null) ? journal.remove(timer.getId()) : 0;
+                }
+                //if it is not a new timer and is not in the map then it has
+                //been removed by another thread.
+                if (newTimer || map.containsKey(timer.getId())) {
+                    final TimerEntity entity = FileTimerPersistence.createEntity(timer);
+                    final byte[] payload = marshal(entity);
+                    map.put(timer.getId(), entity);
+                    return journal.put(timer.getId(), payload);
+                }
+                return 0;
+            } catch (IOException e) {
+                throw MESSAGES.failToWriteTimerJournal(journal.getDirectory(), e);
+            }
+        }
+
+        void sync(final long sequence) {
+            try {
+                journal.sync(sequence);
+            } catch (IOException e) {
+                throw MESSAGES.failToWriteTimerJournal(journal.getDirectory(), e);
+            }
+        }
+
+        void close() {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                ROOT_LOGGER.failToCloseFile(e);
+            }
+        }
+    }
+
+    private final class PersistTransactionSynchronization implements Synchronization {
+
+        private final String transactionKey;
+        private final TimedObject timedObject;
+        private final boolean newTimer;
+        private volatile TimerImpl timer;
+
+        public PersistTransactionSynchronization(final TimedObject timedObject, final String transactionKey, final boolean newTimer) {
+            this.timedObject = timedObject;
+            this.transactionKey = transactionKey;
+            this.newTimer = newTimer;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            //get the latest version of the entity
+            timer = (TimerImpl) transactionSynchronizationRegistry.getValue().getResource(transactionKey);
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (timer == null || status != Status.STATUS_COMMITTED) {
+                return;
+            }
+            final long sequence;
+            timedObject.lock.lock();
+            try {
+                sequence = timedObject.append(timer, newTimer);
+            } finally {
+                timedObject.lock.unlock();
+            }
+            timedObject.sync(sequence);
+        }
+    }
+
+    public InjectedValue<TransactionManager> getTransactionManager() {
+        return transactionManager;
+    }
+
+    public InjectedValue<TransactionSynchronizationRegistry> getTransactionSynchronizationRegistry() {
+        return transactionSynchronizationRegistry;
+    }
+
+    public InjectedValue<ModuleLoader> getModuleLoader() {
+        return moduleLoader;
+    }
+
+    public InjectedValue<PathManager> getPathManager() {
+        return pathManager;
+    }
+}
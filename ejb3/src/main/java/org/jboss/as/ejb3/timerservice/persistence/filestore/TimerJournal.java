@@ -0,0 +1,639 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * A segmented, append-only log of the persistent state of the timers of a single timed object.
+ * <p/>
+ * Every record holds either the latest serialized state of a timer, or a tombstone for a timer that no longer exists.
+ * Records are appended in the order in which they were submitted, but are only written by a single leader thread, which
+ * writes every pending record with one gathering write and forces the channel once on behalf of all waiting threads.
+ * <p/>
+ * Once the log holds more than {@code compactionThreshold} records per live timer, the live records are copied
+ * into a new segment and the older segments are deleted.
+ * On recovery, segments are read through read-only memory mappings, and an incomplete or corrupt record, as left behind by a
+ * crash during a write, is truncated along with the remainder of its segment.
+ * <p/>
+ * Record layout: {@code [int length][int crc32][byte type][short id length][id][payload]}, where the length and checksum
+ * cover everything following the header.
+ */
+public class TimerJournal {
+
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int HEADER_SIZE = 8;
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File directory;
+    private final long maxSegmentSize;
+    private final int compactionThreshold;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    // guarded by lock
+    private List<Record> pending = new ArrayList<Record>();
+    private long appended;
+    // the last sequence number taken into a batch
+    private long batched;
+    // the last sequence number of the last batch that was written successfully
+    private long durable;
+    // the first and last sequence numbers of the records that could not be written, which are never durable
+    private final NavigableMap<Long, Long> failed = new TreeMap<Long, Long>();
+    private boolean flushing;
+    private boolean recovered;
+    private boolean closed;
+
+    // only accessed by the thread that currently holds the flushing role
+    private final Map<String, Location> index = new HashMap<String, Location>();
+    private long records;
+    private long segment;
+    private FileChannel channel;
+    private long position;
+    // the records of the current batch that have been forced to disk
+    private long forced;
+    // the records of the current batch that have been written and indexed, but not yet forced to disk
+    private final List<Undo> unforced = new ArrayList<Undo>();
+    // the offset in the current segment of the first record that was not yet forced to disk
+    private long unforcedOffset;
+
+    public TimerJournal(final File directory, final long maxSegmentSize, final int compactionThreshold) {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Replays the segments of this journal, and opens the last segment for appending.
+     * Must be called once, before any record is appended.
+     *
+     * @return the payloads of the live timers, keyed by timer id
+     */
+    public Map<String, byte[]> recover() throws IOException {
+        final Map<String, byte[]> timers = new LinkedHashMap<String, byte[]>();
+        lock.lock();
+        try {
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw MESSAGES.cannotCreateTimerJournalDirectory(directory);
+            }
+            final long[] segments = segments();
+            for (long id : segments) {
+                recover(id, timers);
+            }
+            open(segments.length == 0 ? 0 : segments[segments.length - 1]);
+            recovered = true;
+        } finally {
+            lock.unlock();
+        }
+        return timers;
+    }
+
+    private void recover(final long id, final Map<String, byte[]> timers) throws IOException {
+        final File file = segmentFile(id);
+        final FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        try {
+            final long size = channel.size();
+            long valid = 0;
+            if (size > 0) {
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                while (buffer.remaining() >= HEADER_SIZE) {
+                    final int start = buffer.position();
+                    final int length = buffer.getInt();
+                    final int checksum = buffer.getInt();
+                    if (length <= 0 || length > buffer.remaining()) {
+                        break;
+                    }
+                    final byte[] body = new byte[length];
+                    buffer.get(body);
+                    if (checksum(body) != checksum) {
+                        break;
+                    }
+                    final ByteBuffer record = ByteBuffer.wrap(body);
+                    final byte type = record.get();
+                    final byte[] timerId = new byte[record.getShort() & 0xFFFF];
+                    record.get(timerId);
+                    final String key = new String(timerId, UTF_8);
+                    if (type == PUT) {
+                        final byte[] payload = new byte[record.remaining()];
+                        record.get(payload);
+                        timers.put(key, payload);
+                        index.put(key, new Location(id, start, HEADER_SIZE + length));
+                    } else {
+                        timers.remove(key);
+                        index.remove(key);
+                    }
+                    records++;
+                    valid = buffer.position();
+                }
+            }
+            if (valid < size) {
+                ROOT_LOGGER.truncatingTimerJournalSegment(file, valid);
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Queues the new state of a timer.
+     *
+     * @return the sequence number to pass to {@link #sync(long)}
+     * @throws IOException if the journal has not been recovered
+     */
+    public long put(final String timerId, final byte[] payload) throws IOException {
+        return append(PUT, timerId, payload);
+    }
+
+    /**
+     * Queues the removal of a timer.
+     *
+     * @return the sequence number to pass to {@link #sync(long)}
+     * @throws IOException if the journal has not been recovered
+     */
+    public long remove(final String timerId) throws IOException {
+        return append(REMOVE, timerId, null);
+    }
+
+    private long append(final byte type, final String timerId, final byte[] payload) throws IOException {
+        final Record record = new Record(type, timerId, encode(type, timerId, payload));
+        lock.lock();
+        try {
+            if (closed) {
+                throw MESSAGES.timerJournalClosed(directory);
+            }
+            if (!recovered) {
+                throw MESSAGES.timerJournalNotRecovered(directory);
+            }
+            pending.add(record);
+            return ++appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every record up to and including the given sequence number has been forced to disk.
+     * If no other thread is currently writing, the calling thread writes all pending records, including those of other
+     * threads, otherwise it waits for the current writer and then re-checks.
+     *
+     * @param sequence a sequence number returned by {@link #put(String, byte[])} or {@link #remove(String)}
+     * @throws IOException if the record could not be written
+     */
+    public void sync(final long sequence) throws IOException {
+        lock.lock();
+        try {
+            // a failed record stays failed, even once a later batch was written
+            while (!isFailed(sequence) && durable < sequence) {
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                try {
+                    flush();
+                } catch (IOException e) {
+                    // records forced before the failure are durable, even if they were part of the failed batch
+                    if (isFailed(sequence)) {
+                        throw e;
+                    }
+                }
+            }
+            if (isFailed(sequence)) {
+                throw MESSAGES.failToWriteTimerJournalRecord(directory, sequence);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isFailed(final long sequence) {
+        final Map.Entry<Long, Long> range = failed.floorEntry(sequence);
+        return range != null && sequence <= range.getValue();
+    }
+
+    /**
+     * Writes the pending records while holding the flushing role. Called with the lock held, which is released while
+     * writing.
+     */
+    private void flush() throws IOException {
+        flushing = true;
+        final List<Record> batch = pending;
+        final long first = batched + 1;
+        final long last = appended;
+        batched = last;
+        pending = new ArrayList<Record>();
+        boolean compact = false;
+        IOException failure = null;
+        lock.unlock();
+        try {
+            write(batch);
+            compact = (records >= MIN_COMPACTION_RECORDS) && (records > (long) compactionThreshold * Math.max(index.size(), 1));
+        } catch (IOException e) {
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = new IOException(e);
+        } finally {
+            lock.lock();
+        }
+        if (failure != null) {
+            // the records forced before a segment roll are durable, only the remainder of the batch failed
+            durable = Math.max(durable, first + forced - 1);
+            if (first + forced <= last) {
+                failed.put(first + forced, last);
+            }
+            flushing = false;
+            flushed.signalAll();
+            throw failure;
+        }
+        durable = last;
+        // release the waiters of this batch before compacting
+        flushed.signalAll();
+        if (compact) {
+            lock.unlock();
+            try {
+                compact();
+            } catch (IOException e) {
+                ROOT_LOGGER.failToCompactTimerJournal(directory, e);
+            } finally {
+                lock.lock();
+            }
+        }
+        flushing = false;
+        flushed.signalAll();
+    }
+
+    /**
+     * Writes and indexes a batch of records, rolling over to new segments as needed.
+     * If this fails, the records that were already forced to disk, as counted by {@link #forced}, stay durable, while
+     * the index entries of all other records are rolled back and the records are truncated from the current segment.
+     */
+    private void write(final List<Record> batch) throws IOException {
+        forced = 0;
+        unforced.clear();
+        unforcedOffset = position;
+        try {
+            int start = 0;
+            while (start < batch.size()) {
+                if (position >= maxSegmentSize) {
+                    roll();
+                }
+                // gather as many records as fit into the current segment
+                long size = position;
+                int end = start;
+                while (end < batch.size() && (end == start || size + batch.get(end).buffer.remaining() <= maxSegmentSize)) {
+                    size += batch.get(end++).buffer.remaining();
+                }
+                final ByteBuffer[] buffers = new ByteBuffer[end - start];
+                for (int i = 0; i < buffers.length; ++i) {
+                    buffers[i] = batch.get(start + i).buffer;
+                }
+                long remaining = size - position;
+                while (remaining > 0) {
+                    remaining -= channel.write(buffers);
+                }
+                long recordOffset = position;
+                for (int i = start; i < end; ++i) {
+                    final Record record = batch.get(i);
+                    final int length = record.buffer.limit();
+                    final Location previous;
+                    if (record.type == PUT) {
+                        previous = index.put(record.timerId, new Location(segment, recordOffset, length));
+                    } else {
+                        previous = index.remove(record.timerId);
+                    }
+                    unforced.add(new Undo(record.timerId, previous));
+                    recordOffset += length;
+                    records++;
+                }
+                position = size;
+                start = end;
+            }
+            channel.force(false);
+            forced += unforced.size();
+            unforced.clear();
+        } catch (IOException e) {
+            discardUnforced(e);
+            throw e;
+        } catch (RuntimeException e) {
+            final IOException failure = new IOException(e);
+            discardUnforced(failure);
+            throw failure;
+        }
+    }
+
+    /**
+     * Rolls back the index entries of the records that were not forced to disk, and truncates them, along with any
+     * partially written record, from the current segment, so that neither compaction nor recovery can resurrect them.
+     */
+    private void discardUnforced(final IOException failure) {
+        for (int i = unforced.size() - 1; i >= 0; --i) {
+            final Undo undo = unforced.get(i);
+            if (undo.previous != null) {
+                index.put(undo.timerId, undo.previous);
+            } else {
+                index.remove(undo.timerId);
+            }
+            records--;
+        }
+        unforced.clear();
+        try {
+            channel.truncate(unforcedOffset);
+            channel.position(unforcedOffset);
+            position = unforcedOffset;
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void roll() throws IOException {
+        // open the next segment first, so the current segment stays usable if that fails
+        final FileChannel next = openSegment(segment + 1);
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            next.close();
+            throw e;
+        }
+        // the records written so far are durable now, whatever happens to the remainder of the batch
+        forced += unforced.size();
+        unforced.clear();
+        try {
+            channel.close();
+        } finally {
+            channel = next;
+            position = next.size();
+            next.position(position);
+            unforcedOffset = position;
+            segment++;
+        }
+    }
+
+    FileChannel openSegment(final long id) throws IOException {
+        return new RandomAccessFile(segmentFile(id), "rw").getChannel();
+    }
+
+    private void open(final long id) throws IOException {
+        channel = openSegment(id);
+        position = channel.size();
+        channel.position(position);
+        segment = id;
+    }
+
+    /**
+     * Copies the live records into a new segment, and deletes all older segments.
+     * A crash at any point leaves a set of segments that still replays to the same timers, as the new segment only
+     * contains the latest state of each live timer and is replayed last.
+     */
+    private void compact() throws IOException {
+        final long target = segment + 1;
+        final File file = segmentFile(target);
+        final List<Map.Entry<String, Location>> live = new ArrayList<Map.Entry<String, Location>>(index.entrySet());
+        Collections.sort(live, new Comparator<Map.Entry<String, Location>>() {
+            @Override
+            public int compare(Map.Entry<String, Location> entry1, Map.Entry<String, Location> entry2) {
+                final Location location1 = entry1.getValue();
+                final Location location2 = entry2.getValue();
+                if (location1.segment != location2.segment) {
+                    return (location1.segment < location2.segment) ? -1 : 1;
+                }
+                return (location1.offset < location2.offset) ? -1 : ((location1.offset == location2.offset) ? 0 : 1);
+            }
+        });
+        final Map<String, Location> compacted = new HashMap<String, Location>();
+        final FileChannel out = new RandomAccessFile(file, "rw").getChannel();
+        long offset = 0;
+        try {
+            MappedByteBuffer mapping = null;
+            long mapped = -1;
+            for (Map.Entry<String, Location> entry : live) {
+                final Location location = entry.getValue();
+                if (location.segment != mapped) {
+                    mapping = map(location.segment);
+                    mapped = location.segment;
+                }
+                final ByteBuffer record = mapping.duplicate();
+                record.limit((int) (location.offset + location.length));
+                record.position((int) location.offset);
+                compacted.put(entry.getKey(), new Location(target, offset, location.length));
+                while (record.hasRemaining()) {
+                    offset += out.write(record);
+                }
+            }
+            out.force(true);
+        } catch (IOException e) {
+            out.close();
+            if (!file.delete()) {
+                ROOT_LOGGER.cannotDeleteTimerJournalSegment(file);
+            }
+            throw e;
+        }
+        channel.close();
+        channel = out;
+        segment = target;
+        position = offset;
+        index.clear();
+        index.putAll(compacted);
+        records = compacted.size();
+        for (long id : segments()) {
+            if (id < target) {
+                final File stale = segmentFile(id);
+                if (!stale.delete()) {
+                    ROOT_LOGGER.cannotDeleteTimerJournalSegment(stale);
+                }
+            }
+        }
+    }
+
+    private MappedByteBuffer map(final long id) throws IOException {
+        final FileChannel channel = new RandomAccessFile(segmentFile(id), "r").getChannel();
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes any pending records and closes the current segment.
+     * Subsequent appends will fail.
+     */
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            if (channel == null) {
+                return;
+            }
+            try {
+                if (!pending.isEmpty()) {
+                    flush();
+                }
+            } finally {
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of records in all segments, including records superseded by later records
+     */
+    public long getRecordCount() {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private long[] segments() {
+        final String[] names = directory.list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        if (names == null) {
+            return new long[0];
+        }
+        final long[] segments = new long[names.length];
+        int count = 0;
+        for (String name : names) {
+            try {
+                segments[count] = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                count++;
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        final long[] result = Arrays.copyOf(segments, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private File segmentFile(final long id) {
+        return new File(directory, String.format("%016d%s", id, SEGMENT_SUFFIX));
+    }
+
+    private static ByteBuffer encode(final byte type, final String timerId, final byte[] payload) {
+        final byte[] id = timerId.getBytes(UTF_8);
+        if (id.length > 0xFFFF) {
+            throw new IllegalArgumentException(timerId);
+        }
+        final int length = 1 + 2 + id.length + ((payload != null) ? payload.length : 0);
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + length);
+        buffer.putInt(length);
+        buffer.putInt(0);
+        buffer.put(type);
+        buffer.putShort((short) id.length);
+        buffer.put(id);
+        if (payload != null) {
+            buffer.put(payload);
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, length);
+        buffer.putInt(4, (int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int checksum(final byte[] body) {
+        final CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        return (int) crc.getValue();
+    }
+
+    private static final class Record {
+        final byte type;
+        final String timerId;
+        final ByteBuffer buffer;
+
+        Record(final byte type, final String timerId, final ByteBuffer buffer) {
+            this.type = type;
+            this.timerId = timerId;
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class Undo {
+        final String timerId;
+        final Location previous;
+
+        Undo(final String timerId, final Location previous) {
+            this.timerId = timerId;
+            this.previous = previous;
+        }
+    }
+
+    private static final class Location {
+        final long segment;
+        final long offset;
+        final int length;
+
+        Location(final long segment, final long offset, final int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
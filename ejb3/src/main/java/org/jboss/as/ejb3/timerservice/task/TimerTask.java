@@ -150,6 +150,19 @@ public class TimerTask<T extends TimerImpl> implements Runnable {
                     ROOT_LOGGER.debug("Timer is not active, skipping this scheduled execution at: " + now + "for " + timer);
                     return;
                 }
+                if (!timerService.shouldRun(timer)) {
+                    ROOT_LOGGER.debug("Timeout is delivered by another node, skipping this scheduled execution at: " + now + " for " + timer);
+                    // keep the local copy of the timer in step with the node that delivers the timeout
+                    final Date nextTimeout = calculateNextTimeout(timer);
+                    if (nextTimeout == null) {
+                        // that was the last timeout, the node delivering it also removes the timer
+                        timerService.expireTimer(timer);
+                    } else {
+                        timer.setNextTimeout(nextTimeout);
+                        scheduleTimeoutIfRequired(timer);
+                    }
+                    return;
+                }
                 // set the current date as the "previous run" of the timer.
                 timer.setPreviousRun(new Date());
                 Date nextTimeout = this.calculateNextTimeout(timer);
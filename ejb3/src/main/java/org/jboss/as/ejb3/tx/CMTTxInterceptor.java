@@ -23,6 +23,7 @@ package org.jboss.as.ejb3.tx;
 
 import static org.jboss.as.ejb3.tx.util.StatusHelper.statusAsString;
 
+import java.lang.reflect.Method;
 import java.rmi.RemoteException;
 import java.util.Random;
 
@@ -40,6 +41,7 @@ import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 
 import org.jboss.as.ee.component.Component;
+import org.jboss.as.ee.component.ComponentView;
 import org.jboss.as.ejb3.EjbLogger;
 import org.jboss.as.ejb3.EjbMessages;
 import org.jboss.as.ejb3.component.EJBComponent;
@@ -49,6 +51,7 @@ import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.invocation.InterceptorFactory;
+import org.jboss.invocation.InterceptorFactoryContext;
 import org.jboss.tm.TransactionTimeoutConfiguration;
 import org.jboss.util.deadlock.ApplicationDeadlockException;
 
@@ -228,6 +231,10 @@ public class CMTTxInterceptor implements Interceptor {
         final MethodIntf methodIntf = MethodIntfHelper.of(invocation);
         final TransactionAttributeType attr = component.getTransactionAttributeType(methodIntf, invocation.getMethod());
         final int timeoutInSeconds = component.getTransactionTimeout(methodIntf, invocation.getMethod());
+        return processInvocation(invocation, component, attr, timeoutInSeconds);
+    }
+
+    protected Object processInvocation(final InterceptorContext invocation, final EJBComponent component, final TransactionAttributeType attr, final int timeoutInSeconds) throws Exception {
         switch (attr) {
             case MANDATORY:
                 return mandatory(invocation, component);
@@ -401,4 +408,50 @@ public class CMTTxInterceptor implements Interceptor {
             return invokeInCallerTx(invocation, tx, component);
         }
     }
+
+    /**
+     * {@link InterceptorFactory} for a single method of a view. The transaction attribute and timeout of the method are
+     * resolved once, when the view is started, instead of on every invocation.
+     */
+    public static class ViewMethodFactory implements InterceptorFactory {
+
+        private final Method method;
+
+        public ViewMethodFactory(final Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public Interceptor create(final InterceptorFactoryContext context) {
+            final EJBComponent component = (EJBComponent) context.getContextData().get(Component.class);
+            final ComponentView view = (ComponentView) context.getContextData().get(ComponentView.class);
+            // same resolution as MethodIntfHelper
+            final MethodIntf methodIntf = view == null ? MethodIntf.BEAN : view.getPrivateData(MethodIntf.class);
+            return new ViewMethodInterceptor(methodIntf, component.getTransactionAttributeType(methodIntf, method),
+                    component.getTransactionTimeout(methodIntf, method));
+        }
+    }
+
+    private static class ViewMethodInterceptor extends CMTTxInterceptor {
+
+        private final MethodIntf methodIntf;
+        private final TransactionAttributeType attr;
+        private final int timeoutInSeconds;
+
+        ViewMethodInterceptor(final MethodIntf methodIntf, final TransactionAttributeType attr, final int timeoutInSeconds) {
+            this.methodIntf = methodIntf;
+            this.attr = attr;
+            this.timeoutInSeconds = timeoutInSeconds;
+        }
+
+        @Override
+        public Object processInvocation(final InterceptorContext invocation) throws Exception {
+            final MethodIntf invocationMethodIntf = invocation.getPrivateData(MethodIntf.class);
+            if (invocationMethodIntf != null && invocationMethodIntf != methodIntf) {
+                // the invocation carries its own method interface, resolve the attribute for it
+                return super.processInvocation(invocation);
+            }
+            return processInvocation(invocation, (EJBComponent) invocation.getPrivateData(Component.class), attr, timeoutInSeconds);
+        }
+    }
 }
@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations, suitable for recording on hot paths.
+ * Durations are recorded, with microsecond precision, into exponentially sized buckets, i.e. bucket <em>n</em> counts durations
+ * within [2<sup>n-1</sup>, 2<sup>n</sup>) microseconds.
+ * Recording a duration never allocates and never blocks.
+ * Percentiles are therefore approximate, and are reported as the upper bound of the bucket containing the requested rank.
+ * To avoid contention between concurrent threads, counts, totals and maxima are striped by thread, and only combined when read.
+ * Each stripe occupies its own cache lines, so a histogram takes 384 bytes per stripe, and by default uses about twice as
+ * many stripes as there are processors. Histograms that exist in large numbers should therefore use fewer stripes.
+ */
+public class LatencyHistogram {
+
+    // The last bucket holds durations >= 2^38 microseconds (i.e. ~3 days)
+    private static final int BUCKETS = 40;
+    private static final int HASH_INCREMENT = 0x61c88647;
+    private static final int DEFAULT_STRIPES = Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1)) << 1;
+    // The sum and maximum of the durations of a stripe, in microseconds, precede its buckets
+    private static final int TOTAL = 0;
+    private static final int MAX = 1;
+    private static final int FIRST_BUCKET = 2;
+    // The values of a stripe are padded to a multiple of a cache line, so stripes don't share one
+    private static final int STRIPE_SIZE = 48;
+
+    // Contains the values of each stripe, contiguously
+    private final AtomicLongArray values;
+    private final int stripes;
+
+    /**
+     * Creates a histogram striped for the number of available processors.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a histogram with at most the specified number of stripes.
+     * @param stripes the maximum number of stripes, rounded down to a power of two
+     */
+    public LatencyHistogram(int stripes) {
+        this.stripes = Integer.highestOneBit(Math.max(Math.min(stripes, DEFAULT_STRIPES), 1));
+        this.values = new AtomicLongArray(this.stripes * STRIPE_SIZE);
+    }
+
+    /**
+     * Records the specified duration.
+     * @param duration a duration
+     * @param unit the unit of the duration
+     */
+    public void record(long duration, TimeUnit unit) {
+        long micros = Math.max(unit.toMicros(duration), 0L);
+        int stripe = stripe();
+        this.values.incrementAndGet(stripe + FIRST_BUCKET + bucket(micros));
+        this.values.addAndGet(stripe + TOTAL, micros);
+        // The maximum of a stripe rarely changes, so a plain read usually suffices
+        long current = this.values.get(stripe + MAX);
+        while ((micros > current) && !this.values.compareAndSet(stripe + MAX, current, micros)) {
+            current = this.values.get(stripe + MAX);
+        }
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     * @return a number of durations
+     */
+    public long getCount() {
+        long count = 0;
+        for (int stripe = 0; stripe < this.values.length(); stripe += STRIPE_SIZE) {
+            for (int i = 0; i < BUCKETS; ++i) {
+                count += this.values.get(stripe + FIRST_BUCKET + i);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded durations.
+     * @param unit the unit of the returned duration
+     * @return a duration
+     */
+    public long getTotal(TimeUnit unit) {
+        long total = 0;
+        for (int stripe = 0; stripe < this.values.length(); stripe += STRIPE_SIZE) {
+            total += this.values.get(stripe + TOTAL);
+        }
+        return unit.convert(total, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Returns the maximum recorded duration.
+     * @param unit the unit of the returned duration
+     * @return a duration
+     */
+    public long getMax(TimeUnit unit) {
+        return unit.convert(this.max(), TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Returns the approximate duration below which the specified percentage of recorded durations fall.
+     * @param percentile a percentage between 0 and 100
+     * @param unit the unit of the returned duration
+     * @return a duration, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int stripe = 0; stripe < this.values.length(); stripe += STRIPE_SIZE) {
+            for (int i = 0; i < BUCKETS; ++i) {
+                long value = this.values.get(stripe + FIRST_BUCKET + i);
+                snapshot[i] += value;
+                count += value;
+            }
+        }
+        if (count == 0) return 0;
+        long rank = Math.max((long) Math.ceil(count * Math.min(Math.max(percentile, 0d), 100d) / 100d), 1L);
+        long max = this.max();
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return unit.convert(Math.min(upperBound(i), max), TimeUnit.MICROSECONDS);
+            }
+        }
+        return unit.convert(max, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Discards all recorded durations.
+     */
+    public void reset() {
+        for (int i = 0; i < this.values.length(); ++i) {
+            this.values.set(i, 0);
+        }
+    }
+
+    private long max() {
+        long max = 0;
+        for (int stripe = 0; stripe < this.values.length(); stripe += STRIPE_SIZE) {
+            max = Math.max(max, this.values.get(stripe + MAX));
+        }
+        return max;
+    }
+
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        return ((((int) (id ^ (id >>> 32))) * HASH_INCREMENT) & (this.stripes - 1)) * STRIPE_SIZE;
+    }
+
+    private static int bucket(long micros) {
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        return (bucket < BUCKETS - 1) ? (1L << bucket) - 1 : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ejb.TransactionAttributeType;
+
+import org.jboss.as.ee.component.Component;
+import org.jboss.as.ejb3.deployment.ApplicationExceptions;
+import org.jboss.as.ejb3.tx.CMTTxInterceptor;
+import org.jboss.as.ejb3.tx2.impl.MockTransactionManager;
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.jboss.invocation.SimpleInterceptorFactoryContext;
+import org.jboss.invocation.proxy.MethodIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures a no-op call of a stateless session bean through the {@link CMTTxInterceptor}, with the transaction
+ * attribute of the method resolved on every invocation, as the shared interceptor does, or once per view method, as
+ * the interceptors of {@link CMTTxInterceptor.ViewMethodFactory} do. The method is SUPPORTS and called without a
+ * transaction, so the interceptor only resolves the attribute and asks the transaction manager for the current
+ * transaction.
+ *
+ * <p>Not a test, run it using {@link #main(String[])} from the test class path.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CMTInvocationBenchmark {
+
+    /** How the transaction attribute is resolved. */
+    @Param({"per-invocation", "per-view-method"})
+    public String resolution;
+
+    private EJBComponent component;
+    private Method method;
+    private Object[] parameters;
+    private List<Interceptor> interceptors;
+
+    @Setup
+    public void setUp() throws Exception {
+        method = CharSequence.class.getMethod("charAt", int.class);
+        // a bean with a typical number of methods having explicit transaction attributes
+        final Map<MethodTransactionAttributeKey, TransactionAttributeType> txAttrs = new HashMap<MethodTransactionAttributeKey, TransactionAttributeType>();
+        for (Method beanMethod : String.class.getMethods()) {
+            txAttrs.put(new MethodTransactionAttributeKey(MethodIntf.BEAN, MethodIdentifier.getIdentifierForMethod(beanMethod)), TransactionAttributeType.REQUIRED);
+        }
+        txAttrs.put(new MethodTransactionAttributeKey(MethodIntf.BEAN, MethodIdentifier.getIdentifierForMethod(method)), TransactionAttributeType.SUPPORTS);
+
+        final EJBComponentCreateService createService = mock(EJBComponentCreateService.class);
+        when(createService.getApplicationExceptions()).thenReturn(new ApplicationExceptions());
+        when(createService.getTxAttrs()).thenReturn(txAttrs);
+        when(createService.getTransactionManager()).thenReturn(new MockTransactionManager());
+        component = new EJBComponent(createService) {
+        };
+
+        final Interceptor interceptor;
+        if (resolution.equals("per-view-method")) {
+            final SimpleInterceptorFactoryContext factoryContext = new SimpleInterceptorFactoryContext();
+            factoryContext.getContextData().put(Component.class, component);
+            interceptor = new CMTTxInterceptor.ViewMethodFactory(method).create(factoryContext);
+        } else {
+            interceptor = CMTTxInterceptor.FACTORY.create(new SimpleInterceptorFactoryContext());
+        }
+        interceptors = new ArrayList<Interceptor>();
+        interceptors.add(interceptor);
+        // the bean instance
+        interceptors.add(new Interceptor() {
+            @Override
+            public Object processInvocation(final InterceptorContext context) {
+                return context.getParameters()[0];
+            }
+        });
+        parameters = new Object[] {1};
+    }
+
+    @Benchmark
+    public Object invoke() throws Exception {
+        final InterceptorContext context = new InterceptorContext();
+        context.setMethod(method);
+        context.setParameters(parameters);
+        context.putPrivateData(Component.class, component);
+        context.setInterceptors(interceptors);
+        return context.proceed();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CMTInvocationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class InvocationMetricsTestCase {
+
+    @Test
+    public void testMetrics() throws Exception {
+        InvocationMetrics metrics = new InvocationMetrics();
+        Method indexOfChar = String.class.getMethod("indexOf", int.class);
+        Method indexOfString = String.class.getMethod("indexOf", String.class);
+        Method split = String.class.getMethod("split", String.class, int.class);
+
+        metrics.startInvocation();
+        metrics.startInvocation();
+        assertEquals(2, metrics.getConcurrent());
+        metrics.finishInvocation(indexOfChar, TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(10));
+        metrics.finishInvocation(indexOfString, TimeUnit.MILLISECONDS.toNanos(2), TimeUnit.MILLISECONDS.toNanos(20));
+        metrics.startInvocation();
+        metrics.finishInvocation(split, 0, TimeUnit.MILLISECONDS.toNanos(30));
+
+        assertEquals(0, metrics.getConcurrent());
+        assertEquals(2, metrics.getPeakConcurrent());
+        assertEquals(3, metrics.getInvocations());
+        assertEquals(60, metrics.getExecutionTime());
+        assertEquals(3, metrics.getWaitTime());
+        assertEquals(30000, metrics.getExecutionTimes().getMax(TimeUnit.MICROSECONDS));
+
+        // overloaded methods are summed up by name
+        Map<String, InvocationMetrics.Values> methods = metrics.getMethods();
+        assertEquals(2, methods.size());
+        assertEquals(2, methods.get("indexOf").getInvocations());
+        assertEquals(30, methods.get("indexOf").getExecutionTime());
+        assertEquals(3, methods.get("indexOf").getWaitTime());
+        assertEquals(1, methods.get("split").getInvocations());
+
+        // but kept apart by signature
+        Map<String, InvocationMetrics.Histograms> signatures = metrics.getMethodSignatures();
+        assertEquals(3, signatures.size());
+        assertEquals(1, signatures.get("indexOf(int)").getInvocations());
+        assertEquals(10000, signatures.get("indexOf(int)").getExecutionTimes().getMax(TimeUnit.MICROSECONDS));
+        assertEquals(2000, signatures.get("indexOf(java.lang.String)").getWaitTimes().getMax(TimeUnit.MICROSECONDS));
+        assertEquals(1, signatures.get("split(java.lang.String,int)").getInvocations());
+    }
+
+    @Test
+    public void testArrayParameters() throws Exception {
+        InvocationMetrics metrics = new InvocationMetrics();
+        Method valueOf = String.class.getMethod("valueOf", char[].class);
+        metrics.startInvocation();
+        metrics.finishInvocation(valueOf, 0, 0);
+
+        assertEquals(1, metrics.getMethodSignatures().get("valueOf(char[])").getInvocations());
+    }
+}
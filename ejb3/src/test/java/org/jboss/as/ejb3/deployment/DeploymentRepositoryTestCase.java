@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collections;
+
+import org.jboss.msc.service.StartContext;
+import org.junit.Test;
+
+public class DeploymentRepositoryTestCase {
+
+    @Test
+    public void test() throws Exception {
+        DeploymentRepository repository = new DeploymentRepository();
+        repository.start(mock(StartContext.class));
+
+        DeploymentModuleIdentifier identifier = new DeploymentModuleIdentifier("app", "module", "");
+        EjbDeploymentInformation ejb = mock(EjbDeploymentInformation.class);
+        ModuleDeployment deployment = new ModuleDeployment(identifier, Collections.singletonMap("bean", ejb));
+
+        repository.add(identifier, deployment);
+
+        assertSame(deployment, repository.getModules().get(identifier));
+        assertSame(deployment, repository.getModule("app", "module", ""));
+        assertSame(ejb, repository.getEjb("app", "module", "", "bean"));
+        assertNull(repository.getEjb("app", "module", "", "missing"));
+        assertNull(repository.getModule("app", "module", "distinct"));
+        // Not yet started
+        assertEquals(0, repository.getStartedModules().size());
+        assertNull(repository.getStartedEjb("app", "module", "", "bean"));
+
+        repository.startDeployment(identifier);
+
+        assertSame(deployment, repository.getStartedModules().get(identifier));
+        assertSame(ejb, repository.getStartedEjb("app", "module", "", "bean"));
+
+        repository.remove(identifier);
+
+        assertEquals(0, repository.getModules().size());
+        assertEquals(0, repository.getStartedModules().size());
+        assertNull(repository.getModule("app", "module", ""));
+        assertNull(repository.getStartedEjb("app", "module", "", "bean"));
+    }
+}
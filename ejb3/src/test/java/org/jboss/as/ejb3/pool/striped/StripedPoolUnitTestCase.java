@@ -0,0 +1,239 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.striped;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.EjbMessages;
+import org.jboss.as.ejb3.pool.MeasuredPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StripedPoolUnitTestCase {
+    AtomicInteger used = new AtomicInteger(0);
+
+    @Before
+    public void setUp() throws Exception {
+        MockBean.reset();
+        used = new AtomicInteger(0);
+    }
+
+    @Test
+    public void test1() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        MeasuredPool<MockBean> pool = new StripedPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        MockBean beans[] = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        assertEquals(10, pool.getAcquireWaitTimes().getCount());
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    /**
+     * An instance released by a thread should be reused by the same thread.
+     */
+    @Test
+    public void testReuse() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        MeasuredPool<MockBean> pool = new StripedPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        MockBean bean = pool.get();
+        pool.release(bean);
+        assertSame(bean, pool.get());
+        pool.release(bean);
+
+        pool.stop();
+
+        assertEquals(1, MockBean.getPostConstructs());
+        assertEquals(1, MockBean.getPreDestroys());
+    }
+
+    /**
+     * An instance released by another thread should still be reused, whatever the stripes of both threads.
+     */
+    @Test
+    public void testReleaseFromOtherThread() throws Exception {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        final MeasuredPool<MockBean> pool = new StripedPool<MockBean>(factory, 1, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        final MockBean bean = pool.get();
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        service.submit(new Callable<Void>() {
+            public Void call() throws Exception {
+                pool.release(bean);
+                return null;
+            }
+        }).get(5, TimeUnit.SECONDS);
+        service.shutdown();
+
+        assertEquals(1, pool.getAvailableCount());
+        assertSame(bean, pool.get());
+        assertEquals(0, pool.getAvailableCount());
+        pool.release(bean);
+
+        pool.stop();
+
+        assertEquals(1, MockBean.getPostConstructs());
+        assertEquals(1, MockBean.getPreDestroys());
+    }
+
+    /**
+     * A caller blocked on a full pool should be woken up by a release from another thread.
+     */
+    @Test
+    public void testWaiterWokenByRelease() throws Exception {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        final MeasuredPool<MockBean> pool = new StripedPool<MockBean>(factory, 1, 60, TimeUnit.SECONDS);
+        pool.start();
+
+        final MockBean bean = pool.get();
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        Future<MockBean> result = service.submit(new Callable<MockBean>() {
+            public MockBean call() throws Exception {
+                return pool.get();
+            }
+        });
+        Thread.sleep(100);
+        pool.release(bean);
+
+        assertSame(bean, result.get(5, TimeUnit.SECONDS));
+        service.shutdown();
+        pool.release(bean);
+
+        pool.stop();
+
+        assertEquals(1, MockBean.getPostConstructs());
+        assertEquals(1, MockBean.getPreDestroys());
+    }
+
+    /**
+     * More threads than the pool size.
+     */
+    @Test
+    public void testMultiThread() throws Exception {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        final MeasuredPool<MockBean> pool = new StripedPool<MockBean>(factory, 10, 60, TimeUnit.SECONDS);
+        pool.start();
+
+        final CountDownLatch in = new CountDownLatch(1);
+        final CountDownLatch ready = new CountDownLatch(10);
+
+        Callable<Void> task = new Callable<Void>() {
+            public Void call() throws Exception {
+                MockBean bean = pool.get();
+                ready.countDown();
+                in.await();
+                pool.release(bean);
+
+                bean = null;
+
+                used.incrementAndGet();
+
+                return null;
+            }
+        };
+
+        ExecutorService service = Executors.newFixedThreadPool(20);
+        Future<?> results[] = new Future<?>[20];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = service.submit(task);
+        }
+
+        ready.await(120, TimeUnit.SECONDS);
+        in.countDown();
+
+        for (Future<?> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        service.shutdown();
+
+        assertEquals(20, pool.getAcquireWaitTimes().getCount());
+
+        pool.stop();
+
+        assertEquals(20, used.intValue());
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void testTooMany() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        MeasuredPool<MockBean> pool = new StripedPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        MockBean beans[] = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            assertEquals(EjbMessages.MESSAGES.failedToAcquirePermit(1, TimeUnit.SECONDS).getMessage(), e.getMessage());
+        }
+
+        // The timed out acquisition should have been recorded
+        assertEquals(11, pool.getAcquireWaitTimes().getCount());
+        assertEquals(1, pool.getAcquireWaitTimes().getMax(TimeUnit.SECONDS));
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+}
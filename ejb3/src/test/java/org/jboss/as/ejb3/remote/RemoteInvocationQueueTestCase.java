@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link RemoteInvocationQueue}.
+ */
+public class RemoteInvocationQueueTestCase {
+
+    private final Queue<Runnable> executed = new ArrayDeque<Runnable>();
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            executed.add(command);
+        }
+    };
+    private final List<String> completed = new ArrayList<String>();
+    private final List<String> rejected = new ArrayList<String>();
+
+    @Test
+    public void testQueueAndReject() {
+        final RemoteInvocationQueue queue = new RemoteInvocationQueue(2, 1);
+        assertTrue(queue.submit(executor, "a", invocation("a1"), rejection("a1")));
+        assertTrue(queue.submit(executor, "a", invocation("a2"), rejection("a2")));
+        assertEquals(2, executed.size());
+        assertEquals(0, queue.getQueuedInvocations());
+
+        assertTrue(queue.submit(executor, "a", invocation("a3"), rejection("a3")));
+        assertEquals(2, executed.size());
+        assertEquals(1, queue.getQueuedInvocations());
+
+        assertFalse(queue.submit(executor, "b", invocation("b1"), rejection("b1")));
+        assertEquals(1, queue.getRejectedInvocations());
+
+        // completing an invocation dispatches the queued one
+        executed.poll().run();
+        assertEquals(2, executed.size());
+        assertEquals(0, queue.getQueuedInvocations());
+        runAll();
+        assertEquals(Arrays.asList("a1", "a2", "a3"), completed);
+        assertEquals(3, queue.getWaitTimes().getCount());
+
+        assertTrue(queue.submit(executor, "b", invocation("b2"), rejection("b2")));
+        assertEquals(1, executed.size());
+    }
+
+    @Test
+    public void testChannelsAreServedInTurn() {
+        final RemoteInvocationQueue queue = new RemoteInvocationQueue(1, 10);
+        assertTrue(queue.submit(executor, "a", invocation("a1"), rejection("a1")));
+        assertTrue(queue.submit(executor, "a", invocation("a2"), rejection("a2")));
+        assertTrue(queue.submit(executor, "a", invocation("a3"), rejection("a3")));
+        assertTrue(queue.submit(executor, "b", invocation("b1"), rejection("b1")));
+        assertEquals(1, executed.size());
+        assertEquals(3, queue.getQueuedInvocations());
+
+        runAll();
+        assertEquals(Arrays.asList("a1", "a2", "b1", "a3"), completed);
+        assertEquals(0, queue.getQueuedInvocations());
+    }
+
+    @Test
+    public void testFailedInvocationReleasesSlot() {
+        final RemoteInvocationQueue queue = new RemoteInvocationQueue(1, 10);
+        assertTrue(queue.submit(executor, "a", new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException();
+            }
+        }, rejection("a1")));
+        assertTrue(queue.submit(executor, "a", invocation("a2"), rejection("a2")));
+        try {
+            executed.poll().run();
+        } catch (IllegalStateException expected) {
+        }
+        runAll();
+        assertEquals(Arrays.asList("a2"), completed);
+    }
+
+    @Test
+    public void testSaturatedExecutorRejectsQueuedInvocation() {
+        final boolean[] saturated = new boolean[1];
+        final Executor busyExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (saturated[0]) {
+                    throw new RejectedExecutionException();
+                }
+                executed.add(command);
+            }
+        };
+        final RemoteInvocationQueue queue = new RemoteInvocationQueue(1, 10);
+        assertTrue(queue.submit(busyExecutor, "a", invocation("a1"), rejection("a1")));
+        assertTrue(queue.submit(busyExecutor, "a", invocation("a2"), rejection("a2")));
+        assertTrue(queue.submit(busyExecutor, "b", invocation("b1"), rejection("b1")));
+        assertEquals(2, queue.getQueuedInvocations());
+
+        // the completing invocation does not fail, and the clients of the queued invocations are told of the rejection
+        saturated[0] = true;
+        executed.poll().run();
+        assertEquals(Arrays.asList("a1"), completed);
+        assertEquals(Arrays.asList("a2", "b1"), rejected);
+        assertEquals(0, queue.getQueuedInvocations());
+        assertEquals(2, queue.getRejectedInvocations());
+
+        // the slots were released
+        saturated[0] = false;
+        assertTrue(queue.submit(busyExecutor, "a", invocation("a3"), rejection("a3")));
+        assertEquals(1, executed.size());
+        runAll();
+        assertEquals(Arrays.asList("a1", "a3"), completed);
+    }
+
+    @Test
+    public void testRejectedSubmitReleasesSlot() {
+        final RemoteInvocationQueue queue = new RemoteInvocationQueue(1, 10);
+        try {
+            queue.submit(new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    throw new RejectedExecutionException();
+                }
+            }, "a", invocation("a1"), rejection("a1"));
+            fail("the executor should reject the invocation");
+        } catch (RejectedExecutionException expected) {
+        }
+        assertTrue(queue.submit(executor, "a", invocation("a2"), rejection("a2")));
+        assertEquals(1, executed.size());
+        assertTrue(rejected.isEmpty());
+    }
+
+    @Test
+    public void testPurgeClosedChannel() {
+        final RemoteInvocationQueue queue = new RemoteInvocationQueue(1, 10);
+        assertTrue(queue.submit(executor, "a", invocation("a1"), rejection("a1")));
+        assertTrue(queue.submit(executor, "a", invocation("a2"), rejection("a2")));
+        assertTrue(queue.submit(executor, "a", invocation("a3"), rejection("a3")));
+        assertTrue(queue.submit(executor, "b", invocation("b1"), rejection("b1")));
+        assertEquals(3, queue.getQueuedInvocations());
+
+        assertEquals(2, queue.purge("a"));
+        assertEquals(0, queue.purge("a"));
+        assertEquals(1, queue.getQueuedInvocations());
+        assertEquals(2, queue.getRejectedInvocations());
+        assertTrue(rejected.isEmpty());
+
+        runAll();
+        assertEquals(Arrays.asList("a1", "b1"), completed);
+        assertEquals(0, queue.getQueuedInvocations());
+    }
+
+    private void runAll() {
+        Runnable task;
+        while ((task = executed.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private Runnable rejection(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                rejected.add(name);
+            }
+        };
+    }
+
+    private Runnable invocation(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                completed.add(name);
+            }
+        };
+    }
+}
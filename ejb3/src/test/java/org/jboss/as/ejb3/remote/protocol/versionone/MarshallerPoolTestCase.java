@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+
+import org.jboss.as.ejb3.remote.protocol.versionone.MarshallerPool.ClassLoaderSwitchingClassResolver;
+import org.jboss.as.ejb3.remote.protocol.versionone.MarshallerPool.PooledUnmarshaller;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.Unmarshaller;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MarshallerPool}.
+ */
+public class MarshallerPoolTestCase {
+
+    @Test
+    public void testReleaseMarshaller() throws Exception {
+        final MarshallerPool pool = new MarshallerPool(2);
+        assertNull(pool.pollMarshaller());
+        final Marshaller marshaller = mock(Marshaller.class);
+        pool.releaseMarshaller(marshaller);
+        verify(marshaller).clearClassCache();
+        assertSame(marshaller, pool.pollMarshaller());
+        assertNull(pool.pollMarshaller());
+    }
+
+    @Test
+    public void testReleaseMarshallerAfterFailure() throws Exception {
+        final MarshallerPool pool = new MarshallerPool(2);
+        final Marshaller marshaller = mock(Marshaller.class);
+        doThrow(new IOException()).when(marshaller).clearClassCache();
+        try {
+            pool.releaseMarshaller(marshaller);
+            fail("Clearing the class cache did not fail");
+        } catch (IOException expected) {
+        }
+        // a marshaller in an unknown state must not be reused
+        assertNull(pool.pollMarshaller());
+    }
+
+    @Test
+    public void testMarshallerPoolSize() throws Exception {
+        final MarshallerPool pool = new MarshallerPool(2);
+        final Marshaller first = mock(Marshaller.class);
+        final Marshaller second = mock(Marshaller.class);
+        final Marshaller third = mock(Marshaller.class);
+        pool.releaseMarshaller(first);
+        pool.releaseMarshaller(second);
+        pool.releaseMarshaller(third);
+        assertSame(first, pool.pollMarshaller());
+        // polling makes room for another one
+        pool.releaseMarshaller(third);
+        assertSame(second, pool.pollMarshaller());
+        assertSame(third, pool.pollMarshaller());
+        assertNull(pool.pollMarshaller());
+    }
+
+    @Test
+    public void testReleaseUnmarshaller() throws Exception {
+        final MarshallerPool pool = new MarshallerPool(2);
+        assertNull(pool.pollUnmarshaller());
+        final PooledUnmarshaller unmarshaller = unmarshaller();
+        pool.releaseUnmarshaller(unmarshaller);
+        verify(unmarshaller.getUnmarshaller()).clearClassCache();
+        // the class loader of the last invocation is not kept reachable
+        assertNull(unmarshaller.getClassResolver().getClassLoader());
+        assertSame(unmarshaller, pool.pollUnmarshaller());
+        assertNull(pool.pollUnmarshaller());
+    }
+
+    @Test
+    public void testReleaseUnmarshallerAfterFailure() throws Exception {
+        final MarshallerPool pool = new MarshallerPool(2);
+        final PooledUnmarshaller unmarshaller = unmarshaller();
+        doThrow(new IOException()).when(unmarshaller.getUnmarshaller()).clearClassCache();
+        try {
+            pool.releaseUnmarshaller(unmarshaller);
+            fail("Clearing the class cache did not fail");
+        } catch (IOException expected) {
+        }
+        assertNull(unmarshaller.getClassResolver().getClassLoader());
+        assertNull(pool.pollUnmarshaller());
+    }
+
+    @Test
+    public void testUnmarshallerPoolSize() throws Exception {
+        final MarshallerPool pool = new MarshallerPool(1);
+        final PooledUnmarshaller first = unmarshaller();
+        final PooledUnmarshaller second = unmarshaller();
+        pool.releaseUnmarshaller(first);
+        pool.releaseUnmarshaller(second);
+        assertSame(first, pool.pollUnmarshaller());
+        assertNull(pool.pollUnmarshaller());
+        pool.releaseUnmarshaller(second);
+        assertSame(second, pool.pollUnmarshaller());
+    }
+
+    private static PooledUnmarshaller unmarshaller() {
+        return new PooledUnmarshaller(mock(Unmarshaller.class), new ClassLoaderSwitchingClassResolver(MarshallerPoolTestCase.class.getClassLoader()));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionthree;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
+import org.jboss.as.ejb3.remote.protocol.versionone.EJBIdentifier;
+import org.jboss.ejb.client.remoting.PackedInteger;
+import org.junit.Test;
+
+/**
+ * Tests for {@link EJBIdentifierDefinitionHandler}.
+ */
+public class EJBIdentifierDefinitionHandlerTestCase {
+
+    private final ConcurrentMap<Integer, EJBIdentifier> ejbIdentifiers = new ConcurrentHashMap<Integer, EJBIdentifier>();
+    private final EJBIdentifierDefinitionHandler handler = new EJBIdentifierDefinitionHandler(ejbIdentifiers);
+    private final ChannelAssociation channelAssociation = mock(ChannelAssociation.class);
+
+    @Test
+    public void testDefine() throws Exception {
+        handler.processMessage(channelAssociation, definition(1, "app", "module", "", "Bean"));
+        handler.processMessage(channelAssociation, definition(300, "", "other", "distinct", "OtherBean"));
+        assertEquals(2, ejbIdentifiers.size());
+        final EJBIdentifier ejbIdentifier = ejbIdentifiers.get(1);
+        assertEquals("app", ejbIdentifier.getAppName());
+        assertEquals("module", ejbIdentifier.getModuleName());
+        assertEquals("", ejbIdentifier.getDistinctName());
+        assertEquals("Bean", ejbIdentifier.getBeanName());
+        assertEquals("OtherBean", ejbIdentifiers.get(300).getBeanName());
+    }
+
+    @Test
+    public void testRedefine() throws Exception {
+        handler.processMessage(channelAssociation, definition(1, "app", "module", "", "Bean"));
+        handler.processMessage(channelAssociation, definition(1, "app", "module", "", "OtherBean"));
+        assertEquals(1, ejbIdentifiers.size());
+        assertEquals("OtherBean", ejbIdentifiers.get(1).getBeanName());
+    }
+
+    private static ByteArrayInputStream definition(final int identifier, final String appName, final String moduleName,
+                                                   final String distinctName, final String beanName) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        PackedInteger.writePackedInteger(output, identifier);
+        output.writeUTF(appName);
+        output.writeUTF(moduleName);
+        output.writeUTF(distinctName);
+        output.writeUTF(beanName);
+        output.close();
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TimerScheduler}.
+ */
+public class TimerSchedulerTestCase {
+
+    private TimerScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new TimerScheduler(4);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testSingleTimeouts() throws Exception {
+        final int timers = 100;
+        final CountDownLatch latch = new CountDownLatch(timers);
+        for (int i = 0; i < timers; i++) {
+            scheduler.schedule(UUID.randomUUID().toString(), new Runnable() {
+                @Override
+                public void run() {
+                    latch.countDown();
+                }
+            }, i % 10);
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFixedRateTimeout() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(3);
+        final ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(UUID.randomUUID().toString(), new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 0, 10);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        future.cancel(false);
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void testCancelledTimeoutDoesNotRun() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        final ScheduledFuture<?> future = scheduler.schedule(UUID.randomUUID().toString(), new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+            }
+        }, 100);
+        assertTrue(future.cancel(false));
+        final CountDownLatch latch = new CountDownLatch(1);
+        scheduler.schedule(UUID.randomUUID().toString(), new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 200);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoShards() {
+        new TimerScheduler(0);
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.value.ImmediateValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DatabaseTimerPersistence}, using an in-memory H2 database.
+ */
+public class DatabaseTimerPersistenceTestCase {
+
+    private static final String TIMED_OBJECT_ID = "bean";
+    private static final String PARTITION = "default";
+
+    private JdbcDataSource dataSource;
+    private TimerServiceImpl timerService;
+
+    @Before
+    public void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        final TimedObjectInvoker invoker = mock(TimedObjectInvoker.class);
+        when(invoker.getTimedObjectId()).thenReturn(TIMED_OBJECT_ID);
+        timerService = mock(TimerServiceImpl.class);
+        when(timerService.getInvoker()).thenReturn(invoker);
+        when(timerService.getServiceName()).thenReturn(ServiceName.of("timer-service"));
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testLoadsTimersInPages() throws Exception {
+        final DatabaseTimerPersistence persistence = start("node1", false, 0);
+        final int count = DatabaseTimerPersistence.LOAD_PAGE_SIZE * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            persistence.addTimer(timer(String.format("timer-%05d", i), new Date()));
+        }
+        final List<TimerImpl> timers = persistence.loadActiveTimers(TIMED_OBJECT_ID, timerService);
+        assertEquals(count, timers.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(String.format("timer-%05d", i), timers.get(i).getId());
+        }
+        assertTrue(persistence.loadActiveTimers("other", timerService).isEmpty());
+    }
+
+    @Test
+    public void testWritesTransactionChangesOnce() throws Exception {
+        final DatabaseTimerPersistence persistence = start("node1", false, 0);
+        final Registry registry = new Registry();
+        persistence.getTransactionSynchronizationRegistry().setValue(new ImmediateValue<TransactionSynchronizationRegistry>(registry));
+
+        final TimerImpl updated = timer("updated", new Date());
+        final TimerImpl removed = timer("removed", new Date());
+        persistence.addTimer(updated);
+        persistence.addTimer(removed);
+        updated.setTimerState(TimerState.IN_TIMEOUT);
+        persistence.persistTimer(updated);
+        removed.setTimerState(TimerState.CANCELED);
+        persistence.persistTimer(removed);
+
+        // nothing is written before the transaction completes
+        assertEquals(0, count("SELECT COUNT(*) FROM JBOSS_EJB_TIMER"));
+        assertNotNull(registry.synchronization);
+        registry.synchronization.beforeCompletion();
+
+        // the removed timer was never written, and the updated one was written in its latest state
+        assertEquals(1, count("SELECT COUNT(*) FROM JBOSS_EJB_TIMER"));
+        assertEquals(1, count("SELECT COUNT(*) FROM JBOSS_EJB_TIMER WHERE ID='updated' AND TIMER_STATE='IN_TIMEOUT'"));
+    }
+
+    @Test
+    public void testOnlyOneNodeClaimsTimeout() throws Exception {
+        final DatabaseTimerPersistence node1 = start("node1", true, 60000);
+        final DatabaseTimerPersistence node2 = start("node2", true, 60000);
+        final TimerImpl timer = timer("timer", new Date(System.currentTimeMillis() - 1000));
+        node1.addTimer(timer);
+
+        assertTrue(node1.shouldRun(timer));
+        assertFalse(node2.shouldRun(timer));
+        assertFalse(node1.shouldRun(timer));
+        assertEquals(1, count("SELECT COUNT(*) FROM JBOSS_EJB_TIMER WHERE NODE_NAME='node1' AND CLAIMED_AT IS NOT NULL"));
+
+        // once the timeout was delivered, the next one can be claimed again
+        timer.setNextTimeout(new Date());
+        timer.setTimerState(TimerState.ACTIVE);
+        node1.persistTimer(timer);
+        assertTrue(node2.shouldRun(timer));
+        assertEquals(1, count("SELECT COUNT(*) FROM JBOSS_EJB_TIMER WHERE NODE_NAME='node2'"));
+    }
+
+    @Test
+    public void testExpiredClaimIsTakenOver() throws Exception {
+        final DatabaseTimerPersistence node1 = start("node1", true, 60000);
+        // claims of other nodes expire right away for this node
+        final DatabaseTimerPersistence node2 = start("node2", true, 0);
+        final TimerImpl timer = timer("timer", new Date(System.currentTimeMillis() - 1000));
+        node1.addTimer(timer);
+
+        // node1 fails after claiming the timeout
+        assertTrue(node1.shouldRun(timer));
+        assertTrue(node2.shouldRun(timer));
+        assertEquals(1, count("SELECT COUNT(*) FROM JBOSS_EJB_TIMER WHERE NODE_NAME='node2' AND TIMER_STATE='IN_TIMEOUT'"));
+    }
+
+    @Test
+    public void testFutureTimeoutIsNotClaimed() throws Exception {
+        final DatabaseTimerPersistence node1 = start("node1", true, 60000);
+        final TimerImpl timer = timer("timer", new Date(System.currentTimeMillis() - 1000));
+        node1.addTimer(timer);
+        timer.setNextTimeout(new Date(System.currentTimeMillis() + 60000));
+        node1.persistTimer(timer);
+
+        // a node with a stale copy of the timer can not claim a timeout that was already delivered
+        assertFalse(node1.shouldRun(timer("timer", new Date(System.currentTimeMillis() - 1000))));
+    }
+
+    @Test
+    public void testAddsClaimColumns() throws Exception {
+        final DatabaseTimerPersistence persistence = start("node1", true, 60000);
+        execute("ALTER TABLE JBOSS_EJB_TIMER DROP COLUMN NODE_NAME");
+        execute("ALTER TABLE JBOSS_EJB_TIMER DROP COLUMN CLAIMED_AT");
+        persistence.runAddClaimColumns();
+        assertEquals(0, count("SELECT COUNT(*) FROM JBOSS_EJB_TIMER WHERE NODE_NAME IS NOT NULL OR CLAIMED_AT IS NOT NULL"));
+    }
+
+    @Test
+    public void testClaimColumnsCannotBeAdded() throws Exception {
+        start("node1", false, 60000);
+        execute("ALTER TABLE JBOSS_EJB_TIMER DROP COLUMN NODE_NAME");
+        execute("ALTER TABLE JBOSS_EJB_TIMER DROP COLUMN CLAIMED_AT");
+        // the timer table can be read, but not altered
+        execute("ALTER TABLE JBOSS_EJB_TIMER RENAME TO JBOSS_EJB_TIMER_DATA");
+        execute("CREATE VIEW JBOSS_EJB_TIMER AS SELECT * FROM JBOSS_EJB_TIMER_DATA");
+        try {
+            start("node1", true, 60000);
+            fail("claim columns could be added to a view");
+        } catch (StartException expected) {
+        }
+    }
+
+    private DatabaseTimerPersistence start(final String nodeName, final boolean claimTimers, final long claimTimeout) throws Exception {
+        final DatabaseTimerPersistence persistence = new DatabaseTimerPersistence(nodeName, null, PARTITION, claimTimers, claimTimeout);
+        persistence.start(dataSource, nodeName);
+        return persistence;
+    }
+
+    private TimerImpl timer(final String id, final Date nextDate) {
+        return TimerImpl.builder()
+                .setId(id)
+                .setTimedObjectId(TIMED_OBJECT_ID)
+                .setInitialDate(nextDate)
+                .setRepeatInterval(1000)
+                .setNextDate(nextDate)
+                .setTimerState(TimerState.ACTIVE)
+                .setPersistent(true)
+                .build(timerService);
+    }
+
+    private int count(final String query) throws SQLException {
+        final Connection connection = dataSource.getConnection();
+        try {
+            final Statement statement = connection.createStatement();
+            final ResultSet resultSet = statement.executeQuery(query);
+            resultSet.next();
+            return resultSet.getInt(1);
+        } finally {
+            connection.close();
+        }
+    }
+
+    private void execute(final String sql) throws SQLException {
+        final Connection connection = dataSource.getConnection();
+        try {
+            connection.createStatement().execute(sql);
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * An active transaction, which only keeps track of its resources and synchronization.
+     */
+    private static final class Registry implements TransactionSynchronizationRegistry {
+        private final Map<Object, Object> resources = new HashMap<Object, Object>();
+        Synchronization synchronization;
+
+        @Override
+        public Object getTransactionKey() {
+            return this;
+        }
+
+        @Override
+        public void putResource(final Object key, final Object value) {
+            resources.put(key, value);
+        }
+
+        @Override
+        public Object getResource(final Object key) {
+            return resources.get(key);
+        }
+
+        @Override
+        public void registerInterposedSynchronization(final Synchronization sync) {
+            synchronization = sync;
+        }
+
+        @Override
+        public int getTransactionStatus() {
+            return Status.STATUS_ACTIVE;
+        }
+
+        @Override
+        public void setRollbackOnly() {
+        }
+
+        @Override
+        public boolean getRollbackOnly() {
+            return false;
+        }
+    }
+}
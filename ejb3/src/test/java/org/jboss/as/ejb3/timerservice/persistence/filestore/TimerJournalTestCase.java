@@ -0,0 +1,417 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TimerJournal}.
+ */
+public class TimerJournalTestCase {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("timer-journal", "");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        delete(directory);
+    }
+
+    @Test
+    public void testRecover() throws Exception {
+        TimerJournal journal = new TimerJournal(directory, 1024 * 1024, 4);
+        assertTrue(journal.recover().isEmpty());
+        journal.sync(journal.put("a", new byte[] { 1 }));
+        journal.sync(journal.put("b", new byte[] { 2 }));
+        journal.sync(journal.put("a", new byte[] { 3 }));
+        journal.sync(journal.remove("b"));
+        journal.close();
+
+        journal = new TimerJournal(directory, 1024 * 1024, 4);
+        Map<String, byte[]> timers = journal.recover();
+        assertEquals(1, timers.size());
+        assertArrayEquals(new byte[] { 3 }, timers.get("a"));
+        assertEquals(4, journal.getRecordCount());
+        journal.close();
+    }
+
+    @Test
+    public void testSegments() throws Exception {
+        TimerJournal journal = new TimerJournal(directory, 4096, 1000);
+        journal.recover();
+        for (int i = 0; i < 100; ++i) {
+            journal.sync(journal.put(String.valueOf(i), new byte[100]));
+        }
+        journal.close();
+        assertTrue(directory.list().length > 1);
+
+        journal = new TimerJournal(directory, 4096, 1000);
+        assertEquals(100, journal.recover().size());
+        journal.close();
+    }
+
+    @Test
+    public void testTruncatesIncompleteRecord() throws Exception {
+        TimerJournal journal = new TimerJournal(directory, 1024 * 1024, 4);
+        journal.recover();
+        journal.sync(journal.put("a", new byte[] { 1 }));
+        journal.close();
+
+        // simulate a crash in the middle of writing a record
+        File segment = directory.listFiles()[0];
+        FileOutputStream output = new FileOutputStream(segment, true);
+        try {
+            output.write(new byte[] { 0, 0, 0, 100, 1, 2, 3, 4, 5 });
+        } finally {
+            output.close();
+        }
+        long length = segment.length();
+
+        journal = new TimerJournal(directory, 1024 * 1024, 4);
+        Map<String, byte[]> timers = journal.recover();
+        assertEquals(1, timers.size());
+        assertEquals(length - 9, segment.length());
+        journal.sync(journal.put("b", new byte[] { 2 }));
+        journal.close();
+
+        journal = new TimerJournal(directory, 1024 * 1024, 4);
+        assertEquals(2, journal.recover().size());
+        journal.close();
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        TimerJournal journal = new TimerJournal(directory, 1024 * 1024, 2);
+        journal.recover();
+        for (int i = 0; i < 2000; ++i) {
+            journal.sync(journal.put(String.valueOf(i % 10), new byte[] { (byte) i }));
+        }
+        assertTrue(journal.getRecordCount() < 1024);
+        journal.close();
+        assertEquals(1, directory.list().length);
+
+        journal = new TimerJournal(directory, 1024 * 1024, 2);
+        Map<String, byte[]> timers = journal.recover();
+        assertEquals(10, timers.size());
+        assertArrayEquals(new byte[] { (byte) 1999 }, timers.get("9"));
+        journal.close();
+    }
+
+    @Test
+    public void testConcurrentAppends() throws Exception {
+        final TimerJournal journal = new TimerJournal(directory, 64 * 1024, 4);
+        journal.recover();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; ++i) {
+                final int thread = i;
+                futures[i] = executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int j = 0; j < 250; ++j) {
+                            journal.sync(journal.put(thread + "-" + j, new byte[32]));
+                        }
+                        return null;
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        journal.close();
+
+        TimerJournal recovered = new TimerJournal(directory, 64 * 1024, 4);
+        assertEquals(2000, recovered.recover().size());
+        recovered.close();
+    }
+
+    @Test
+    public void testFailedBatchNeverBecomesDurable() throws Exception {
+        TimerJournal journal = new TimerJournal(directory, 1, 1000);
+        journal.recover();
+        journal.sync(journal.put("a", new byte[] { 1 }));
+
+        // the next record rolls over to a new segment, which cannot be created while a directory is in its way
+        File blocker = new File(directory, "0000000000000001.journal");
+        assertTrue(blocker.mkdir());
+        long b = journal.put("b", new byte[] { 2 });
+        long c = journal.put("c", new byte[] { 3 });
+        assertSyncFails(journal, b);
+        assertTrue(blocker.delete());
+
+        journal.sync(journal.put("d", new byte[] { 4 }));
+        assertSyncFails(journal, b);
+        assertSyncFails(journal, c);
+        journal.close();
+
+        journal = new TimerJournal(directory, 1, 1000);
+        Map<String, byte[]> timers = journal.recover();
+        assertEquals(2, timers.size());
+        assertTrue(timers.containsKey("a"));
+        assertTrue(timers.containsKey("d"));
+        journal.close();
+    }
+
+    @Test
+    public void testFailedWriteAfterRoll() throws Exception {
+        FailingJournal journal = new FailingJournal(directory);
+        journal.recover();
+        // each record gets its own segment, so this batch rolls over to segment 1 after the first record
+        long a = journal.put("a", new byte[] { 1 });
+        long b = journal.put("b", new byte[] { 2 });
+        long c = journal.put("c", new byte[] { 3 });
+        journal.failWrite = true;
+        journal.sync(a);
+        assertSyncFails(journal, b);
+        assertSyncFails(journal, c);
+        journal.failWrite = false;
+
+        journal.sync(journal.put("d", new byte[] { 4 }));
+        journal.close();
+        assertRecovered("a", "d");
+    }
+
+    @Test
+    public void testFailedForceAfterRoll() throws Exception {
+        FailingJournal journal = new FailingJournal(directory);
+        journal.recover();
+        long a = journal.put("a", new byte[] { 1 });
+        long b = journal.put("b", new byte[] { 2 });
+        long c = journal.put("c", new byte[] { 3 });
+        // "b" is written to segment 1, but cannot be forced when rolling over to segment 2
+        journal.failForce = true;
+        journal.sync(a);
+        assertSyncFails(journal, b);
+        assertSyncFails(journal, c);
+        journal.failForce = false;
+
+        journal.sync(journal.put("d", new byte[] { 4 }));
+        // compaction must not copy the discarded record either
+        for (int i = 0; i < 1100; ++i) {
+            journal.sync(journal.put("d", new byte[] { 4 }));
+        }
+        journal.close();
+        assertRecovered("a", "d");
+    }
+
+    @Test
+    public void testAppendFailsWithoutRecovery() throws Exception {
+        File file = new File(directory, "file");
+        assertTrue(file.createNewFile());
+        TimerJournal journal = new TimerJournal(file, 1024 * 1024, 4);
+        try {
+            journal.recover();
+            fail("recovery of a plain file should fail");
+        } catch (IOException expected) {
+        }
+        try {
+            journal.put("a", new byte[] { 1 });
+            fail("append to an unrecovered journal should fail");
+        } catch (IOException expected) {
+        }
+        journal.close();
+    }
+
+    private void assertRecovered(String... timerIds) throws IOException {
+        TimerJournal journal = new TimerJournal(directory, 1, 1000);
+        Map<String, byte[]> timers = journal.recover();
+        assertEquals(timerIds.length, timers.size());
+        for (String timerId : timerIds) {
+            assertTrue(timerId, timers.containsKey(timerId));
+        }
+        journal.close();
+    }
+
+    private static void assertSyncFails(TimerJournal journal, long sequence) {
+        try {
+            journal.sync(sequence);
+            fail("record " + sequence + " should not be durable");
+        } catch (IOException expected) {
+        }
+    }
+
+    /**
+     * A journal with one record per segment, whose segments other than the first fail to write or force on demand.
+     */
+    private static class FailingJournal extends TimerJournal {
+        volatile boolean failWrite;
+        volatile boolean failForce;
+
+        FailingJournal(File directory) {
+            super(directory, 1, 2);
+        }
+
+        @Override
+        FileChannel openSegment(long id) throws IOException {
+            final FileChannel channel = super.openSegment(id);
+            return (id == 0) ? channel : new FailingChannel(channel, this);
+        }
+    }
+
+    private static class FailingChannel extends FileChannel {
+        private final FileChannel channel;
+        private final FailingJournal journal;
+
+        FailingChannel(FileChannel channel, FailingJournal journal) {
+            this.channel = channel;
+            this.journal = journal;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return channel.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return channel.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (journal.failWrite) {
+                throw new IOException("write");
+            }
+            return channel.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            if (journal.failWrite) {
+                throw new IOException("write");
+            }
+            return channel.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (journal.failForce) {
+                throw new IOException("force");
+            }
+            channel.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return channel.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return channel.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return channel.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.tx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ejb.EJBTransactionRequiredException;
+import javax.ejb.TransactionAttributeType;
+
+import org.jboss.as.ee.component.Component;
+import org.jboss.as.ee.component.ComponentView;
+import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.component.EJBComponentCreateService;
+import org.jboss.as.ejb3.component.MethodIntf;
+import org.jboss.as.ejb3.component.MethodTransactionAttributeKey;
+import org.jboss.as.ejb3.deployment.ApplicationExceptions;
+import org.jboss.as.ejb3.tx2.impl.MockTransactionManager;
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.jboss.invocation.SimpleInterceptorFactoryContext;
+import org.jboss.invocation.proxy.MethodIdentifier;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the interceptors of {@link CMTTxInterceptor.ViewMethodFactory}.
+ */
+public class CMTTxInterceptorTestCase {
+
+    private EJBComponent component;
+    private Method method;
+    private Interceptor interceptor;
+
+    @Before
+    public void setUp() throws Exception {
+        method = CharSequence.class.getMethod("length");
+        // SUPPORTS on the local view, MANDATORY on the remote view
+        final Map<MethodTransactionAttributeKey, TransactionAttributeType> txAttrs = new HashMap<MethodTransactionAttributeKey, TransactionAttributeType>();
+        txAttrs.put(new MethodTransactionAttributeKey(MethodIntf.LOCAL, MethodIdentifier.getIdentifierForMethod(method)), TransactionAttributeType.SUPPORTS);
+        txAttrs.put(new MethodTransactionAttributeKey(MethodIntf.REMOTE, MethodIdentifier.getIdentifierForMethod(method)), TransactionAttributeType.MANDATORY);
+
+        final EJBComponentCreateService createService = mock(EJBComponentCreateService.class);
+        when(createService.getApplicationExceptions()).thenReturn(new ApplicationExceptions());
+        when(createService.getTxAttrs()).thenReturn(txAttrs);
+        when(createService.getTransactionManager()).thenReturn(new MockTransactionManager());
+        component = new EJBComponent(createService) {
+        };
+
+        final ComponentView view = mock(ComponentView.class);
+        when(view.getPrivateData(MethodIntf.class)).thenReturn(MethodIntf.LOCAL);
+        final SimpleInterceptorFactoryContext factoryContext = new SimpleInterceptorFactoryContext();
+        factoryContext.getContextData().put(Component.class, component);
+        factoryContext.getContextData().put(ComponentView.class, view);
+        interceptor = new CMTTxInterceptor.ViewMethodFactory(method).create(factoryContext);
+    }
+
+    @Test
+    public void testViewMethodInterface() throws Exception {
+        // the attribute resolved for the local view is used
+        assertEquals(4, invoke(null));
+        assertEquals(4, invoke(MethodIntf.LOCAL));
+    }
+
+    @Test
+    public void testInvocationMethodInterface() throws Exception {
+        // an invocation carrying another method interface gets the attribute of that interface
+        try {
+            invoke(MethodIntf.REMOTE);
+            fail("MANDATORY method invoked without a transaction");
+        } catch (EJBTransactionRequiredException expected) {
+        }
+        // and doesn't change the attribute of later invocations
+        assertEquals(4, invoke(MethodIntf.LOCAL));
+    }
+
+    private Object invoke(final MethodIntf methodIntf) throws Exception {
+        final InterceptorContext context = new InterceptorContext();
+        context.setMethod(method);
+        context.setParameters(new Object[0]);
+        context.putPrivateData(Component.class, component);
+        if (methodIntf != null) {
+            context.putPrivateData(MethodIntf.class, methodIntf);
+        }
+        final List<Interceptor> interceptors = new ArrayList<Interceptor>();
+        interceptors.add(interceptor);
+        // the bean instance
+        interceptors.add(new Interceptor() {
+            @Override
+            public Object processInvocation(final InterceptorContext context) {
+                return "bean".length();
+            }
+        });
+        context.setInterceptors(interceptors);
+        return context.proceed();
+    }
+}
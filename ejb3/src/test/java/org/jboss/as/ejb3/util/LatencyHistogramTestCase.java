@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyHistogramTestCase {
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50, TimeUnit.MICROSECONDS));
+
+        for (int i = 0; i < 98; ++i) {
+            histogram.record(100, TimeUnit.MICROSECONDS);
+        }
+        histogram.record(10, TimeUnit.MILLISECONDS);
+        histogram.record(1, TimeUnit.SECONDS);
+
+        assertEquals(100, histogram.getCount());
+        // 100us falls within the [64, 128) bucket
+        assertEquals(127, histogram.getPercentile(50, TimeUnit.MICROSECONDS));
+        // 10ms falls within the [8192, 16384) bucket
+        assertEquals(16383, histogram.getPercentile(99, TimeUnit.MICROSECONDS));
+        // Percentiles never exceed the maximum
+        assertEquals(1000000, histogram.getPercentile(100, TimeUnit.MICROSECONDS));
+        assertEquals(1000, histogram.getMax(TimeUnit.MILLISECONDS));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax(TimeUnit.MICROSECONDS));
+        assertEquals(0, histogram.getTotal(TimeUnit.MICROSECONDS));
+    }
+
+    @Test
+    public void testTotal() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1500, TimeUnit.MICROSECONDS);
+        histogram.record(2, TimeUnit.MILLISECONDS);
+        histogram.record(500, TimeUnit.NANOSECONDS);
+
+        assertEquals(3, histogram.getCount());
+        // durations are recorded with microsecond resolution
+        assertEquals(3500, histogram.getTotal(TimeUnit.MICROSECONDS));
+        assertEquals(3, histogram.getTotal(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram(4);
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; ++i) {
+            final long duration = i + 1;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 1000; ++j) {
+                        histogram.record(duration, TimeUnit.MILLISECONDS);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(8000, histogram.getCount());
+        assertEquals(36000, histogram.getTotal(TimeUnit.MILLISECONDS));
+        assertEquals(8, histogram.getMax(TimeUnit.MILLISECONDS));
+        assertEquals(8, histogram.getPercentile(100, TimeUnit.MILLISECONDS));
+    }
+}
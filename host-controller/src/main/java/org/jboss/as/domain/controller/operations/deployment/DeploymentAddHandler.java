@@ -26,9 +26,6 @@ import static org.jboss.as.server.controller.resources.DeploymentAttributes.CONT
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.DOMAIN_ADD_ATTRIBUTES;
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
 
-import java.io.IOException;
-import java.io.InputStream;
-
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.OperationContext;
@@ -39,7 +36,6 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.RunningMode;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.domain.controller.DomainControllerLogger;
-import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.server.deployment.DeploymentHandlerUtils;
 import org.jboss.dmr.ModelNode;
@@ -98,7 +94,18 @@ public class DeploymentAddHandler implements OperationStepHandler {
 
         byte[] hash = null;
 
-        if (contentItemNode.hasDefined(CONTENT_HASH.getName())) {
+        if (DeploymentHandlerUtils.hasValidContentAdditionParameterDefined(contentItemNode)) {
+            if (contentRepository == null) {
+                // This is a slave DC. We can't handle this operation; it should have been fixed up on the master DC
+                throw createFailureException(MESSAGES.slaveCannotAcceptUploads());
+            }
+
+            hash = DeploymentHandlerUtils.addContent(context, contentRepository, contentItemNode);
+            contentItemNode = new ModelNode();
+            contentItemNode.get(CONTENT_HASH.getName()).set(hash);
+            content = new ModelNode();
+            content.add(contentItemNode);
+        } else if (contentItemNode.hasDefined(CONTENT_HASH.getName())) {
             hash = contentItemNode.require(CONTENT_HASH.getName()).asBytes();
             // If we are the master, validate that we actually have this content. If we're not the master
             // we do not need the content until it's added to a server group we care about, so we defer
@@ -116,27 +123,6 @@ public class DeploymentAddHandler implements OperationStepHandler {
                     throw createFailureException(MESSAGES.noDeploymentContentWithHash(HashUtil.bytesToHexString(hash)));
                 }
             }
-        } else if (DeploymentHandlerUtils.hasValidContentAdditionParameterDefined(contentItemNode)) {
-            if (contentRepository == null) {
-                // This is a slave DC. We can't handle this operation; it should have been fixed up on the master DC
-                throw createFailureException(MESSAGES.slaveCannotAcceptUploads());
-            }
-
-            InputStream in = DeploymentHandlerUtils.getInputStream(context, contentItemNode);
-            try {
-                try {
-                    hash = contentRepository.addContent(in);
-                } catch (IOException e) {
-                    throw createFailureException(e.toString());
-                }
-
-            } finally {
-                StreamUtils.safeClose(in);
-            }
-            contentItemNode = new ModelNode();
-            contentItemNode.get(CONTENT_HASH.getName()).set(hash);
-            content = new ModelNode();
-            content.add(contentItemNode);
         } else {
         }
 
@@ -28,8 +28,6 @@ import static org.jboss.as.domain.controller.DomainControllerMessages.MESSAGES;
 import static org.jboss.as.domain.controller.operations.deployment.AbstractDeploymentHandler.createFailureException;
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.CONTENT_HASH;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Arrays;
 
 import org.jboss.as.controller.AttributeDefinition;
@@ -41,7 +39,6 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.registry.Resource;
-import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.repository.HostFileRepository;
 import org.jboss.as.server.controller.resources.DeploymentAttributes;
@@ -111,35 +108,13 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler {
         final byte[] newHash;
         // TODO: JBAS-9020: for the moment overlays are not supported, so there is a single content item
         ModelNode contentItemNode = content.require(0);
-        if (contentItemNode.hasDefined(HASH)) {
-            newHash = contentItemNode.require(HASH).asBytes();
-            if (contentRepository != null) {
-                // We are the master DC. Validate that we actually have this content.
-                if (!contentRepository.hasContent(newHash)) {
-                    throw createFailureException(MESSAGES.noDeploymentContentWithHash(HashUtil.bytesToHexString(newHash)));
-                }
-            } else {
-                // We are a slave controller
-                // Ensure the local repo has the files
-                fileRepository.getDeploymentFiles(newHash);
-            }
-        } else if (DeploymentHandlerUtils.hasValidContentAdditionParameterDefined(contentItemNode)) {
+        if (DeploymentHandlerUtils.hasValidContentAdditionParameterDefined(contentItemNode)) {
             if (contentRepository == null) {
                 // This is a slave DC. We can't handle this operation; it should have been fixed up on the master DC
                 throw createFailureException(MESSAGES.slaveCannotAcceptUploads());
             }
 
-            InputStream in = DeploymentHandlerUtils.getInputStream(context, contentItemNode);
-            try {
-                try {
-                    newHash = contentRepository.addContent(in);
-                } catch (IOException e) {
-                    throw createFailureException(e.toString());
-                }
-
-            } finally {
-                StreamUtils.safeClose(in);
-            }
+            newHash = DeploymentHandlerUtils.addContent(context, contentRepository, contentItemNode);
 
             // Replace the op-provided content node with one that has a hash
             contentItemNode = new ModelNode();
@@ -147,6 +122,18 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler {
             content = new ModelNode();
             content.add(contentItemNode);
 
+        } else if (contentItemNode.hasDefined(HASH)) {
+            newHash = contentItemNode.require(HASH).asBytes();
+            if (contentRepository != null) {
+                // We are the master DC. Validate that we actually have this content.
+                if (!contentRepository.hasContent(newHash)) {
+                    throw createFailureException(MESSAGES.noDeploymentContentWithHash(HashUtil.bytesToHexString(newHash)));
+                }
+            } else {
+                // We are a slave controller
+                // Ensure the local repo has the files
+                fileRepository.getDeploymentFiles(newHash);
+            }
         } else {
             // Unmanaged content, the user is responsible for replication
             newHash = null;
@@ -39,7 +39,9 @@ import java.net.URL;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.repository.ContentRepository;
+import org.jboss.as.server.deployment.DeploymentHandlerUtils;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -53,15 +55,25 @@ public class DeploymentUploadUtil {
     }
 
     public static byte[] storeDeploymentContent(OperationContext context, ModelNode operation, ContentRepository contentRepository) throws IOException, OperationFailedException {
-        InputStream in = getContents(context, operation);
-        return contentRepository.addContent(in);
+        final ModelNode content = getContent(operation);
+        final byte[] expectedHash = DeploymentHandlerUtils.getContentHash(context, content);
+        if (expectedHash != null && contentRepository.hasContent(expectedHash)) {
+            // don't even open a stream of content that is already stored
+            return expectedHash;
+        }
+        InputStream in = getInputStream(context, content);
+        try {
+            return contentRepository.addContent(in, expectedHash);
+        } finally {
+            StreamUtils.safeClose(in);
+        }
     }
 
-    private static InputStream getContents(OperationContext context, ModelNode operation) throws OperationFailedException {
+    private static ModelNode getContent(ModelNode operation) throws OperationFailedException {
         if(! operation.hasDefined(CONTENT)) {
             throw createFailureException(MESSAGES.invalidContentDeclaration());
         }
-        return getInputStream(context, operation.require(CONTENT).get(0));
+        return operation.require(CONTENT).get(0);
     }
 
     private static InputStream getInputStream(OperationContext context, ModelNode content) throws OperationFailedException {
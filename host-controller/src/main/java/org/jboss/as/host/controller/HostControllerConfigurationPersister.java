@@ -26,6 +26,8 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOS
 import static org.jboss.as.host.controller.HostControllerMessages.MESSAGES;
 
 import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Set;
@@ -46,7 +48,7 @@ import org.jboss.staxmapper.XMLElementWriter;
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
-public class HostControllerConfigurationPersister implements ExtensibleConfigurationPersister {
+public class HostControllerConfigurationPersister implements ExtensibleConfigurationPersister, Flushable {
 
     private final HostControllerEnvironment environment;
     private ExtensibleConfigurationPersister domainPersister;
@@ -171,6 +173,19 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
         }
     }
 
+    @Override
+    public void flush() throws IOException {
+        try {
+            if (hostPersister instanceof Flushable) {
+                ((Flushable) hostPersister).flush();
+            }
+        } finally {
+            if (domainPersister instanceof Flushable) {
+                ((Flushable) domainPersister).flush();
+            }
+        }
+    }
+
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
         throw new UnsupportedOperationException();
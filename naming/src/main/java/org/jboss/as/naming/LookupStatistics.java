@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the lookups of all {@link ServiceBasedNamingStore}s, and the time they took. To avoid contention between
+ * concurrent lookups, the counters are striped by thread, and only summed when read.
+ */
+public final class LookupStatistics {
+
+    public static final LookupStatistics INSTANCE = new LookupStatistics();
+
+    private static final int HASH_INCREMENT = 0x61c88647;
+    private static final int STRIPES = Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1)) << 1;
+    // The counters of a stripe are padded to a cache line, so stripes don't share one
+    private static final int STRIPE_SIZE = 8;
+    private static final int LOOKUPS = 0;
+    private static final int CACHE_HITS = 1;
+    private static final int LOOKUP_TIME = 2;
+
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES * STRIPE_SIZE);
+
+    private LookupStatistics() {
+    }
+
+    /**
+     * Records a lookup.
+     *
+     * @param time the time the lookup took, in nanoseconds
+     * @param cacheHit whether the binding was resolved from the lookup cache of the naming store
+     */
+    void recordLookup(final long time, final boolean cacheHit) {
+        final int stripe = stripe();
+        counters.incrementAndGet(stripe + LOOKUPS);
+        if (cacheHit) {
+            counters.incrementAndGet(stripe + CACHE_HITS);
+        }
+        counters.addAndGet(stripe + LOOKUP_TIME, time);
+    }
+
+    /**
+     * @return the number of lookups
+     */
+    public long getLookups() {
+        return sum(LOOKUPS);
+    }
+
+    /**
+     * @return the number of lookups whose binding was resolved from the lookup cache of the naming store
+     */
+    public long getCacheHits() {
+        return sum(CACHE_HITS);
+    }
+
+    /**
+     * Returns the average time a lookup took.
+     *
+     * @param unit the unit of the returned time
+     * @return the average time, or {@code 0} if there were no lookups
+     */
+    public long getAverageLookupTime(final TimeUnit unit) {
+        final long lookups = getLookups();
+        return lookups == 0 ? 0 : unit.convert(sum(LOOKUP_TIME) / lookups, TimeUnit.NANOSECONDS);
+    }
+
+    private long sum(final int counter) {
+        long sum = 0;
+        for (int i = counter; i < counters.length(); i += STRIPE_SIZE) {
+            sum += counters.get(i);
+        }
+        return sum;
+    }
+
+    private static int stripe() {
+        final long id = Thread.currentThread().getId();
+        return ((((int) (id ^ (id >>> 32))) * HASH_INCREMENT) & (STRIPES - 1)) * STRIPE_SIZE;
+    }
+}
@@ -30,6 +30,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 
 import javax.naming.Binding;
@@ -63,6 +65,13 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
 
+    /*
+     * The binder services resolved by previous lookups, keyed by the looked up name, so repeated lookups neither
+     * build a service name nor query the service registry. Cleared whenever a binding is added or removed, and
+     * entries of services found to be removed are dropped.
+     */
+    private final ConcurrentMap<Name, ServiceController<?>> resolvedServices = new ConcurrentHashMap<Name, ServiceController<?>>();
+
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
@@ -77,13 +86,38 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final long start = System.nanoTime();
+        boolean cacheHit = false;
+        try {
+            final ServiceController<?> controller = resolvedServices.get(name);
+            if (controller != null) {
+                if (controller.getState() != ServiceController.State.REMOVED) {
+                    final Object obj = lookup(name, controller, dereference);
+                    if (obj != null) {
+                        cacheHit = true;
+                        return obj;
+                    }
+                } else {
+                    resolvedServices.remove(name, controller);
+                }
+            }
+            return resolve(name, dereference);
+        } finally {
+            LookupStatistics.INSTANCE.recordLookup(System.nanoTime() - start, cacheHit);
+        }
+    }
+
+    private Object resolve(final Name name, boolean dereference) throws NamingException {
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
-        if (obj == null) {
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        Object obj = controller != null ? lookup(name, controller, dereference) : null;
+        if (obj != null) {
+            resolvedServices.put((Name) name.clone(), controller);
+        } else {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
                 // Parent might be a reference or a link
-                obj = lookup(name.toString(), lower, dereference);
+                obj = lookup(name, lower, dereference);
                 //if the lower is a context that has been explicitly bound then
                 //we do not return a resolve result, as this will result in an
                 //infinite loop
@@ -122,18 +156,18 @@ public class ServiceBasedNamingStore implements NamingStore {
         return cpe;
     }
 
-    private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
+    private Object lookup(final Name name, final ServiceName lookupName, boolean dereference) throws NamingException {
         final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        return controller != null ? lookup(name, controller, dereference) : null;
+    }
+
+    private Object lookup(final Name name, final ServiceController<?> controller, boolean dereference) throws NamingException {
         final Object object;
-        if (controller != null) {
-            try {
-                object = controller.getValue();
-            } catch (IllegalStateException e) {
-                //occurs if the service is not actually up
-                throw new NameNotFoundException("Error looking up " + name + ", service " + lookupName + " is not started");
-            }
-        } else {
-            return null;
+        try {
+            object = controller.getValue();
+        } catch (IllegalStateException e) {
+            //occurs if the service is not actually up
+            throw new NameNotFoundException("Error looking up " + name + ", service " + controller.getName() + " is not started");
         }
         if (dereference && object instanceof ManagedReferenceFactory) {
             try {
@@ -153,7 +187,7 @@ public class ServiceBasedNamingStore implements NamingStore {
         boolean isContextBinding = false;
         if (floor != null && floor.isParentOf(lookupName)) {
             // Parent might be a reference or a link
-            Object obj = lookup(name.toString(), floor, true);
+            Object obj = lookup(name, floor, true);
             if (obj instanceof NamingContext) {
                 isContextBinding = true;
             } else if (obj != null) {
@@ -170,7 +204,7 @@ public class ServiceBasedNamingStore implements NamingStore {
             if (childParts.length > lookupParts.length + 1) {
                 childContexts.add(childParts[lookupParts.length]);
             } else {
-                final Object binding = lookup(name.toString(), child, false);
+                final Object binding = lookup(name, child, false);
                 final String bindingType;
                 if (binding instanceof ContextListManagedReferenceFactory) {
                     bindingType = ContextListManagedReferenceFactory.class.cast(binding)
@@ -197,7 +231,7 @@ public class ServiceBasedNamingStore implements NamingStore {
         boolean isContextBinding = false;
         if (floor != null && floor.isParentOf(lookupName)) {
             // Parent might be a reference or a link
-            Object obj = lookup(name.toString(), floor, true);
+            Object obj = lookup(name, floor, true);
             if (obj instanceof NamingContext) {
                 isContextBinding = true;
             } else if (obj != null) {
@@ -213,7 +247,7 @@ public class ServiceBasedNamingStore implements NamingStore {
             if (childParts.length > lookupParts.length + 1) {
                 childContexts.add(childParts[lookupParts.length]);
             } else {
-                final Object binding = lookup(name.toString(), child, true);
+                final Object binding = lookup(name, child, true);
                 results.add(new Binding(childParts[childParts.length - 1], binding));
             }
         }
@@ -244,6 +278,7 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        resolvedServices.clear();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -258,10 +293,13 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw MESSAGES.serviceAlreadyBound(serviceName);
         }
         boundServices.add(serviceName);
+        // a new binding may change how a previously looked up name resolves
+        resolvedServices.clear();
     }
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        resolvedServices.clear();
     }
 
     protected ServiceName buildServiceName(final Name name) {
@@ -0,0 +1,500 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming;
+
+import static org.jboss.as.naming.util.NamingUtils.cannotProceedException;
+import static org.jboss.as.naming.util.NamingUtils.emptyNameException;
+import static org.jboss.as.naming.util.NamingUtils.getLastComponent;
+import static org.jboss.as.naming.util.NamingUtils.isEmpty;
+import static org.jboss.as.naming.util.NamingUtils.isLastComponentEmpty;
+import static org.jboss.as.naming.util.NamingUtils.nameAlreadyBoundException;
+import static org.jboss.as.naming.util.NamingUtils.nameNotFoundException;
+import static org.jboss.as.naming.util.NamingUtils.notAContextException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.naming.Binding;
+import javax.naming.CannotProceedException;
+import javax.naming.CompositeName;
+import javax.naming.Context;
+import javax.naming.InvalidNameException;
+import javax.naming.Name;
+import javax.naming.NameClassPair;
+import javax.naming.NamingException;
+import javax.naming.Reference;
+import javax.naming.event.EventContext;
+import javax.naming.event.NamingEvent;
+import javax.naming.event.NamingListener;
+import javax.naming.spi.ResolveResult;
+
+/**
+ * In-memory implementation of the NamingStore, optimized for concurrent lookups. Like {@link InMemoryNamingStore}, the
+ * entries form a tree of context nodes and binding nodes, but the tree is immutable, and indexed by the full name of
+ * each node. Every write copies the index and the nodes on the path to the changed entry, under a lock, and then
+ * publishes the new snapshot. A lookup of a bound name therefore is a single probe of the current index, without
+ * locking or allocating.
+ *
+ * <p>As each write copies the whole index, a write takes time linear in the number of entries, and binding n entries
+ * one at a time takes quadratic time. This store therefore suits namespaces that are mostly read, rather than ones
+ * which are frequently written, or which hold a very large number of entries. It is not the default
+ * {@link NamingContext#setActiveNamingStore(NamingStore) active naming store}.</p>
+ *
+ * <p>Names which are not bound, or which traverse a binding, fall back to walking the tree, and resolve exactly as
+ * they do with {@link InMemoryNamingStore}.</p>
+ */
+public class SnapshotNamingStore implements WritableNamingStore {
+
+    private static final Name ROOT_NAME = new CompositeName();
+
+    /* The nodes of the tree, keyed by their full name. Never modified once published. */
+    private volatile Map<Name, Node> nodes;
+
+    /* Naming Event Coordinator */
+    private final NamingEventCoordinator eventCoordinator;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final Name baseName;
+
+    private final Node root;
+
+    /**
+     * Construct instance with no event support, and an empty base name.
+     */
+    public SnapshotNamingStore() {
+        this(null, new CompositeName());
+    }
+
+    /**
+     * Construct instance with an event coordinator, and an empty base name.
+     *
+     * @param eventCoordinator The event coordinator
+     */
+    public SnapshotNamingStore(final NamingEventCoordinator eventCoordinator) {
+        this(eventCoordinator, new CompositeName());
+    }
+
+    /**
+     * Construct instance with no event support, and the specified base name.
+     *
+     * @param baseName the base name
+     */
+    public SnapshotNamingStore(final Name baseName) {
+        this(null, baseName);
+    }
+
+    /**
+     * Construct instance with an event coordinator, and the specified base name.
+     *
+     * @param eventCoordinator the event coordinator
+     * @param baseName the base name
+     */
+    public SnapshotNamingStore(final NamingEventCoordinator eventCoordinator, final Name baseName) {
+        this.eventCoordinator = eventCoordinator;
+        if(baseName == null) {
+            throw new NullPointerException(NamingMessages.MESSAGES.cannotBeNull("baseName"));
+        }
+        this.baseName = baseName;
+        this.root = new Node(ROOT_NAME, new Binding("", Context.class.getName(), new NamingContext(this, null)), Collections.<String, Node>emptyMap());
+        this.nodes = Collections.singletonMap(ROOT_NAME, root);
+    }
+
+    /** {@inheritDoc} */
+    public Name getBaseName() throws NamingException {
+        return baseName;
+    }
+
+    /** {@inheritDoc} */
+    public void bind(Name name, Object object) throws NamingException {
+        bind(name, object, object.getClass());
+    }
+
+    /** {@inheritDoc} */
+    public void bind(final Name name, final Object object, final Class<?> bindType) throws NamingException {
+        if (isLastComponentEmpty(name)) {
+            throw emptyNameException();
+        }
+        update(name, true, new Update<Void>() {
+            Void apply(final Node context, final Map<String, Node> children, final Map<Name, Node> nodes) throws NamingException {
+                final String childName = getLastComponent(name);
+                if (children.containsKey(childName)) {
+                    throw nameAlreadyBoundException(childName(context.fullName, childName));
+                }
+                final Node node = new Node(childName(context.fullName, childName), new Binding(childName, bindType.getName(), object, true), null);
+                children.put(childName, node);
+                nodes.put(node.fullName, node);
+                event(null, node.binding, NamingEvent.OBJECT_ADDED, "bind");
+                return null;
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    public void rebind(Name name, Object object) throws NamingException {
+        rebind(name, object, object.getClass());
+    }
+
+    /** {@inheritDoc} */
+    public void rebind(final Name name, final Object object, final Class<?> bindType) throws NamingException {
+        if (isLastComponentEmpty(name)) {
+            throw emptyNameException();
+        }
+        update(name, false, new Update<Void>() {
+            Void apply(final Node context, final Map<String, Node> children, final Map<Name, Node> nodes) throws NamingException {
+                final String childName = getLastComponent(name);
+                final Node node = new Node(childName(context.fullName, childName), new Binding(childName, bindType.getName(), object, true), null);
+                final Node previous = children.put(childName, node);
+                if (previous != null) {
+                    remove(nodes, previous);
+                }
+                nodes.put(node.fullName, node);
+                final Binding previousBinding = previous != null ? previous.binding : null;
+                event(previousBinding, node.binding, previousBinding != null ? NamingEvent.OBJECT_CHANGED : NamingEvent.OBJECT_ADDED, "rebind");
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Unbind the entry in the provided location. An enclosing context which is left empty is removed as well.
+     *
+     * @param name The entry name
+     * @throws NamingException
+     */
+    public void unbind(final Name name) throws NamingException {
+        if (isLastComponentEmpty(name)) {
+            throw emptyNameException();
+        }
+        update(name, false, new Update<Void>() {
+            Void apply(final Node context, final Map<String, Node> children, final Map<Name, Node> nodes) throws NamingException {
+                final String childName = getLastComponent(name);
+                final Node previous = children.remove(childName);
+                if (previous == null) {
+                    throw nameNotFoundException(childName, context.fullName);
+                }
+                remove(nodes, previous);
+                event(previous.binding, null, NamingEvent.OBJECT_REMOVED, "unbind");
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Lookup the object value of a binding node in the tree.
+     *
+     * @param name The entry name
+     * @return The object value of the binding
+     * @throws NamingException
+     */
+    public Object lookup(final Name name) throws NamingException {
+        if (isEmpty(name)) {
+            final Name emptyName = new CompositeName("");
+            return new NamingContext(emptyName, this, new Hashtable<String, Object>());
+        }
+        final Map<Name, Node> nodes = this.nodes;
+        final Node node = nodes.get(name);
+        if (node != null) {
+            return node.binding.getObject();
+        }
+        // the name is either not bound, or traverses a binding
+        Node current = nodes.get(ROOT_NAME);
+        for (int i = 0; i < name.size(); i++) {
+            if (current.children == null) {
+                final Name remainingName = name.getSuffix(i);
+                final Object boundObject = current.binding.getObject();
+                checkReferenceForContinuation(remainingName, boundObject);
+                return new ResolveResult(boundObject, remainingName);
+            }
+            final String childName = name.get(i);
+            final Node child = current.children.get(childName);
+            if (child == null) {
+                throw nameNotFoundException(childName, current.fullName);
+            }
+            current = child;
+        }
+        return current.binding.getObject();
+    }
+
+    @Override
+    public Object lookup(Name name, boolean dereference) throws NamingException {
+        // ignoring dereference arg, it's not relevant to this store impl
+        return lookup(name);
+    }
+
+    /**
+     * List all NameClassPair instances at a given location in the tree.
+     *
+     * @param name The entry name
+     * @return The NameClassPair instances
+     * @throws NamingException
+     */
+    public List<NameClassPair> list(final Name name) throws NamingException {
+        final Node context = findContext(name);
+        final List<NameClassPair> nameClassPairs = new ArrayList<NameClassPair>(context.children.size());
+        for (Node childNode : context.children.values()) {
+            final Binding binding = childNode.binding;
+            nameClassPairs.add(new NameClassPair(binding.getName(), binding.getClassName(), true));
+        }
+        return nameClassPairs;
+    }
+
+    /**
+     * List all the Binding instances at a given location in the tree.
+     *
+     * @param name The entry name
+     * @return The Binding instances
+     * @throws NamingException
+     */
+    public List<Binding> listBindings(final Name name) throws NamingException {
+        final Node context = findContext(name);
+        final List<Binding> bindings = new ArrayList<Binding>(context.children.size());
+        for (Node childNode : context.children.values()) {
+            bindings.add(childNode.binding);
+        }
+        return bindings;
+    }
+
+    public Context createSubcontext(final Name name) throws NamingException {
+        if (isLastComponentEmpty(name)) {
+            throw emptyNameException();
+        }
+        return update(name, false, new Update<Context>() {
+            Context apply(final Node context, final Map<String, Node> children, final Map<Name, Node> nodes) throws NamingException {
+                final String childName = getLastComponent(name);
+                if (children.containsKey(childName)) {
+                    throw nameAlreadyBoundException(childName(context.fullName, childName));
+                }
+                final Node node = newContext(context.fullName, childName);
+                children.put(childName, node);
+                nodes.put(node.fullName, node);
+                event(null, node.binding, NamingEvent.OBJECT_ADDED, "createSubcontext");
+                return (Context) node.binding.getObject();
+            }
+        });
+    }
+
+    /**
+     * Close the store.  This will remove all entries.
+     *
+     * @throws NamingException
+     */
+    public void close() throws NamingException {
+        writeLock.lock();
+        try {
+            nodes = Collections.singletonMap(ROOT_NAME, root);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Add a {@code NamingListener} to the naming event coordinator.
+     *
+     * @param target The target name to add the listener to
+     * @param scope The listener scope
+     * @param listener The listener
+     */
+    public void addNamingListener(final Name target, final int scope, final NamingListener listener) {
+        final NamingEventCoordinator coordinator = eventCoordinator;
+        if (coordinator != null) {
+            coordinator.addListener(target.toString(), scope, listener);
+        }
+    }
+
+    /**
+     * Remove a {@code NamingListener} from the naming event coordinator.
+     *
+     * @param listener The listener
+     */
+    public void removeNamingListener(final NamingListener listener) {
+        final NamingEventCoordinator coordinator = eventCoordinator;
+        if (coordinator != null) {
+            coordinator.removeListener(listener);
+        }
+    }
+
+    /**
+     * Applies a change to the context of the target name, and publishes the resulting snapshot.
+     *
+     * @param targetName the name of the changed entry
+     * @param createIfMissing whether missing contexts of the target name are created
+     * @param update the change
+     * @return the result of the change
+     */
+    private <T> T update(final Name targetName, final boolean createIfMissing, final Update<T> update) throws NamingException {
+        writeLock.lock();
+        try {
+            final Map<Name, Node> nodes = new HashMap<Name, Node>(this.nodes);
+            // the context nodes from the root to the context of the target
+            final int depth = targetName.size() - 1;
+            final Node[] path = new Node[depth + 1];
+            path[0] = nodes.get(ROOT_NAME);
+            for (int i = 0; i < depth; i++) {
+                final String childName = targetName.get(i);
+                Node child = path[i].children.get(childName);
+                if (child == null) {
+                    if (!createIfMissing) {
+                        throw nameNotFoundException(childName, path[i].fullName);
+                    }
+                    child = newContext(path[i].fullName, childName);
+                } else if (child.children == null) {
+                    if (i == depth - 1) {
+                        checkReferenceForContinuation(targetName.getSuffix(depth), child.binding.getObject());
+                        throw notAContextException(targetName);
+                    }
+                    checkReferenceForContinuation(targetName.getPrefix(depth).getSuffix(i + 1), child.binding.getObject());
+                    throw notAContextException(child.fullName);
+                }
+                path[i + 1] = child;
+            }
+
+            final Node context = path[depth];
+            final Map<String, Node> children = new HashMap<String, Node>(context.children);
+            final T result = update.apply(context, children, nodes);
+
+            // copy the path up to the root, removing the context if it was left empty
+            Node node = depth > 0 && children.isEmpty() ? null : new Node(context.fullName, context.binding, children);
+            for (int i = depth; i > 0; i--) {
+                final Node parent = path[i - 1];
+                final Map<String, Node> parentChildren = new HashMap<String, Node>(parent.children);
+                if (node == null) {
+                    parentChildren.remove(targetName.get(i - 1));
+                    nodes.remove(path[i].fullName);
+                } else {
+                    parentChildren.put(targetName.get(i - 1), node);
+                    nodes.put(node.fullName, node);
+                }
+                node = new Node(parent.fullName, parent.binding, parentChildren);
+            }
+            nodes.put(ROOT_NAME, node);
+            this.nodes = nodes;
+
+            fireEvent(context, targetName, update.existingBinding, update.newBinding, update.type, update.changeInfo);
+            return result;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Node findContext(final Name name) throws NamingException {
+        final Map<Name, Node> nodes = this.nodes;
+        Node current = nodes.get(name);
+        if (current == null) {
+            current = nodes.get(ROOT_NAME);
+            for (int i = 0; i < name.size(); i++) {
+                if (current.children == null) {
+                    checkReferenceForContinuation(name.getSuffix(i), current.binding.getObject());
+                    throw notAContextException(current.fullName);
+                }
+                final String childName = name.get(i);
+                final Node child = current.children.get(childName);
+                if (child == null) {
+                    throw nameNotFoundException(childName, current.fullName);
+                }
+                current = child;
+            }
+        }
+        if (current.children == null) {
+            checkReferenceForContinuation(new CompositeName(), current.binding.getObject());
+            throw notAContextException(name);
+        }
+        return current;
+    }
+
+    private Node newContext(final Name parentName, final String childName) throws InvalidNameException {
+        final Name fullName = childName(parentName, childName);
+        final NamingContext context = new NamingContext((Name) fullName.clone(), this, new Hashtable<String, Object>());
+        return new Node(fullName, new Binding(childName, Context.class.getName(), context), Collections.<String, Node>emptyMap());
+    }
+
+    private static Name childName(final Name parentName, final String childName) throws InvalidNameException {
+        return ((Name) parentName.clone()).add(childName);
+    }
+
+    private static void remove(final Map<Name, Node> nodes, final Node node) {
+        nodes.remove(node.fullName);
+        if (node.children != null) {
+            for (Node child : node.children.values()) {
+                remove(nodes, child);
+            }
+        }
+    }
+
+    private void fireEvent(final Node contextNode, final Name name, final Binding existingBinding, final Binding newBinding, final int type, final String changeInfo) {
+        final NamingEventCoordinator coordinator = eventCoordinator;
+        if (eventCoordinator != null) {
+            final Context context = Context.class.cast(contextNode.binding.getObject());
+            if(context instanceof EventContext) {
+                coordinator.fireEvent(EventContext.class.cast(context), name, existingBinding, newBinding, type, changeInfo, NamingEventCoordinator.DEFAULT_SCOPES);
+            }
+        }
+    }
+
+    private void checkReferenceForContinuation(final Name name, final Object object) throws CannotProceedException {
+        if (object instanceof Reference) {
+            if (((Reference) object).get("nns") != null) {
+                throw cannotProceedException(object, name);
+            }
+        }
+    }
+
+    /**
+     * A context node, with the nodes of its children, or a binding node, without children.
+     */
+    private static final class Node {
+        final Name fullName;
+        final Binding binding;
+        final Map<String, Node> children;
+
+        Node(final Name fullName, final Binding binding, final Map<String, Node> children) {
+            this.fullName = fullName;
+            this.binding = binding;
+            this.children = children;
+        }
+    }
+
+    /**
+     * A change of the children of a context, which records the event to fire once the change is published.
+     */
+    private abstract static class Update<T> {
+        Binding existingBinding;
+        Binding newBinding;
+        int type;
+        String changeInfo;
+
+        abstract T apply(Node context, Map<String, Node> children, Map<Name, Node> nodes) throws NamingException;
+
+        void event(final Binding existingBinding, final Binding newBinding, final int type, final String changeInfo) {
+            this.existingBinding = existingBinding;
+            this.newBinding = newBinding;
+            this.type = type;
+            this.changeInfo = changeInfo;
+        }
+    }
+}
@@ -29,6 +29,8 @@ import org.jboss.as.controller.PathElement;
  */
 public interface NamingSubsystemModel {
 
+    String AVERAGE_LOOKUP_TIME = "average-lookup-time";
+
     String BINDING = "binding";
     String BINDING_TYPE = "binding-type";
 
@@ -38,6 +40,8 @@ public interface NamingSubsystemModel {
     String EXTERNAL_CONTEXT = "external-context";
 
     String LOOKUP = "lookup";
+    String LOOKUP_CACHE_HITS = "lookup-cache-hits";
+    String LOOKUPS = "lookups";
 
     String OBJECT_FACTORY = "object-factory";
     String ENVIRONMENT = "environment";
@@ -22,13 +22,26 @@
 
 package org.jboss.as.naming.subsystem;
 
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.naming.LookupStatistics;
 import org.jboss.as.naming.management.JndiViewOperation;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@link org.jboss.as.controller.ResourceDefinition} for the Naming subsystem's root management resource.
@@ -44,11 +57,57 @@ public class NamingSubsystemRootResourceDefinition extends SimpleResourceDefinit
             .withFlag(OperationEntry.Flag.RUNTIME_ONLY)
             .build();
 
+    static final SimpleAttributeDefinition LOOKUPS = new SimpleAttributeDefinitionBuilder(NamingSubsystemModel.LOOKUPS, ModelType.LONG)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    static final SimpleAttributeDefinition LOOKUP_CACHE_HITS = new SimpleAttributeDefinitionBuilder(NamingSubsystemModel.LOOKUP_CACHE_HITS, ModelType.LONG)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    static final SimpleAttributeDefinition AVERAGE_LOOKUP_TIME = new SimpleAttributeDefinitionBuilder(NamingSubsystemModel.AVERAGE_LOOKUP_TIME, ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     private NamingSubsystemRootResourceDefinition() {
         super(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, NamingExtension.SUBSYSTEM_NAME),
                 NamingExtension.getResourceDescriptionResolver(NamingExtension.SUBSYSTEM_NAME),
                 NamingSubsystemAdd.INSTANCE, NamingSubsystemRemove.INSTANCE);
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerMetric(LOOKUPS, new LookupStatisticsHandler() {
+            @Override
+            protected long getMetric(final LookupStatistics statistics) {
+                return statistics.getLookups();
+            }
+        });
+        resourceRegistration.registerMetric(LOOKUP_CACHE_HITS, new LookupStatisticsHandler() {
+            @Override
+            protected long getMetric(final LookupStatistics statistics) {
+                return statistics.getCacheHits();
+            }
+        });
+        resourceRegistration.registerMetric(AVERAGE_LOOKUP_TIME, new LookupStatisticsHandler() {
+            @Override
+            protected long getMetric(final LookupStatistics statistics) {
+                return statistics.getAverageLookupTime(TimeUnit.NANOSECONDS);
+            }
+        });
+    }
 
+    /**
+     * Reads a metric of the lookups of the service based naming stores.
+     */
+    private abstract static class LookupStatisticsHandler extends AbstractRuntimeOnlyHandler {
+        @Override
+        protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            context.getResult().set(getMetric(LookupStatistics.INSTANCE));
+            context.stepCompleted();
+        }
+
+        protected abstract long getMetric(LookupStatistics statistics);
+    }
 }
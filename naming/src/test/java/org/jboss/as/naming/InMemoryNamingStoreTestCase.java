@@ -49,7 +49,11 @@ import static org.junit.Assert.fail;
  */
 public class InMemoryNamingStoreTestCase {
 
-    private final InMemoryNamingStore nameStore = new InMemoryNamingStore();
+    private final WritableNamingStore nameStore = createNamingStore();
+
+    protected WritableNamingStore createNamingStore() {
+        return new InMemoryNamingStore();
+    }
 
     @After
     public void cleanup() throws Exception {
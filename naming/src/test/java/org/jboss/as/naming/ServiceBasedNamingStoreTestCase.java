@@ -35,8 +35,10 @@ import javax.naming.NameParser;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 
+import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -98,6 +100,23 @@ public class ServiceBasedNamingStoreTestCase {
         assertEquals(value, obj);
     }
 
+    @Test
+    public void testLookupOfReboundName() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "rebound");
+        final Object value = new Object();
+        bindObject(bindingName, value);
+
+        final long cacheHits = LookupStatistics.INSTANCE.getCacheHits();
+        assertEquals(value, store.lookup(new CompositeName("foo/rebound")));
+        assertEquals(value, store.lookup(new CompositeName("foo/rebound")));
+        assertEquals(cacheHits + 1, LookupStatistics.INSTANCE.getCacheHits());
+
+        removeObject(bindingName);
+        final Object newValue = new Object();
+        bindObject(bindingName, newValue);
+        assertEquals(newValue, store.lookup(new CompositeName("foo/rebound")));
+    }
+
     @Test
     public void testLookupParentContext() throws Exception {
         final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
@@ -415,4 +434,19 @@ public class ServiceBasedNamingStoreTestCase {
         }).install();
         latch.await();
     }
+
+    private void removeObject(final ServiceName serviceName) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ServiceController<?> controller = container.getRequiredService(serviceName);
+        controller.addListener(new AbstractServiceListener<Object>() {
+            public void transition(ServiceController<? extends Object> controller, ServiceController.Transition transition) {
+                if (transition == ServiceController.Transition.REMOVING_to_REMOVED) {
+                    latch.countDown();
+                }
+            }
+        });
+        controller.setMode(ServiceController.Mode.REMOVE);
+        latch.await();
+        store.remove(serviceName);
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import javax.naming.CompositeName;
+import javax.naming.Context;
+import javax.naming.NameAlreadyBoundException;
+import javax.naming.NameNotFoundException;
+import javax.naming.NotContextException;
+
+import org.junit.Test;
+
+/**
+ * Runs the tests of {@link InMemoryNamingStoreTestCase} against a {@link SnapshotNamingStore}.
+ */
+public class SnapshotNamingStoreTestCase extends InMemoryNamingStoreTestCase {
+
+    @Override
+    protected WritableNamingStore createNamingStore() {
+        return new SnapshotNamingStore();
+    }
+
+    @Test
+    public void testLookupContext() throws Exception {
+        final SnapshotNamingStore store = new SnapshotNamingStore();
+        store.bind(new CompositeName("a/b/c"), "value");
+
+        final Object context = store.lookup(new CompositeName("a/b"));
+        assertTrue(context instanceof Context);
+        // contexts are kept by later writes
+        store.bind(new CompositeName("a/b/d"), "other");
+        assertSame(context, store.lookup(new CompositeName("a/b")));
+        assertEquals(2, store.list(new CompositeName("a/b")).size());
+    }
+
+    @Test
+    public void testLookupEmptyName() throws Exception {
+        final SnapshotNamingStore store = new SnapshotNamingStore();
+        final Object context = store.lookup(new CompositeName());
+        assertTrue(context instanceof Context);
+        // every lookup gets its own context, which may be closed or have its environment changed
+        assertNotSame(context, store.lookup(new CompositeName()));
+    }
+
+    @Test
+    public void testRebindContext() throws Exception {
+        final SnapshotNamingStore store = new SnapshotNamingStore();
+        store.bind(new CompositeName("a/b/c"), "value");
+        store.rebind(new CompositeName("a/b"), "value");
+
+        assertEquals("value", store.lookup(new CompositeName("a/b")));
+        try {
+            store.list(new CompositeName("a/b"));
+            fail("Should have thrown a NotContextException");
+        } catch (NotContextException expected) {
+        }
+        try {
+            store.unbind(new CompositeName("a/b/c"));
+            fail("Should have thrown a NotContextException");
+        } catch (NotContextException expected) {
+        }
+    }
+
+    @Test
+    public void testCreateSubcontext() throws Exception {
+        final SnapshotNamingStore store = new SnapshotNamingStore();
+        final Context context = store.createSubcontext(new CompositeName("a"));
+        assertSame(context, store.lookup(new CompositeName("a")));
+        try {
+            store.createSubcontext(new CompositeName("a"));
+            fail("Should have thrown a NameAlreadyBoundException");
+        } catch (NameAlreadyBoundException expected) {
+        }
+        try {
+            store.createSubcontext(new CompositeName("b/c"));
+            fail("Should have thrown a NameNotFoundException");
+        } catch (NameNotFoundException expected) {
+        }
+    }
+
+    @Test
+    public void testFailedBindDoesNotCreateContexts() throws Exception {
+        final SnapshotNamingStore store = new SnapshotNamingStore();
+        store.bind(new CompositeName("a"), "value");
+        try {
+            store.bind(new CompositeName("a/b/c"), "value");
+            fail("Should have thrown a NotContextException");
+        } catch (NotContextException expected) {
+        }
+        assertEquals(1, store.list(new CompositeName()).size());
+    }
+}
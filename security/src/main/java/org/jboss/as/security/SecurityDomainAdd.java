@@ -73,6 +73,7 @@ import javax.transaction.TransactionManager;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.jboss.as.clustering.infinispan.subsystem.EmbeddedCacheManagerService;
 import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -122,8 +123,6 @@ import org.jboss.security.plugins.TransactionManagerLocator;
  * @author Jason T. Greene
  */
 class SecurityDomainAdd extends AbstractAddStepHandler {
-    private static final String CACHE_CONTAINER_NAME = "security";
-
     static final SecurityDomainAdd INSTANCE = new SecurityDomainAdd();
 
     /**
@@ -133,7 +132,9 @@ class SecurityDomainAdd extends AbstractAddStepHandler {
     }
 
     protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
-        SecurityDomainResourceDefinition.CACHE_TYPE.validateAndSet(operation, model);
+        for (AttributeDefinition attribute : SecurityDomainResourceDefinition.CACHE_ATTRIBUTES) {
+            attribute.validateAndSet(operation, model);
+        }
     }
 
     protected void performRuntime(OperationContext context, ModelNode operation, final ModelNode model, final ServiceVerificationHandler verificationHandler, final List<ServiceController<?>> newControllers) {
@@ -160,9 +161,13 @@ class SecurityDomainAdd extends AbstractAddStepHandler {
         final ApplicationPolicy applicationPolicy = createApplicationPolicy(context, securityDomain, model);
         final JSSESecurityDomain jsseSecurityDomain = createJSSESecurityDomain(context, securityDomain, model);
         final String cacheType = getAuthenticationCacheType(model);
+        final ModelNode cacheMaxSize = SecurityDomainResourceDefinition.CACHE_MAX_SIZE.resolveModelAttribute(context, model);
+        final ModelNode cacheLifespan = SecurityDomainResourceDefinition.CACHE_LIFESPAN.resolveModelAttribute(context, model);
+        final ModelNode cacheMaxIdle = SecurityDomainResourceDefinition.CACHE_MAX_IDLE.resolveModelAttribute(context, model);
 
         final SecurityDomainService securityDomainService = new SecurityDomainService(securityDomain,
-                applicationPolicy, jsseSecurityDomain, cacheType);
+                applicationPolicy, jsseSecurityDomain, cacheType, cacheMaxSize.isDefined() ? cacheMaxSize.asInt() : 0,
+                cacheLifespan.isDefined() ? cacheLifespan.asLong() : 0, cacheMaxIdle.isDefined() ? cacheMaxIdle.asLong() : 0);
         final ServiceTarget target = context.getServiceTarget();
         // some login modules may require the TransactionManager
         final Injector<TransactionManager> transactionManagerInjector = new Injector<TransactionManager>() {
@@ -183,7 +188,8 @@ class SecurityDomainAdd extends AbstractAddStepHandler {
                         transactionManagerInjector);
 
         if ("infinispan".equals(cacheType)) {
-            builder.addDependency(EmbeddedCacheManagerService.getServiceName(CACHE_CONTAINER_NAME),
+            final String cacheContainer = SecurityDomainResourceDefinition.CACHE_CONTAINER.resolveModelAttribute(context, model).asString();
+            builder.addDependency(EmbeddedCacheManagerService.getServiceName(cacheContainer),
                     EmbeddedCacheManager.class, securityDomainService.getCacheManagerInjector());
         }
 
@@ -22,6 +22,7 @@
 package org.jboss.as.security;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
 import java.security.Principal;
@@ -43,9 +44,13 @@ import org.jboss.as.controller.access.constraint.ApplicationTypeConfig;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.security.plugins.AuthenticationCacheStatistics;
 import org.jboss.as.security.plugins.SecurityDomainContext;
 import org.jboss.as.security.service.SecurityDomainService;
 import org.jboss.dmr.ModelNode;
@@ -65,6 +70,42 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
             .setAllowExpression(true)
             .build();
 
+    public static final SimpleAttributeDefinition CACHE_CONTAINER = new SimpleAttributeDefinitionBuilder(Constants.CACHE_CONTAINER, ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode("security"))
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_MAX_SIZE = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MAX_SIZE, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_LIFESPAN = new SimpleAttributeDefinitionBuilder(Constants.CACHE_LIFESPAN, ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_MAX_IDLE = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MAX_IDLE, ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+    static final SimpleAttributeDefinition[] CACHE_ATTRIBUTES = { CACHE_TYPE, CACHE_CONTAINER, CACHE_MAX_SIZE, CACHE_LIFESPAN, CACHE_MAX_IDLE };
+
+    static final SimpleAttributeDefinition CACHE_HITS = new SimpleAttributeDefinitionBuilder(Constants.CACHE_HITS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_MISSES = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MISSES, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_EVICTIONS = new SimpleAttributeDefinitionBuilder(Constants.CACHE_EVICTIONS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
     private final boolean registerRuntimeOnly;
     private final List<AccessConstraintDefinition> accessConstraints;
 
@@ -80,7 +121,15 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
 
     @Override
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
-        resourceRegistration.registerReadWriteAttribute(CACHE_TYPE, null, new SecurityDomainReloadWriteHandler(CACHE_TYPE));
+        final SecurityDomainReloadWriteHandler writeHandler = new SecurityDomainReloadWriteHandler(CACHE_ATTRIBUTES);
+        for (SimpleAttributeDefinition attribute : CACHE_ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attribute, null, writeHandler);
+        }
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(CACHE_HITS, CacheStatisticsHandler.INSTANCE);
+            resourceRegistration.registerMetric(CACHE_MISSES, CacheStatisticsHandler.INSTANCE);
+            resourceRegistration.registerMetric(CACHE_EVICTIONS, CacheStatisticsHandler.INSTANCE);
+        }
     }
 
     @Override
@@ -187,6 +236,36 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    /**
+     * Reads the statistics of the authentication cache of a security domain. Nothing is returned if the domain does not
+     * cache authentications, or its service is not started.
+     */
+    static final class CacheStatisticsHandler extends AbstractRuntimeOnlyHandler {
+        static final CacheStatisticsHandler INSTANCE = new CacheStatisticsHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String securityDomain = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+            final String attributeName = operation.require(NAME).asString();
+
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(SecurityDomainService.SERVICE_NAME.append(securityDomain));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                SecurityDomainContext sdc = (SecurityDomainContext) controller.getValue();
+                AuthenticationCacheStatistics statistics = sdc.getAuthenticationCacheStatistics();
+                if (statistics != null) {
+                    if (Constants.CACHE_HITS.equals(attributeName)) {
+                        context.getResult().set(statistics.getHits());
+                    } else if (Constants.CACHE_MISSES.equals(attributeName)) {
+                        context.getResult().set(statistics.getMisses());
+                    } else if (Constants.CACHE_EVICTIONS.equals(attributeName)) {
+                        context.getResult().set(statistics.getEvictions());
+                    }
+                }
+            }
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+
     /**
      * Wait for the required service to start up and fail otherwise. This method is necessary when a runtime operation
      * uses a service that might have been created within a composite operation.
@@ -57,6 +57,7 @@ import org.jboss.as.controller.transform.PathAddressTransformer;
 import org.jboss.as.controller.transform.ResourceTransformationContext;
 import org.jboss.as.controller.transform.ResourceTransformer;
 import org.jboss.as.controller.transform.TransformationContext;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.TransformationDescription;
@@ -94,6 +95,8 @@ public class SecurityExtension implements Extension {
     static final PathElement PATH_LOGIN_MODULE_STACK = PathElement.pathElement(Constants.LOGIN_MODULE_STACK);
     static final PathElement VAULT_PATH = PathElement.pathElement(Constants.VAULT, Constants.CLASSIC);
     static final PathElement JSSE_PATH = PathElement.pathElement(Constants.JSSE, Constants.CLASSIC);
+    // an explicit default cache container means the same as no cache container to legacy versions
+    private static final DiscardAttributeChecker CACHE_CONTAINER_DEFAULT = new DiscardAttributeChecker.DiscardAttributeValueChecker(SecurityDomainResourceDefinition.CACHE_CONTAINER.getDefaultValue());
     private static final PathAddressTransformer CURRENT_PATH_TRANSFORMER = new PathAddressTransformer() {
         @Override
         public PathAddress transform(PathElement current, Builder builder) {
@@ -160,7 +163,12 @@ public class SecurityExtension implements Extension {
         ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
         builder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, SecuritySubsystemRootResourceDefinition.DEEP_COPY_SUBJECT_MODE);
         ResourceTransformationDescriptionBuilder securityDomain = builder.addChildResource(SECURITY_DOMAIN_PATH);
-        securityDomain.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, SecurityDomainResourceDefinition.CACHE_TYPE).end();
+        securityDomain.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, SecurityDomainResourceDefinition.CACHE_TYPE)
+                .setDiscard(CACHE_CONTAINER_DEFAULT, SecurityDomainResourceDefinition.CACHE_CONTAINER)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, SecurityDomainResourceDefinition.CACHE_CONTAINER,
+                        SecurityDomainResourceDefinition.CACHE_MAX_SIZE, SecurityDomainResourceDefinition.CACHE_LIFESPAN,
+                        SecurityDomainResourceDefinition.CACHE_MAX_IDLE)
+                .end();
 
 
         ModulesToAttributeTransformer loginModule = new ModulesToAttributeTransformer(Constants.LOGIN_MODULE, Constants.LOGIN_MODULES);
@@ -195,6 +203,13 @@ public class SecurityExtension implements Extension {
         ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
 
         ResourceTransformationDescriptionBuilder securityDomain = builder.addChildResource(SECURITY_DOMAIN_PATH);
+        // the authentication cache settings are not recognized in the 1.2.0 version of the subsystem.
+        securityDomain.getAttributeBuilder()
+                .setDiscard(CACHE_CONTAINER_DEFAULT, SecurityDomainResourceDefinition.CACHE_CONTAINER)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, SecurityDomainResourceDefinition.CACHE_CONTAINER,
+                        SecurityDomainResourceDefinition.CACHE_MAX_SIZE, SecurityDomainResourceDefinition.CACHE_LIFESPAN,
+                        SecurityDomainResourceDefinition.CACHE_MAX_IDLE)
+                .end();
 
         // Transform any add op that includes the module list attribute into a compsosite of an add w/o that + write-attribute
         AttributeToModulesTransformer loginModule = new AttributeToModulesTransformer(Constants.LOGIN_MODULES);
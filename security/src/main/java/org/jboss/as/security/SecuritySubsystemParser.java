@@ -39,6 +39,10 @@ import static org.jboss.as.security.Constants.AUDIT;
 import static org.jboss.as.security.Constants.AUTHENTICATION;
 import static org.jboss.as.security.Constants.AUTHORIZATION;
 import static org.jboss.as.security.Constants.AUTH_MODULE;
+import static org.jboss.as.security.Constants.CACHE_CONTAINER;
+import static org.jboss.as.security.Constants.CACHE_LIFESPAN;
+import static org.jboss.as.security.Constants.CACHE_MAX_IDLE;
+import static org.jboss.as.security.Constants.CACHE_MAX_SIZE;
 import static org.jboss.as.security.Constants.CACHE_TYPE;
 import static org.jboss.as.security.Constants.CLASSIC;
 import static org.jboss.as.security.Constants.IDENTITY_TRUST;
@@ -189,6 +193,10 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
                 writer.writeAttribute(Attribute.NAME.getLocalName(), policy.getName());
                 ModelNode policyDetails = policy.getValue();
                 SecurityDomainResourceDefinition.CACHE_TYPE.marshallAsAttribute(policyDetails, writer);
+                SecurityDomainResourceDefinition.CACHE_CONTAINER.marshallAsAttribute(policyDetails, writer);
+                SecurityDomainResourceDefinition.CACHE_MAX_SIZE.marshallAsAttribute(policyDetails, writer);
+                SecurityDomainResourceDefinition.CACHE_LIFESPAN.marshallAsAttribute(policyDetails, writer);
+                SecurityDomainResourceDefinition.CACHE_MAX_IDLE.marshallAsAttribute(policyDetails, writer);
                 writeSecurityDomainContent(writer, policyDetails);
                 writer.writeEndElement();
             }
@@ -218,6 +226,10 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
         Set<String> keys = policyDetails.keys();
         keys.remove(NAME);
         keys.remove(CACHE_TYPE);
+        keys.remove(CACHE_CONTAINER);
+        keys.remove(CACHE_MAX_SIZE);
+        keys.remove(CACHE_LIFESPAN);
+        keys.remove(CACHE_MAX_IDLE);
 
         for (String key : keys) {
             Element element = Element.forName(key);
@@ -446,6 +458,22 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
                     SecurityDomainResourceDefinition.CACHE_TYPE.parseAndSetParameter(value, op, reader);
                     break;
                 }
+                case CACHE_CONTAINER: {
+                    SecurityDomainResourceDefinition.CACHE_CONTAINER.parseAndSetParameter(value, op, reader);
+                    break;
+                }
+                case CACHE_MAX_SIZE: {
+                    SecurityDomainResourceDefinition.CACHE_MAX_SIZE.parseAndSetParameter(value, op, reader);
+                    break;
+                }
+                case CACHE_LIFESPAN: {
+                    SecurityDomainResourceDefinition.CACHE_LIFESPAN.parseAndSetParameter(value, op, reader);
+                    break;
+                }
+                case CACHE_MAX_IDLE: {
+                    SecurityDomainResourceDefinition.CACHE_MAX_IDLE.parseAndSetParameter(value, op, reader);
+                    break;
+                }
                 default:
                     throw unexpectedAttribute(reader, i);
             }
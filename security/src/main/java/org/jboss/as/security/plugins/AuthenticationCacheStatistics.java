@@ -0,0 +1,50 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security.plugins;
+
+/**
+ * Statistics of the authentication cache of a security domain.
+ */
+public interface AuthenticationCacheStatistics {
+
+    /**
+     * Gets the number of lookups that found a cached authentication.
+     *
+     * @return the number of hits
+     */
+    long getHits();
+
+    /**
+     * Gets the number of lookups that did not find a cached authentication, or found an expired one.
+     *
+     * @return the number of misses
+     */
+    long getMisses();
+
+    /**
+     * Gets the number of cached authentications that were evicted to make room for others, or because they expired.
+     *
+     * @return the number of evictions
+     */
+    long getEvictions();
+}
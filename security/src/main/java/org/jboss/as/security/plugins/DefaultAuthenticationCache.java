@@ -0,0 +1,246 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security.plugins;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
+
+/**
+ * Authentication cache of a security domain. Once the cache is full, entries are evicted using LIRS. Entries also
+ * expire once they were cached for longer than the lifespan, or were not used for longer than the max idle time.
+ * Expired entries are removed when they are looked up, and are purged when entries are added, at most once per
+ * lifespan or max idle time, whichever is shorter. A JAAS logout is performed for every entry that is removed from the
+ * cache.
+ */
+public class DefaultAuthenticationCache extends BoundedConcurrentHashMap<Principal, DomainInfo> implements AuthenticationCacheStatistics {
+
+    private static final long serialVersionUID = -4526420707745698416L;
+    private static final int CONCURRENCY_LEVEL = 16;
+
+    private final long lifespan;
+    private final long maxIdle;
+    private final long purgeInterval;
+    private final ExpirationListener listener;
+    private final AtomicLong nextPurge = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize the maximum number of entries
+     * @param lifespan the time in milliseconds after which an entry expires, or {@code 0} if entries never expire
+     * @param maxIdle the time in milliseconds an entry may be unused before it expires, or {@code 0} if entries never expire
+     */
+    public DefaultAuthenticationCache(int maxSize, long lifespan, long maxIdle) {
+        this(maxSize, lifespan, maxIdle, new ExpirationListener(lifespan > 0 || maxIdle > 0));
+    }
+
+    private DefaultAuthenticationCache(int maxSize, long lifespan, long maxIdle, ExpirationListener listener) {
+        super(maxSize, Math.min(maxSize, CONCURRENCY_LEVEL), Eviction.LIRS, listener, AnyEquivalence.<Principal>getInstance(), AnyEquivalence.<DomainInfo>getInstance());
+        this.lifespan = lifespan;
+        this.maxIdle = maxIdle;
+        this.purgeInterval = (lifespan > 0 && maxIdle > 0) ? Math.min(lifespan, maxIdle) : Math.max(lifespan, maxIdle);
+        this.listener = listener;
+        this.nextPurge.set(System.currentTimeMillis() + purgeInterval);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DomainInfo get(Object key) {
+        DomainInfo domainInfo = super.get(key);
+        if (domainInfo != null && listener.timestamps != null) {
+            Timestamp timestamp = listener.timestamps.get(key);
+            if (timestamp != null) {
+                long now = System.currentTimeMillis();
+                if (isExpired(timestamp, now)) {
+                    expire(key, domainInfo, timestamp);
+                    domainInfo = null;
+                } else {
+                    timestamp.accessed = now;
+                }
+            }
+        }
+        if (domainInfo != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return domainInfo;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DomainInfo put(Principal key, DomainInfo value) {
+        // recorded first, so an eviction of the new entry always finds its timestamp
+        touch(key);
+        DomainInfo previous = super.put(key, value);
+        purgeExpired();
+        return previous;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DomainInfo putIfAbsent(Principal key, DomainInfo value) {
+        DomainInfo existing = super.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        touch(key);
+        existing = super.putIfAbsent(key, value);
+        purgeExpired();
+        return existing;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DomainInfo remove(Object key) {
+        DomainInfo removed = super.remove(key);
+        if (removed != null) {
+            if (listener.timestamps != null) {
+                listener.timestamps.remove(key);
+            }
+            removed.logout();
+        }
+        return removed;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        Collection<DomainInfo> values = values();
+        for (DomainInfo domainInfo : values) {
+            domainInfo.logout();
+        }
+        super.clear();
+        if (listener.timestamps != null) {
+            listener.timestamps.clear();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getEvictions() {
+        return listener.evictions.get();
+    }
+
+    private void touch(Principal key) {
+        if (listener.timestamps != null) {
+            listener.timestamps.put(key, new Timestamp(System.currentTimeMillis()));
+        }
+    }
+
+    private boolean isExpired(Timestamp timestamp, long now) {
+        return (lifespan > 0 && now - timestamp.created > lifespan) || (maxIdle > 0 && now - timestamp.accessed > maxIdle);
+    }
+
+    private void expire(Object key, DomainInfo domainInfo, Timestamp timestamp) {
+        if (super.remove(key, domainInfo)) {
+            listener.timestamps.remove(key, timestamp);
+            listener.evictions.incrementAndGet();
+            domainInfo.logout();
+        }
+    }
+
+    /**
+     * Removes the expired entries, unless they were purged less than a purge interval ago. Otherwise entries that are
+     * not looked up again would only be removed, and logged out, once the cache is full.
+     */
+    private void purgeExpired() {
+        if (listener.timestamps == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long next = nextPurge.get();
+        if (now < next || !nextPurge.compareAndSet(next, now + purgeInterval)) {
+            return;
+        }
+        for (Map.Entry<Object, Timestamp> entry : listener.timestamps.entrySet()) {
+            Timestamp timestamp = entry.getValue();
+            if (isExpired(timestamp, now)) {
+                Object key = entry.getKey();
+                DomainInfo domainInfo = super.get(key);
+                if (domainInfo != null) {
+                    expire(key, domainInfo, timestamp);
+                } else {
+                    // left behind by an entry that was removed concurrently
+                    listener.timestamps.remove(key, timestamp);
+                }
+            }
+        }
+    }
+
+    private static final class Timestamp {
+        final long created;
+        volatile long accessed;
+
+        Timestamp(long created) {
+            this.created = created;
+            this.accessed = created;
+        }
+    }
+
+    /**
+     * Counts the evicted entries and forgets their timestamps.
+     */
+    private static final class ExpirationListener extends AuthenticationCacheEvictionListener {
+        /** The creation and last access time of each entry, {@code null} if entries do not expire */
+        final ConcurrentMap<Object, Timestamp> timestamps;
+        final AtomicLong evictions = new AtomicLong();
+
+        ExpirationListener(boolean expiring) {
+            this.timestamps = expiring ? new ConcurrentHashMap<Object, Timestamp>() : null;
+        }
+
+        @Override
+        public void onEntryEviction(Map<Principal, DomainInfo> evicted) {
+            evictions.addAndGet(evicted.size());
+            if (timestamps != null) {
+                for (Principal principal : evicted.keySet()) {
+                    timestamps.remove(principal);
+                }
+            }
+            super.onEntryEviction(evicted);
+        }
+    }
+}
@@ -23,12 +23,8 @@
 package org.jboss.as.security.plugins;
 
 import java.security.Principal;
-import java.util.Collection;
 import java.util.concurrent.ConcurrentMap;
 
-import org.infinispan.commons.equivalence.AnyEquivalence;
-import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
-import org.infinispan.util.concurrent.BoundedConcurrentHashMap.Eviction;
 import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
 
 /**
@@ -38,37 +34,38 @@ import org.jboss.security.authentication.JBossCachedAuthenticationManager.Domain
  */
 public class DefaultAuthenticationCacheFactory {
 
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final int maxSize;
+    private final long lifespan;
+    private final long maxIdle;
+
+    /**
+     * Creates a factory for caches of {@value #DEFAULT_MAX_SIZE} entries that never expire.
+     */
+    public DefaultAuthenticationCacheFactory() {
+        this(DEFAULT_MAX_SIZE, 0, 0);
+    }
+
+    /**
+     * Creates a factory for caches with the given limits.
+     *
+     * @param maxSize the maximum number of entries of a cache
+     * @param lifespan the time in milliseconds after which an entry expires, or {@code 0} if entries never expire
+     * @param maxIdle the time in milliseconds an entry may be unused before it expires, or {@code 0} if entries never expire
+     */
+    public DefaultAuthenticationCacheFactory(int maxSize, long lifespan, long maxIdle) {
+        this.maxSize = maxSize;
+        this.lifespan = lifespan;
+        this.maxIdle = maxIdle;
+    }
+
     /**
      * Returns a default cache implementation
      *
      * @return cache implementation
      */
     public ConcurrentMap<Principal, DomainInfo> getCache() {
-        ConcurrentMap<Principal, DomainInfo> map = new BoundedConcurrentHashMap<Principal, DomainInfo>(
-                1000, 16, Eviction.LIRS, new AuthenticationCacheEvictionListener(), AnyEquivalence.<Principal>getInstance(), AnyEquivalence.<DomainInfo>getInstance()) {
-
-            private static final long serialVersionUID = 1459490003748298538L;
-
-            /** {@inheritDoc} */
-            @Override
-            public DomainInfo remove(Object key) {
-                DomainInfo removed = super.remove(key);
-                if (removed != null) {
-                    removed.logout();
-                }
-                return removed;
-            }
-
-            /** {@inheritDoc} */
-            @Override
-            public void clear() {
-                Collection<DomainInfo> values = values();
-                for (DomainInfo domainInfo : values) {
-                    domainInfo.logout();
-                }
-                super.clear();
-            }
-        };
-        return map;
+        return new DefaultAuthenticationCache(maxSize, lifespan, maxIdle);
     }
 }
@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security.plugins;
+
+import java.security.Principal;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
+
+/**
+ * Factory that creates the authentication cache of a security domain in an Infinispan cache container. The cache is
+ * based on the {@value #BASE_CONFIGURATION} configuration of the container, so authentications are shared with the
+ * other members of the cluster if that configuration is clustered. The limits of a security domain, if any, override
+ * the eviction and expiration settings of the base configuration.
+ */
+public class InfinispanAuthenticationCacheFactory {
+
+    public static final String BASE_CONFIGURATION = "auth-cache";
+
+    private final EmbeddedCacheManager cacheManager;
+    private final int maxSize;
+    private final long lifespan;
+    private final long maxIdle;
+
+    /**
+     * Creates a factory for caches that use the settings of the base configuration.
+     *
+     * @param cacheManager the cache container
+     */
+    public InfinispanAuthenticationCacheFactory(EmbeddedCacheManager cacheManager) {
+        this(cacheManager, 0, 0, 0);
+    }
+
+    /**
+     * Creates a factory for caches with the given limits.
+     *
+     * @param cacheManager the cache container
+     * @param maxSize the maximum number of entries of a cache, or {@code 0} to use the base configuration
+     * @param lifespan the time in milliseconds after which an entry expires, or {@code 0} to use the base configuration
+     * @param maxIdle the time in milliseconds an entry may be unused before it expires, or {@code 0} to use the base configuration
+     */
+    public InfinispanAuthenticationCacheFactory(EmbeddedCacheManager cacheManager, int maxSize, long lifespan, long maxIdle) {
+        this.cacheManager = cacheManager;
+        this.maxSize = maxSize;
+        this.lifespan = lifespan;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns the cache of a security domain, defining its configuration first.
+     *
+     * @param securityDomain name of the security domain
+     * @return the cache
+     */
+    public Cache<Principal, DomainInfo> getCache(String securityDomain) {
+        ConfigurationBuilder builder = new ConfigurationBuilder();
+        Configuration baseCfg = cacheManager.getCacheConfiguration(BASE_CONFIGURATION);
+        if (baseCfg != null) {
+            builder.read(baseCfg);
+        }
+        if (maxSize > 0) {
+            builder.eviction().strategy(EvictionStrategy.LIRS).maxEntries(maxSize);
+        }
+        if (lifespan > 0) {
+            builder.expiration().lifespan(lifespan);
+        }
+        if (maxIdle > 0) {
+            builder.expiration().maxIdle(maxIdle);
+        }
+        if (lifespan > 0 || maxIdle > 0) {
+            builder.expiration().enableReaper();
+        }
+        // required by getStatistics()
+        builder.jmxStatistics().enable();
+        cacheManager.defineConfiguration(securityDomain, builder.build());
+        return cacheManager.getCache(securityDomain);
+    }
+
+    /**
+     * Returns the statistics of a cache created by this factory.
+     *
+     * @param cache the cache
+     * @return the statistics
+     */
+    public static AuthenticationCacheStatistics getStatistics(Cache<?, ?> cache) {
+        final AdvancedCache<?, ?> advancedCache = cache.getAdvancedCache();
+        return new AuthenticationCacheStatistics() {
+            @Override
+            public long getHits() {
+                return advancedCache.getStats().getHits();
+            }
+
+            @Override
+            public long getMisses() {
+                return advancedCache.getStats().getMisses();
+            }
+
+            @Override
+            public long getEvictions() {
+                return advancedCache.getStats().getEvictions();
+            }
+        };
+    }
+}
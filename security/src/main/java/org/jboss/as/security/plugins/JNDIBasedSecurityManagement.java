@@ -33,8 +33,6 @@ import javax.naming.InitialContext;
 import javax.security.auth.callback.CallbackHandler;
 
 import org.infinispan.Cache;
-import org.infinispan.configuration.cache.Configuration;
-import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.jboss.as.security.SecurityLogger;
 import org.jboss.as.security.SecurityMessages;
@@ -273,7 +271,8 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
      * Creates a {@code SecurityDomainContext}
      *
      * @param securityDomain name of the security domain
-     * @param cacheFactory creates a cache implementation
+     * @param cacheFactory creates a cache implementation, either a {@link DefaultAuthenticationCacheFactory}, an
+     *        {@link InfinispanAuthenticationCacheFactory} or an {@code EmbeddedCacheManager}
      * @return an instance of {@code SecurityDomainContext}
      * @throws Exception if an error occurs during creation
      */
@@ -282,23 +281,18 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
         AuthenticationManager am = createAuthenticationManager(securityDomain);
         // create authentication cache
         if (cacheFactory instanceof EmbeddedCacheManager) {
-            EmbeddedCacheManager cacheManager = EmbeddedCacheManager.class.cast(cacheFactory);
+            cacheFactory = new InfinispanAuthenticationCacheFactory(EmbeddedCacheManager.class.cast(cacheFactory));
+        }
+        AuthenticationCacheStatistics cacheStatistics = null;
+        if (cacheFactory instanceof InfinispanAuthenticationCacheFactory) {
+            InfinispanAuthenticationCacheFactory cacheManager = InfinispanAuthenticationCacheFactory.class.cast(cacheFactory);
             @SuppressWarnings("rawtypes")
-            Cache cache = null;
-            if (cacheManager != null) {
-                // TODO override global settings with security domain specific
-                ConfigurationBuilder builder = new ConfigurationBuilder();
-                Configuration baseCfg = cacheManager.getCacheConfiguration("auth-cache");
-                if (baseCfg != null) {
-                    builder.read(baseCfg);
-                }
-                cacheManager.defineConfiguration(securityDomain, builder.build());
-                cache = cacheManager.getCache(securityDomain);
-            }
+            Cache cache = cacheManager.getCache(securityDomain);
             if (cache != null && am instanceof CacheableManager) {
                 @SuppressWarnings({ "unchecked", "rawtypes" })
                 CacheableManager<Map, Principal> cm = (CacheableManager<Map, Principal>) am;
                 cm.setCache(cache);
+                cacheStatistics = InfinispanAuthenticationCacheFactory.getStatistics(cache);
             }
         } else if (cacheFactory instanceof DefaultAuthenticationCacheFactory) {
             DefaultAuthenticationCacheFactory cacheManager = DefaultAuthenticationCacheFactory.class.cast(cacheFactory);
@@ -308,6 +302,9 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
                 @SuppressWarnings({ "unchecked", "rawtypes" })
                 CacheableManager<Map, Principal> cm = (CacheableManager<Map, Principal>) am;
                 cm.setCache(cache);
+                if (cache instanceof AuthenticationCacheStatistics) {
+                    cacheStatistics = (AuthenticationCacheStatistics) cache;
+                }
             }
         }
 
@@ -317,6 +314,7 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
         }
 
         SecurityDomainContext securityDomainContext = new SecurityDomainContext(am);
+        securityDomainContext.setAuthenticationCacheStatistics(cacheStatistics);
         securityDomainContext.setAuthorizationManager(createAuthorizationManager(securityDomain));
         securityDomainContext.setAuditManager(createAuditManager(securityDomain));
         securityDomainContext.setIdentityTrustManager(createIdentityTrustManager(securityDomain));
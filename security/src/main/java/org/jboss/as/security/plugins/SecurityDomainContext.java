@@ -59,6 +59,7 @@ public class SecurityDomainContext {
     MappingManager mappingMgr;
     IdentityTrustManager identityTrustMgr;
     JSSESecurityDomain jsseSecurityDomain;
+    AuthenticationCacheStatistics authenticationCacheStatistics;
 
     private static final String SUBJECT_CONTEXT_KEY = "javax.security.auth.Subject.container";
 
@@ -140,6 +141,19 @@ public class SecurityDomainContext {
         this.identityTrustMgr = identityTrustMgr;
     }
 
+    /**
+     * Gets the statistics of the authentication cache.
+     *
+     * @return the statistics, or {@code null} if authentications are not cached
+     */
+    public AuthenticationCacheStatistics getAuthenticationCacheStatistics() {
+        return authenticationCacheStatistics;
+    }
+
+    public void setAuthenticationCacheStatistics(AuthenticationCacheStatistics authenticationCacheStatistics) {
+        this.authenticationCacheStatistics = authenticationCacheStatistics;
+    }
+
     public JSSESecurityDomain getJSSE() {
         return jsseSecurityDomain;
     }
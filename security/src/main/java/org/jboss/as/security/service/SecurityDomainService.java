@@ -29,6 +29,7 @@ import org.jboss.as.security.SecurityExtension;
 import org.jboss.as.security.SecurityLogger;
 import org.jboss.as.security.SecurityMessages;
 import org.jboss.as.security.plugins.DefaultAuthenticationCacheFactory;
+import org.jboss.as.security.plugins.InfinispanAuthenticationCacheFactory;
 import org.jboss.as.security.plugins.JNDIBasedSecurityManagement;
 import org.jboss.as.security.plugins.SecurityDomainContext;
 import org.jboss.msc.inject.Injector;
@@ -70,12 +71,32 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
 
     private final String cacheType;
 
+    private final int cacheMaxSize;
+
+    private final long cacheLifespan;
+
+    private final long cacheMaxIdle;
+
+    /**
+     * Creates a security domain service with a bounded authentication cache.
+     *
+     * @param name the name of the security domain
+     * @param applicationPolicy the login configuration of the domain
+     * @param jsseSecurityDomain the JSSE configuration of the domain, or {@code null}
+     * @param cacheType the type of the authentication cache, or {@code null} if authentications are not cached
+     * @param cacheMaxSize the maximum number of cached authentications, or {@code 0} for the default
+     * @param cacheLifespan the time in milliseconds after which a cached authentication expires, or {@code 0} for the default
+     * @param cacheMaxIdle the time in milliseconds a cached authentication may be unused before it expires, or {@code 0} for the default
+     */
     public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain,
-            String cacheType) {
+            String cacheType, int cacheMaxSize, long cacheLifespan, long cacheMaxIdle) {
         this.name = name;
         this.applicationPolicy = applicationPolicy;
         this.jsseSecurityDomain = jsseSecurityDomain;
         this.cacheType = cacheType;
+        this.cacheMaxSize = cacheMaxSize;
+        this.cacheLifespan = cacheLifespan;
+        this.cacheMaxIdle = cacheMaxIdle;
     }
 
     /** {@inheritDoc} */
@@ -90,9 +111,10 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         final JNDIBasedSecurityManagement securityManagement = (JNDIBasedSecurityManagement) securityManagementValue.getValue();
         Object cacheFactory = null;
         if ("infinispan".equals(cacheType)) {
-            cacheFactory = cacheManagerValue.getValue();
+            cacheFactory = new InfinispanAuthenticationCacheFactory(cacheManagerValue.getValue(), cacheMaxSize, cacheLifespan, cacheMaxIdle);
         } else if ("default".equals(cacheType)) {
-            cacheFactory = new DefaultAuthenticationCacheFactory();
+            int maxSize = cacheMaxSize > 0 ? cacheMaxSize : DefaultAuthenticationCacheFactory.DEFAULT_MAX_SIZE;
+            cacheFactory = new DefaultAuthenticationCacheFactory(maxSize, cacheLifespan, cacheMaxIdle);
         }
         try {
             securityDomainContext = securityManagement.createSecurityDomainContext(name, cacheFactory);
@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security;
+
+import java.io.IOException;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.model.test.FailedOperationTransformationConfig;
+import org.jboss.as.model.test.FailedOperationTransformationConfig.AttributesPathAddressConfig;
+import org.jboss.as.model.test.FailedOperationTransformationConfig.ChainedConfig;
+import org.jboss.as.model.test.FailedOperationTransformationConfig.RejectExpressionsConfig;
+import org.jboss.as.model.test.ModelTestControllerVersion;
+import org.jboss.as.model.test.ModelTestUtils;
+import org.jboss.as.model.test.SingleClassFilter;
+import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
+import org.jboss.as.subsystem.test.AdditionalInitialization;
+import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.as.subsystem.test.KernelServicesBuilder;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the authentication cache attributes of security domains, and their rejection by legacy model versions.
+ */
+public class SecurityDomainAuthenticationCacheUnitTestCase extends AbstractSubsystemBaseTest {
+
+    public SecurityDomainAuthenticationCacheUnitTestCase() {
+        super(SecurityExtension.SUBSYSTEM_NAME, new SecurityExtension());
+    }
+
+    @Override
+    protected String getSubsystemXml() throws IOException {
+        return readResource("securitysubsystemAuthCache.xml");
+    }
+
+    @Test
+    public void testRejectedTransformers712() throws Exception {
+        testRejectedTransformers_1_1_0(ModelTestControllerVersion.V7_1_2_FINAL);
+    }
+
+    @Test
+    public void testRejectedTransformers713() throws Exception {
+        testRejectedTransformers_1_1_0(ModelTestControllerVersion.V7_1_3_FINAL);
+    }
+
+    @Test
+    public void testRejectedTransformers120() throws Exception {
+        ModelVersion modelVersion = ModelVersion.create(1, 2, 0);
+        KernelServicesBuilder builder = createKernelServicesBuilder(AdditionalInitialization.MANAGEMENT);
+
+        builder.createLegacyKernelServicesBuilder(null, ModelTestControllerVersion.MASTER, modelVersion)
+                .addMavenResourceURL("org.jboss.as:jboss-as-security:" + "7.2.0.Final")
+                .dontPersistXml();
+
+        KernelServices mainServices = builder.build();
+        Assert.assertTrue(mainServices.isSuccessfulBoot());
+        Assert.assertTrue(mainServices.getLegacyServices(modelVersion).isSuccessfulBoot());
+        ModelTestUtils.checkFailedTransformedBootOperations(
+                mainServices,
+                modelVersion,
+                builder.parseXml(getSubsystemXml()),
+                new FailedOperationTransformationConfig()
+                        .addFailedAttribute(getSecurityDomainAddress(), new AuthenticationCacheConfig())
+        );
+    }
+
+    private void testRejectedTransformers_1_1_0(ModelTestControllerVersion controllerVersion) throws Exception {
+        ModelVersion modelVersion = ModelVersion.create(1, 1, 0);
+        KernelServicesBuilder builder = createKernelServicesBuilder(AdditionalInitialization.MANAGEMENT);
+
+        builder.createLegacyKernelServicesBuilder(null, controllerVersion, modelVersion)
+                .addMavenResourceURL("org.jboss.as:jboss-as-security:" + controllerVersion.getMavenGavVersion())
+                .dontPersistXml()
+                .excludeFromParent(SingleClassFilter.createFilter(SecurityLogger.class));
+
+        KernelServices mainServices = builder.build();
+        Assert.assertTrue(mainServices.isSuccessfulBoot());
+        Assert.assertTrue(mainServices.getLegacyServices(modelVersion).isSuccessfulBoot());
+        ModelTestUtils.checkFailedTransformedBootOperations(
+                mainServices,
+                modelVersion,
+                builder.parseXml(getSubsystemXml()),
+                new FailedOperationTransformationConfig()
+                        .addFailedAttribute(getSecurityDomainAddress(),
+                                ChainedConfig.createBuilder(SecurityDomainResourceDefinition.CACHE_ATTRIBUTES)
+                                        .addConfig(new RejectExpressionsConfig(SecurityDomainResourceDefinition.CACHE_TYPE))
+                                        .addConfig(new AuthenticationCacheConfig())
+                                        .build())
+        );
+    }
+
+    private static PathAddress getSecurityDomainAddress() {
+        return PathAddress.pathAddress(SecurityExtension.PATH_SUBSYSTEM, SecurityExtension.SECURITY_DOMAIN_PATH);
+    }
+
+    /**
+     * Expects the authentication cache settings to be rejected, unless they are undefined, or the cache container
+     * is the default one.
+     */
+    private static class AuthenticationCacheConfig extends AttributesPathAddressConfig<AuthenticationCacheConfig> {
+
+        AuthenticationCacheConfig() {
+            super(convert(SecurityDomainResourceDefinition.CACHE_CONTAINER, SecurityDomainResourceDefinition.CACHE_MAX_SIZE,
+                    SecurityDomainResourceDefinition.CACHE_LIFESPAN, SecurityDomainResourceDefinition.CACHE_MAX_IDLE));
+        }
+
+        @Override
+        protected boolean isAttributeWritable(String attributeName) {
+            return true;
+        }
+
+        @Override
+        protected boolean checkValue(String attrName, ModelNode attribute, boolean isWriteAttribute) {
+            if (attrName.equals(SecurityDomainResourceDefinition.CACHE_CONTAINER.getName())) {
+                return attribute.isDefined() && !attribute.equals(SecurityDomainResourceDefinition.CACHE_CONTAINER.getDefaultValue());
+            }
+            return attribute.isDefined();
+        }
+
+        @Override
+        protected ModelNode correctValue(ModelNode toResolve, boolean isWriteAttribute) {
+            return new ModelNode();
+        }
+    }
+}
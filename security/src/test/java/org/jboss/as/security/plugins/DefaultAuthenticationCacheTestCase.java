@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.security.Principal;
+
+import org.jboss.as.core.security.SimplePrincipal;
+import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DefaultAuthenticationCache}.
+ */
+public class DefaultAuthenticationCacheTestCase {
+
+    private final Principal alice = new SimplePrincipal("alice");
+    private final Principal bob = new SimplePrincipal("bob");
+
+    @Test
+    public void testHitsAndMisses() {
+        DefaultAuthenticationCache cache = new DefaultAuthenticationCache(10, 0, 0);
+        DomainInfo info = mock(DomainInfo.class);
+
+        assertNull(cache.get(alice));
+        cache.put(alice, info);
+        assertSame(info, cache.get(alice));
+        assertSame(info, cache.get(alice));
+        assertNull(cache.get(bob));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    public void testLifespan() throws InterruptedException {
+        DefaultAuthenticationCache cache = new DefaultAuthenticationCache(10, 200, 0);
+        DomainInfo info = mock(DomainInfo.class);
+
+        cache.put(alice, info);
+        assertSame(info, cache.get(alice));
+        Thread.sleep(300);
+        // using an entry does not extend its lifespan
+        assertNull(cache.get(alice));
+
+        verify(info).logout();
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testMaxIdle() throws InterruptedException {
+        DefaultAuthenticationCache cache = new DefaultAuthenticationCache(10, 0, 300);
+        DomainInfo info = mock(DomainInfo.class);
+
+        cache.put(alice, info);
+        for (int i = 0; i < 3; ++i) {
+            Thread.sleep(150);
+            assertSame(info, cache.get(alice));
+        }
+        verify(info, never()).logout();
+
+        Thread.sleep(450);
+        assertNull(cache.get(alice));
+
+        verify(info).logout();
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testExpiredEntriesArePurgedOnPut() throws InterruptedException {
+        DefaultAuthenticationCache cache = new DefaultAuthenticationCache(10, 200, 0);
+        DomainInfo expired = mock(DomainInfo.class);
+        DomainInfo info = mock(DomainInfo.class);
+
+        cache.put(alice, expired);
+        Thread.sleep(300);
+        // the expired entry is never looked up again
+        cache.put(bob, info);
+
+        verify(expired).logout();
+        verify(info, never()).logout();
+        assertEquals(1, cache.size());
+        assertSame(info, cache.get(bob));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testEvictions() {
+        int maxSize = 4;
+        int count = 32;
+        DefaultAuthenticationCache cache = new DefaultAuthenticationCache(maxSize, 0, 0);
+        DomainInfo[] infos = new DomainInfo[count];
+        for (int i = 0; i < count; ++i) {
+            infos[i] = mock(DomainInfo.class);
+            cache.put(new SimplePrincipal(String.valueOf(i)), infos[i]);
+        }
+
+        assertTrue(cache.getEvictions() > 0);
+        assertEquals(count - cache.size(), cache.getEvictions());
+        for (int i = 0; i < count; ++i) {
+            if (cache.containsValue(infos[i])) {
+                verify(infos[i], never()).logout();
+            } else {
+                verify(infos[i]).logout();
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveAndClearLogout() {
+        DefaultAuthenticationCache cache = new DefaultAuthenticationCache(10, 1000, 1000);
+        DomainInfo removed = mock(DomainInfo.class);
+        DomainInfo cleared = mock(DomainInfo.class);
+
+        cache.put(alice, removed);
+        cache.put(bob, cleared);
+        assertSame(removed, cache.remove(alice));
+        verify(removed).logout();
+        cache.clear();
+        verify(cleared).logout();
+
+        assertEquals(0, cache.size());
+        // removals are not evictions
+        assertEquals(0, cache.getEvictions());
+    }
+}
@@ -401,4 +401,12 @@ public interface ServerLogger extends BasicLogger {
     @LogMessage(level = Logger.Level.INFO)
     @Message(id = 15971, value = "Deployment restart detected for deployment %s, performing full redeploy instead.")
     void deploymentRestartDetected(String deployment);
+
+    @LogMessage(level = WARN)
+    @Message(id = 15972, value = "Could not store annotation index %s")
+    void cannotStoreAnnotationIndex(String index, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 15973, value = "Could not read cached annotation index %s, it is deleted and the resource root is indexed again")
+    void cannotReadCachedAnnotationIndex(String index, @Cause Throwable cause);
 }
@@ -194,6 +194,9 @@ public class DeploymentAttributes {
     /** Attributes indicating managed deployments in the content attribute */
     public static final Map<String, AttributeDefinition> MANAGED_CONTENT_ATTRIBUTES = createAttributeMap(CONTENT_INPUT_STREAM_INDEX, CONTENT_HASH, CONTENT_BYTES, CONTENT_URL);
 
+    /** Attributes of managed deployments in the content attribute that provide content to be added to the repository */
+    public static final Map<String, AttributeDefinition> CONTENT_ADDITION_ATTRIBUTES = createAttributeMap(CONTENT_INPUT_STREAM_INDEX, CONTENT_BYTES, CONTENT_URL);
+
     /** Attributes indicating unmanaged deployments in the content attribute */
     public static final Map<String, AttributeDefinition> UNMANAGED_CONTENT_ATTRIBUTES = createAttributeMap(CONTENT_PATH, CONTENT_RELATIVE_TO, CONTENT_ARCHIVE);
 
@@ -357,8 +360,11 @@ public class DeploymentAttributes {
                     }
                 }
             }
-            if (managedNames.size() > 1) {
-                throw MESSAGES.cannotHaveMoreThanOneManagedContentItem(MANAGED_CONTENT_ATTRIBUTES.keySet());
+            // the hash may be given along with the content to add, so content that is already stored is not read
+            final Set<String> additionNames = new HashSet<String>(managedNames);
+            additionNames.remove(CONTENT_HASH.getName());
+            if (additionNames.size() > 1) {
+                throw MESSAGES.cannotHaveMoreThanOneManagedContentItem(CONTENT_ADDITION_ATTRIBUTES.keySet());
             }
             if (unmanagedNames.size() > 0 && managedNames.size() > 0) {
                 throw MESSAGES.cannotMixUnmanagedAndManagedContentItems(managedNames, unmanagedNames);
@@ -103,6 +103,11 @@ public final class Attachments {
      * The primary deployment root.
      */
     public static final AttachmentKey<ResourceRoot> DEPLOYMENT_ROOT = AttachmentKey.create(ResourceRoot.class);
+
+    /**
+     * Flag indicating that deployment overlays replace content of the deployment.
+     */
+    public static final AttachmentKey<Boolean> DEPLOYMENT_OVERLAID = AttachmentKey.create(Boolean.class);
     /**
      * Information used to build up the deployments Module
      */
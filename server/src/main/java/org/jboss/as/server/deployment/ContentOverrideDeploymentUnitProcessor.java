@@ -93,6 +93,9 @@ public class ContentOverrideDeploymentUnitProcessor implements DeploymentUnitPro
                 }
             }
         }
+        if (!paths.isEmpty()) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_OVERLAID, Boolean.TRUE);
+        }
     }
 
     @Override
@@ -28,13 +28,10 @@ import static org.jboss.as.server.controller.resources.DeploymentAttributes.CONT
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.ENABLED;
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.PERSISTENT;
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.SERVER_ADD_ATTRIBUTES;
+import static org.jboss.as.server.deployment.DeploymentHandlerUtils.addContent;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.asString;
-import static org.jboss.as.server.deployment.DeploymentHandlerUtils.createFailureException;
-import static org.jboss.as.server.deployment.DeploymentHandlerUtils.getInputStream;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.hasValidContentAdditionParameterDefined;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Set;
 
 import org.jboss.as.controller.AttributeDefinition;
@@ -49,7 +46,6 @@ import org.jboss.as.controller.ProcessType;
 import org.jboss.as.controller.RunningMode;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
 import org.jboss.as.controller.registry.Resource;
-import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
@@ -115,15 +111,15 @@ public class DeploymentAddHandler implements OperationStepHandler {
         newModel.get(RUNTIME_NAME.getName()).set(runtimeName);
 
         final DeploymentHandlerUtil.ContentItem contentItem;
-        if (contentItemNode.hasDefined(CONTENT_HASH.getName())) {
-            byte[] hash = contentItemNode.require(CONTENT_HASH.getName()).asBytes();
-            contentItem = addFromHash(hash, name, context);
-        } else if (hasValidContentAdditionParameterDefined(contentItemNode)) {
+        if (hasValidContentAdditionParameterDefined(contentItemNode)) {
             contentItem = addFromContentAdditionParameter(context, name, contentItemNode);
             contentItemNode = new ModelNode();
             contentItemNode.get(CONTENT_HASH.getName()).set(contentItem.getHash());
             content = new ModelNode();
             content.add(contentItemNode);
+        } else if (contentItemNode.hasDefined(CONTENT_HASH.getName())) {
+            byte[] hash = contentItemNode.require(CONTENT_HASH.getName()).asBytes();
+            contentItem = addFromHash(hash, name, context);
         } else {
             contentItem = addUnmanaged(contentItemNode);
         }
@@ -181,19 +177,7 @@ public class DeploymentAddHandler implements OperationStepHandler {
     }
 
     DeploymentHandlerUtil.ContentItem addFromContentAdditionParameter(OperationContext context, String name, ModelNode contentItemNode) throws OperationFailedException {
-        byte[] hash;
-        InputStream in = getInputStream(context, contentItemNode);
-        try {
-            try {
-                hash = contentRepository.addContent(in);
-            } catch (IOException e) {
-                throw createFailureException(e.toString());
-            }
-
-        } finally {
-            StreamUtils.safeClose(in);
-        }
-        return new DeploymentHandlerUtil.ContentItem(hash);
+        return new DeploymentHandlerUtil.ContentItem(addContent(context, contentRepository, contentItemNode));
     }
 
     DeploymentHandlerUtil.ContentItem addUnmanaged(ModelNode contentItemNode) throws OperationFailedException {
@@ -27,13 +27,10 @@ import static org.jboss.as.server.controller.resources.DeploymentAttributes.CONT
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.CONTENT_RELATIVE_TO;
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.ENABLED;
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
+import static org.jboss.as.server.deployment.DeploymentHandlerUtils.addContent;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.asString;
-import static org.jboss.as.server.deployment.DeploymentHandlerUtils.createFailureException;
-import static org.jboss.as.server.deployment.DeploymentHandlerUtils.getInputStream;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.hasValidContentAdditionParameterDefined;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Arrays;
 
 import org.jboss.as.controller.AttributeDefinition;
@@ -44,7 +41,6 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
-import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.server.ServerMessages;
 import org.jboss.as.server.controller.resources.DeploymentAttributes;
@@ -112,11 +108,7 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler {
         // TODO: JBAS-9020: for the moment overlays are not supported, so there is a single content item
         final DeploymentHandlerUtil.ContentItem contentItem;
         ModelNode contentItemNode = content.require(0);
-        if (contentItemNode.hasDefined(CONTENT_HASH.getName())) {
-            newHash = CONTENT_HASH.resolveModelAttribute(context, contentItemNode).asBytes();
-
-            contentItem = addFromHash(newHash);
-        } else if (hasValidContentAdditionParameterDefined(contentItemNode)) {
+        if (hasValidContentAdditionParameterDefined(contentItemNode)) {
             contentItem = addFromContentAdditionParameter(context, contentItemNode);
             newHash = contentItem.getHash();
 
@@ -125,6 +117,10 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler {
             contentItemNode.get(CONTENT_HASH.getName()).set(newHash);
             content.clear();
             content.add(contentItemNode);
+        } else if (contentItemNode.hasDefined(CONTENT_HASH.getName())) {
+            newHash = CONTENT_HASH.resolveModelAttribute(context, contentItemNode).asBytes();
+
+            contentItem = addFromHash(newHash);
         } else {
             contentItem = addUnmanaged(context, contentItemNode);
             newHash = null;
@@ -167,18 +163,7 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler {
     }
 
     DeploymentHandlerUtil.ContentItem addFromContentAdditionParameter(OperationContext context, ModelNode contentItemNode) throws OperationFailedException {
-        byte[] hash;
-        InputStream in = getInputStream(context, contentItemNode);
-        try {
-            try {
-                hash = contentRepository.addContent(in);
-            } catch (IOException e) {
-                throw createFailureException(e.toString());
-            }
-
-        } finally {
-            StreamUtils.safeClose(in);
-        }
+        final byte[] hash = addContent(context, contentRepository, contentItemNode);
         contentItemNode.clear(); // AS7-1029
         contentItemNode.get(CONTENT_HASH.getName()).set(hash);
         // TODO: remove the content addition stuff?
@@ -31,10 +31,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.List;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.server.ServerMessages;
 import org.jboss.as.server.controller.resources.DeploymentAttributes;
 import org.jboss.dmr.ModelNode;
@@ -102,6 +106,65 @@ public abstract class DeploymentHandlerUtils {
         return in;
     }
 
+    /**
+     * Gets the hash of the content of a content item, if it is known without reading the content from a stream. That
+     * is the hash given along with the content, or else the hash of content passed as bytes. The content repository
+     * can then skip reading content it already has.
+     *
+     * @param context the operation context.
+     * @param contentItem the content item.
+     *
+     * @return the SHA-1 hash of the content, or {@code null} if the hash is not known.
+     */
+    public static byte[] getContentHash(OperationContext context, ModelNode contentItem) throws OperationFailedException {
+        if (contentItem.hasDefined(DeploymentAttributes.CONTENT_HASH.getName())) {
+            return DeploymentAttributes.CONTENT_HASH.resolveModelAttribute(context, contentItem).asBytes();
+        }
+        // the same content is used as in getInputStream
+        if (contentItem.hasDefined(DeploymentAttributes.CONTENT_INPUT_STREAM_INDEX.getName())
+                || !contentItem.hasDefined(DeploymentAttributes.CONTENT_BYTES.getName())) {
+            return null;
+        }
+        final byte[] bytes;
+        try {
+            bytes = DeploymentAttributes.CONTENT_BYTES.resolveModelAttribute(context, contentItem).asBytes();
+        } catch (IllegalArgumentException iae) {
+            throw ServerMessages.MESSAGES.invalidStreamBytes(DeploymentAttributes.CONTENT_BYTES.getName());
+        }
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            // the content repository reports this when the content is added
+            return null;
+        }
+    }
+
+    /**
+     * Adds the content of a content item to the content repository. If the hash of the content is known up front, see
+     * {@link #getContentHash(OperationContext, ModelNode)}, and the repository already has that content, the stream
+     * of the content item is not even opened, so neither an attached stream nor a URL is transferred.
+     *
+     * @param context the operation context.
+     * @param contentRepository the content repository.
+     * @param contentItem the content item.
+     *
+     * @return the hash of the content.
+     */
+    public static byte[] addContent(OperationContext context, ContentRepository contentRepository, ModelNode contentItem) throws OperationFailedException {
+        final byte[] expectedHash = getContentHash(context, contentItem);
+        if (expectedHash != null && contentRepository.hasContent(expectedHash)) {
+            return expectedHash;
+        }
+        final InputStream in = getInputStream(context, contentItem);
+        try {
+            return contentRepository.addContent(in, expectedHash);
+        } catch (IOException e) {
+            throw createFailureException(e.toString());
+        } finally {
+            StreamUtils.safeClose(in);
+        }
+    }
+
     /**
      * Checks to see if a valid deployment parameter has been defined.
      *
@@ -110,7 +173,7 @@ public abstract class DeploymentHandlerUtils {
      * @return {@code true} of the parameter is valid, otherwise {@code false}.
      */
     public static boolean hasValidContentAdditionParameterDefined(ModelNode operation) {
-        for (String s : DeploymentAttributes.MANAGED_CONTENT_ATTRIBUTES.keySet()) {
+        for (String s : DeploymentAttributes.CONTENT_ADDITION_ATTRIBUTES.keySet()) {
             if (operation.hasDefined(s)) {
                 return true;
             }
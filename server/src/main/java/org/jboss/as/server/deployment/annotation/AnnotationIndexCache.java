@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.vfs.VFSUtils;
+
+/**
+ * Persistent cache of the annotation indexes generated for resource roots, keyed by the hash of the indexed class
+ * files. An unchanged library therefore is only indexed once, no matter how often, or as part of which deployment,
+ * it is deployed.
+ *
+ * <p>Each index is stored in its own file, which is touched whenever it is used. Indexes that have not been used
+ * for {@value #MAX_UNUSED_DAYS} days are removed when the cache is created. The file names include the version of
+ * Jandex, so indexes written by a different version are not read, and eventually removed as unused.</p>
+ */
+public class AnnotationIndexCache {
+
+    private static final int MAX_UNUSED_DAYS = 30;
+    private static final String SUFFIX = ".idx";
+    private static final String JANDEX_VERSION = jandexVersion();
+
+    private final File directory;
+
+    /**
+     * Creates a cache which stores the indexes in the given directory.
+     *
+     * @param directory the directory, which is created if it does not exist
+     */
+    public AnnotationIndexCache(final File directory) {
+        this.directory = directory;
+        removeUnused();
+    }
+
+    /**
+     * Gets a cached index.
+     *
+     * @param hash the hash of the indexed class files
+     * @return the index, or {@code null} if it is not cached
+     */
+    public Index get(final String hash) {
+        final File file = getFile(hash);
+        if (!file.isFile()) {
+            return null;
+        }
+        Index index = null;
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+            index = new IndexReader(in).read();
+        } catch (Exception e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotReadCachedAnnotationIndex(file.getPath(), e);
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+        if (index == null) {
+            // the index will be generated and stored again
+            file.delete();
+        } else {
+            file.setLastModified(System.currentTimeMillis());
+        }
+        return index;
+    }
+
+    /**
+     * Stores an index. Failures are logged, as the index can always be generated again.
+     *
+     * @param hash the hash of the indexed class files
+     * @param index the index
+     */
+    public void put(final String hash, final Index index) {
+        final File file = getFile(hash);
+        File tmp = null;
+        OutputStream out = null;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+                throw new IOException(directory.getAbsolutePath());
+            }
+            // write to a temporary file first, so other threads and processes never read a partial index
+            tmp = File.createTempFile(hash, ".tmp", directory);
+            out = new BufferedOutputStream(new FileOutputStream(tmp));
+            new IndexWriter(out).write(index);
+            out.close();
+            out = null;
+            if (!tmp.renameTo(file)) {
+                // an index for the same classes may have been stored concurrently
+                if (!file.isFile()) {
+                    throw new IOException(file.getAbsolutePath());
+                }
+            }
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotStoreAnnotationIndex(file.getPath(), e);
+        } finally {
+            VFSUtils.safeClose(out);
+            if (tmp != null && tmp.exists()) {
+                tmp.delete();
+            }
+        }
+    }
+
+    File getFile(final String hash) {
+        return new File(directory, hash + '-' + JANDEX_VERSION + SUFFIX);
+    }
+
+    private static String jandexVersion() {
+        final Package jandex = Index.class.getPackage();
+        final String version = jandex == null ? null : jandex.getImplementationVersion();
+        if (version == null) {
+            // the reader rejects indexes it does not understand, which are then deleted
+            return "unknown";
+        }
+        return version.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private void removeUnused() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        final long oldest = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_UNUSED_DAYS);
+        for (final File file : files) {
+            if (file.isFile() && (!file.getName().endsWith(SUFFIX) || file.lastModified() < oldest)) {
+                file.delete();
+            }
+        }
+    }
+}
@@ -22,6 +22,18 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.as.server.ServerMessages;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
@@ -37,6 +49,27 @@ import org.jboss.as.server.deployment.module.ResourceRoot;
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private final ExecutorService executor;
+    private final AnnotationIndexCache cache;
+
+    /**
+     * Creates a processor that indexes the resource roots sequentially and without caching the indexes.
+     */
+    public AnnotationIndexProcessor() {
+        this(null, null);
+    }
+
+    /**
+     * Creates a new processor.
+     *
+     * @param executor the executor used to index resource roots in parallel, or {@code null} to index them sequentially
+     * @param cache the cache of generated indexes, may be {@code null}
+     */
+    public AnnotationIndexProcessor(final ExecutorService executor, final AnnotationIndexCache cache) {
+        this.executor = executor;
+        this.cache = cache;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -47,11 +80,123 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
-        for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
+        final List<ResourceRoot> resourceRoots = DeploymentUtils.allResourceRoots(deploymentUnit);
+        final int workers = executor == null ? 0 : Math.min(resourceRoots.size(), Runtime.getRuntime().availableProcessors()) - 1;
+        if (workers <= 0) {
+            for (ResourceRoot resourceRoot : resourceRoots) {
+                ResourceRootIndexer.indexResourceRoot(resourceRoot, cache);
+            }
+            return;
+        }
+        // the current thread takes part in the indexing, so the deployment can't be held up by a busy executor
+        final IndexingTask task = new IndexingTask(new ConcurrentLinkedQueue<ResourceRoot>(resourceRoots), cache);
+        final List<Worker> submitted = new ArrayList<Worker>(workers);
+        for (int i = 0; i < workers; i++) {
+            final Worker worker = new Worker(task);
+            worker.future = executor.submit(worker);
+            submitted.add(worker);
+        }
+        DeploymentUnitProcessingException failure = null;
+        try {
+            task.call();
+        } catch (DeploymentUnitProcessingException e) {
+            failure = e;
+        }
+        // the queue is drained or indexing failed, so workers the executor has not started yet have nothing to do
+        for (Iterator<Worker> iterator = submitted.iterator(); iterator.hasNext(); ) {
+            final Worker worker = iterator.next();
+            if (worker.claim()) {
+                worker.future.cancel(false);
+                iterator.remove();
+            }
+        }
+        // the deployment must not proceed while resource roots are still being indexed
+        boolean interrupted = false;
+        for (Worker worker : submitted) {
+            final Future<Void> future = worker.future;
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof DeploymentUnitProcessingException
+                                ? (DeploymentUnitProcessingException) e.getCause()
+                                : ServerMessages.MESSAGES.deploymentIndexingFailed(e.getCause());
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
         }
     }
 
     public void undeploy(final DeploymentUnit context) {
     }
+
+    /**
+     * Runs an {@link IndexingTask} on an executor thread, unless the deploying thread claimed it first because the
+     * indexing was over before the executor got to it.
+     */
+    private static final class Worker implements Callable<Void> {
+        private final IndexingTask task;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private Future<Void> future;
+
+        private Worker(final IndexingTask task) {
+            this.task = task;
+        }
+
+        /**
+         * Claims this worker.
+         *
+         * @return {@code true} if the worker has not started and never will, {@code false} if it has started
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public Void call() throws DeploymentUnitProcessingException {
+            return claim() ? task.call() : null;
+        }
+    }
+
+    /**
+     * Indexes resource roots taken from a shared queue until it is empty, or until indexing failed in any thread.
+     */
+    private static final class IndexingTask implements Callable<Void> {
+        private final Queue<ResourceRoot> resourceRoots;
+        private final AnnotationIndexCache cache;
+        private volatile boolean failed;
+
+        private IndexingTask(final Queue<ResourceRoot> resourceRoots, final AnnotationIndexCache cache) {
+            this.resourceRoots = resourceRoots;
+            this.cache = cache;
+        }
+
+        @Override
+        public Void call() throws DeploymentUnitProcessingException {
+            ResourceRoot resourceRoot;
+            while (!failed && (resourceRoot = resourceRoots.poll()) != null) {
+                boolean ok = false;
+                try {
+                    ResourceRootIndexer.indexResourceRoot(resourceRoot, cache);
+                    ok = true;
+                } finally {
+                    if (!ok) {
+                        failed = true;
+                    }
+                }
+            }
+            return null;
+        }
+    }
 }
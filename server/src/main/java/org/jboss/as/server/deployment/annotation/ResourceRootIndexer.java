@@ -22,11 +22,19 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.jboss.as.controller.HashUtil;
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
 import org.jboss.as.server.deployment.Attachments;
@@ -47,10 +55,23 @@ import org.jboss.vfs.util.SuffixMatchFilter;
  */
 public class ResourceRootIndexer {
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     /**
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
+        indexResourceRoot(resourceRoot, null);
+    }
+
+    /**
+     * Creates and attaches the annotation index to a resource root, if it has not already been attached. If a cache
+     * is given, an index generated before for the same class files is reused, and a newly generated index is stored.
+     *
+     * @param resourceRoot the resource root
+     * @param cache the cache of generated indexes, may be {@code null}
+     */
+    public static void indexResourceRoot(final ResourceRoot resourceRoot, final AnnotationIndexCache cache) throws DeploymentUnitProcessingException {
         if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
             return;
         }
@@ -93,6 +114,15 @@ public class ResourceRootIndexer {
             });
 
             final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+            final String hash = cache == null ? null : hashClasses(virtualFile, classChildren);
+            if (hash != null) {
+                final Index cached = cache.get(hash);
+                if (cached != null) {
+                    resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, cached);
+                    ServerLogger.DEPLOYMENT_LOGGER.tracef("Found cached index %s for archive %s", hash, virtualFile);
+                    return;
+                }
+            }
             for (VirtualFile classFile : classChildren) {
                 InputStream inputStream = null;
                 try {
@@ -107,8 +137,46 @@ public class ResourceRootIndexer {
             final Index index = indexer.complete();
             resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
             ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
+            if (hash != null) {
+                cache.put(hash, index);
+            }
         } catch (Throwable t) {
             throw ServerMessages.MESSAGES.deploymentIndexingFailed(t);
         }
     }
+
+    /**
+     * Computes the SHA-1 hash of the paths and contents of the given class files.
+     *
+     * @return the hash as hex string, or {@code null} if a class file could not be read, in which case the index
+     *         must not be cached
+     */
+    private static String hashClasses(final VirtualFile root, final List<VirtualFile> classFiles) throws NoSuchAlgorithmException {
+        final List<VirtualFile> sorted = new ArrayList<VirtualFile>(classFiles);
+        Collections.sort(sorted, new Comparator<VirtualFile>() {
+            @Override
+            public int compare(VirtualFile o1, VirtualFile o2) {
+                return o1.getPathName().compareTo(o2.getPathName());
+            }
+        });
+        final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        final byte[] buffer = new byte[8192];
+        for (VirtualFile classFile : sorted) {
+            digest.update(classFile.getPathNameRelativeTo(root).getBytes(UTF_8));
+            digest.update((byte) 0);
+            InputStream inputStream = null;
+            try {
+                inputStream = classFile.openStream();
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                return null;
+            } finally {
+                VFSUtils.safeClose(inputStream);
+            }
+        }
+        return HashUtil.bytesToHexString(digest.digest());
+    }
 }
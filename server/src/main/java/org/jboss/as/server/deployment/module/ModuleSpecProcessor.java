@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment.module;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.security.Permission;
 import java.security.Permissions;
@@ -34,6 +35,8 @@ import java.util.PropertyPermission;
 
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.AttachmentList;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -47,6 +50,7 @@ import org.jboss.as.server.moduleservice.ServiceModuleLoader;
 import org.jboss.modules.DependencySpec;
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.modules.ModuleSpec;
+import org.jboss.modules.ResourceLoader;
 import org.jboss.modules.ResourceLoaderSpec;
 import org.jboss.modules.filter.MultiplePathFilterBuilder;
 import org.jboss.modules.filter.PathFilter;
@@ -58,6 +62,7 @@ import org.jboss.msc.service.ServiceController.Mode;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ValueService;
 import org.jboss.msc.value.ImmediateValue;
+import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFilePermission;
 
@@ -74,6 +79,11 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
     private static final ServerLogger logger = ServerLogger.DEPLOYMENT_LOGGER;
 
+    /**
+     * The resource loaders that hold archives open, closed on undeploy.
+     */
+    private static final AttachmentKey<AttachmentList<Closeable>> RESOURCE_LOADERS = AttachmentKey.createList(Closeable.class);
+
     @Override
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
 
@@ -90,6 +100,10 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
     @Override
     public void undeploy(final DeploymentUnit deploymentUnit) {
+        for (final Closeable resourceLoader : deploymentUnit.getAttachmentList(RESOURCE_LOADERS)) {
+            VFSUtils.safeClose(resourceLoader);
+        }
+        deploymentUnit.removeAttachment(RESOURCE_LOADERS);
     }
 
     private void deployModuleSpec(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -214,7 +228,7 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
         for (final ResourceRoot resourceRoot : resourceRoots) {
             logger.debug("Adding resource " + resourceRoot.getRoot() + " to module " + moduleIdentifier);
-            addResourceRoot(specBuilder, resourceRoot, permFactories);
+            addResourceRoot(deploymentUnit, specBuilder, resourceRoot, permFactories);
         }
 
         createDependencies(specBuilder, dependencies, false);
@@ -318,20 +332,19 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         }
     }
 
-    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final List<PermissionFactory> permFactories)
-            throws DeploymentUnitProcessingException {
+    private void addResourceRoot(final DeploymentUnit deploymentUnit, final ModuleSpec.Builder specBuilder, final ResourceRoot resource,
+                                 final List<PermissionFactory> permFactories) throws DeploymentUnitProcessingException {
         try {
             final VirtualFile root = resource.getRoot();
+            final ResourceLoader resourceLoader = createResourceLoader(deploymentUnit, resource);
             if (resource.getExportFilters().isEmpty()) {
-                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource())));
+                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(resourceLoader));
             } else {
                 final MultiplePathFilterBuilder filterBuilder = PathFilters.multiplePathFilterBuilder(true);
                 for (final FilterSpecification filter : resource.getExportFilters()) {
                     filterBuilder.addFilter(filter.getPathFilter(), filter.isInclude());
                 }
-                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource()), filterBuilder.create()));
+                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(resourceLoader, filterBuilder.create()));
             }
             permFactories.add(new ImmediatePermissionFactory(
                     new VirtualFilePermission(root.getChild("-").getPathName(), VirtualFilePermission.FLAG_READ)));
@@ -340,4 +353,22 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         }
     }
 
+    /**
+     * Creates the loader of a resource root. Mounted zip archives are read directly, unless a deployment overlay may
+     * have replaced some of their content in VFS.
+     */
+    private ResourceLoader createResourceLoader(final DeploymentUnit deploymentUnit, final ResourceRoot resource) throws IOException {
+        final DeploymentUnit topLevelDeployment = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        final MountHandle mountHandle = resource.getMountHandle();
+        if (mountHandle != null && !topLevelDeployment.hasAttachment(Attachments.DEPLOYMENT_OVERLAID)) {
+            final ZipFileResourceLoader resourceLoader = ZipFileResourceLoader.create(resource.getRootName(), resource.getRoot(),
+                    mountHandle.getMountSource(), resource.isUsePhysicalCodeSource());
+            if (resourceLoader != null) {
+                deploymentUnit.addToAttachmentList(RESOURCE_LOADERS, resourceLoader);
+                return resourceLoader;
+            }
+        }
+        return new VFSResourceLoader(resource.getRootName(), resource.getRoot(), resource.isUsePhysicalCodeSource());
+    }
+
 }
@@ -0,0 +1,313 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.ZipException;
+
+/**
+ * Index of the file entries of a zip archive, read from its central directory. Entry names are looked up in an open
+ * addressing hash table, and the position and sizes of each entry are held in arrays, so the index needs no object
+ * per entry apart from its name.
+ *
+ * <p>Only archives that can be read without any further checks are supported, i.e. encrypted archives, zip64
+ * archives and entries that are neither stored nor deflated are rejected with a {@link ZipException}.</p>
+ */
+final class ZipEntryIndex {
+
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int END_LENGTH = 22;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_LENGTH = 46;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_LENGTH = 30;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    private final String[] names;
+    private final int[] hashes;
+    private final long[] offsets;
+    private final long[] compressedSizes;
+    private final long[] sizes;
+    private final byte[] methods;
+    /** Entry numbers plus one, {@code 0} marks a free slot */
+    private final int[] table;
+    private final Set<String> directories;
+    private int count;
+    private boolean signed;
+
+    private ZipEntryIndex(final int capacity) {
+        names = new String[capacity];
+        hashes = new int[capacity];
+        offsets = new long[capacity];
+        compressedSizes = new long[capacity];
+        sizes = new long[capacity];
+        methods = new byte[capacity];
+        // keep the load factor below 0.5, so probe sequences stay short
+        table = new int[Integer.highestOneBit(Math.max(capacity, 1)) << 2];
+        directories = new HashSet<>();
+        directories.add("");
+    }
+
+    /**
+     * Reads the central directory of an archive.
+     *
+     * @param channel the channel of the archive
+     * @return the index
+     * @throws ZipException if the archive is not a zip archive, or is not supported
+     * @throws IOException if the archive can not be read
+     */
+    static ZipEntryIndex read(final FileChannel channel) throws IOException {
+        final long length = channel.size();
+        final int tailLength = (int) Math.min(length, END_LENGTH + MAX_COMMENT_LENGTH);
+        final ByteBuffer tail = read(channel, length - tailLength, tailLength);
+        int end = -1;
+        for (int i = tailLength - END_LENGTH; i >= 0; i--) {
+            if (tail.getInt(i) == END_SIGNATURE && i + END_LENGTH + (tail.getShort(i + 20) & 0xFFFF) == tailLength) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            throw new ZipException("End of central directory not found");
+        }
+        final int count = tail.getShort(end + 10) & 0xFFFF;
+        final long directoryLength = tail.getInt(end + 12) & 0xFFFFFFFFL;
+        final long directoryOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+        if (count == 0xFFFF || directoryLength == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+            throw new ZipException("Zip64 archives are not supported");
+        }
+        final long directoryStart = length - tailLength + end - directoryLength;
+        if (directoryStart < 0 || directoryStart < directoryOffset) {
+            throw new ZipException("Invalid central directory");
+        }
+        // data prepended to the archive, e.g. by self extracting archives, shifts all offsets
+        final long prefix = directoryStart - directoryOffset;
+        final ByteBuffer directory = read(channel, directoryStart, (int) directoryLength);
+
+        final ZipEntryIndex index = new ZipEntryIndex(count);
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            if (position + CENTRAL_LENGTH > directory.limit() || directory.getInt(position) != CENTRAL_SIGNATURE) {
+                throw new ZipException("Invalid central directory entry");
+            }
+            final int flags = directory.getShort(position + 8) & 0xFFFF;
+            final int method = directory.getShort(position + 10) & 0xFFFF;
+            final long compressedSize = directory.getInt(position + 20) & 0xFFFFFFFFL;
+            final long size = directory.getInt(position + 24) & 0xFFFFFFFFL;
+            final int nameLength = directory.getShort(position + 28) & 0xFFFF;
+            final int extraLength = directory.getShort(position + 30) & 0xFFFF;
+            final int commentLength = directory.getShort(position + 32) & 0xFFFF;
+            final long offset = directory.getInt(position + 42) & 0xFFFFFFFFL;
+            if (position + CENTRAL_LENGTH + nameLength > directory.limit()) {
+                throw new ZipException("Invalid central directory entry");
+            }
+            final String name = new String(directory.array(), position + CENTRAL_LENGTH, nameLength, StandardCharsets.UTF_8);
+            position += CENTRAL_LENGTH + nameLength + extraLength + commentLength;
+
+            if (name.endsWith("/")) {
+                index.addDirectory(name.substring(0, name.length() - 1));
+                continue;
+            }
+            if ((flags & 1) != 0) {
+                throw new ZipException("Encrypted entry " + name);
+            }
+            if (method != STORED && method != DEFLATED) {
+                throw new ZipException("Unsupported compression method " + method + " of entry " + name);
+            }
+            if (compressedSize == 0xFFFFFFFFL || size == 0xFFFFFFFFL || offset == 0xFFFFFFFFL) {
+                throw new ZipException("Zip64 archives are not supported");
+            }
+            if (index.add(name, prefix + offset, compressedSize, size, method)) {
+                index.signed |= isSignatureFile(name);
+            }
+        }
+        return index;
+    }
+
+    private static boolean isSignatureFile(final String name) {
+        if (!name.startsWith("META-INF/") || name.indexOf('/', 9) >= 0) {
+            return false;
+        }
+        final String upper = name.toUpperCase(Locale.ENGLISH);
+        return upper.endsWith(".SF") || upper.endsWith(".RSA") || upper.endsWith(".DSA") || upper.endsWith(".EC");
+    }
+
+    private boolean add(final String name, final long offset, final long compressedSize, final long size, final int method) {
+        final int hash = name.hashCode();
+        final int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        int current;
+        while ((current = table[slot]) != 0) {
+            if (hashes[current - 1] == hash && names[current - 1].equals(name)) {
+                // like java.util.zip.ZipFile, use the first of duplicate entries
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        final int entry = count++;
+        table[slot] = entry + 1;
+        names[entry] = name;
+        hashes[entry] = hash;
+        offsets[entry] = offset;
+        compressedSizes[entry] = compressedSize;
+        sizes[entry] = size;
+        methods[entry] = (byte) method;
+        final int separator = name.lastIndexOf('/');
+        if (separator > 0) {
+            addDirectory(name.substring(0, separator));
+        }
+        return true;
+    }
+
+    private void addDirectory(final String directory) {
+        // archives need not contain entries for the parent directories of their entries
+        String current = directory;
+        while (!current.isEmpty() && directories.add(current)) {
+            final int separator = current.lastIndexOf('/');
+            current = separator < 0 ? "" : current.substring(0, separator);
+        }
+    }
+
+    private static int mix(final int hash) {
+        // names of classes in the same package share long prefixes, spread the bits of the hash code
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Looks up a file entry.
+     *
+     * @param name the name of the entry, relative to the root of the archive and without a leading {@code /}
+     * @return the number of the entry, or {@code -1} if there is no such file entry
+     */
+    int find(final String name) {
+        final int hash = name.hashCode();
+        final int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        int current;
+        while ((current = table[slot]) != 0) {
+            if (hashes[current - 1] == hash && names[current - 1].equals(name)) {
+                return current - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets whether the archive contains a directory, either as an entry or as the parent of an entry.
+     *
+     * @param name the name of the directory, without leading or trailing {@code /}
+     */
+    boolean isDirectory(final String name) {
+        return directories.contains(name);
+    }
+
+    /**
+     * Gets the names of all directories of the archive, including the root directory as the empty string.
+     */
+    Collection<String> getDirectories() {
+        return Collections.unmodifiableSet(directories);
+    }
+
+    /**
+     * Gets whether the archive contains the signature files of a signed jar.
+     */
+    boolean isSigned() {
+        return signed;
+    }
+
+    /**
+     * Gets the number of file entries.
+     */
+    int size() {
+        return count;
+    }
+
+    String getName(final int entry) {
+        return names[entry];
+    }
+
+    long getSize(final int entry) {
+        return sizes[entry];
+    }
+
+    long getCompressedSize(final int entry) {
+        return compressedSizes[entry];
+    }
+
+    int getMethod(final int entry) {
+        return methods[entry];
+    }
+
+    /**
+     * Gets the position of the data of an entry, which follows the local header of the entry.
+     *
+     * @param channel the channel of the archive
+     * @param entry the number of the entry
+     * @return the position of the first byte of the, possibly compressed, data of the entry
+     * @throws IOException if the local header can not be read
+     */
+    long getDataPosition(final FileChannel channel, final int entry) throws IOException {
+        final ByteBuffer header = read(channel, offsets[entry], LOCAL_LENGTH);
+        if (header.getInt(0) != LOCAL_SIGNATURE) {
+            throw new ZipException("Invalid local header of entry " + names[entry]);
+        }
+        // the extra field of the local header may differ from the one in the central directory
+        return offsets[entry] + LOCAL_LENGTH + (header.getShort(26) & 0xFFFF) + (header.getShort(28) & 0xFFFF);
+    }
+
+    private static ByteBuffer read(final FileChannel channel, final long position, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, buffer, position);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Fills a buffer using positional reads, which do not interfere with concurrent reads of other threads.
+     */
+    static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            current += read;
+        }
+    }
+}
@@ -0,0 +1,510 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static java.security.AccessController.doPrivileged;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import org.jboss.as.server.ServerLogger;
+import org.jboss.as.server.ServerMessages;
+import org.jboss.modules.AbstractResourceLoader;
+import org.jboss.modules.ClassSpec;
+import org.jboss.modules.IterableResourceLoader;
+import org.jboss.modules.PackageSpec;
+import org.jboss.modules.PathUtils;
+import org.jboss.modules.Resource;
+import org.jboss.modules.filter.PathFilter;
+import org.jboss.modules.filter.PathFilters;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Resource loader for a zip archive mounted in VFS, which reads the archive directly instead of going through VFS.
+ * The central directory of the archive is read once into a {@link ZipEntryIndex}, and entries are read using
+ * positional reads of a single {@link FileChannel} shared by all threads. The URLs of resources still are VFS URLs of
+ * the mounted archive, so they behave like the URLs of a {@link VFSResourceLoader}.
+ *
+ * <p>The channel is held open until the loader is {@link #close() closed}. As a {@link FileChannel} is closed for all
+ * threads when a thread reading it is interrupted, the channel is reopened whenever it was closed by someone else, and
+ * the reads of an interrupted thread are retried, so interrupts never prevent classes from being loaded.</p>
+ */
+final class ZipFileResourceLoader extends AbstractResourceLoader implements IterableResourceLoader, Closeable {
+
+    /** Set to {@code false} to load all archives using VFS */
+    static final String ENABLED_PROPERTY = "org.jboss.as.server.deployment.zip-resource-loader";
+
+    private final String rootName;
+    private final VirtualFile root;
+    private final File archive;
+    private volatile FileChannel channel;
+    private volatile boolean closed;
+    private final ZipEntryIndex index;
+    private final URL rootUrl;
+    private final Manifest manifest;
+    private final Deque<Inflater> inflaters = new ConcurrentLinkedDeque<>();
+
+    private ZipFileResourceLoader(final String rootName, final VirtualFile root, final File archive, final FileChannel channel,
+                                  final ZipEntryIndex index, final boolean usePhysicalCodeSource) throws IOException {
+        this.rootName = rootName;
+        this.root = root;
+        this.archive = archive;
+        this.channel = channel;
+        this.index = index;
+        this.rootUrl = usePhysicalCodeSource ? VFSUtils.getRootURL(root) : root.asFileURL();
+        final int entry = index.find(JarFile.MANIFEST_NAME);
+        if (entry < 0) {
+            this.manifest = null;
+        } else {
+            final InputStream in = openStream(entry);
+            try {
+                this.manifest = new Manifest(in);
+            } finally {
+                VFSUtils.safeClose(in);
+            }
+        }
+    }
+
+    /**
+     * Creates a loader for an archive, unless the archive has to be loaded using VFS. This is the case for signed jars,
+     * as their signatures are only verified by VFS, and for archives that are not supported by {@link ZipEntryIndex}.
+     *
+     * @param rootName the module root name
+     * @param root the mount point of the archive
+     * @param archive the mounted archive
+     * @param usePhysicalCodeSource {@code true} to use the physical root URL for code sources, {@code false} to use the VFS URL
+     * @return the loader, or {@code null} if the archive has to be loaded using VFS
+     */
+    static ZipFileResourceLoader create(final String rootName, final VirtualFile root, final File archive, final boolean usePhysicalCodeSource) {
+        if (!Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ENABLED_PROPERTY, "true")) || archive == null
+                || !archive.isFile()) {
+            return null;
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(archive.toPath(), StandardOpenOption.READ);
+            final ZipEntryIndex index = ZipEntryIndex.read(channel);
+            if (index.isSigned()) {
+                ServerLogger.DEPLOYMENT_LOGGER.debugf("Loading signed archive %s using VFS", archive);
+            } else {
+                final ZipFileResourceLoader loader = new ZipFileResourceLoader(rootName, root, archive, channel, index, usePhysicalCodeSource);
+                channel = null;
+                return loader;
+            }
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Loading archive %s using VFS", archive);
+        } finally {
+            VFSUtils.safeClose(channel);
+        }
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    public ClassSpec getClassSpec(final String name) throws IOException {
+        final int entry = index.find(name);
+        if (entry < 0) {
+            return null;
+        }
+        if (index.getSize(entry) > Integer.MAX_VALUE) {
+            throw ServerMessages.MESSAGES.resourceTooLarge();
+        }
+        final ClassSpec spec = new ClassSpec();
+        spec.setBytes(readBytes(entry));
+        spec.setCodeSource(new CodeSource(rootUrl, (CodeSigner[]) null));
+        return spec;
+    }
+
+    /** {@inheritDoc} */
+    public PackageSpec getPackageSpec(final String name) throws IOException {
+        return getPackageSpec(name, manifest, rootUrl);
+    }
+
+    /** {@inheritDoc} */
+    public String getLibrary(final String name) {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    public String getRootName() {
+        return rootName;
+    }
+
+    /** {@inheritDoc} */
+    public PathFilter getExportFilter() {
+        return PathFilters.acceptAll();
+    }
+
+    /** {@inheritDoc} */
+    public Resource getResource(final String name) {
+        final String path = normalize(name);
+        final int entry = index.find(path);
+        if (entry >= 0) {
+            return new ZipEntryResource(entry);
+        }
+        if (!index.isDirectory(path)) {
+            return null;
+        }
+        // directories are rarely requested, leave them to VFS
+        return doPrivileged(new PrivilegedAction<Resource>() {
+            public Resource run() {
+                final VirtualFile file = root.getChild(path);
+                try {
+                    return new VFSResourceLoader.VFSEntryResource(path, file, file.toURL());
+                } catch (MalformedURLException e) {
+                    return null;
+                }
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    public Collection<String> getPaths() {
+        return new ArrayList<String>(index.getDirectories());
+    }
+
+    @Override
+    public Iterator<Resource> iterateResources(final String startPath, final boolean recursive) {
+        final String path = normalize(startPath);
+        if (!index.isDirectory(path)) {
+            return Collections.<Resource>emptySet().iterator();
+        }
+        final String prefix = path.isEmpty() ? path : path + '/';
+        return new Iterator<Resource>() {
+            private int entry = -1;
+            private int next = advance();
+
+            private int advance() {
+                while (++entry < index.size()) {
+                    final String name = index.getName(entry);
+                    if (name.startsWith(prefix) && (recursive || name.indexOf('/', prefix.length()) < 0)) {
+                        return entry;
+                    }
+                }
+                return -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Resource next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                final Resource resource = new ZipEntryResource(next);
+                next = advance();
+                return resource;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Closes the archive. Classes and resources can not be loaded after the loader is closed.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            VFSUtils.safeClose(channel);
+        }
+        Inflater inflater;
+        while ((inflater = inflaters.poll()) != null) {
+            inflater.end();
+        }
+    }
+
+    private static String normalize(final String name) {
+        String path = PathUtils.relativize(PathUtils.canonicalize(name));
+        while (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+
+    /**
+     * Performs a read of the archive. If the channel was closed by an interrupt, which may have happened in any thread,
+     * it is reopened and the read is retried. The interrupt status of the calling thread is cleared while retrying, and
+     * restored afterwards.
+     */
+    private <T> T read(final ChannelRead<T> read) throws IOException {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                final FileChannel channel = this.channel;
+                try {
+                    return read.read(channel);
+                } catch (ClosedChannelException e) {
+                    if (closed) {
+                        throw e;
+                    }
+                    interrupted |= Thread.interrupted();
+                    reopen(channel);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized void reopen(final FileChannel failed) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (channel == failed) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Reopening archive %s", archive);
+            channel = FileChannel.open(archive.toPath(), StandardOpenOption.READ);
+        }
+    }
+
+    private long getDataPosition(final int entry) throws IOException {
+        return read(new ChannelRead<Long>() {
+            Long read(final FileChannel channel) throws IOException {
+                return index.getDataPosition(channel, entry);
+            }
+        });
+    }
+
+    private void readFully(final byte[] bytes, final int length, final long position) throws IOException {
+        read(new ChannelRead<Void>() {
+            Void read(final FileChannel channel) throws IOException {
+                // a retry starts over, as the failed attempt may have filled part of the buffer
+                ZipEntryIndex.readFully(channel, ByteBuffer.wrap(bytes, 0, length), position);
+                return null;
+            }
+        });
+    }
+
+    private byte[] readBytes(final int entry) throws IOException {
+        final long position = getDataPosition(entry);
+        final byte[] bytes = new byte[(int) index.getSize(entry)];
+        if (index.getMethod(entry) == ZipEntryIndex.STORED) {
+            readFully(bytes, bytes.length, position);
+            return bytes;
+        }
+        final long compressedSize = index.getCompressedSize(entry);
+        if (compressedSize > Integer.MAX_VALUE) {
+            throw ServerMessages.MESSAGES.resourceTooLarge();
+        }
+        final byte[] compressed = new byte[(int) compressedSize + 1];
+        // nowrap inflaters may need a dummy byte following the compressed data
+        readFully(compressed, compressed.length - 1, position);
+        final Inflater inflater = acquireInflater();
+        try {
+            inflater.setInput(compressed);
+            int inflated = 0;
+            while (inflated < bytes.length) {
+                final int n = inflater.inflate(bytes, inflated, bytes.length - inflated);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new EOFException(index.getName(entry));
+                }
+                inflated += n;
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        } finally {
+            releaseInflater(inflater);
+        }
+    }
+
+    private InputStream openStream(final int entry) throws IOException {
+        final long position = getDataPosition(entry);
+        if (index.getMethod(entry) == ZipEntryIndex.STORED) {
+            return new ChannelInputStream(position, index.getSize(entry));
+        }
+        final Inflater inflater = acquireInflater();
+        return new InflaterInputStream(new ChannelInputStream(position, index.getCompressedSize(entry)), inflater) {
+            private boolean eof;
+            private boolean closed;
+
+            @Override
+            protected void fill() throws IOException {
+                if (eof) {
+                    throw new EOFException();
+                }
+                len = in.read(buf, 0, buf.length);
+                if (len == -1) {
+                    // nowrap inflaters may need a dummy byte following the compressed data
+                    buf[0] = 0;
+                    len = 1;
+                    eof = true;
+                }
+                inf.setInput(buf, 0, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    releaseInflater(inf);
+                    super.close();
+                }
+            }
+        };
+    }
+
+    private Inflater acquireInflater() {
+        final Inflater inflater = inflaters.poll();
+        return inflater == null ? new Inflater(true) : inflater;
+    }
+
+    private void releaseInflater(final Inflater inflater) {
+        if (!closed) {
+            inflater.reset();
+            inflaters.push(inflater);
+        } else {
+            inflater.end();
+        }
+    }
+
+    /**
+     * A read of the archive, which can be retried using a reopened channel.
+     */
+    private abstract static class ChannelRead<T> {
+        abstract T read(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * Reads a range of the archive using positional reads.
+     */
+    private final class ChannelInputStream extends InputStream {
+        private long position;
+        private long remaining;
+
+        ChannelInputStream(final long position, final long length) {
+            this.position = position;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) == 1 ? b[0] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int length = (int) Math.min(len, remaining);
+            final int n = ZipFileResourceLoader.this.read(new ChannelRead<Integer>() {
+                Integer read(final FileChannel channel) throws IOException {
+                    return channel.read(ByteBuffer.wrap(b, off, length), position);
+                }
+            });
+            if (n < 0) {
+                throw new EOFException();
+            }
+            position += n;
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final long skipped = Math.max(0, Math.min(n, remaining));
+            position += skipped;
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+    }
+
+    private final class ZipEntryResource implements Resource {
+        private final int entry;
+        private volatile URL url;
+
+        ZipEntryResource(final int entry) {
+            this.entry = entry;
+        }
+
+        public String getName() {
+            return index.getName(entry);
+        }
+
+        public URL getURL() {
+            URL url = this.url;
+            if (url == null) {
+                url = doPrivileged(new PrivilegedAction<URL>() {
+                    public URL run() {
+                        try {
+                            return root.getChild(getName()).toURL();
+                        } catch (MalformedURLException e) {
+                            return null;
+                        }
+                    }
+                });
+                this.url = url;
+            }
+            return url;
+        }
+
+        public InputStream openStream() throws IOException {
+            return ZipFileResourceLoader.this.openStream(entry);
+        }
+
+        public long getSize() {
+            return index.getSize(entry);
+        }
+    }
+}
@@ -22,6 +22,9 @@
 
 package org.jboss.as.server.deployment.reflect;
 
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -37,7 +40,13 @@ public final class CleanupReflectionIndexProcessor implements DeploymentUnitProc
 
     /** {@inheritDoc} */
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
-        phaseContext.getDeploymentUnit().removeAttachment(Attachments.REFLECTION_INDEX);
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
+        final DeploymentReflectionIndex index = deploymentUnit.removeAttachment(Attachments.REFLECTION_INDEX);
+        if (index != null && deploymentUnit.getParent() == null) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Reflection index of %s: %d classes indexed in %d ms, %d JDK and static module classes indexed in %d ms",
+                    deploymentUnit.getName(), index.getClassCount(), TimeUnit.NANOSECONDS.toMillis(index.getBuildTime()),
+                    DeploymentReflectionIndex.getSharedClassCount(), TimeUnit.NANOSECONDS.toMillis(DeploymentReflectionIndex.getSharedBuildTime()));
+        }
         phaseContext.getDeploymentUnit().removeAttachment(Attachments.PROXY_REFLECTION_INDEX);
         DeploymentClassIndex classIndex = phaseContext.getDeploymentUnit().removeAttachment(Attachments.CLASS_INDEX);
         if (classIndex != null)
@@ -23,18 +23,40 @@
 package org.jboss.as.server.deployment.reflect;
 
 import java.security.Permission;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.server.ServerMessages;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleClassLoader;
 
 /**
  * A reflection index for a deployment.
+ * <p/>
+ * Classes of the JDK and of static modules are never unloaded together with a deployment, so their indexes are shared
+ * by all deployments. The indexes of all other classes belong to the deployment index which created them. A class
+ * index only looks up the fields, methods or constructors of its class when they are first requested.
+ * <p/>
+ * The number of classes indexed and the time spent looking up their members are only diagnostics, which
+ * {@link CleanupReflectionIndexProcessor} logs at debug level; they are not exposed through the management model.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+    private static final DeploymentReflectionIndex SHARED_INDEX = new DeploymentReflectionIndex();
+    private static final ClassValue<ClassReflectionIndex<?>> SHARED_CLASSES = new ClassValue<ClassReflectionIndex<?>>() {
+        @Override
+        protected ClassReflectionIndex<?> computeValue(final Class<?> type) {
+            SHARED_INDEX.classCount.incrementAndGet();
+            return newClassIndex(type, SHARED_INDEX);
+        }
+    };
+
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
+    private final AtomicInteger classCount = new AtomicInteger();
+    private final AtomicLong buildTime = new AtomicLong();
 
     DeploymentReflectionIndex() {
     }
@@ -61,15 +83,79 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
+    public <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
         try {
+            if (isShared(clazz)) {
+                return (ClassReflectionIndex<T>) SHARED_CLASSES.get(clazz);
+            }
             ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
             if (index == null) {
-                classes.put(clazz, index = new ClassReflectionIndex<T>(clazz, this));
+                index = new ClassReflectionIndex<T>(clazz, this);
+                final ClassReflectionIndex<T> existing = (ClassReflectionIndex<T>) classes.putIfAbsent(clazz, index);
+                if (existing != null) {
+                    return existing;
+                }
+                classCount.incrementAndGet();
             }
             return index;
         } catch (Throwable e) {
             throw ServerMessages.MESSAGES.errorGettingReflectiveInformation(clazz, clazz.getClassLoader(), e);
         }
     }
+
+    /**
+     * Get the number of classes indexed by this deployment index, not counting the classes of the shared index.
+     *
+     * @return the number of classes
+     */
+    public int getClassCount() {
+        return classCount.get();
+    }
+
+    /**
+     * Get the time spent looking up the members of the classes indexed by this deployment index.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getBuildTime() {
+        return buildTime.get();
+    }
+
+    /**
+     * Get the number of JDK and static module classes indexed for all deployments.
+     *
+     * @return the number of classes
+     */
+    public static int getSharedClassCount() {
+        return SHARED_INDEX.getClassCount();
+    }
+
+    /**
+     * Get the time spent looking up the members of the JDK and static module classes indexed for all deployments.
+     *
+     * @return the time in nanoseconds
+     */
+    public static long getSharedBuildTime() {
+        return SHARED_INDEX.getBuildTime();
+    }
+
+    void addBuildTime(final long nanos) {
+        buildTime.addAndGet(nanos);
+    }
+
+    private static <T> ClassReflectionIndex<T> newClassIndex(final Class<T> clazz, final DeploymentReflectionIndex index) {
+        return new ClassReflectionIndex<T>(clazz, index);
+    }
+
+    private static boolean isShared(final Class<?> clazz) {
+        final ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null) {
+            return true;
+        }
+        if (classLoader instanceof ModuleClassLoader) {
+            // deployment modules are loaded by their own module loader
+            return ((ModuleClassLoader) classLoader).getModule().getModuleLoader() == Module.getBootModuleLoader();
+        }
+        return false;
+    }
 }
@@ -92,6 +92,11 @@ public class RemoteFileRepositoryService implements CompositeContentRepository,
         return contentRepository.addContent(stream);
     }
 
+    @Override
+    public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+        return contentRepository.addContent(stream, expectedHash);
+    }
+
     @Override
     public VirtualFile getContent(byte[] hash) {
         return contentRepository.getContent(hash);
@@ -37,6 +37,8 @@ import org.jboss.vfs.VirtualFile;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 /**
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
@@ -104,6 +106,33 @@ public class DeploymentAddHandlerTestCase {
         }
     }
 
+    @Test
+    public void testKnownHashIsNotUploaded() throws Exception {
+        final byte[] hash = new byte[20];
+        final ContentRepository repository = Mockito.mock(ContentRepository.class);
+        Mockito.when(repository.hasContent(hash)).thenReturn(true);
+        final DeploymentAddHandler handler = DeploymentAddHandler.create(repository, null);
+        final OperationContext context = Mockito.mock(OperationContext.class);
+        Mockito.when(context.createResource(PathAddress.EMPTY_ADDRESS)).thenReturn(Resource.Factory.create());
+        Mockito.when(context.getAttachmentStreamCount()).thenReturn(1);
+        Mockito.when(context.resolveExpressions(Mockito.any(ModelNode.class))).thenAnswer(new Answer<ModelNode>() {
+            @Override
+            public ModelNode answer(InvocationOnMock invocation) {
+                return (ModelNode) invocation.getArguments()[0];
+            }
+        });
+        final ModelNode operation = new ModelNode();
+        operation.get("address").get(0).set("deployment", "test.war");
+        operation.get("content").get(0).get("hash").set(hash);
+        operation.get("content").get(0).get("input-stream-index").set(0);
+        operation.get("enabled").set(false);
+        handler.execute(context, operation);
+        // the attached stream is neither read nor even requested
+        Mockito.verify(context, Mockito.never()).getAttachmentStream(Mockito.anyInt());
+        Mockito.verify(repository, Mockito.never()).addContent(Mockito.any(InputStream.class), Mockito.any(byte[].class));
+        Mockito.verify(context).completeStep(Mockito.any(OperationContext.ResultHandler.class));
+    }
+
     private ContentRepository contentRepository = new ContentRepository() {
 
         @Override
@@ -130,6 +159,11 @@ public class DeploymentAddHandlerTestCase {
             return null;
         }
 
+        @Override
+        public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+            return null;
+        }
+
         @Override
         public void addContentReference(byte[] hash, Object reference) {
         }
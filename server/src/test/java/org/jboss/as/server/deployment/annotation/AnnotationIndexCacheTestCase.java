@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private static final String HASH = "0123456789abcdef0123456789abcdef01234567";
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = File.createTempFile("annotation-index", null);
+        directory.delete();
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testStoreAndLoad() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory);
+        assertNull(cache.get(HASH));
+
+        cache.put(HASH, createIndex());
+        final Index index = new AnnotationIndexCache(directory).get(HASH);
+        assertNotNull(index);
+        assertNotNull(index.getClassByName(DotName.createSimple(AnnotationIndexCacheTestCase.class.getName())));
+        assertEquals(2, index.getAnnotations(DotName.createSimple(Test.class.getName())).size());
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void testCorruptIndexIsDiscarded() throws Exception {
+        directory.mkdirs();
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory);
+        final File file = cache.getFile(HASH);
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[] {1, 2, 3});
+        } finally {
+            out.close();
+        }
+        assertNull(cache.get(HASH));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testIndexOfOtherJandexVersionIsIgnored() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory);
+        cache.put(HASH, createIndex());
+        final File other = new File(directory, HASH + "-0.1.Final.idx");
+        assertTrue(cache.getFile(HASH).renameTo(other));
+        assertNull(cache.get(HASH));
+        assertTrue(other.exists());
+    }
+
+    private static Index createIndex() throws Exception {
+        final Indexer indexer = new Indexer();
+        final InputStream in = AnnotationIndexCacheTestCase.class.getResourceAsStream(AnnotationIndexCacheTestCase.class.getSimpleName() + ".class");
+        try {
+            indexer.index(in);
+        } finally {
+            in.close();
+        }
+        return indexer.complete();
+    }
+}
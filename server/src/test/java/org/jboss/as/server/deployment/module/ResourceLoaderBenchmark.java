@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.jboss.modules.ClassSpec;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput of loading classes from a mounted archive using a {@link VFSResourceLoader} and a
+ * {@link ZipFileResourceLoader}, as well as the cost of creating the loader and listing its paths, which is what a
+ * module does once when it is loaded.
+ *
+ * <p>Not a test, run it using {@link #main(String[])} from the test class path.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class ResourceLoaderBenchmark {
+
+    /** The number of classes in the archive. */
+    @Param({"1000", "10000"})
+    public int classes;
+
+    private File archive;
+    private TempFileProvider tempFileProvider;
+    private VirtualFile mountPoint;
+    private Closeable mountHandle;
+    private String[] names;
+    private VFSResourceLoader vfsLoader;
+    private ZipFileResourceLoader zipLoader;
+
+    @Setup
+    public void setUp() throws IOException {
+        archive = File.createTempFile("resource-loader-benchmark", ".jar");
+        names = new String[classes];
+        final Random random = new Random(classes);
+        final byte[] bytes = new byte[2048];
+        final JarOutputStream out = new JarOutputStream(new FileOutputStream(archive));
+        try {
+            for (int i = 0; i < classes; i++) {
+                names[i] = "org/jboss/benchmark/package" + (i % 50) + "/Class" + i + ".class";
+                out.putNextEntry(new ZipEntry(names[i]));
+                // partially compressible, like class files
+                for (int j = 0; j < bytes.length; j++) {
+                    bytes[j] = (byte) (j % 3 == 0 ? random.nextInt() : j);
+                }
+                out.write(bytes);
+            }
+        } finally {
+            out.close();
+        }
+        tempFileProvider = TempFileProvider.create("resource-loader-benchmark", Executors.newSingleThreadScheduledExecutor(), true);
+        mountPoint = VFS.getChild("/benchmark/" + archive.getName());
+        mountHandle = VFS.mountZip(archive, mountPoint, tempFileProvider);
+        vfsLoader = new VFSResourceLoader(archive.getName(), mountPoint);
+        zipLoader = ZipFileResourceLoader.create(archive.getName(), mountPoint, archive, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        zipLoader.close();
+        VFSUtils.safeClose(mountHandle);
+        VFSUtils.safeClose(tempFileProvider);
+        archive.delete();
+    }
+
+    /**
+     * The index of the next class to load of each thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String next(final String[] names) {
+            final String name = names[next];
+            next = (next + 1) % names.length;
+            return name;
+        }
+    }
+
+    @Benchmark
+    public ClassSpec vfsLoadClass(final Cursor cursor) throws IOException {
+        return vfsLoader.getClassSpec(cursor.next(names));
+    }
+
+    @Benchmark
+    public ClassSpec zipLoadClass(final Cursor cursor) throws IOException {
+        return zipLoader.getClassSpec(cursor.next(names));
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Collection<String> vfsCreateAndListPaths() throws IOException {
+        return new VFSResourceLoader(archive.getName(), mountPoint).getPaths();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Collection<String> zipCreateAndListPaths() {
+        final ZipFileResourceLoader loader = ZipFileResourceLoader.create(archive.getName(), mountPoint, archive, false);
+        try {
+            return loader.getPaths();
+        } finally {
+            loader.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ResourceLoaderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.jboss.modules.Resource;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ZipFileResourceLoader}.
+ */
+public class ZipFileResourceLoaderTestCase {
+
+    private static final byte[] STORED = "stored content".getBytes();
+    private static final byte[] DEFLATED = new byte[10000];
+
+    static {
+        for (int i = 0; i < DEFLATED.length; i++) {
+            DEFLATED[i] = (byte) (i % 7);
+        }
+    }
+
+    private File archive;
+    private ZipFileResourceLoader loader;
+
+    @Before
+    public void setUp() throws Exception {
+        archive = File.createTempFile("zip-resource-loader", ".jar");
+        writeArchive(archive, false);
+        loader = create(archive);
+        assertNotNull(loader);
+    }
+
+    @After
+    public void tearDown() {
+        if (loader != null) {
+            loader.close();
+        }
+        archive.delete();
+    }
+
+    @Test
+    public void testClassSpec() throws Exception {
+        assertArrayEquals(STORED, loader.getClassSpec("org/test/Stored.class").getBytes());
+        assertArrayEquals(DEFLATED, loader.getClassSpec("org/test/Deflated.class").getBytes());
+        assertNull(loader.getClassSpec("org/test/Missing.class"));
+    }
+
+    @Test
+    public void testResource() throws Exception {
+        final Resource resource = loader.getResource("/org/test/Deflated.class");
+        assertNotNull(resource);
+        assertEquals("org/test/Deflated.class", resource.getName());
+        assertEquals(DEFLATED.length, resource.getSize());
+        assertNotNull(resource.getURL());
+        assertArrayEquals(DEFLATED, read(resource.openStream()));
+        assertArrayEquals(STORED, read(loader.getResource("org/test/Stored.class").openStream()));
+        assertNull(loader.getResource("org/test/Missing.class"));
+        assertNotNull(loader.getResource("org/test/"));
+    }
+
+    @Test
+    public void testPaths() {
+        final Collection<String> paths = loader.getPaths();
+        assertTrue(paths.contains(""));
+        assertTrue(paths.contains("org"));
+        assertTrue(paths.contains("org/test"));
+        assertTrue(paths.contains("META-INF"));
+        assertFalse(paths.contains("org/test/Stored.class"));
+    }
+
+    @Test
+    public void testIterateResources() {
+        assertEquals(3, count(loader.iterateResources("", true)));
+        assertEquals(0, count(loader.iterateResources("org", false)));
+        assertEquals(2, count(loader.iterateResources("org", true)));
+        assertEquals(2, count(loader.iterateResources("org/test/", false)));
+        assertEquals(0, count(loader.iterateResources("missing", true)));
+    }
+
+    @Test
+    public void testInterruptedRead() throws Exception {
+        final Resource resource = loader.getResource("org/test/Deflated.class");
+        final InputStream in = resource.openStream();
+        // a read of an interrupted thread closes a FileChannel for all threads
+        final Thread thread = new Thread() {
+            public void run() {
+                interrupt();
+                try {
+                    assertArrayEquals(STORED, loader.getClassSpec("org/test/Stored.class").getBytes());
+                    assertArrayEquals(DEFLATED, loader.getClassSpec("org/test/Deflated.class").getBytes());
+                    assertTrue(isInterrupted());
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        final Throwable[] failure = new Throwable[1];
+        thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            public void uncaughtException(final Thread t, final Throwable e) {
+                failure[0] = e;
+            }
+        });
+        thread.start();
+        thread.join();
+        assertNull(failure[0]);
+        // streams opened before the interrupt and other threads still can read the archive
+        assertArrayEquals(DEFLATED, read(in));
+        assertArrayEquals(STORED, loader.getClassSpec("org/test/Stored.class").getBytes());
+    }
+
+    @Test(expected = IOException.class)
+    public void testClosed() throws Exception {
+        loader.close();
+        loader.getClassSpec("org/test/Stored.class");
+    }
+
+    @Test
+    public void testSignedArchiveIsNotSupported() throws Exception {
+        final File signed = File.createTempFile("zip-resource-loader", ".jar");
+        try {
+            writeArchive(signed, true);
+            assertNull(create(signed));
+        } finally {
+            signed.delete();
+        }
+    }
+
+    @Test
+    public void testInvalidArchiveIsNotSupported() throws Exception {
+        final File invalid = File.createTempFile("zip-resource-loader", ".jar");
+        try {
+            final FileOutputStream out = new FileOutputStream(invalid);
+            try {
+                out.write(STORED);
+            } finally {
+                out.close();
+            }
+            assertNull(create(invalid));
+        } finally {
+            invalid.delete();
+        }
+    }
+
+    private static ZipFileResourceLoader create(final File archive) {
+        final VirtualFile root = VFS.getChild(archive.getAbsolutePath());
+        return ZipFileResourceLoader.create(archive.getName(), root, archive, false);
+    }
+
+    static void writeArchive(final File file, final boolean signed) throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        final JarOutputStream out = new JarOutputStream(new FileOutputStream(file), manifest);
+        try {
+            final ZipEntry stored = new ZipEntry("org/test/Stored.class");
+            final CRC32 crc = new CRC32();
+            crc.update(STORED);
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(STORED.length);
+            stored.setCrc(crc.getValue());
+            out.putNextEntry(stored);
+            out.write(STORED);
+            out.putNextEntry(new ZipEntry("org/test/Deflated.class"));
+            out.write(DEFLATED);
+            if (signed) {
+                out.putNextEntry(new ZipEntry("META-INF/TEST.SF"));
+                out.write(STORED);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private static byte[] read(final InputStream in) throws IOException {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[100];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static int count(final Iterator<Resource> resources) {
+        int count = 0;
+        while (resources.hasNext()) {
+            resources.next();
+            count++;
+        }
+        return count;
+    }
+}
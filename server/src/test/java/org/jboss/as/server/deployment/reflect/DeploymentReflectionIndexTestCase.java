@@ -0,0 +1,214 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link DeploymentReflectionIndex}.
+ */
+public class DeploymentReflectionIndexTestCase {
+
+    @Test
+    public void testJdkClassesAreShared() {
+        final ClassReflectionIndex<String> index = DeploymentReflectionIndex.create().getClassIndex(String.class);
+        assertSame(index, DeploymentReflectionIndex.create().getClassIndex(String.class));
+        assertNotNull(index.getMethod(int.class, "length"));
+        assertTrue(DeploymentReflectionIndex.getSharedClassCount() > 0);
+    }
+
+    @Test
+    public void testDeploymentClassesAreNotShared() {
+        final DeploymentReflectionIndex first = DeploymentReflectionIndex.create();
+        final DeploymentReflectionIndex second = DeploymentReflectionIndex.create();
+        final ClassReflectionIndex<Indexed> index = first.getClassIndex(Indexed.class);
+        assertSame(index, first.getClassIndex(Indexed.class));
+        assertNotSame(index, second.getClassIndex(Indexed.class));
+        assertEquals(1, first.getClassCount());
+        assertEquals(0, first.getBuildTime());
+    }
+
+    @Test
+    public void testLookups() throws Exception {
+        final DeploymentReflectionIndex deploymentIndex = DeploymentReflectionIndex.create();
+        final ClassReflectionIndex<Indexed> index = deploymentIndex.getClassIndex(Indexed.class);
+        assertNotNull(index.getField("value"));
+        assertNull(index.getField("missing"));
+        assertEquals(1, index.getFields().size());
+        final Method method = index.getMethod(String.class, "get", int.class);
+        assertNotNull(method);
+        assertSame(method, index.getMethod(String.class.getName(), "get", int.class.getName()));
+        assertSame(method, index.getMethod(Indexed.class.getDeclaredMethod("get", int.class)));
+        assertEquals(2, index.getAllMethods("get").size());
+        assertEquals(1, index.getAllMethods("get", 0).size());
+        assertNotNull(index.getConstructor(String.class));
+        assertSame(index.getConstructor(String.class), index.getConstructor(String.class.getName()));
+        assertEquals(2, index.getConstructors().size());
+        assertTrue(deploymentIndex.getBuildTime() > 0);
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        final DeploymentReflectionIndex deploymentIndex = DeploymentReflectionIndex.create();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Method>> results = new ArrayList<Future<Method>>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(new Callable<Method>() {
+                    @Override
+                    public Method call() {
+                        return deploymentIndex.getClassIndex(Indexed.class).getMethod(String.class, "get");
+                    }
+                }));
+            }
+            final Method method = results.get(0).get();
+            assertNotNull(method);
+            for (Future<Method> result : results) {
+                assertSame(method, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, deploymentIndex.getClassCount());
+    }
+
+    @Test
+    public void testSharedIndexCountsSeparately() {
+        final DeploymentReflectionIndex deploymentIndex = DeploymentReflectionIndex.create();
+        final int sharedClassCount = DeploymentReflectionIndex.getSharedClassCount();
+        final long sharedBuildTime = DeploymentReflectionIndex.getSharedBuildTime();
+        // a JDK class no other test indexes
+        final ClassReflectionIndex<Adler32> index = deploymentIndex.getClassIndex(Adler32.class);
+        assertSame(index, deploymentIndex.getClassIndex(Adler32.class));
+        assertEquals(sharedClassCount + 1, DeploymentReflectionIndex.getSharedClassCount());
+        assertNotNull(index.getMethod(long.class, "getValue"));
+        assertTrue(DeploymentReflectionIndex.getSharedBuildTime() > sharedBuildTime);
+        assertEquals(0, deploymentIndex.getClassCount());
+        assertEquals(0, deploymentIndex.getBuildTime());
+    }
+
+    @Test
+    public void testMembersAreIndexedLazily() throws Exception {
+        final DeploymentReflectionIndex deploymentIndex = DeploymentReflectionIndex.create();
+        final ClassReflectionIndex<Indexed> index = deploymentIndex.getClassIndex(Indexed.class);
+        assertBuilt(index, false, false, false);
+
+        final Field field = index.getField("value");
+        assertBuilt(index, true, false, false);
+        final long buildTime = deploymentIndex.getBuildTime();
+        assertSame(field, index.getField("value"));
+        assertEquals(buildTime, deploymentIndex.getBuildTime());
+
+        final Method method = index.getMethod(String.class, "get");
+        assertBuilt(index, true, true, false);
+        assertSame(method, index.getMethod(String.class, "get"));
+
+        final Constructor<Indexed> constructor = index.getConstructor(String.class);
+        assertBuilt(index, true, true, true);
+        assertSame(constructor, index.getConstructor(String.class));
+    }
+
+    @Test
+    public void testConcurrentMemberLookups() throws Exception {
+        final ClassReflectionIndex<Indexed> index = DeploymentReflectionIndex.create().getClassIndex(Indexed.class);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            final List<Future<Object[]>> results = new ArrayList<Future<Object[]>>();
+            for (int i = 0; i < 18; i++) {
+                results.add(executor.submit(new Callable<Object[]>() {
+                    @Override
+                    public Object[] call() throws Exception {
+                        start.await();
+                        return new Object[] {index.getField("value"), index.getMethod(String.class, "get"), index.getConstructor(String.class)};
+                    }
+                }));
+            }
+            start.countDown();
+            final Object[] members = results.get(0).get();
+            for (Object member : members) {
+                assertNotNull(member);
+            }
+            // every kind of member is looked up once, so all threads see the same instances
+            for (Future<Object[]> result : results) {
+                final Object[] other = result.get();
+                for (int i = 0; i < members.length; i++) {
+                    assertSame(members[i], other[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void assertBuilt(final ClassReflectionIndex<?> index, final boolean fields, final boolean methods, final boolean constructors) throws Exception {
+        assertEquals(fields, isBuilt(index, "fields"));
+        assertEquals(methods, isBuilt(index, "methods"));
+        assertEquals(constructors, isBuilt(index, "constructors"));
+    }
+
+    private static boolean isBuilt(final ClassReflectionIndex<?> index, final String name) throws Exception {
+        final Field field = ClassReflectionIndex.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(index) != null;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Indexed {
+        private String value;
+
+        Indexed() {
+        }
+
+        Indexed(final String value) {
+            this.value = value;
+        }
+
+        String get() {
+            return value;
+        }
+
+        String get(final int index) {
+            return value.substring(index);
+        }
+    }
+}
@@ -967,6 +967,11 @@ public class ParseAndMarshalModelsTestCase {
             return null;
         }
 
+        @Override
+        public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+            return null;
+        }
+
         @Override
         public VirtualFile getContent(byte[] hash) {
             return null;
@@ -0,0 +1,198 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.ResponseCodeHandler;
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import io.undertow.server.handlers.resource.CachingResourceManager;
+import io.undertow.server.handlers.resource.FileResourceManager;
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.server.handlers.resource.ResourceHandler;
+import io.undertow.server.handlers.resource.ResourceManager;
+import org.wildfly.extension.undertow.UndertowLogger;
+
+/**
+ * Serves the files of a directory, keeping the content of small files in a {@link DirectBufferCache}. Files too large
+ * to be cached are sent using {@code sendfile}. Cached files are invalidated when they change on disk, and their
+ * metadata is revalidated at least every {@value #MAX_AGE} ms in case change notifications are not available.
+ */
+class CachedFileHandler implements HttpHandler {
+
+    /** The number of buffers allocated at once when the cache grows */
+    private static final int BUFFERS_PER_REGION = 16;
+    /** The largest file that is cached, larger files are sent using sendfile */
+    private static final int MAX_CACHED_FILE_SIZE = 1024 * 1024;
+    private static final int MAX_AGE = 2000;
+    /** Answers the requests received while the handler is not started */
+    private static final HttpHandler UNAVAILABLE = new ResponseCodeHandler(503);
+
+    private final File base;
+    private final int bufferSize;
+    private final int buffers;
+    private final boolean directoryListing;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong removals = new AtomicLong();
+    private volatile FileResourceManager fileResourceManager;
+    private volatile ResourceManager resourceManager;
+    private volatile ResourceHandler resourceHandler;
+
+    /**
+     * Creates a new handler, which must be {@link #start() started} before it can serve requests. Until then, and once
+     * {@link #stop() stopped}, requests are answered with {@code 503 Service Unavailable}.
+     *
+     * @param base the directory to serve
+     * @param bufferSize the size of the buffers of the cache
+     * @param buffers the number of buffers of the cache, {@code 0} disables caching
+     * @param directoryListing whether directory listings are enabled
+     */
+    CachedFileHandler(final File base, final int bufferSize, final int buffers, final boolean directoryListing) {
+        this.base = base;
+        this.bufferSize = bufferSize;
+        this.buffers = buffers;
+        this.directoryListing = directoryListing;
+    }
+
+    /**
+     * Creates the cache and starts watching the directory for changes.
+     */
+    void start() {
+        final long capacity = (long) bufferSize * buffers;
+        if (capacity > 0) {
+            // a cached file should not be able to evict all others
+            final int maxFileSize = (int) Math.min(capacity / 4, MAX_CACHED_FILE_SIZE);
+            fileResourceManager = new FileResourceManager(base, maxFileSize);
+            final DirectBufferCache cache = new MeteredBufferCache(bufferSize, Math.min(buffers, BUFFERS_PER_REGION), (int) Math.min(capacity, Integer.MAX_VALUE));
+            final CachingResourceManager cachingResourceManager = new CachingResourceManager(buffers, maxFileSize, cache, fileResourceManager, MAX_AGE);
+            if (fileResourceManager.isResourceChangeListenerSupported()) {
+                fileResourceManager.registerResourceChangeListener(new ResourceChangeListener() {
+                    @Override
+                    public void handleChanges(Collection<ResourceChangeEvent> changes) {
+                        for (ResourceChangeEvent change : changes) {
+                            cachingResourceManager.invalidate(change.getResource());
+                        }
+                    }
+                });
+            }
+            resourceManager = cachingResourceManager;
+        } else {
+            fileResourceManager = new FileResourceManager(base, MAX_CACHED_FILE_SIZE);
+            resourceManager = fileResourceManager;
+        }
+        final ResourceHandler resourceHandler = new ResourceHandler();
+        resourceHandler.setResourceManager(resourceManager);
+        resourceHandler.setDirectoryListingEnabled(directoryListing);
+        this.resourceHandler = resourceHandler;
+    }
+
+    /**
+     * Releases the cache and stops watching the directory.
+     */
+    void stop() {
+        resourceHandler = null;
+        close(resourceManager);
+        if (resourceManager != fileResourceManager) {
+            close(fileResourceManager);
+        }
+        resourceManager = null;
+        fileResourceManager = null;
+    }
+
+    @Override
+    public void handleRequest(final HttpServerExchange exchange) throws Exception {
+        final HttpHandler resourceHandler = this.resourceHandler;
+        if (resourceHandler == null) {
+            UNAVAILABLE.handleRequest(exchange);
+        } else {
+            resourceHandler.handleRequest(exchange);
+        }
+    }
+
+    /**
+     * Gets the number of requests for which the content was found in the cache.
+     */
+    long getCacheHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of requests for which the content was not found in the cache.
+     */
+    long getCacheMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of entries that were removed from the cache, because the file changed or to make room for
+     * other files.
+     */
+    long getCacheRemovals() {
+        return removals.get();
+    }
+
+    private static void close(final ResourceManager resourceManager) {
+        if (resourceManager == null) {
+            return;
+        }
+        try {
+            resourceManager.close();
+        } catch (IOException e) {
+            UndertowLogger.ROOT_LOGGER.debugf(e, "Failed to close resource manager %s", resourceManager);
+        }
+    }
+
+    /**
+     * Counts the cache lookups and removals of the resource manager.
+     */
+    private final class MeteredBufferCache extends DirectBufferCache {
+
+        MeteredBufferCache(final int sliceSize, final int slicesPerPage, final int maxMemory) {
+            super(sliceSize, slicesPerPage, maxMemory);
+        }
+
+        @Override
+        public CacheEntry get(final Object key) {
+            final CacheEntry entry = super.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+            } else {
+                hits.incrementAndGet();
+            }
+            return entry;
+        }
+
+        @Override
+        public void remove(final Object key) {
+            removals.incrementAndGet();
+            super.remove(key);
+        }
+    }
+}
@@ -22,21 +22,28 @@
 
 package org.wildfly.extension.undertow.handlers;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import io.undertow.server.HttpHandler;
-import io.undertow.server.handlers.resource.FileResourceManager;
-import io.undertow.server.handlers.resource.ResourceHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 import org.wildfly.extension.undertow.Constants;
 import org.wildfly.extension.undertow.UndertowLogger;
+import org.wildfly.extension.undertow.UndertowService;
 
 /**
  * @author <a href="mailto:tomaz.cerar@redhat.com">Tomaz Cerar</a> (c) 2013 Red Hat Inc.
@@ -66,6 +73,17 @@ public class FileHandler extends Handler {
             .setDefaultValue(new ModelNode(false))
             .build();
 
+    public static final AttributeDefinition CACHE_HITS = new SimpleAttributeDefinitionBuilder("cache-hits", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+    public static final AttributeDefinition CACHE_MISSES = new SimpleAttributeDefinitionBuilder("cache-misses", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+    public static final AttributeDefinition CACHE_REMOVALS = new SimpleAttributeDefinitionBuilder("cache-removals", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+    private static final List<AttributeDefinition> METRICS = Arrays.asList(CACHE_HITS, CACHE_MISSES, CACHE_REMOVALS);
+
     private FileHandler() {
         super(Constants.FILE);
     }
@@ -79,11 +97,43 @@ public class FileHandler extends Handler {
     public HttpHandler createHandler(final OperationContext context, ModelNode model) throws OperationFailedException {
         String path = PATH.resolveModelAttribute(context, model).asString();
         boolean directoryListing = DIRECTORY_LISTING.resolveModelAttribute(context, model).asBoolean();
+        int cacheBufferSize = CACHE_BUFFER_SIZE.resolveModelAttribute(context, model).asInt();
+        int cacheBuffers = CACHE_BUFFERS.resolveModelAttribute(context, model).asInt();
         UndertowLogger.ROOT_LOGGER.creatingFileHandler(path);
-        FileResourceManager resourceManager = new FileResourceManager(new File(path), 1024 * 1024);
-        ResourceHandler handler = new ResourceHandler();
-        handler.setResourceManager(resourceManager);
-        handler.setDirectoryListingEnabled(directoryListing);
-        return handler;
+        return new CachedFileHandler(new File(path), cacheBufferSize, cacheBuffers, directoryListing);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (AttributeDefinition metric : METRICS) {
+            resourceRegistration.registerMetric(metric, CacheMetricsHandler.INSTANCE);
+        }
+    }
+
+    /**
+     * Reads the cache statistics of a running file handler.
+     */
+    private static class CacheMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        static final CacheMetricsHandler INSTANCE = new CacheMetricsHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.HANDLER.append(name));
+            if (controller != null && controller.getValue() instanceof CachedFileHandler) {
+                final CachedFileHandler handler = (CachedFileHandler) controller.getValue();
+                final String metric = operation.require(NAME).asString();
+                if (CACHE_HITS.getName().equals(metric)) {
+                    context.getResult().set(handler.getCacheHits());
+                } else if (CACHE_MISSES.getName().equals(metric)) {
+                    context.getResult().set(handler.getCacheMisses());
+                } else if (CACHE_REMOVALS.getName().equals(metric)) {
+                    context.getResult().set(handler.getCacheRemovals());
+                }
+            }
+            context.stepCompleted();
+        }
     }
 }
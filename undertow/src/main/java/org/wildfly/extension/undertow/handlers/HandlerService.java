@@ -42,11 +42,16 @@ public class HandlerService implements Service<HttpHandler> {
     @Override
     public void start(StartContext context) throws StartException {
         UndertowLogger.ROOT_LOGGER.tracef("starting handler: %s", httpHandler);
+        if (httpHandler instanceof CachedFileHandler) {
+            ((CachedFileHandler) httpHandler).start();
+        }
     }
 
     @Override
     public void stop(StopContext context) {
-
+        if (httpHandler instanceof CachedFileHandler) {
+            ((CachedFileHandler) httpHandler).stop();
+        }
     }
 
     @Override
@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+
+import io.undertow.server.protocol.http.HttpOpenListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.xnio.BufferAllocator;
+import org.xnio.ByteBufferSlicePool;
+import org.xnio.ChannelListener;
+import org.xnio.ChannelListeners;
+import org.xnio.IoUtils;
+import org.xnio.OptionMap;
+import org.xnio.StreamConnection;
+import org.xnio.Xnio;
+import org.xnio.XnioWorker;
+import org.xnio.channels.AcceptingChannel;
+
+/**
+ * Tests of {@link CachedFileHandler}, serving a temporary directory over HTTP.
+ */
+public class CachedFileHandlerTestCase {
+
+    private static final String CONTENT = "Hello, world!";
+    private static final int BUFFER_SIZE = 1024;
+    private static final int BUFFERS = 16;
+
+    private File base;
+    private CachedFileHandler handler;
+    private XnioWorker worker;
+    private AcceptingChannel<StreamConnection> server;
+    private URL url;
+
+    @Before
+    public void setUp() throws Exception {
+        base = File.createTempFile("cached-file-handler", null);
+        base.delete();
+        base.mkdir();
+        write("index.txt", CONTENT);
+
+        handler = new CachedFileHandler(base, BUFFER_SIZE, BUFFERS, false);
+        final HttpOpenListener openListener = new HttpOpenListener(new ByteBufferSlicePool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, 4096, 10 * 4096), 4096);
+        openListener.setRootHandler(handler);
+        final ChannelListener<AcceptingChannel<StreamConnection>> acceptListener = ChannelListeners.openListenerAdapter(openListener);
+        worker = Xnio.getInstance().createWorker(OptionMap.EMPTY);
+        server = worker.createStreamConnectionServer(new InetSocketAddress("localhost", 0), acceptListener, OptionMap.EMPTY);
+        server.resumeAccepts();
+        url = url("index.txt");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        handler.stop();
+        IoUtils.safeClose(server);
+        worker.shutdownNow();
+        for (File file : base.listFiles()) {
+            file.delete();
+        }
+        base.delete();
+    }
+
+    @Test
+    public void testUnavailableUntilStarted() throws Exception {
+        assertEquals(503, get().getResponseCode());
+
+        handler.start();
+        final HttpURLConnection connection = get();
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(CONTENT, read(connection));
+    }
+
+    @Test
+    public void testUnavailableOnceStopped() throws Exception {
+        handler.start();
+        assertEquals(200, get().getResponseCode());
+
+        handler.stop();
+        assertEquals(503, get().getResponseCode());
+    }
+
+    @Test
+    public void testCacheHitsAndMisses() throws Exception {
+        handler.start();
+        assertEquals(CONTENT, read(get()));
+        assertEquals(0, handler.getCacheHits());
+        assertTrue(handler.getCacheMisses() > 0);
+
+        final long misses = handler.getCacheMisses();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(CONTENT, read(get()));
+        }
+        assertTrue(handler.getCacheHits() > 0);
+        // the content is read from disk only until it is cached
+        assertTrue(handler.getCacheMisses() - misses < 3);
+        assertEquals(0, handler.getCacheRemovals());
+    }
+
+    @Test
+    public void testChangedFileIsRemoved() throws Exception {
+        handler.start();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(CONTENT, read(get()));
+        }
+
+        final String changed = "Goodbye, world!";
+        final File file = write("index.txt", changed);
+        file.setLastModified(System.currentTimeMillis() + 10000);
+        // changes are either notified, or noticed once the cached metadata is older than its max age
+        final long timeout = System.currentTimeMillis() + 10000;
+        String content = read(get());
+        while (!changed.equals(content) && System.currentTimeMillis() < timeout) {
+            Thread.sleep(100);
+            content = read(get());
+        }
+        assertEquals(changed, content);
+        assertTrue(handler.getCacheRemovals() > 0);
+    }
+
+    @Test
+    public void testLargeFileIsNotCached() throws Exception {
+        final StringBuilder builder = new StringBuilder();
+        while (builder.length() <= BUFFER_SIZE * BUFFERS) {
+            builder.append(CONTENT);
+        }
+        final String content = builder.toString();
+        write("large.txt", content);
+
+        handler.start();
+        for (int i = 0; i < 3; i++) {
+            final HttpURLConnection connection = get(url("large.txt"));
+            assertEquals(200, connection.getResponseCode());
+            assertEquals(content, read(connection));
+        }
+        // files larger than a quarter of the cache are never added to it, but sent from disk using sendfile
+        assertEquals(0, handler.getCacheHits());
+    }
+
+    private File write(final String name, final String content) throws IOException {
+        final File file = new File(base, name);
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private URL url(final String name) throws IOException {
+        return new URL("http", "localhost", ((InetSocketAddress) server.getLocalAddress()).getPort(), "/" + name);
+    }
+
+    private HttpURLConnection get() throws IOException {
+        return get(url);
+    }
+
+    private static HttpURLConnection get(final URL url) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setUseCaches(false);
+        return connection;
+    }
+
+    private static String read(final HttpURLConnection connection) throws IOException {
+        final InputStream in = connection.getInputStream();
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+}